@@ -0,0 +1,69 @@
+-- ============================================
+-- Generador de notificaciones para pruebas de rendimiento
+-- ============================================
+-- Inserta N notificaciones sintéticas (por defecto 10.000.000) repartidas entre
+-- los usuarios existentes y a lo largo de los últimos dos años, en lotes que se
+-- confirman por separado. El 80 % quedan leídas y los tipos se reparten por igual.
+-- Al terminar ajusta notificaciones_seq para que la aplicación siga generando
+-- IDs libres.
+--
+-- Uso (sobre una base de datos de pruebas con las migraciones y los datos de db/seed aplicados):
+--   mysql -u root -p bookmycut < generar_notificaciones_10m.sql
+--   (o CALL generar_notificaciones(1000000, 100000); para otro volumen)
+-- ============================================
+
+SET SESSION cte_max_recursion_depth = 1000000;
+
+DROP PROCEDURE IF EXISTS generar_notificaciones;
+
+DELIMITER //
+CREATE PROCEDURE generar_notificaciones(IN total INT, IN lote INT)
+BEGIN
+    DECLARE hechos INT DEFAULT 0;
+    DECLARE base BIGINT;
+    DECLARE num_usuarios INT;
+
+    SELECT COALESCE(MAX(notificacion_id), 0) INTO base FROM notificaciones;
+    SELECT COUNT(*) INTO num_usuarios FROM usuarios;
+
+    WHILE hechos < total DO
+        INSERT INTO notificaciones
+            (notificacion_id, usuario_id, title, message, type, is_read, related_appointment_id, created_date)
+        WITH RECURSIVE seq (n) AS (
+            SELECT 1
+            UNION ALL
+            SELECT n + 1 FROM seq WHERE n < LEAST(lote, total - hechos)
+        ),
+        usuarios_numerados AS (
+            SELECT usuario_id, ROW_NUMBER() OVER (ORDER BY usuario_id) - 1 AS rn FROM usuarios
+        )
+        SELECT base + hechos + seq.n,
+               u.usuario_id,
+               CONCAT('Notificación de prueba ', hechos + seq.n),
+               'Mensaje generado para pruebas de rendimiento',
+               ELT(1 + (hechos + seq.n) % 7, 'INFO', 'SUCCESS', 'WARNING', 'ERROR',
+                   'APPOINTMENT_REMINDER', 'APPOINTMENT_CANCELLED', 'APPOINTMENT_CONFIRMED'),
+               (hechos + seq.n) % 10 < 8,
+               NULL,
+               NOW() - INTERVAL ((hechos + seq.n) * 7919 % (730 * 86400)) SECOND
+        FROM seq
+        JOIN usuarios_numerados u ON u.rn = (hechos + seq.n) % num_usuarios;
+
+        COMMIT;
+        SET hechos = hechos + LEAST(lote, total - hechos);
+    END WHILE;
+
+    -- El optimizador pooled de Hibernate usa el bloque next_val - 49 .. next_val (allocationSize = 50)
+    UPDATE notificaciones_seq SET next_val = (SELECT MAX(notificacion_id) + 50 FROM notificaciones);
+END //
+DELIMITER ;
+
+CALL generar_notificaciones(10000000, 100000);
+
+ANALYZE TABLE notificaciones;
+
+SELECT COUNT(*) AS total,
+       SUM(is_read) AS leidas,
+       MIN(created_date) AS primera,
+       MAX(created_date) AS ultima
+FROM notificaciones;
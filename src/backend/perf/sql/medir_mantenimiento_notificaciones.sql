@@ -0,0 +1,86 @@
+-- ============================================
+-- Medición de las operaciones de mantenimiento de notificaciones
+-- ============================================
+-- Ejecutar sobre el conjunto generado con generar_notificaciones_10m.sql.
+-- Compara el marcado como leídas fila a fila (lo que hacía markAllAsRead con
+-- saveAll) frente al UPDATE único, y mide un lote de la purga por antigüedad y
+-- la purga completa. Cada bloque muestra filas afectadas y milisegundos.
+--
+-- Uso:
+--   mysql -u root -p bookmycut < medir_mantenimiento_notificaciones.sql
+-- ============================================
+
+-- Usuario con más notificaciones sin leer
+SELECT usuario_id INTO @usuario
+FROM notificaciones WHERE is_read = FALSE
+GROUP BY usuario_id ORDER BY COUNT(*) DESC LIMIT 1;
+
+-- 1. Marcar como leídas una a una (equivalente a saveAll: un UPDATE por fila, en una transacción)
+DROP PROCEDURE IF EXISTS marcar_fila_a_fila;
+DELIMITER //
+CREATE PROCEDURE marcar_fila_a_fila(IN usuario BIGINT)
+BEGIN
+    DECLARE fin INT DEFAULT 0;
+    DECLARE id BIGINT;
+    DECLARE cur CURSOR FOR
+        SELECT notificacion_id FROM notificaciones WHERE usuario_id = usuario AND is_read = FALSE;
+    DECLARE CONTINUE HANDLER FOR NOT FOUND SET fin = 1;
+    OPEN cur;
+    bucle: LOOP
+        FETCH cur INTO id;
+        IF fin = 1 THEN LEAVE bucle; END IF;
+        UPDATE notificaciones SET is_read = TRUE WHERE notificacion_id = id;
+    END LOOP;
+    CLOSE cur;
+END //
+DELIMITER ;
+
+START TRANSACTION;
+SET @t = NOW(6);
+CALL marcar_fila_a_fila(@usuario);
+SELECT 'marcar leídas fila a fila' AS operacion,
+       TIMESTAMPDIFF(MICROSECOND, @t, NOW(6)) / 1000 AS ms;
+ROLLBACK;
+
+-- 2. Marcar como leídas con un único UPDATE (markAllAsReadByUserId)
+START TRANSACTION;
+SET @t = NOW(6);
+UPDATE notificaciones SET is_read = TRUE WHERE usuario_id = @usuario AND is_read = FALSE;
+SET @filas = ROW_COUNT();
+SELECT 'marcar leídas con UPDATE único' AS operacion, @filas AS filas,
+       TIMESTAMPDIFF(MICROSECOND, @t, NOW(6)) / 1000 AS ms;
+ROLLBACK;
+
+-- 3. Un lote de la purga de leídas de más de 90 días (deleteBatchOlderThan)
+EXPLAIN
+DELETE FROM notificaciones
+WHERE created_date < NOW() - INTERVAL 90 DAY AND is_read = TRUE
+ORDER BY created_date LIMIT 1000;
+
+START TRANSACTION;
+SET @t = NOW(6);
+DELETE FROM notificaciones
+WHERE created_date < NOW() - INTERVAL 90 DAY AND is_read = TRUE
+ORDER BY created_date LIMIT 1000;
+SET @filas = ROW_COUNT();
+SELECT 'purga: un lote de 1000' AS operacion, @filas AS filas,
+       TIMESTAMPDIFF(MICROSECOND, @t, NOW(6)) / 1000 AS ms;
+ROLLBACK;
+
+-- 4. Purga completa en una sola sentencia (referencia: bloquea durante todo el borrado)
+START TRANSACTION;
+SET @t = NOW(6);
+DELETE FROM notificaciones
+WHERE created_date < NOW() - INTERVAL 90 DAY AND is_read = TRUE;
+SET @filas = ROW_COUNT();
+SELECT 'purga: DELETE único' AS operacion, @filas AS filas,
+       TIMESTAMPDIFF(MICROSECOND, @t, NOW(6)) / 1000 AS ms;
+ROLLBACK;
+
+-- 5. Con la tabla particionada (migración opcional db/particionado/V2),
+--    eliminar un mes completo es una operación de metadatos:
+--      SET @t = NOW(6);
+--      ALTER TABLE notificaciones DROP PARTITION p_historico;
+--      SELECT TIMESTAMPDIFF(MICROSECOND, @t, NOW(6)) / 1000 AS ms;
+
+DROP PROCEDURE IF EXISTS marcar_fila_a_fila;
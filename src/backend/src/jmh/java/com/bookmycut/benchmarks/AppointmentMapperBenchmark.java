@@ -0,0 +1,54 @@
+package com.bookmycut.benchmarks;
+
+import com.bookmycut.dto.AppointmentDTO;
+import com.bookmycut.entities.Appointment;
+import com.bookmycut.mappers.AppointmentMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AppointmentMapper#toDTO} y {@link AppointmentMapper#toDTOList} sobre listas de distinto tamaño.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppointmentMapperBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    int size;
+
+    private final AppointmentMapper mapper = new AppointmentMapper();
+    private List<Appointment> appointments;
+    private Appointment single;
+
+    @Setup
+    public void setUp() {
+        appointments = BenchmarkFixtures.appointments(size);
+        single = appointments.get(0);
+    }
+
+    @Benchmark
+    public AppointmentDTO toDTO() {
+        return mapper.toDTO(single);
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> toDTOList() {
+        return mapper.toDTOList(appointments);
+    }
+}
@@ -0,0 +1,115 @@
+package com.bookmycut.benchmarks;
+
+import com.bookmycut.entities.Appointment;
+import com.bookmycut.entities.Availability;
+import com.bookmycut.entities.ScheduleException;
+import com.bookmycut.entities.User;
+import com.bookmycut.repositories.AppointmentRepository;
+import com.bookmycut.repositories.AvailabilityRepository;
+import com.bookmycut.repositories.ScheduleExceptionRepository;
+import com.bookmycut.service.AppointmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validaciones de {@link AppointmentService} previas a guardar una cita: excepciones de horario,
+ * franjas de disponibilidad del estilista y comprobación de solapamiento.
+ *
+ * Los repositorios devuelven listas precalculadas, de modo que se mide el coste en Java de recorrer
+ * las excepciones y franjas del día ({@code exceptions}, {@code availabilities}); la consulta de
+ * solapamiento en sí se resuelve en MySQL y queda fuera.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppointmentValidationBenchmark {
+
+    @Param({"0", "10"})
+    int exceptions;
+
+    @Param({"1", "8"})
+    int availabilities;
+
+    private AppointmentService service;
+    private MethodHandle validateAvailability;
+    private MethodHandle validateNoOverlap;
+    private User stylist;
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        stylist = BenchmarkFixtures.user(3L, "Estilista", User.Role.ESTILISTA);
+        date = LocalDate.of(2025, 6, 2);
+        startTime = LocalTime.of(17, 0);
+        endTime = LocalTime.of(17, 30);
+
+        // Excepciones de otras franjas del mismo día: se recorren todas sin rechazar la cita
+        List<ScheduleException> scheduleExceptions = new ArrayList<>();
+        for (int i = 0; i < exceptions; i++) {
+            ScheduleException exception = new ScheduleException();
+            exception.setDate(date);
+            exception.setType(i % 2 == 0 ? ScheduleException.ExceptionType.NO_DISPONIBLE
+                    : ScheduleException.ExceptionType.DISPONIBLE);
+            exception.setStartTime(LocalTime.of(9, 0).plusMinutes(15L * i));
+            exception.setEndTime(LocalTime.of(9, 10).plusMinutes(15L * i));
+            scheduleExceptions.add(exception);
+        }
+        // Franjas de una hora; la cita encaja en la última
+        List<Availability> slots = new ArrayList<>();
+        for (int i = availabilities - 1; i >= 0; i--) {
+            Availability availability = new Availability();
+            availability.setStylist(stylist);
+            availability.setDayOfWeek(DayOfWeek.MONDAY);
+            availability.setStartTime(LocalTime.of(17 - i, 0));
+            availability.setEndTime(LocalTime.of(18 - i, 0));
+            slots.add(availability);
+        }
+
+        service = new AppointmentService();
+        ReflectionTestUtils.setField(service, "scheduleExceptionRepository", BenchmarkFixtures.repository(
+                ScheduleExceptionRepository.class, Map.of("findByDateAndStylistOrNull", scheduleExceptions)));
+        ReflectionTestUtils.setField(service, "availabilityRepository", BenchmarkFixtures.repository(
+                AvailabilityRepository.class, Map.of("findByStylistAndDayOfWeek", slots)));
+        ReflectionTestUtils.setField(service, "appointmentRepository", BenchmarkFixtures.repository(
+                AppointmentRepository.class, Map.of("findOverlappingAppointments", List.<Appointment>of())));
+
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(AppointmentService.class, MethodHandles.lookup());
+        validateAvailability = lookup.findVirtual(AppointmentService.class, "validateStylistAvailability",
+                MethodType.methodType(void.class, User.class, LocalDate.class, LocalTime.class, LocalTime.class));
+        validateNoOverlap = lookup.findVirtual(AppointmentService.class, "validateNoOverlappingAppointments",
+                MethodType.methodType(void.class, User.class, LocalDate.class, LocalTime.class, LocalTime.class,
+                        Long.class));
+    }
+
+    @Benchmark
+    public void validateAvailabilityAndOverlap() throws Throwable {
+        validateAvailability.invokeExact(service, stylist, date, startTime, endTime);
+        validateNoOverlap.invokeExact(service, stylist, date, startTime, endTime, (Long) null);
+    }
+}
@@ -0,0 +1,103 @@
+package com.bookmycut.benchmarks;
+
+import com.bookmycut.entities.Appointment;
+import com.bookmycut.entities.ServiceOffer;
+import com.bookmycut.entities.User;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Datos y dobles de prueba compartidos por los benchmarks.
+ *
+ * Los repositorios se sustituyen por proxies dinámicos que devuelven listas precalculadas: así el
+ * benchmark mide solo el código Java de la aplicación, sin Mockito ni base de datos.
+ */
+final class BenchmarkFixtures {
+
+    static final String JWT_SECRET = "benchmark-secret-key-with-at-least-32-bytes";
+    static final long JWT_EXPIRATION_MS = 86400000L;
+
+    private static final String[] SERVICE_NAMES = {"Corte de pelo", "Tinte", "Peinado", "Barba", "Mechas"};
+
+    private BenchmarkFixtures() {
+    }
+
+    static User user(long id, String name, User.Role role) {
+        User user = new User();
+        user.setUserId(id);
+        user.setName(name);
+        user.setEmail("usuario" + id + "@bookmycut.com");
+        user.setRole(role);
+        return user;
+    }
+
+    static List<ServiceOffer> services(int count) {
+        List<ServiceOffer> services = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ServiceOffer service = new ServiceOffer();
+            service.setServiceId((long) i + 1);
+            service.setName(SERVICE_NAMES[i % SERVICE_NAMES.length]);
+            service.setDuration(30);
+            service.setUnitPrice(new BigDecimal("15.50").add(BigDecimal.valueOf(i)));
+            services.add(service);
+        }
+        return services;
+    }
+
+    /**
+     * Citas con semilla fija: cliente y estilista distintos por cita y entre uno y tres servicios.
+     */
+    static List<Appointment> appointments(int count) {
+        Random random = new Random(42);
+        List<ServiceOffer> catalog = services(SERVICE_NAMES.length);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        List<Appointment> appointments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setAppointmentId((long) i + 1);
+            appointment.setClient(user(1000L + random.nextInt(500), "Cliente " + i, User.Role.CLIENTE));
+            appointment.setStylist(user(1L + random.nextInt(10), "Estilista " + i, User.Role.ESTILISTA));
+            appointment.setDate(start.plusDays(random.nextInt(365)));
+            LocalTime startTime = LocalTime.of(9 + random.nextInt(10), random.nextBoolean() ? 0 : 30);
+            appointment.setStartTime(startTime);
+            appointment.setEndTime(startTime.plusMinutes(30));
+            appointment.setClientPhone("6" + (10000000 + random.nextInt(89999999)));
+            appointment.setTotalPrice(new BigDecimal("25.00"));
+            int serviceCount = 1 + random.nextInt(3);
+            appointment.setServices(new ArrayList<>(catalog.subList(0, serviceCount)));
+            appointments.add(appointment);
+        }
+        return appointments;
+    }
+
+    /**
+     * Repositorio falso: los métodos incluidos en {@code results} devuelven la lista indicada y el
+     * resto lista vacía (o null si no devuelven una lista).
+     */
+    @SuppressWarnings("unchecked")
+    static <R> R repository(Class<R> type, Map<String, List<?>> results) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return type.getSimpleName() + "(benchmark)";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    List<?> result = results.get(method.getName());
+                    if (result != null) {
+                        return result;
+                    }
+                    return List.class.isAssignableFrom(method.getReturnType()) ? List.of() : null;
+            }
+        });
+    }
+}
@@ -0,0 +1,196 @@
+package com.bookmycut.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.bookmycut.logging.LogSamplingTurboFilter;
+import com.bookmycut.logging.RequestIdFilter;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.hibernate.engine.jdbc.internal.FormatStyle;
+import org.hibernate.engine.jdbc.internal.Formatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de los logs de una reserva en el hilo de la petición.
+ *
+ * <ul>
+ *   <li>{@code before}: configuración anterior. INFO de intención en controlador y servicio, consola síncrona
+ *       con el patrón de Spring Boot y {@code show-sql}/{@code format_sql} activos (cada sentencia formateada
+ *       e impresa en stdout). En un fallo inesperado, la traza completa se escribe en el controlador, en el
+ *       servicio y en {@code GlobalExceptionHandler}.</li>
+ *   <li>{@code json-sync}: configuración actual, con JSON escrito en el propio hilo. Solo queda el INFO
+ *       del resultado, sin SQL, y un único punto de log por fallo.</li>
+ *   <li>{@code json-async}: configuración actual completa. La codificación pasa al hilo del AsyncAppender;
+ *       la diferencia con {@code json-sync} es CPU que se traslada, no que se ahorra.</li>
+ * </ul>
+ *
+ * La salida se descarta ({@link OutputStream#nullOutputStream()}): el coste real de E/S en consola o en
+ * disco se suma a {@code before} y {@code json-sync}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingLoggingBenchmark {
+
+    /** Patrón de consola por defecto de Spring Boot 3.2 (sin colores). */
+    private static final String BOOT_CONSOLE_PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p 12345 --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    /** Sentencias de una reserva pública (clientes, servicios, horario, solapes, inserciones y outbox). */
+    private static final String[] BOOKING_SQL = {
+            "select u1_0.usuario_id,u1_0.active,u1_0.created_date,u1_0.email,u1_0.last_modified_date,u1_0.name,"
+                    + "u1_0.password,u1_0.phone,u1_0.role,u1_0.username from usuarios u1_0 where u1_0.email=?",
+            "select u1_0.usuario_id,u1_0.active,u1_0.created_date,u1_0.email,u1_0.last_modified_date,u1_0.name,"
+                    + "u1_0.password,u1_0.phone,u1_0.role,u1_0.username from usuarios u1_0 where u1_0.usuario_id=?",
+            "select s1_0.servicio_id,s1_0.created_date,s1_0.description,s1_0.duration,s1_0.last_modified_date,"
+                    + "s1_0.name,s1_0.precio_unitario from servicios s1_0 where s1_0.servicio_id in(?,?)",
+            "select e1_0.excep_horario_id,e1_0.admin_id,e1_0.date,e1_0.estilista_id,e1_0.hora_fin,e1_0.hora_inicio,"
+                    + "e1_0.reason,e1_0.type from excepciones_horario e1_0 where e1_0.date=? "
+                    + "and (e1_0.estilista_id=? or e1_0.estilista_id is null)",
+            "select d1_0.disp_id,d1_0.dia_semana,d1_0.estilista_id,d1_0.hora_fin,d1_0.hora_inicio "
+                    + "from disponibilidades d1_0 where d1_0.estilista_id=? and d1_0.dia_semana=?",
+            "select c1_0.cita_id,c1_0.cliente_id,c1_0.created_date,c1_0.date,c1_0.estilista_id,c1_0.hora_fin,"
+                    + "c1_0.hora_inicio,c1_0.last_modified_date,c1_0.precio_total,c1_0.status,c1_0.telefono_cliente "
+                    + "from citas c1_0 where c1_0.estilista_id=? and c1_0.date=? and c1_0.status<>? "
+                    + "and c1_0.hora_inicio<? and c1_0.hora_fin>?",
+            "insert into citas (cliente_id,created_date,date,estilista_id,hora_fin,hora_inicio,last_modified_date,"
+                    + "precio_total,status,telefono_cliente) values (?,?,?,?,?,?,?,?,?,?)",
+            "insert into cita_servicio (cita_id,servicio_id) values (?,?)",
+            "insert into eventos_outbox (aggregate_id,attempts,created_date,event_type,next_attempt_at,payload,"
+                    + "status) values (?,?,?,?,?,?,?)"
+    };
+
+    @Param({"before", "json-sync", "json-async"})
+    String mode;
+
+    private LoggerContext loggerContext;
+    private Logger controllerLogger;
+    private Logger serviceLogger;
+    private Logger handlerLogger;
+    private PrintStream stdout;
+    private Formatter sqlFormatter;
+    private RuntimeException failure;
+    private long appointmentId;
+
+    @Setup
+    public void setUp() {
+        loggerContext = new LoggerContext();
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+
+        OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>();
+        console.setContext(loggerContext);
+        console.setOutputStream(OutputStream.nullOutputStream());
+        console.setEncoder(mode.equals("before") ? patternEncoder() : jsonEncoder());
+        console.start();
+
+        if (mode.equals("json-async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(loggerContext);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(console);
+            async.start();
+            root.addAppender(async);
+        } else {
+            root.addAppender(console);
+        }
+        if (!mode.equals("before")) {
+            LogSamplingTurboFilter sampling = new LogSamplingTurboFilter();
+            sampling.setContext(loggerContext);
+            sampling.setRules("com.bookmycut.service.NotificationService=10,"
+                    + "com.bookmycut.controller.NotificationController=10");
+            sampling.start();
+            loggerContext.addTurboFilter(sampling);
+            MDC.put(RequestIdFilter.MDC_KEY, "3f2b6c1e-8d7a-4c55-9e0b-2a1d4f6b7c80");
+        }
+
+        controllerLogger = loggerContext.getLogger("com.bookmycut.controller.AppointmentController");
+        serviceLogger = loggerContext.getLogger("com.bookmycut.service.AppointmentService");
+        handlerLogger = loggerContext.getLogger("com.bookmycut.exception.GlobalExceptionHandler");
+        stdout = new PrintStream(OutputStream.nullOutputStream());
+        sqlFormatter = FormatStyle.BASIC.getFormatter();
+
+        // Traza de una excepción de JPA típica: unas 80 tramas entre Tomcat, Spring y Hibernate
+        failure = new IllegalStateException("could not execute statement");
+        StackTraceElement[] frames = new StackTraceElement[80];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = new StackTraceElement("org.springframework.frames.Frame" + i, "invoke", "Frame.java", i + 1);
+        }
+        failure.setStackTrace(frames);
+    }
+
+    @TearDown
+    public void tearDown() {
+        MDC.clear();
+        loggerContext.stop();
+    }
+
+    private Encoder<ILoggingEvent> patternEncoder() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(BOOT_CONSOLE_PATTERN);
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> jsonEncoder() {
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(loggerContext);
+        encoder.start();
+        return encoder;
+    }
+
+    @Benchmark
+    public long booking() {
+        long id = ++appointmentId;
+        if (mode.equals("before")) {
+            controllerLogger.info("Creando nueva cita pública para cliente: {} ({})", "Lucía García", "lucia@bookmycut.com");
+            serviceLogger.info("Creating new appointment for client ID: {} and stylist ID: {}", 42L, 3L);
+            for (String sql : BOOKING_SQL) {
+                stdout.println("Hibernate: " + sqlFormatter.format(sql));
+            }
+            serviceLogger.info("Appointment created successfully with ID: {}", id);
+        } else {
+            controllerLogger.debug("Creando nueva cita pública para cliente: {} ({})", "Lucía García", "lucia@bookmycut.com");
+            serviceLogger.debug("Creating new appointment for client ID: {} and stylist ID: {}", 42L, 3L);
+            serviceLogger.info("Appointment created successfully with ID: {}", id);
+        }
+        return id;
+    }
+
+    @Benchmark
+    public long failedBooking() {
+        long id = ++appointmentId;
+        if (mode.equals("before")) {
+            serviceLogger.error("Error creating appointment: {}", failure.getMessage(), failure);
+            controllerLogger.error("Error al crear cita: {}", failure.getMessage(), failure);
+        }
+        handlerLogger.error("Error inesperado: {}", failure.getMessage(), failure);
+        return id;
+    }
+}
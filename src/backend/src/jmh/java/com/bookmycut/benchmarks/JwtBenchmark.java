@@ -0,0 +1,102 @@
+package com.bookmycut.benchmarks;
+
+import com.bookmycut.entities.RevokedToken;
+import com.bookmycut.repositories.RevokedTokenRepository;
+import com.bookmycut.security.JwtAuthenticationFilter;
+import com.bookmycut.service.TokenRevocationService;
+import com.bookmycut.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de la autenticación JWT: generar un token (login), validarlo y extraer sus claims, y el
+ * recorrido completo de {@link JwtAuthenticationFilter} con la comprobación de revocación
+ * (filtro de Bloom con 10.000 tokens revocados cargados).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String EMAIL = "cliente@bookmycut.com";
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", BenchmarkFixtures.JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", BenchmarkFixtures.JWT_EXPIRATION_MS);
+        token = jwtUtil.generateToken(EMAIL, 5L, "CLIENTE");
+
+        List<RevokedToken> revoked = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 10000; i++) {
+            RevokedToken revokedToken = new RevokedToken();
+            revokedToken.setTokenId(UUID.randomUUID().toString());
+            revokedToken.setRevokedAt(now);
+            revokedToken.setExpiresAt(now.plusDays(1));
+            revoked.add(revokedToken);
+        }
+        TokenRevocationService revocationService = new TokenRevocationService();
+        ReflectionTestUtils.setField(revocationService, "revokedTokenRepository", BenchmarkFixtures.repository(
+                RevokedTokenRepository.class, Map.of("findByExpiresAtAfter", revoked)));
+        ReflectionTestUtils.setField(revocationService, "jwtUtil", jwtUtil);
+        revocationService.loadRevocations();
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "tokenRevocationService", revocationService);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(EMAIL, 5L, "CLIENTE");
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return jwtUtil.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Authentication authenticationFilter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/citas");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.bookmycut.benchmarks;
+
+import com.bookmycut.util.PhoneNumberValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PhoneNumberValidator#isValid} con los formatos que llegan desde los formularios.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhoneNumberValidatorBenchmark {
+
+    @Param({"612345678", "+34 612 345 678", "0034612345678", "12345"})
+    String phone;
+
+    private final PhoneNumberValidator validator = new PhoneNumberValidator();
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(phone, null);
+    }
+}
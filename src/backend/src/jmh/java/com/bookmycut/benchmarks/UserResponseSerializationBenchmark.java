@@ -0,0 +1,126 @@
+package com.bookmycut.benchmarks;
+
+import com.bookmycut.config.JacksonConfig;
+import com.bookmycut.dto.StylistServiceDTO;
+import com.bookmycut.dto.UserSummaryDTO;
+import com.bookmycut.entities.ServiceOffer;
+import com.bookmycut.entities.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción y serialización JSON de las respuestas de {@code GET /usuarios} y
+ * {@code GET /estilistas/{id}/servicios}, desde las entidades hasta los bytes del cuerpo.
+ *
+ * <ul>
+ *   <li>{@code before}: un {@link HashMap} por fila y el {@link ObjectMapper} anterior, sin Blackbird.</li>
+ *   <li>{@code after}: records ({@link UserSummaryDTO}, {@link StylistServiceDTO}) y el {@link ObjectMapper}
+ *       de {@link JacksonConfig}.</li>
+ * </ul>
+ *
+ * Asignación de memoria por operación: {@code -Djmh.args="-prof gc"} ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserResponseSerializationBenchmark {
+
+    @Param({"before", "after"})
+    String mode;
+
+    /** Filas de cada respuesta: usuarios del listado y servicios del estilista. */
+    @Param({"10", "100"})
+    int rows;
+
+    private ObjectMapper objectMapper;
+    private List<User> userList;
+    private List<ServiceOffer> serviceList;
+
+    @Setup
+    public void setUp() {
+        if (mode.equals("before")) {
+            objectMapper = Jackson2ObjectMapperBuilder.json()
+                    .modules(new JavaTimeModule())
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            objectMapper.configure(DeserializationFeature.READ_ENUMS_USING_TO_STRING, true);
+            objectMapper.configure(SerializationFeature.WRITE_ENUMS_USING_TO_STRING, true);
+        } else {
+            objectMapper = new JacksonConfig().objectMapper(Jackson2ObjectMapperBuilder.json());
+        }
+        userList = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            User user = BenchmarkFixtures.user(i + 1L, "Usuario Peña " + i,
+                    i % 4 == 0 ? User.Role.ESTILISTA : User.Role.CLIENTE);
+            user.setUsername("usuario" + i);
+            user.setActive(true);
+            user.setPhone("6" + (10000000 + i));
+            userList.add(user);
+        }
+        serviceList = BenchmarkFixtures.services(rows);
+    }
+
+    @Benchmark
+    public byte[] allUsers() throws JsonProcessingException {
+        if (mode.equals("before")) {
+            List<Map<String, Object>> response = userList.stream()
+                    .map(user -> {
+                        Map<String, Object> userMap = new HashMap<>();
+                        userMap.put("usuarioId", user.getUserId());
+                        userMap.put("nombre", user.getName());
+                        userMap.put("username", user.getUsername());
+                        userMap.put("email", user.getEmail());
+                        userMap.put("rol", user.getRole() != null ? user.getRole().name() : null);
+                        userMap.put("activo", user.getActive());
+                        userMap.put("phone", user.getPhone());
+                        return userMap;
+                    })
+                    .toList();
+            return objectMapper.writeValueAsBytes(response);
+        }
+        return objectMapper.writeValueAsBytes(userList.stream().map(UserSummaryDTO::from).toList());
+    }
+
+    @Benchmark
+    public byte[] stylistServices() throws JsonProcessingException {
+        if (mode.equals("before")) {
+            List<Map<String, Object>> response = serviceList.stream()
+                    .map(service -> {
+                        Map<String, Object> serviceMap = new HashMap<>();
+                        serviceMap.put("serviceId", service.getServiceId());
+                        serviceMap.put("name", service.getName());
+                        serviceMap.put("description", service.getDescription() != null ? service.getDescription() : "");
+                        serviceMap.put("duration", service.getDuration());
+                        serviceMap.put("unitPrice", service.getUnitPrice());
+                        return serviceMap;
+                    })
+                    .toList();
+            return objectMapper.writeValueAsBytes(response);
+        }
+        return objectMapper.writeValueAsBytes(serviceList.stream().map(StylistServiceDTO::from).toList());
+    }
+}
@@ -42,8 +42,9 @@ public class CorsConfig {
                 registry.addMapping("/**")
                         .allowedOriginPatterns(allowedOrigins) // Usa patterns para más flexibilidad
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")
-                        .allowedHeaders("Authorization", "Content-Type", "X-Requested-With", "Accept", "Origin")
-                        .exposedHeaders("Authorization", "Content-Type", "X-Total-Count")
+                        .allowedHeaders("Authorization", "Content-Type", "X-Requested-With", "Accept", "Origin", "Idempotency-Key")
+                        .exposedHeaders("Authorization", "Content-Type", "X-Total-Count", "X-SQL-Statements", "X-SQL-Time-Ms", "X-Request-Id",
+                                "Idempotent-Replayed")
                         .allowCredentials(true)
                         .maxAge(3600); // Cache preflight por 1 hora
             }
@@ -78,6 +79,7 @@ public class CorsConfig {
                 "X-Requested-With",
                 "Accept",
                 "Origin",
+                "Idempotency-Key",
                 "Access-Control-Request-Method",
                 "Access-Control-Request-Headers"
         ));
@@ -86,7 +88,11 @@ public class CorsConfig {
         corsConfig.setExposedHeaders(Arrays.asList(
                 "Authorization",
                 "Content-Type",
-                "X-Total-Count"
+                "X-Total-Count",
+                "X-SQL-Statements",
+                "X-SQL-Time-Ms",
+                "X-Request-Id",
+                "Idempotent-Replayed"
         ));
         
         corsConfig.setAllowCredentials(true);
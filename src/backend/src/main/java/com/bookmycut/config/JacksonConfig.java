@@ -3,6 +3,7 @@ package com.bookmycut.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -12,7 +13,11 @@ import org.springframework.http.converter.json.MappingJackson2HttpMessageConvert
 import java.nio.charset.StandardCharsets;
 
 /**
- * Configuración de Jackson para asegurar UTF-8 y manejo correcto de enums
+ * Configuración de Jackson para asegurar UTF-8 y manejo correcto de enums.
+ *
+ * Blackbird sustituye el acceso por reflexión a getters, setters y constructores por lambdas
+ * generadas con {@code LambdaMetafactory}, que el JIT puede inlinear. Si no puede generarlas
+ * para una clase, Jackson sigue usando reflexión para ella.
  */
 @Configuration
 public class JacksonConfig {
@@ -21,7 +26,7 @@ public class JacksonConfig {
     @Primary
     public ObjectMapper objectMapper(Jackson2ObjectMapperBuilder builder) {
         ObjectMapper objectMapper = builder
-                .modules(new JavaTimeModule())
+                .modules(new JavaTimeModule(), new BlackbirdModule())
                 .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
                 .build();
         
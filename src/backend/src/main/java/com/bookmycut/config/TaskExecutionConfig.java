@@ -0,0 +1,86 @@
+package com.bookmycut.config;
+
+import com.bookmycut.logging.MdcTaskDecorator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.SimpleAsyncTaskSchedulerBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Ejecutor de los métodos {@code @Async} y planificador de las tareas {@code @Scheduled}.
+ *
+ * Spring Boot no crea los suyos ({@code applicationTaskExecutor} y {@code taskScheduler}) cuando ya hay
+ * otros ejecutores y planificadores en el contexto, y la mensajería de WebSocket define los de sus canales y
+ * {@code messageBrokerTaskScheduler}. Sin estos beans, las tareas {@code @Scheduled} compartirían el
+ * planificador de latidos del broker y los métodos {@code @Async} usarían un ejecutor sin límite de hilos.
+ *
+ * Se construyen con los builders de Spring Boot, así que respetan {@code spring.task.execution.*} y
+ * {@code spring.task.scheduling.*}. Con {@code spring.threads.virtual.enabled=true} en Java 21 ambos usan
+ * hilos virtuales; en otro caso, pools de hilos de plataforma. Las tareas {@code @Async} se decoran con
+ * {@link MdcTaskDecorator} para conservar el MDC y el salón de la petición que las lanza.
+ */
+@Configuration
+public class TaskExecutionConfig implements AsyncConfigurer {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MdcTaskDecorator mdcTaskDecorator;
+
+    @Autowired
+    private SimpleAsyncTaskExecutorBuilder simpleAsyncTaskExecutorBuilder;
+
+    @Autowired
+    private ThreadPoolTaskExecutorBuilder threadPoolTaskExecutorBuilder;
+
+    @Autowired
+    private SimpleAsyncTaskSchedulerBuilder simpleAsyncTaskSchedulerBuilder;
+
+    @Autowired
+    private ThreadPoolTaskSchedulerBuilder threadPoolTaskSchedulerBuilder;
+
+    @Bean(name = "applicationTaskExecutor")
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return simpleAsyncTaskExecutorBuilder.taskDecorator(mdcTaskDecorator).build();
+        }
+        return threadPoolTaskExecutorBuilder.taskDecorator(mdcTaskDecorator).build();
+    }
+
+    @Bean(name = "taskScheduler")
+    public TaskScheduler taskScheduler() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return simpleAsyncTaskSchedulerBuilder.build();
+        }
+        return threadPoolTaskSchedulerBuilder.build();
+    }
+
+    /**
+     * Planificador propio de {@code NotificationRetentionJob}: la purga puede durar minutos y duerme entre
+     * lotes, así que no ocupa los hilos de {@code taskScheduler} que necesitan las tareas frecuentes.
+     */
+    @Bean(name = "notificationRetentionScheduler")
+    public TaskScheduler notificationRetentionScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("notification-retention-");
+        return scheduler;
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return applicationTaskExecutor();
+    }
+}
@@ -0,0 +1,97 @@
+package com.bookmycut.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de las sesiones WebSocket: sesiones abiertas, mensajes pendientes en los canales de entrada y
+ * salida, y sesiones cerradas por ser consumidores lentos (límite de buffer o de tiempo de envío superado).
+ */
+@Component
+public class WebSocketSessionMetrics implements WebSocketHandlerDecoratorFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketSessionMetrics.class);
+
+    private final AtomicInteger openSessions = new AtomicInteger();
+    private final LongAdder openedSessions = new LongAdder();
+    private final LongAdder slowConsumersDropped = new LongAdder();
+
+    @Autowired
+    @Qualifier("clientInboundChannelExecutor")
+    private ObjectProvider<ThreadPoolTaskExecutor> inboundExecutor;
+
+    @Autowired
+    @Qualifier("clientOutboundChannelExecutor")
+    private ObjectProvider<ThreadPoolTaskExecutor> outboundExecutor;
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                openSessions.incrementAndGet();
+                openedSessions.increment();
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                onClosed(session.getId(), closeStatus);
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    void onClosed(String sessionId, CloseStatus closeStatus) {
+        openSessions.decrementAndGet();
+        // Spring cierra con SESSION_NOT_RELIABLE cuando se supera el límite de buffer o de tiempo de envío
+        if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(closeStatus)) {
+            slowConsumersDropped.increment();
+            logger.warn("Sesión WebSocket {} cerrada por consumidor lento", sessionId);
+        }
+    }
+
+    public int getOpenSessions() {
+        return openSessions.get();
+    }
+
+    public long getOpenedSessions() {
+        return openedSessions.sum();
+    }
+
+    public long getSlowConsumersDropped() {
+        return slowConsumersDropped.sum();
+    }
+
+    /**
+     * Mensajes recibidos de los clientes pendientes de procesar.
+     */
+    public int getInboundQueueDepth() {
+        return queueDepth(inboundExecutor);
+    }
+
+    /**
+     * Mensajes pendientes de enviar a los clientes.
+     */
+    public int getOutboundQueueDepth() {
+        return queueDepth(outboundExecutor);
+    }
+
+    private int queueDepth(ObjectProvider<ThreadPoolTaskExecutor> executor) {
+        ThreadPoolTaskExecutor taskExecutor = executor.getIfAvailable();
+        return taskExecutor != null ? taskExecutor.getQueueSize() : 0;
+    }
+}
@@ -9,6 +9,7 @@ import com.bookmycut.entities.User;
 import com.bookmycut.repositories.UserRepository;
 import com.bookmycut.service.AppointmentService;
 import com.bookmycut.service.AuthService;
+import com.bookmycut.service.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -55,6 +56,9 @@ public class AppointmentController {
     @Autowired
     private AuthService authService;
     
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
     @Operation(
             summary = "Obtener citas",
             description = """
@@ -105,7 +109,7 @@ public class AppointmentController {
             @RequestParam(defaultValue = "false") boolean paginated,
             Authentication authentication) {
         
-        logger.info("Solicitando citas - ClienteId: {}, EstilistaId: {}, Fecha: {}, NombreCliente: {}, NombreEstilista: {}, NombreServicio: {}, Estado: {}", 
+        logger.debug("Solicitando citas - ClienteId: {}, EstilistaId: {}, Fecha: {}, NombreCliente: {}, NombreEstilista: {}, NombreServicio: {}, Estado: {}", 
                 clienteId, estilistaId, fecha, nombreCliente, nombreEstilista, nombreServicio, estado);
         
         try {
@@ -127,7 +131,7 @@ public class AppointmentController {
             
             // Si no hay autenticación, solo permitir filtrar por estilista y fecha (para ver disponibilidad)
             if (user == null) {
-                logger.info("Solicitud sin autenticación - filtrando por estilistaId y fecha");
+                logger.debug("Solicitud sin autenticación - filtrando por estilistaId y fecha");
                 List<AppointmentDTO> appointments;
                 if (estilistaId != null && fecha != null) {
                     appointments = appointmentService.getAppointmentsByStylistAndDate(estilistaId, fecha);
@@ -236,30 +240,22 @@ public class AppointmentController {
             @Parameter(description = "ID de la cita", required = true, example = "1")
             @PathVariable Long id, 
             Authentication authentication) {
-        logger.info("Solicitando cita con ID: {}", id);
-        try {
-            AppointmentDTO appointment = appointmentService.getAppointmentById(id);
-            
-            // Verificar permisos
-            String username = authentication.getName();
-            User user = userRepository.findByUsernameOrEmail(username)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-            
-            if (user.getRole() != User.Role.ADMINISTRADOR &&
-                !appointment.getClientId().equals(user.getUserId()) &&
-                !appointment.getStylistId().equals(user.getUserId())) {
-                logger.warn("Usuario {} intentó acceder a cita {} sin permisos", username, id);
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-            }
-            
-            return ResponseEntity.ok(appointment);
-        } catch (com.bookmycut.exception.ResourceNotFoundException e) {
-            logger.warn("Cita no encontrada con ID: {}", id);
-            throw e; // El GlobalExceptionHandler lo manejará
-        } catch (Exception e) {
-            logger.error("Error al obtener cita con ID {}: {}", id, e.getMessage(), e);
-            throw e; // El GlobalExceptionHandler lo manejará
+        logger.debug("Solicitando cita con ID: {}", id);
+        AppointmentDTO appointment = appointmentService.getAppointmentById(id);
+
+        // Verificar permisos
+        String username = authentication.getName();
+        User user = userRepository.findByUsernameOrEmail(username)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+
+        if (user.getRole() != User.Role.ADMINISTRADOR &&
+            !appointment.getClientId().equals(user.getUserId()) &&
+            !appointment.getStylistId().equals(user.getUserId())) {
+            logger.warn("Usuario {} intentó acceder a cita {} sin permisos", username, id);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
+
+        return ResponseEntity.ok(appointment);
     }
     
     @Operation(
@@ -268,6 +264,10 @@ public class AppointmentController {
                     Crea una nueva cita sin necesidad de autenticación. 
                     Si el cliente no existe, se crea automáticamente un usuario CLIENTE.
                     Solo se requiere proporcionar nombre, email y teléfono del cliente.
+                    
+                    Con la cabecera `Idempotency-Key`, los reintentos con la misma clave reciben la respuesta
+                    original (cabecera `Idempotent-Replayed: true`) sin crear otra cita; si se creó un usuario
+                    con contraseña, con un token nuevo.
                     """
     )
     @ApiResponses(value = {
@@ -289,68 +289,81 @@ public class AppointmentController {
     })
     @PostMapping("/public")
     public ResponseEntity<PublicAppointmentResponseDTO> createPublicCita(
+            @Parameter(description = "Clave única por reserva (p. ej. un UUID) para reintentar sin duplicarla")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "Datos de la cita pública a crear",
                     required = true,
                     content = @Content(schema = @Schema(implementation = PublicAppointmentCreateDTO.class))
             )
             @Valid @RequestBody PublicAppointmentCreateDTO publicDTO) {
-        logger.info("Creando nueva cita pública para cliente: {} ({})", publicDTO.getClientName(), publicDTO.getClientEmail());
-        try {
-            // Buscar o crear usuario CLIENTE automáticamente
-            AuthService.ClientCreationResult clientResult = authService.findOrCreateClientUserWithResult(
-                    publicDTO.getClientName(),
-                    publicDTO.getClientEmail(),
-                    publicDTO.getClientPhone(),
-                    publicDTO.getClientPassword()
-            );
-            
-            User clientUser = clientResult.getUser();
-            
-            // Convertir PublicAppointmentCreateDTO a AppointmentCreateDTO
-            AppointmentCreateDTO createDTO = new AppointmentCreateDTO();
-            createDTO.setClientId(clientUser.getUserId());
-            createDTO.setStylistId(publicDTO.getStylistId());
-            createDTO.setDate(publicDTO.getDate());
-            createDTO.setStartTime(publicDTO.getStartTime());
-            createDTO.setEndTime(publicDTO.getEndTime());
-            createDTO.setClientPhone(publicDTO.getClientPhone());
-            createDTO.setTotalPrice(publicDTO.getTotalPrice());
-            createDTO.setServiceIds(publicDTO.getServiceIds());
-            
-            AppointmentDTO createdAppointment = appointmentService.createAppointment(createDTO);
-            logger.info("Cita pública creada exitosamente con ID: {}", createdAppointment.getAppointmentId());
-            
-            // Si se creó un nuevo usuario con contraseña, generar token JWT
-            PublicAppointmentResponseDTO response = new PublicAppointmentResponseDTO();
-            response.setAppointment(createdAppointment);
-            
-            if (clientResult.wasNewUser() && publicDTO.getClientPassword() != null && !publicDTO.getClientPassword().trim().isEmpty()) {
-                // Generar token para el nuevo usuario
-                String tokenSubject = clientUser.getUsername() != null ? clientUser.getUsername() : clientUser.getEmail();
-                String token = authService.getJwtUtil().generateToken(tokenSubject, clientUser.getUserId(), 
-                        List.of("ROLE_" + clientUser.getRole().name()));
-                
-                response.setToken(token);
-                response.setAuth(new AuthResponse(
-                        token,
-                        "Bearer",
-                        clientUser.getUserId(),
-                        clientUser.getName(),
-                        clientUser.getEmail() != null ? clientUser.getEmail() : "",
-                        clientUser.getRole()
-                ));
-                logger.info("Token JWT generado para nuevo usuario CLIENTE con ID: {}", clientUser.getUserId());
-            }
-            
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-        } catch (com.bookmycut.exception.BadRequestException | com.bookmycut.exception.ResourceNotFoundException e) {
-            logger.warn("Error al crear cita pública: {}", e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            logger.error("Error al crear cita pública: {}", e.getMessage(), e);
-            throw e;
+        return idempotencyService.execute(idempotencyKey, "POST /citas/public", publicDTO,
+                PublicAppointmentResponseDTO.class, () -> createPublicAppointment(publicDTO),
+                PublicAppointmentResponseDTO::withoutToken, this::reissuePublicToken);
+    }
+
+    /**
+     * Al repetir una cita pública que creó un usuario con contraseña, emite un token nuevo: la respuesta
+     * se guarda sin él.
+     */
+    private PublicAppointmentResponseDTO reissuePublicToken(PublicAppointmentResponseDTO stored) {
+        if (stored.getAuth() != null) {
+            AuthResponse auth = authService.reissueToken(stored.getAuth().getUserId());
+            stored.setToken(auth.getToken());
+            stored.setAuth(auth);
+        }
+        return stored;
+    }
+
+    private ResponseEntity<PublicAppointmentResponseDTO> createPublicAppointment(PublicAppointmentCreateDTO publicDTO) {
+        logger.debug("Creando nueva cita pública para cliente: {} ({})", publicDTO.getClientName(), publicDTO.getClientEmail());
+        // Buscar o crear usuario CLIENTE automáticamente
+        AuthService.ClientCreationResult clientResult = authService.findOrCreateClientUserWithResult(
+                publicDTO.getClientName(),
+                publicDTO.getClientEmail(),
+                publicDTO.getClientPhone(),
+                publicDTO.getClientPassword()
+        );
+
+        User clientUser = clientResult.getUser();
+
+        // Convertir PublicAppointmentCreateDTO a AppointmentCreateDTO
+        AppointmentCreateDTO createDTO = new AppointmentCreateDTO();
+        createDTO.setClientId(clientUser.getUserId());
+        createDTO.setStylistId(publicDTO.getStylistId());
+        createDTO.setDate(publicDTO.getDate());
+        createDTO.setStartTime(publicDTO.getStartTime());
+        createDTO.setEndTime(publicDTO.getEndTime());
+        createDTO.setClientPhone(publicDTO.getClientPhone());
+        createDTO.setTotalPrice(publicDTO.getTotalPrice());
+        createDTO.setServiceIds(publicDTO.getServiceIds());
+
+        AppointmentDTO createdAppointment = appointmentService.createAppointment(createDTO);
+        logger.info("Cita pública creada exitosamente con ID: {}", createdAppointment.getAppointmentId());
+
+        // Si se creó un nuevo usuario con contraseña, generar token JWT
+        PublicAppointmentResponseDTO response = new PublicAppointmentResponseDTO();
+        response.setAppointment(createdAppointment);
+
+        if (clientResult.wasNewUser() && publicDTO.getClientPassword() != null && !publicDTO.getClientPassword().trim().isEmpty()) {
+            // Generar token para el nuevo usuario
+            String tokenSubject = clientUser.getUsername() != null ? clientUser.getUsername() : clientUser.getEmail();
+            String token = authService.getJwtUtil().generateToken(tokenSubject, clientUser.getUserId(), 
+                    List.of("ROLE_" + clientUser.getRole().name()));
+
+            response.setToken(token);
+            response.setAuth(new AuthResponse(
+                    token,
+                    "Bearer",
+                    clientUser.getUserId(),
+                    clientUser.getName(),
+                    clientUser.getEmail() != null ? clientUser.getEmail() : "",
+                    clientUser.getRole()
+            ));
+            logger.debug("Token JWT generado para nuevo usuario CLIENTE con ID: {}", clientUser.getUserId());
         }
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
     @Operation(
@@ -359,6 +372,9 @@ public class AppointmentController {
                     Crea una nueva cita. Solo pueden crear:
                     - Los administradores (pueden crear para cualquier cliente)
                     - Los clientes autenticados (solo para sí mismos)
+                    
+                    Con la cabecera `Idempotency-Key`, los reintentos con la misma clave reciben la respuesta
+                    original (cabecera `Idempotent-Replayed: true`) sin crear otra cita.
                     """
     )
     @ApiResponses(value = {
@@ -386,6 +402,8 @@ public class AppointmentController {
     @PostMapping
     @PreAuthorize("hasRole('CLIENTE') or hasRole('ADMINISTRADOR')")
     public ResponseEntity<AppointmentDTO> createCita(
+            @Parameter(description = "Clave única por reserva (p. ej. un UUID) para reintentar sin duplicarla")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "Datos de la cita a crear",
                     required = true,
@@ -393,26 +411,21 @@ public class AppointmentController {
             )
             @Valid @RequestBody AppointmentCreateDTO createDTO, 
             Authentication authentication) {
-        logger.info("Creando nueva cita (autenticado)");
-        try {
-            String username = authentication.getName();
-            User user = userRepository.findByUsernameOrEmail(username)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-            
-            // Si es cliente, usar su propio ID
-            if (user.getRole() == User.Role.CLIENTE) {
-                createDTO.setClientId(user.getUserId());
-            }
-            
-            AppointmentDTO createdAppointment = appointmentService.createAppointment(createDTO);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdAppointment);
-        } catch (com.bookmycut.exception.BadRequestException | com.bookmycut.exception.ResourceNotFoundException e) {
-            logger.warn("Error al crear cita: {}", e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            logger.error("Error al crear cita: {}", e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Creando nueva cita (autenticado)");
+        String username = authentication.getName();
+        return idempotencyService.execute(idempotencyKey, "POST /citas " + username, createDTO,
+                AppointmentDTO.class, () -> {
+                    User user = userRepository.findByUsernameOrEmail(username)
+                            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+
+                    // Si es cliente, usar su propio ID
+                    if (user.getRole() == User.Role.CLIENTE) {
+                        createDTO.setClientId(user.getUserId());
+                    }
+
+                    AppointmentDTO createdAppointment = appointmentService.createAppointment(createDTO);
+                    return ResponseEntity.status(HttpStatus.CREATED).body(createdAppointment);
+                });
     }
     
     @Operation(
@@ -467,28 +480,20 @@ public class AppointmentController {
             @RequestBody Map<String, Object> updates, 
             Authentication authentication) {
         logger.info("Actualizando cita con ID: {}", id);
-        try {
-            // Verificar permisos primero
-            AppointmentDTO appointment = appointmentService.getAppointmentById(id);
-            String username = authentication.getName();
-            User user = userRepository.findByUsernameOrEmail(username)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-            
-            if (user.getRole() != User.Role.ADMINISTRADOR &&
-                !appointment.getClientId().equals(user.getUserId())) {
-                logger.warn("Usuario {} intentó actualizar cita {} sin permisos", username, id);
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-            }
-            
-            AppointmentDTO updatedAppointment = appointmentService.updateAppointment(id, updates);
-            return ResponseEntity.ok(updatedAppointment);
-        } catch (com.bookmycut.exception.ResourceNotFoundException e) {
-            logger.warn("Cita no encontrada con ID: {}", id);
-            throw e; // El GlobalExceptionHandler lo manejará
-        } catch (Exception e) {
-            logger.error("Error al actualizar cita con ID {}: {}", id, e.getMessage(), e);
-            throw e; // El GlobalExceptionHandler lo manejará
+        // Verificar permisos primero
+        AppointmentDTO appointment = appointmentService.getAppointmentById(id);
+        String username = authentication.getName();
+        User user = userRepository.findByUsernameOrEmail(username)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+
+        if (user.getRole() != User.Role.ADMINISTRADOR &&
+            !appointment.getClientId().equals(user.getUserId())) {
+            logger.warn("Usuario {} intentó actualizar cita {} sin permisos", username, id);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
+
+        AppointmentDTO updatedAppointment = appointmentService.updateAppointment(id, updates);
+        return ResponseEntity.ok(updatedAppointment);
     }
     
     @Operation(
@@ -520,28 +525,20 @@ public class AppointmentController {
             @PathVariable Long id, 
             Authentication authentication) {
         logger.info("Eliminando cita con ID: {}", id);
-        try {
-            // Verificar permisos primero
-            AppointmentDTO appointment = appointmentService.getAppointmentById(id);
-            String username = authentication.getName();
-            User user = userRepository.findByUsernameOrEmail(username)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-            
-            if (user.getRole() != User.Role.ADMINISTRADOR &&
-                !appointment.getClientId().equals(user.getUserId())) {
-                logger.warn("Usuario {} intentó eliminar cita {} sin permisos", username, id);
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-            }
-            
-            appointmentService.deleteAppointment(id);
-            return ResponseEntity.noContent().build();
-        } catch (com.bookmycut.exception.ResourceNotFoundException e) {
-            logger.warn("Cita no encontrada con ID: {}", id);
-            throw e; // El GlobalExceptionHandler lo manejará
-        } catch (Exception e) {
-            logger.error("Error al eliminar cita con ID {}: {}", id, e.getMessage(), e);
-            throw e; // El GlobalExceptionHandler lo manejará
+        // Verificar permisos primero
+        AppointmentDTO appointment = appointmentService.getAppointmentById(id);
+        String username = authentication.getName();
+        User user = userRepository.findByUsernameOrEmail(username)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+
+        if (user.getRole() != User.Role.ADMINISTRADOR &&
+            !appointment.getClientId().equals(user.getUserId())) {
+            logger.warn("Usuario {} intentó eliminar cita {} sin permisos", username, id);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
+
+        appointmentService.deleteAppointment(id);
+        return ResponseEntity.noContent().build();
     }
 }
 
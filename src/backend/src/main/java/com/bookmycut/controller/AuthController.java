@@ -4,7 +4,10 @@ import com.bookmycut.dto.AuthResponse;
 import com.bookmycut.dto.LoginRequest;
 import com.bookmycut.dto.RegisterRequest;
 import com.bookmycut.service.AuthService;
+import com.bookmycut.service.IdempotencyService;
+import com.bookmycut.service.TokenRevocationService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -25,10 +28,17 @@ public class AuthController {
     @Autowired
     private AuthService authService;
     
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
     @Operation(
             summary = "Registrar nuevo usuario",
             description = "Crea un nuevo usuario en el sistema. Los usuarios pueden ser CLIENTE, ESTILISTA o ADMINISTRADOR. " +
-                    "Los clientes deben proporcionar un teléfono. Retorna un token JWT para autenticación."
+                    "Los clientes deben proporcionar un teléfono. Retorna un token JWT para autenticación. " +
+                    "Con la cabecera Idempotency-Key, un reintento con la misma clave recibe la respuesta original con un token nuevo."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -48,9 +58,16 @@ public class AuthController {
             )
     })
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
-        AuthResponse response = authService.register(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<AuthResponse> register(
+            @Parameter(description = "Clave única por registro (p. ej. un UUID) para reintentar sin duplicarlo")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody RegisterRequest request) {
+        // bcrypt fuera de la transacción del registro (y de la de la clave de idempotencia)
+        String encodedPassword = authService.encodePasswordForRegistration(request);
+        return idempotencyService.execute(idempotencyKey, "POST /auth/register", request, AuthResponse.class, () -> {
+            AuthResponse response = authService.register(request, encodedPassword);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }, AuthResponse::withoutToken, stored -> authService.reissueToken(stored.getUserId()));
     }
     
     @Operation(
@@ -78,8 +95,8 @@ public class AuthController {
     
     @Operation(
             summary = "Cerrar sesión",
-            description = "Endpoint para cerrar sesión. En una implementación completa, invalidaría el token. " +
-                    "Actualmente el logout se maneja en el frontend eliminando el token."
+            description = "Endpoint para cerrar sesión. Revoca en el servidor el token enviado en el header " +
+                    "'Authorization: Bearer <token>', que deja de ser aceptado aunque no haya expirado."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -89,9 +106,12 @@ public class AuthController {
             )
     })
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout() {
-        // En una implementación real, podrías invalidar el token aquí
-        // Por ahora, el logout se maneja en el frontend eliminando el token
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        // El logout siempre responde OK; si llega un token, se revoca hasta su expiración
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            tokenRevocationService.revokeToken(authHeader.substring(7));
+        }
         return ResponseEntity.ok().build();
     }
 }
@@ -5,8 +5,10 @@ import com.bookmycut.dto.AvailabilityDTO;
 import com.bookmycut.entities.User;
 import com.bookmycut.repositories.UserRepository;
 import com.bookmycut.service.AvailabilityService;
+import com.bookmycut.service.PublicReadCoalescer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -37,12 +39,16 @@ public class AvailabilityController {
     @Autowired
     private AvailabilityService availabilityService;
 
+    @Autowired
+    private PublicReadCoalescer publicReadCoalescer;
+
     @Autowired
     private UserRepository userRepository;
 
     @Operation(summary = "Obtener disponibilidades", description = "Obtiene las disponibilidades. Puede filtrar por estilistaId")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de disponibilidades obtenida exitosamente"),
+            @ApiResponse(responseCode = "200", description = "Lista de disponibilidades obtenida exitosamente",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = AvailabilityDTO.class)))),
             @ApiResponse(responseCode = "403", description = "No autorizado")
     })
     @GetMapping
@@ -55,34 +61,25 @@ public class AvailabilityController {
             @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Usar paginación", example = "false")
             @RequestParam(defaultValue = "false") boolean paginated) {
-        logger.info("Requesting availabilities - estilistaId: {}, page: {}, size: {}, paginated: {}", 
+        logger.debug("Requesting availabilities - estilistaId: {}, page: {}, size: {}, paginated: {}", 
                 estilistaId, page, size, paginated);
-        try {
-            if (paginated) {
-                org.springframework.data.domain.Page<AvailabilityDTO> availabilities = 
-                        availabilityService.getAllAvailabilities(estilistaId, page, size);
-                return ResponseEntity.ok(availabilities);
-            } else {
-                List<AvailabilityDTO> availabilities = availabilityService.getAllAvailabilities(estilistaId);
-                return ResponseEntity.ok(availabilities);
-            }
-        } catch (Exception e) {
-            logger.error("Error getting availabilities: {}", e.getMessage(), e);
-            throw e;
+        if (paginated) {
+            org.springframework.data.domain.Page<AvailabilityDTO> availabilities = 
+                    availabilityService.getAllAvailabilities(estilistaId, page, size);
+            return ResponseEntity.ok(availabilities);
+        } else {
+            // Lectura pública que se repite mucho al abrir las reservas: se agrupa por estilista
+            return publicReadCoalescer.json(PublicReadCoalescer.AVAILABILITIES,
+                    () -> availabilityService.getAllAvailabilities(estilistaId), estilistaId);
         }
     }
 
     @Operation(summary = "Obtener disponibilidad por ID")
     @GetMapping("/{id}")
     public ResponseEntity<AvailabilityDTO> getAvailabilityById(@PathVariable Long id) {
-        logger.info("Requesting availability with ID: {}", id);
-        try {
-            AvailabilityDTO availability = availabilityService.getAvailabilityById(id);
-            return ResponseEntity.ok(availability);
-        } catch (Exception e) {
-            logger.error("Error getting availability: {}", e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Requesting availability with ID: {}", id);
+        AvailabilityDTO availability = availabilityService.getAvailabilityById(id);
+        return ResponseEntity.ok(availability);
     }
 
     @Operation(summary = "Crear disponibilidad", description = "Crea una nueva disponibilidad para un estilista")
@@ -91,23 +88,18 @@ public class AvailabilityController {
     public ResponseEntity<AvailabilityDTO> createAvailability(
             @Valid @RequestBody AvailabilityCreateDTO createDTO,
             Authentication authentication) {
-        logger.info("Creating availability");
-        try {
-            // Si es estilista, usar su propio ID
-            String username = authentication.getName();
-            User user = userRepository.findByUsernameOrEmail(username)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-            
-            if (user.getRole() == User.Role.ESTILISTA) {
-                createDTO.setStylistId(user.getUserId());
-            }
-            
-            AvailabilityDTO created = availabilityService.createAvailability(createDTO);
-            return ResponseEntity.status(HttpStatus.CREATED).body(created);
-        } catch (Exception e) {
-            logger.error("Error creating availability: {}", e.getMessage(), e);
-            throw e;
+        logger.debug("Creating availability");
+        // Si es estilista, usar su propio ID
+        String username = authentication.getName();
+        User user = userRepository.findByUsernameOrEmail(username)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+
+        if (user.getRole() == User.Role.ESTILISTA) {
+            createDTO.setStylistId(user.getUserId());
         }
+
+        AvailabilityDTO created = availabilityService.createAvailability(createDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
     @Operation(summary = "Actualizar disponibilidad")
@@ -116,28 +108,18 @@ public class AvailabilityController {
     public ResponseEntity<AvailabilityDTO> updateAvailability(
             @PathVariable Long id,
             @Valid @RequestBody AvailabilityCreateDTO createDTO) {
-        logger.info("Updating availability with ID: {}", id);
-        try {
-            AvailabilityDTO updated = availabilityService.updateAvailability(id, createDTO);
-            return ResponseEntity.ok(updated);
-        } catch (Exception e) {
-            logger.error("Error updating availability: {}", e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Updating availability with ID: {}", id);
+        AvailabilityDTO updated = availabilityService.updateAvailability(id, createDTO);
+        return ResponseEntity.ok(updated);
     }
 
     @Operation(summary = "Eliminar disponibilidad")
     @PreAuthorize("hasRole('ESTILISTA') or hasRole('ADMINISTRADOR')")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteAvailability(@PathVariable Long id) {
-        logger.info("Deleting availability with ID: {}", id);
-        try {
-            availabilityService.deleteAvailability(id);
-            return ResponseEntity.noContent().build();
-        } catch (Exception e) {
-            logger.error("Error deleting availability: {}", e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Deleting availability with ID: {}", id);
+        availabilityService.deleteAvailability(id);
+        return ResponseEntity.noContent().build();
     }
 }
 
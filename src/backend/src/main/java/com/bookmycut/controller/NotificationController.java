@@ -1,22 +1,33 @@
 package com.bookmycut.controller;
 
 import com.bookmycut.dto.NotificationDTO;
+import com.bookmycut.entities.Notification;
 import com.bookmycut.entities.User;
+import com.bookmycut.exception.BadRequestException;
 import com.bookmycut.repositories.UserRepository;
+import com.bookmycut.security.JwtAuthenticationFilter;
+import com.bookmycut.service.NotificationRetentionJob;
 import com.bookmycut.service.NotificationService;
+import com.bookmycut.service.NotificationStreamRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/notificaciones")
@@ -33,68 +44,59 @@ public class NotificationController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private NotificationRetentionJob notificationRetentionJob;
+
+    @Autowired
+    private NotificationStreamRegistry notificationStreamRegistry;
+
     @Operation(summary = "Obtener notificaciones del usuario (paginadas)")
     @GetMapping
     public ResponseEntity<Page<NotificationDTO>> getNotifications(
             Authentication authentication,
+            HttpServletRequest request,
             @Parameter(description = "Número de página (0-indexed)", example = "0")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Tamaño de página", example = "10")
             @RequestParam(defaultValue = "10") int size) {
-        logger.info("Requesting notifications - page: {}, size: {}", page, size);
-        try {
-            if (authentication == null || !authentication.isAuthenticated()) {
-                logger.warn("Authentication is null or not authenticated");
-                throw new RuntimeException("Usuario no autenticado");
-            }
-            String username = authentication.getName();
-            User user = userRepository.findByUsernameOrEmail(username)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-            
-            Page<NotificationDTO> notifications = notificationService.getUserNotifications(user.getUserId(), page, size);
-            return ResponseEntity.ok(notifications);
-        } catch (Exception e) {
-            logger.error("Error getting notifications: {}", e.getMessage(), e);
-            throw e;
+        logger.debug("Requesting notifications - page: {}, size: {}", page, size);
+        if (authentication == null || !authentication.isAuthenticated()) {
+            logger.debug("Authentication is null or not authenticated");
+            throw new RuntimeException("Usuario no autenticado");
         }
+        Long userId = resolveUserId(authentication, request);
+
+        Page<NotificationDTO> notifications = notificationService.getUserNotifications(userId, page, size);
+        return ResponseEntity.ok(notifications);
     }
 
     @Operation(summary = "Obtener notificaciones no leídas")
     @GetMapping("/unread")
-    public ResponseEntity<List<NotificationDTO>> getUnreadNotifications(Authentication authentication) {
-        logger.info("Requesting unread notifications");
-        try {
-            if (authentication == null || !authentication.isAuthenticated()) {
-                logger.warn("Authentication is null or not authenticated");
-                throw new RuntimeException("Usuario no autenticado");
-            }
-            String username = authentication.getName();
-            User user = userRepository.findByUsernameOrEmail(username)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-            
-            List<NotificationDTO> notifications = notificationService.getUnreadNotifications(user.getUserId());
-            return ResponseEntity.ok(notifications);
-        } catch (Exception e) {
-            logger.error("Error getting unread notifications: {}", e.getMessage(), e);
-            throw e;
+    public ResponseEntity<List<NotificationDTO>> getUnreadNotifications(Authentication authentication, HttpServletRequest request) {
+        logger.debug("Requesting unread notifications");
+        if (authentication == null || !authentication.isAuthenticated()) {
+            logger.debug("Authentication is null or not authenticated");
+            throw new RuntimeException("Usuario no autenticado");
         }
+        Long userId = resolveUserId(authentication, request);
+
+        List<NotificationDTO> notifications = notificationService.getUnreadNotifications(userId);
+        return ResponseEntity.ok(notifications);
     }
 
     @Operation(summary = "Obtener contador de notificaciones no leídas")
     @GetMapping("/unread/count")
-    public ResponseEntity<Long> getUnreadCount(Authentication authentication) {
-        logger.info("Requesting unread count - Authentication: {}", authentication != null ? authentication.getName() : "null");
+    public ResponseEntity<Long> getUnreadCount(Authentication authentication, HttpServletRequest request) {
+        logger.debug("Requesting unread count - Authentication: {}", authentication != null ? authentication.getName() : "null");
         try {
             if (authentication == null || !authentication.isAuthenticated()) {
                 logger.warn("Authentication is null or not authenticated for unread count request");
                 // Devolver 0 si no hay autenticación, pero debería ser manejado por Spring Security
                 return ResponseEntity.ok(0L);
             }
-            String username = authentication.getName();
-            User user = userRepository.findByUsernameOrEmail(username)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+            Long userId = resolveUserId(authentication, request);
             
-            long count = notificationService.getUnreadCount(user.getUserId());
+            long count = notificationService.getUnreadCount(userId);
             return ResponseEntity.ok(count);
         } catch (Exception e) {
             logger.error("Error getting unread count: {}", e.getMessage(), e);
@@ -102,71 +104,113 @@ public class NotificationController {
         }
     }
 
+    @Operation(summary = "Recibir notificaciones en tiempo real (Server-Sent Events)",
+               description = "Alternativa ligera a /ws. Cada evento 'notification' lleva como id un cursor " +
+                             "(fecha de creación e id de la notificación); al reconectar con Last-Event-ID se reenvían las posteriores.")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(
+            Authentication authentication,
+            HttpServletRequest request,
+            @Parameter(description = "ID del último evento recibido")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @Parameter(description = "Alternativa a la cabecera Last-Event-ID")
+            @RequestParam(required = false) String lastEventId) {
+        Long userId = resolveUserId(authentication, request);
+        String resumeFrom = lastEventId != null ? lastEventId : lastEventIdHeader;
+        logger.debug("Opening notification stream - user: {}, lastEventId: {}", userId, resumeFrom);
+        try {
+            return notificationStreamRegistry.subscribe(userId, resumeFrom);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
     @Operation(summary = "Marcar notificación como leída")
     @PatchMapping("/{id}/read")
     public ResponseEntity<NotificationDTO> markAsRead(
             @PathVariable Long id,
-            Authentication authentication) {
-        logger.info("Marking notification as read - ID: {}", id);
-        try {
-            if (authentication == null || !authentication.isAuthenticated()) {
-                logger.warn("Authentication is null or not authenticated");
-                throw new RuntimeException("Usuario no autenticado");
-            }
-            String username = authentication.getName();
-            User user = userRepository.findByUsernameOrEmail(username)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-            
-            NotificationDTO notification = notificationService.markAsRead(id, user.getUserId());
-            return ResponseEntity.ok(notification);
-        } catch (Exception e) {
-            logger.error("Error marking notification as read: {}", e.getMessage(), e);
-            throw e;
+            Authentication authentication,
+            HttpServletRequest request) {
+        logger.debug("Marking notification as read - ID: {}", id);
+        if (authentication == null || !authentication.isAuthenticated()) {
+            logger.debug("Authentication is null or not authenticated");
+            throw new RuntimeException("Usuario no autenticado");
         }
+        Long userId = resolveUserId(authentication, request);
+
+        NotificationDTO notification = notificationService.markAsRead(id, userId);
+        return ResponseEntity.ok(notification);
     }
 
     @Operation(summary = "Marcar todas las notificaciones como leídas")
     @PatchMapping("/read-all")
-    public ResponseEntity<Void> markAllAsRead(Authentication authentication) {
-        logger.info("Marking all notifications as read");
-        try {
-            String username = authentication.getName();
-            User user = userRepository.findByUsernameOrEmail(username)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-            
-            notificationService.markAllAsRead(user.getUserId());
-            return ResponseEntity.ok().build();
-        } catch (Exception e) {
-            logger.error("Error marking all notifications as read: {}", e.getMessage(), e);
-            throw e;
+    public ResponseEntity<Void> markAllAsRead(Authentication authentication, HttpServletRequest request) {
+        logger.debug("Marking all notifications as read");
+        Long userId = resolveUserId(authentication, request);
+
+        notificationService.markAllAsRead(userId);
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(summary = "Marcar varias notificaciones como leídas")
+    @PatchMapping("/read")
+    public ResponseEntity<Map<String, Integer>> markSeveralAsRead(
+            @RequestBody List<Long> ids,
+            Authentication authentication,
+            HttpServletRequest request) {
+        logger.debug("Marking {} notifications as read", ids.size());
+        Long userId = resolveUserId(authentication, request);
+        int updated = notificationService.markAsRead(ids, userId);
+        return ResponseEntity.ok(Map.of("actualizadas", updated));
+    }
+
+    @Operation(summary = "Purgar notificaciones antiguas (solo administrador)")
+    @DeleteMapping("/purge")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Map<String, Long>> purgeNotifications(
+            @Parameter(description = "Antigüedad mínima en días", example = "90")
+            @RequestParam int olderThanDays,
+            @Parameter(description = "Tipo de notificación (opcional)")
+            @RequestParam(required = false) Notification.NotificationType type,
+            @Parameter(description = "Borrar solo las leídas")
+            @RequestParam(defaultValue = "true") boolean onlyRead) {
+        logger.info("Purging notifications older than {} days - type: {}, onlyRead: {}", olderThanDays, type, onlyRead);
+        if (olderThanDays < 1) {
+            throw new BadRequestException("La antigüedad mínima debe ser de al menos 1 día");
         }
+        long deleted = notificationRetentionJob.purge(LocalDateTime.now().minusDays(olderThanDays), type, onlyRead,
+                Long.MAX_VALUE);
+        return ResponseEntity.ok(Map.of("eliminadas", deleted));
     }
 
     @Operation(summary = "Eliminar notificación")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteNotification(
             @PathVariable Long id,
-            Authentication authentication) {
-        logger.info("Deleting notification - ID: {}", id);
-        try {
-            if (authentication == null || !authentication.isAuthenticated()) {
-                logger.warn("Authentication is null or not authenticated");
-                throw new RuntimeException("Usuario no autenticado");
-            }
-            String username = authentication.getName();
-            User user = userRepository.findByUsernameOrEmail(username)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-            
-            notificationService.deleteNotification(id, user.getUserId());
-            return ResponseEntity.noContent().build();
-        } catch (Exception e) {
-            logger.error("Error deleting notification: {}", e.getMessage(), e);
-            throw e;
+            Authentication authentication,
+            HttpServletRequest request) {
+        logger.debug("Deleting notification - ID: {}", id);
+        if (authentication == null || !authentication.isAuthenticated()) {
+            logger.debug("Authentication is null or not authenticated");
+            throw new RuntimeException("Usuario no autenticado");
         }
-    }
-}
-
-
-
+        Long userId = resolveUserId(authentication, request);
 
+        notificationService.deleteNotification(id, userId);
+        return ResponseEntity.noContent().build();
+    }
 
+    /**
+     * ID del usuario autenticado: se toma del token (sin consultar la base de datos) y, si el token
+     * no lo incluye, se busca por nombre de usuario o email.
+     */
+    private Long resolveUserId(Authentication authentication, HttpServletRequest request) {
+        Object userId = request.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE);
+        if (userId instanceof Long id) {
+            return id;
+        }
+        User user = userRepository.findByUsernameOrEmail(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        return user.getUserId();
+    }
+}
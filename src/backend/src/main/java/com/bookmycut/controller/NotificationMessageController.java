@@ -0,0 +1,65 @@
+package com.bookmycut.controller;
+
+import com.bookmycut.security.StompAuthChannelInterceptor;
+import com.bookmycut.service.NotificationReadCoalescer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Comandos STOMP sobre notificaciones (destinos {@code /app/notificaciones/...}).
+ * La sesión se autentica en el CONNECT; ver {@link StompAuthChannelInterceptor}.
+ */
+@Controller
+public class NotificationMessageController {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationMessageController.class);
+
+    @Autowired
+    private NotificationReadCoalescer readCoalescer;
+
+    /**
+     * Marca como leídas las notificaciones indicadas. Payload: array de IDs.
+     */
+    @MessageMapping("/notificaciones/markRead")
+    public void markRead(@Payload List<Long> notificationIds, Principal principal, SimpMessageHeaderAccessor accessor) {
+        Long userId = requireUserId(principal);
+        logger.debug("STOMP markRead - user: {}, ids: {}", userId, notificationIds);
+        readCoalescer.markRead(userId, accessor.getSessionId(), notificationIds);
+    }
+
+    /**
+     * Marca como leídas todas las notificaciones del usuario.
+     */
+    @MessageMapping("/notificaciones/markAllRead")
+    public void markAllRead(Principal principal, SimpMessageHeaderAccessor accessor) {
+        Long userId = requireUserId(principal);
+        logger.debug("STOMP markAllRead - user: {}", userId);
+        readCoalescer.markAllRead(userId, accessor.getSessionId());
+    }
+
+    @MessageExceptionHandler
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public Map<String, String> handleException(Exception e) {
+        logger.warn("Error processing STOMP command: {}", e.getMessage());
+        return Map.of("error", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+    }
+
+    private Long requireUserId(Principal principal) {
+        Long userId = StompAuthChannelInterceptor.userIdOf(principal);
+        if (userId == null) {
+            throw new IllegalStateException("Sesión STOMP no autenticada");
+        }
+        return userId;
+    }
+}
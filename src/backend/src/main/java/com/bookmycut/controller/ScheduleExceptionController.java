@@ -4,9 +4,11 @@ import com.bookmycut.dto.ScheduleExceptionCreateDTO;
 import com.bookmycut.dto.ScheduleExceptionDTO;
 import com.bookmycut.entities.User;
 import com.bookmycut.repositories.UserRepository;
+import com.bookmycut.service.PublicReadCoalescer;
 import com.bookmycut.service.ScheduleExceptionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -42,38 +44,32 @@ public class ScheduleExceptionController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PublicReadCoalescer publicReadCoalescer;
+
     @Operation(summary = "Obtener excepciones de horario", description = "Puede filtrar por estilistaId y/o fecha")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de excepciones obtenida exitosamente"),
+            @ApiResponse(responseCode = "200", description = "Lista de excepciones obtenida exitosamente",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = ScheduleExceptionDTO.class)))),
             @ApiResponse(responseCode = "403", description = "No autorizado")
     })
     @GetMapping
-    public ResponseEntity<List<ScheduleExceptionDTO>> getExceptions(
+    public ResponseEntity<byte[]> getExceptions(
             @Parameter(description = "ID del estilista (opcional)", example = "2")
             @RequestParam(required = false) Long estilistaId,
             @Parameter(description = "Fecha (opcional)", example = "2024-12-25")
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
-        logger.info("Requesting schedule exceptions - estilistaId: {}, fecha: {}", estilistaId, fecha);
-        try {
-            List<ScheduleExceptionDTO> exceptions = scheduleExceptionService.getAllExceptions(estilistaId, fecha);
-            return ResponseEntity.ok(exceptions);
-        } catch (Exception e) {
-            logger.error("Error getting schedule exceptions: {}", e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Requesting schedule exceptions - estilistaId: {}, fecha: {}", estilistaId, fecha);
+        return publicReadCoalescer.json(PublicReadCoalescer.SCHEDULE_EXCEPTIONS,
+                () -> scheduleExceptionService.getAllExceptions(estilistaId, fecha), estilistaId, fecha);
     }
 
     @Operation(summary = "Obtener excepción por ID")
     @GetMapping("/{id}")
     public ResponseEntity<ScheduleExceptionDTO> getExceptionById(@PathVariable Long id) {
-        logger.info("Requesting schedule exception with ID: {}", id);
-        try {
-            ScheduleExceptionDTO exception = scheduleExceptionService.getExceptionById(id);
-            return ResponseEntity.ok(exception);
-        } catch (Exception e) {
-            logger.error("Error getting schedule exception: {}", e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Requesting schedule exception with ID: {}", id);
+        ScheduleExceptionDTO exception = scheduleExceptionService.getExceptionById(id);
+        return ResponseEntity.ok(exception);
     }
 
     @Operation(summary = "Crear excepción de horario", description = "Solo administradores pueden crear excepciones")
@@ -82,18 +78,13 @@ public class ScheduleExceptionController {
     public ResponseEntity<ScheduleExceptionDTO> createException(
             @Valid @RequestBody ScheduleExceptionCreateDTO createDTO,
             Authentication authentication) {
-        logger.info("Creating schedule exception");
-        try {
-            String username = authentication.getName();
-            User administrator = userRepository.findByUsernameOrEmail(username)
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-            
-            ScheduleExceptionDTO created = scheduleExceptionService.createException(createDTO, administrator);
-            return ResponseEntity.status(HttpStatus.CREATED).body(created);
-        } catch (Exception e) {
-            logger.error("Error creating schedule exception: {}", e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Creating schedule exception");
+        String username = authentication.getName();
+        User administrator = userRepository.findByUsernameOrEmail(username)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+
+        ScheduleExceptionDTO created = scheduleExceptionService.createException(createDTO, administrator);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
     @Operation(summary = "Actualizar excepción de horario")
@@ -102,28 +93,18 @@ public class ScheduleExceptionController {
     public ResponseEntity<ScheduleExceptionDTO> updateException(
             @PathVariable Long id,
             @Valid @RequestBody ScheduleExceptionCreateDTO createDTO) {
-        logger.info("Updating schedule exception with ID: {}", id);
-        try {
-            ScheduleExceptionDTO updated = scheduleExceptionService.updateException(id, createDTO);
-            return ResponseEntity.ok(updated);
-        } catch (Exception e) {
-            logger.error("Error updating schedule exception: {}", e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Updating schedule exception with ID: {}", id);
+        ScheduleExceptionDTO updated = scheduleExceptionService.updateException(id, createDTO);
+        return ResponseEntity.ok(updated);
     }
 
     @Operation(summary = "Eliminar excepción de horario")
     @PreAuthorize("hasRole('ADMINISTRADOR')")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteException(@PathVariable Long id) {
-        logger.info("Deleting schedule exception with ID: {}", id);
-        try {
-            scheduleExceptionService.deleteException(id);
-            return ResponseEntity.noContent().build();
-        } catch (Exception e) {
-            logger.error("Error deleting schedule exception: {}", e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Deleting schedule exception with ID: {}", id);
+        scheduleExceptionService.deleteException(id);
+        return ResponseEntity.noContent().build();
     }
 }
 
@@ -59,7 +59,7 @@ public class ServiceOfferController {
             @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Usar paginación", example = "false")
             @RequestParam(defaultValue = "false") boolean paginated) {
-        logger.info("Solicitando todos los servicios - page: {}, size: {}, paginated: {}", page, size, paginated);
+        logger.debug("Solicitando todos los servicios - page: {}, size: {}, paginated: {}", page, size, paginated);
         try {
             if (paginated) {
                 org.springframework.data.domain.Page<ServiceOfferDTO> services = 
@@ -95,17 +95,9 @@ public class ServiceOfferController {
     public ResponseEntity<ServiceOfferDTO> getServicioById(
             @Parameter(description = "ID del servicio", required = true, example = "1")
             @PathVariable Long id) {
-        logger.info("Solicitando servicio con ID: {}", id);
-        try {
-            ServiceOfferDTO service = serviceOfferService.getServiceOfferById(id);
-            return ResponseEntity.ok(service);
-        } catch (com.bookmycut.exception.ResourceNotFoundException e) {
-            logger.warn("Servicio no encontrado con ID: {}", id);
-            throw e; // El GlobalExceptionHandler lo manejará
-        } catch (Exception e) {
-            logger.error("Error al obtener servicio con ID {}: {}", id, e.getMessage(), e);
-            throw e; // El GlobalExceptionHandler lo manejará
-        }
+        logger.debug("Solicitando servicio con ID: {}", id);
+        ServiceOfferDTO service = serviceOfferService.getServiceOfferById(id);
+        return ResponseEntity.ok(service);
     }
     
     @Operation(
@@ -150,7 +142,7 @@ public class ServiceOfferController {
                     content = @Content(schema = @Schema(implementation = ServiceOfferCreateDTO.class))
             )
             @Valid @RequestBody ServiceOfferCreateDTO createDTO) {
-        logger.info("Creando nuevo servicio: {}", createDTO.getName());
+        logger.debug("Creando nuevo servicio: {}", createDTO.getName());
         try {
             ServiceOfferDTO createdService = serviceOfferService.createServiceOffer(createDTO);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdService);
@@ -204,16 +196,8 @@ public class ServiceOfferController {
             )
             @Valid @RequestBody ServiceOfferCreateDTO createDTO) {
         logger.info("Actualizando servicio con ID: {}", id);
-        try {
-            ServiceOfferDTO updatedService = serviceOfferService.updateServiceOffer(id, createDTO);
-            return ResponseEntity.ok(updatedService);
-        } catch (com.bookmycut.exception.ResourceNotFoundException e) {
-            logger.warn("Servicio no encontrado con ID: {}", id);
-            throw e; // El GlobalExceptionHandler lo manejará
-        } catch (Exception e) {
-            logger.error("Error al actualizar servicio con ID {}: {}", id, e.getMessage(), e);
-            throw e; // El GlobalExceptionHandler lo manejará
-        }
+        ServiceOfferDTO updatedService = serviceOfferService.updateServiceOffer(id, createDTO);
+        return ResponseEntity.ok(updatedService);
     }
     
     @Operation(
@@ -249,16 +233,8 @@ public class ServiceOfferController {
             @Parameter(description = "ID del servicio a eliminar", required = true, example = "1")
             @PathVariable Long id) {
         logger.info("Eliminando servicio con ID: {}", id);
-        try {
-            serviceOfferService.deleteServiceOffer(id);
-            return ResponseEntity.noContent().build();
-        } catch (com.bookmycut.exception.ResourceNotFoundException e) {
-            logger.warn("Servicio no encontrado con ID: {}", id);
-            throw e; // El GlobalExceptionHandler lo manejará
-        } catch (Exception e) {
-            logger.error("Error al eliminar servicio con ID {}: {}", id, e.getMessage(), e);
-            throw e; // El GlobalExceptionHandler lo manejará
-        }
+        serviceOfferService.deleteServiceOffer(id);
+        return ResponseEntity.noContent().build();
     }
 }
 
@@ -1,12 +1,19 @@
 package com.bookmycut.controller;
 
+import com.bookmycut.dto.StylistServiceDTO;
 import com.bookmycut.entities.User;
 import com.bookmycut.entities.ServiceOffer;
+import com.bookmycut.exception.BadRequestException;
 import com.bookmycut.exception.ResourceNotFoundException;
 import com.bookmycut.repositories.UserRepository;
 import com.bookmycut.repositories.ServiceOfferRepository;
+import com.bookmycut.service.PublicReadCoalescer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
@@ -35,73 +42,50 @@ public class StylistServiceController {
     @Autowired
     private ServiceOfferRepository serviceOfferRepository;
 
+    @Autowired
+    private PublicReadCoalescer publicReadCoalescer;
+
     @Operation(summary = "Obtener servicios de un estilista")
+    @ApiResponse(responseCode = "200", description = "Servicios del estilista",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = StylistServiceDTO.class))))
     @GetMapping("/{stylistId}/servicios")
-    public ResponseEntity<List<Map<String, Object>>> getStylistServices(
+    public ResponseEntity<byte[]> getStylistServices(
             @PathVariable Long stylistId) {
-        logger.info("Requesting services for stylist ID: {}", stylistId);
-        try {
+        logger.debug("Requesting services for stylist ID: {}", stylistId);
+        return publicReadCoalescer.json(PublicReadCoalescer.STYLIST_SERVICES, () -> {
             User stylist = userRepository.findWithServicesByUserId(stylistId)
                     .orElseThrow(() -> new ResourceNotFoundException("User", "id", stylistId));
-            
+
             if (stylist.getRole() != User.Role.ESTILISTA) {
-                return ResponseEntity.badRequest().build();
+                throw new BadRequestException("El usuario especificado no es un estilista");
             }
-            
+
             // Cargar servicios (ya cargados con EntityGraph)
-            List<ServiceOffer> servicesList = stylist.getServices();
-            
-            List<Map<String, Object>> services = servicesList.stream()
-                    .map(service -> {
-                        java.util.Map<String, Object> serviceMap = new java.util.HashMap<>();
-                        serviceMap.put("serviceId", service.getServiceId());
-                        serviceMap.put("name", service.getName());
-                        serviceMap.put("description", service.getDescription() != null ? service.getDescription() : "");
-                        serviceMap.put("duration", service.getDuration());
-                        serviceMap.put("unitPrice", service.getUnitPrice());
-                        return serviceMap;
-                    })
+            return stylist.getServices().stream()
+                    .map(StylistServiceDTO::from)
                     .toList();
-            
-            return ResponseEntity.ok(services);
-        } catch (Exception e) {
-            logger.error("Error getting stylist services: {}", e.getMessage(), e);
-            throw e;
-        }
+        }, stylistId);
     }
 
     @Operation(summary = "Obtener mis servicios (estilista autenticado)")
     @GetMapping("/me/servicios")
     @PreAuthorize("hasRole('ESTILISTA')")
-    public ResponseEntity<List<Map<String, Object>>> getMyServices(Authentication authentication) {
-        logger.info("Requesting services for current stylist");
-        try {
-            String username = authentication.getName();
-            User stylist = userRepository.findByUsernameOrEmail(username)
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
-            
-            // Cargar servicios usando EntityGraph
-            User stylistWithServices = userRepository.findWithServicesByUserId(stylist.getUserId())
-                    .orElse(stylist);
-            List<ServiceOffer> servicesList = stylistWithServices.getServices();
-            
-            List<Map<String, Object>> services = servicesList.stream()
-                    .map(service -> {
-                        java.util.Map<String, Object> serviceMap = new java.util.HashMap<>();
-                        serviceMap.put("serviceId", service.getServiceId());
-                        serviceMap.put("name", service.getName());
-                        serviceMap.put("description", service.getDescription() != null ? service.getDescription() : "");
-                        serviceMap.put("duration", service.getDuration());
-                        serviceMap.put("unitPrice", service.getUnitPrice());
-                        return serviceMap;
-                    })
-                    .toList();
-            
-            return ResponseEntity.ok(services);
-        } catch (Exception e) {
-            logger.error("Error getting my services: {}", e.getMessage(), e);
-            throw e;
-        }
+    public ResponseEntity<List<StylistServiceDTO>> getMyServices(Authentication authentication) {
+        logger.debug("Requesting services for current stylist");
+        String username = authentication.getName();
+        User stylist = userRepository.findByUsernameOrEmail(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+
+        // Cargar servicios usando EntityGraph
+        User stylistWithServices = userRepository.findWithServicesByUserId(stylist.getUserId())
+                .orElse(stylist);
+        List<ServiceOffer> servicesList = stylistWithServices.getServices();
+
+        List<StylistServiceDTO> services = servicesList.stream()
+                .map(StylistServiceDTO::from)
+                .toList();
+
+        return ResponseEntity.ok(services);
     }
 
     @Operation(summary = "Asociar servicios a estilista")
@@ -112,44 +96,40 @@ public class StylistServiceController {
             @RequestBody Map<String, List<Long>> request,
             Authentication authentication) {
         logger.info("Associating services to stylist ID: {}", stylistId);
-        try {
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsernameOrEmail(username)
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
-            
-            // Si es estilista, solo puede asociar a sí mismo
-            if (currentUser.getRole() == User.Role.ESTILISTA && !currentUser.getUserId().equals(stylistId)) {
-                return ResponseEntity.status(403).build();
-            }
-            
-            User stylist = userRepository.findById(stylistId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", stylistId));
-            
-            if (stylist.getRole() != User.Role.ESTILISTA) {
-                return ResponseEntity.badRequest().build();
-            }
-            
-            List<Long> serviceIds = request.get("serviceIds");
-            if (serviceIds == null || serviceIds.isEmpty()) {
-                return ResponseEntity.badRequest().build();
-            }
-            
-            // Obtener servicios desde el repositorio
-            List<ServiceOffer> services = serviceOfferRepository.findAllById(serviceIds);
-            
-            if (services.size() != serviceIds.size()) {
-                return ResponseEntity.badRequest().build();
-            }
-            
-            stylist.setServices(services);
-            userRepository.save(stylist);
-            
-            logger.info("Services associated successfully");
-            return ResponseEntity.ok().build();
-        } catch (Exception e) {
-            logger.error("Error associating services: {}", e.getMessage(), e);
-            throw e;
+        String username = authentication.getName();
+        User currentUser = userRepository.findByUsernameOrEmail(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+
+        // Si es estilista, solo puede asociar a sí mismo
+        if (currentUser.getRole() == User.Role.ESTILISTA && !currentUser.getUserId().equals(stylistId)) {
+            return ResponseEntity.status(403).build();
         }
+
+        User stylist = userRepository.findById(stylistId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", stylistId));
+
+        if (stylist.getRole() != User.Role.ESTILISTA) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<Long> serviceIds = request.get("serviceIds");
+        if (serviceIds == null || serviceIds.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Obtener servicios desde el repositorio
+        List<ServiceOffer> services = serviceOfferRepository.findAllById(serviceIds);
+
+        if (services.size() != serviceIds.size()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        stylist.setServices(services);
+        userRepository.save(stylist);
+        publicReadCoalescer.invalidate(PublicReadCoalescer.STYLIST_SERVICES);
+
+        logger.info("Services associated successfully");
+        return ResponseEntity.ok().build();
     }
 }
 
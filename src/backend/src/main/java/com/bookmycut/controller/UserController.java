@@ -1,7 +1,12 @@
 package com.bookmycut.controller;
 
+import com.bookmycut.dto.CurrentUserDTO;
+import com.bookmycut.dto.PublicStylistDTO;
+import com.bookmycut.dto.UserSummaryDTO;
 import com.bookmycut.entities.User;
 import com.bookmycut.repositories.UserRepository;
+import com.bookmycut.service.PasswordHashingService;
+import com.bookmycut.service.TokenRevocationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -43,6 +48,12 @@ public class UserController {
     @Autowired
     private com.bookmycut.service.AvailabilityService availabilityService;
     
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    
     @Operation(
             summary = "Obtener usuario actual",
             description = "Obtiene la información del usuario autenticado actualmente. " +
@@ -66,7 +77,7 @@ public class UserController {
             )
     })
     @GetMapping("/me")
-    public ResponseEntity<Map<String, Object>> getCurrentUser(Authentication authentication) {
+    public ResponseEntity<CurrentUserDTO> getCurrentUser(Authentication authentication) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
@@ -78,15 +89,7 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
         
-        User user = userOpt.get();
-        Map<String, Object> response = new HashMap<>();
-        response.put("usuarioId", user.getUserId());
-        response.put("nombre", user.getName());
-        response.put("email", user.getEmail());
-        response.put("rol", user.getRole() != null ? user.getRole().name() : null);
-        response.put("activo", user.getActive());
-        
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(CurrentUserDTO.from(userOpt.get()));
     }
     
     @Operation(
@@ -121,34 +124,11 @@ public class UserController {
                             org.springframework.data.domain.Sort.by("name"));
             org.springframework.data.domain.Page<User> usersPage = userRepository.findAll(pageable);
             
-            // Mapear a Map para evitar problemas de serialización con entidades
-            org.springframework.data.domain.Page<Map<String, Object>> mappedPage = usersPage.map(user -> {
-                Map<String, Object> userMap = new HashMap<>();
-                userMap.put("usuarioId", user.getUserId());
-                userMap.put("nombre", user.getName());
-                userMap.put("username", user.getUsername());
-                userMap.put("email", user.getEmail());
-                userMap.put("rol", user.getRole() != null ? user.getRole().name() : null);
-                userMap.put("activo", user.getActive());
-                userMap.put("phone", user.getPhone());
-                return userMap;
-            });
-            
-            return ResponseEntity.ok(mappedPage);
+            // Mapear a DTO para evitar problemas de serialización con entidades
+            return ResponseEntity.ok(usersPage.map(UserSummaryDTO::from));
         } else {
-            List<User> users = userRepository.findAll();
-            List<Map<String, Object>> response = users.stream()
-                    .map(user -> {
-                        Map<String, Object> userMap = new HashMap<>();
-                        userMap.put("usuarioId", user.getUserId());
-                        userMap.put("nombre", user.getName());
-                        userMap.put("username", user.getUsername());
-                        userMap.put("email", user.getEmail());
-                        userMap.put("rol", user.getRole() != null ? user.getRole().name() : null);
-                        userMap.put("activo", user.getActive());
-                        userMap.put("phone", user.getPhone());
-                        return userMap;
-                    })
+            List<UserSummaryDTO> response = userRepository.findAll().stream()
+                    .map(UserSummaryDTO::from)
                     .toList();
             return ResponseEntity.ok(response);
         }
@@ -162,7 +142,7 @@ public class UserController {
             @ApiResponse(
                     responseCode = "200",
                     description = "Usuario encontrado",
-                    content = @Content(schema = @Schema(implementation = User.class))
+                    content = @Content(schema = @Schema(implementation = UserSummaryDTO.class))
             ),
             @ApiResponse(
                     responseCode = "404",
@@ -177,7 +157,7 @@ public class UserController {
     })
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMINISTRADOR')")
-    public ResponseEntity<Map<String, Object>> getUserById(
+    public ResponseEntity<UserSummaryDTO> getUserById(
             @Parameter(description = "ID del usuario", required = true, example = "1")
             @PathVariable Long id) {
         Optional<User> userOpt = userRepository.findById(id);
@@ -185,17 +165,7 @@ public class UserController {
             return ResponseEntity.notFound().build();
         }
         
-        User user = userOpt.get();
-        Map<String, Object> response = new HashMap<>();
-        response.put("usuarioId", user.getUserId());
-        response.put("nombre", user.getName());
-        response.put("username", user.getUsername());
-        response.put("email", user.getEmail());
-        response.put("rol", user.getRole() != null ? user.getRole().name() : null);
-        response.put("activo", user.getActive());
-        response.put("phone", user.getPhone());
-        
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(UserSummaryDTO.from(userOpt.get()));
     }
     
     @Operation(
@@ -265,12 +235,12 @@ public class UserController {
             // Validar contraseña actual si se proporciona
             if (updates.containsKey("contraseñaActual")) {
                 String contraseñaActual = updates.get("contraseñaActual");
-                if (!contraseñaActual.equals(user.getPassword())) {
+                if (!passwordHashingService.matches(contraseñaActual, user.getPassword())) {
                     return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                             .body(Map.of("message", "La contraseña actual es incorrecta"));
                 }
             }
-            user.setPassword(updates.get("contraseña")); // Guardar contraseña en texto plano
+            user.setPassword(passwordHashingService.encode(updates.get("contraseña")));
         }
         
         userRepository.save(user);
@@ -331,6 +301,7 @@ public class UserController {
         
         User user = userOpt.get();
         User.Role rolAnterior = user.getRole();
+        Boolean activoAnterior = user.getActive();
         boolean rolCambioAEstilista = false;
         
         if (updates.containsKey("nombre")) {
@@ -365,11 +336,16 @@ public class UserController {
         }
         
         if (updates.containsKey("contraseña")) {
-            user.setPassword(updates.get("contraseña").toString());
+            user.setPassword(passwordHashingService.encode(updates.get("contraseña").toString()));
         }
         
         userRepository.save(user);
         
+        // Los tokens emitidos con el rol anterior o antes de la desactivación dejan de ser válidos
+        if (user.getRole() != rolAnterior || !java.util.Objects.equals(user.getActive(), activoAnterior)) {
+            tokenRevocationService.revokeAllForUser(user.getUserId());
+        }
+        
         // Si cambió a ESTILISTA, crear disponibilidades por defecto
         if (rolCambioAEstilista) {
             createDefaultAvailabilities(user.getUserId());
@@ -399,7 +375,7 @@ public class UserController {
     
     @PatchMapping("/{id}/activo")
     @PreAuthorize("hasRole('ADMINISTRADOR')")
-    public ResponseEntity<Map<String, Object>> toggleUserActive(
+    public ResponseEntity<UserSummaryDTO> toggleUserActive(
             @Parameter(description = "ID del usuario", required = true, example = "1")
             @PathVariable Long id) {
         Optional<User> userOpt = userRepository.findById(id);
@@ -412,16 +388,10 @@ public class UserController {
         user.setActive(!user.getActive());
         userRepository.save(user);
         
-        Map<String, Object> response = new HashMap<>();
-        response.put("usuarioId", user.getUserId());
-        response.put("nombre", user.getName());
-        response.put("username", user.getUsername());
-        response.put("email", user.getEmail());
-        response.put("rol", user.getRole() != null ? user.getRole().name() : null);
-        response.put("activo", user.getActive());
-        response.put("phone", user.getPhone());
+        // Invalidar los tokens emitidos hasta ahora (al desactivar deben dejar de funcionar de inmediato)
+        tokenRevocationService.revokeAllForUser(user.getUserId());
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(UserSummaryDTO.from(user));
     }
     
     /**
@@ -435,7 +405,7 @@ public class UserController {
             
             // Solo crear si no tiene disponibilidades
             if (existing == null || existing.isEmpty()) {
-                logger.info("Creando disponibilidades por defecto para estilista ID: {}", stylistId);
+                logger.debug("Creando disponibilidades por defecto para estilista ID: {}", stylistId);
                 java.time.DayOfWeek[] diasSemana = {
                     java.time.DayOfWeek.MONDAY,
                     java.time.DayOfWeek.TUESDAY,
@@ -489,27 +459,12 @@ public class UserController {
             )
     })
     @GetMapping("/public/estilistas")
-    public ResponseEntity<List<Map<String, Object>>> getEstilistasPublicos() {
-        List<User> estilistas = userRepository.findByRoleAndActive(User.Role.ESTILISTA, true);
-        List<Map<String, Object>> response = estilistas.stream()
-                .map(user -> {
-                    Map<String, Object> userMap = new HashMap<>();
-                    userMap.put("usuarioId", user.getUserId());
-                    // Asegurar que el nombre se codifique correctamente con UTF-8
-                    String nombre = user.getName() != null ? user.getName() : "";
-                    userMap.put("nombre", nombre);
-                    userMap.put("username", user.getUsername());
-                    userMap.put("email", user.getEmail());
-                    // Convertir el enum a String para la respuesta JSON
-                    userMap.put("rol", user.getRole() != null ? user.getRole().name() : null);
-                    userMap.put("activo", user.getActive());
-                    return userMap;
-                })
+    public ResponseEntity<List<PublicStylistDTO>> getEstilistasPublicos() {
+        List<PublicStylistDTO> response = userRepository.findByRoleAndActive(User.Role.ESTILISTA, true).stream()
+                .map(PublicStylistDTO::from)
                 .toList();
-        // Asegurar que la respuesta use UTF-8 explícitamente
-        return ResponseEntity.ok()
-                .header("Content-Type", "application/json; charset=UTF-8")
-                .body(response);
+        // El charset UTF-8 lo añade el conversor de Jackson (JacksonConfig)
+        return ResponseEntity.ok(response);
     }
 }
 
@@ -28,5 +28,12 @@ public class AuthResponse {
     
     @Schema(description = "Rol del usuario", example = "CLIENTE", allowableValues = {"CLIENTE", "ESTILISTA", "ADMINISTRADOR"})
     private User.Role role;
+
+    /**
+     * Copia sin el token, para guardarla (p. ej. como respuesta idempotente).
+     */
+    public AuthResponse withoutToken() {
+        return new AuthResponse(null, type, userId, name, email, role);
+    }
 }
 
@@ -0,0 +1,23 @@
+package com.bookmycut.dto;
+
+import com.bookmycut.entities.User;
+
+/**
+ * Respuesta de {@code GET /usuarios/me}: datos básicos del usuario autenticado, sin contraseña.
+ */
+public record CurrentUserDTO(
+        Long usuarioId,
+        String nombre,
+        String email,
+        String rol,
+        Boolean activo) {
+
+    public static CurrentUserDTO from(User user) {
+        return new CurrentUserDTO(
+                user.getUserId(),
+                user.getName(),
+                user.getEmail(),
+                user.getRole() != null ? user.getRole().name() : null,
+                user.getActive());
+    }
+}
@@ -7,6 +7,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+
 @Schema(description = "DTO para crear una nueva notificación")
 @Data
 @NoArgsConstructor
@@ -29,6 +32,15 @@ public class NotificationCreateDTO {
     
     @Schema(description = "ID de la cita relacionada (opcional)", example = "5")
     private Long relatedAppointmentId;
+    
+    @Schema(hidden = true)
+    private Long salonId; // Salón del destinatario; lo rellena el servidor (outbox, recordatorios)
+    
+    @Schema(hidden = true)
+    private LocalDate relatedAppointmentDate; // Horario de la cita recordada; lo rellenan los recordatorios
+    
+    @Schema(hidden = true)
+    private LocalTime relatedAppointmentStartTime;
 }
 
 
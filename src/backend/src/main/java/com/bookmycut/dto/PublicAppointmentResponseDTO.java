@@ -23,6 +23,13 @@ public class PublicAppointmentResponseDTO {
     
     @Schema(description = "Información de autenticación (solo si se proporcionó token)")
     private AuthResponse auth;
+
+    /**
+     * Copia sin el token, para guardarla (p. ej. como respuesta idempotente).
+     */
+    public PublicAppointmentResponseDTO withoutToken() {
+        return new PublicAppointmentResponseDTO(appointment, null, auth != null ? auth.withoutToken() : null);
+    }
 }
 
 
@@ -0,0 +1,25 @@
+package com.bookmycut.dto;
+
+import com.bookmycut.entities.User;
+
+/**
+ * Estilista en el listado público ({@code GET /usuarios/public/estilistas}) que usan los clientes al reservar.
+ */
+public record PublicStylistDTO(
+        Long usuarioId,
+        String nombre,
+        String username,
+        String email,
+        String rol,
+        Boolean activo) {
+
+    public static PublicStylistDTO from(User user) {
+        return new PublicStylistDTO(
+                user.getUserId(),
+                user.getName() != null ? user.getName() : "",
+                user.getUsername(),
+                user.getEmail(),
+                user.getRole() != null ? user.getRole().name() : null,
+                user.getActive());
+    }
+}
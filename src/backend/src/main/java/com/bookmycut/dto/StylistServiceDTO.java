@@ -0,0 +1,25 @@
+package com.bookmycut.dto;
+
+import com.bookmycut.entities.ServiceOffer;
+
+import java.math.BigDecimal;
+
+/**
+ * Servicio que ofrece un estilista ({@code GET /estilistas/{id}/servicios} y {@code /estilistas/me/servicios}).
+ */
+public record StylistServiceDTO(
+        Long serviceId,
+        String name,
+        String description,
+        Integer duration,
+        BigDecimal unitPrice) {
+
+    public static StylistServiceDTO from(ServiceOffer service) {
+        return new StylistServiceDTO(
+                service.getServiceId(),
+                service.getName(),
+                service.getDescription() != null ? service.getDescription() : "",
+                service.getDuration(),
+                service.getUnitPrice());
+    }
+}
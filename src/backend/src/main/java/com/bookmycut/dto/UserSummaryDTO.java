@@ -0,0 +1,28 @@
+package com.bookmycut.dto;
+
+import com.bookmycut.entities.User;
+
+/**
+ * Respuesta de usuario para la gestión de administradores ({@code GET /usuarios}, {@code GET /usuarios/{id}}).
+ * Los nombres de los componentes son las claves del JSON que espera el frontend.
+ */
+public record UserSummaryDTO(
+        Long usuarioId,
+        String nombre,
+        String username,
+        String email,
+        String rol,
+        Boolean activo,
+        String phone) {
+
+    public static UserSummaryDTO from(User user) {
+        return new UserSummaryDTO(
+                user.getUserId(),
+                user.getName(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getRole() != null ? user.getRole().name() : null,
+                user.getActive(),
+                user.getPhone());
+    }
+}
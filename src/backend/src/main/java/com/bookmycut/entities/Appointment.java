@@ -1,10 +1,16 @@
 package com.bookmycut.entities;
 
+import com.bookmycut.tenancy.TenantContext;
+import com.bookmycut.tenancy.TenantEntityListener;
+import com.bookmycut.tenancy.TenantScoped;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Filter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -22,17 +28,22 @@ import java.util.List;
  */
 @Entity
 @Table(name = "citas")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, TenantEntityListener.class})
+@Filter(name = TenantContext.FILTER_NAME, condition = "salon_id = :" + TenantContext.FILTER_PARAMETER)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Appointment {
+public class Appointment implements TenantScoped {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "cita_id")
     private Long appointmentId;
     
+    @Column(name = "salon_id", nullable = false, updatable = false)
+    @ColumnDefault("1")
+    private Long salonId;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id", nullable = false)
     @NotNull(message = "El cliente es obligatorio")
@@ -66,7 +77,12 @@ public class Appointment {
     @NotNull(message = "El precio total es obligatorio")
     private BigDecimal totalPrice;
     
+    /**
+     * Loaded in batches when a list of appointments is mapped to DTOs: one query per 50 appointments
+     * instead of one per appointment.
+     */
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(
         name = "cita_servicio",
         joinColumns = @JoinColumn(name = "cita_id"),
@@ -83,6 +99,11 @@ public class Appointment {
     @Column(name = "last_modified_date")
     private LocalDateTime lastModifiedDate;
     
+    @Override
+    public Long ownerSalonId() {
+        return stylist != null ? stylist.getSalonId() : null;
+    }
+    
     public enum AppointmentStatus {
         CONFIRMADA,
         CANCELADA,
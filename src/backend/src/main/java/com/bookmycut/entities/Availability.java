@@ -1,26 +1,37 @@
 package com.bookmycut.entities;
 
+import com.bookmycut.tenancy.TenantContext;
+import com.bookmycut.tenancy.TenantEntityListener;
+import com.bookmycut.tenancy.TenantScoped;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Filter;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
 
 @Entity
 @Table(name = "disponibilidades")
+@EntityListeners(TenantEntityListener.class)
+@Filter(name = TenantContext.FILTER_NAME, condition = "salon_id = :" + TenantContext.FILTER_PARAMETER)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Availability {
+public class Availability implements TenantScoped {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "disp_id")
     private Long availabilityId;
     
+    @Column(name = "salon_id", nullable = false, updatable = false)
+    @ColumnDefault("1")
+    private Long salonId;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "estilista_id", nullable = false)
     @NotNull(message = "El estilista es obligatorio")
@@ -38,4 +49,9 @@ public class Availability {
     @Column(name = "hora_fin", nullable = false)
     @NotNull(message = "La hora de fin es obligatoria")
     private LocalTime endTime;
+    
+    @Override
+    public Long ownerSalonId() {
+        return stylist != null ? stylist.getSalonId() : null;
+    }
 }
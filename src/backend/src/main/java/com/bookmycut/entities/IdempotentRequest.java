@@ -0,0 +1,48 @@
+package com.bookmycut.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing the stored response of a request sent with an Idempotency-Key header.
+ * It is written in the same transaction as the operation, so it only exists if the operation committed.
+ */
+@Entity
+@Table(name = "peticiones_idempotentes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotentRequest {
+
+    /**
+     * SHA-256 (hex) of the endpoint, the caller and the Idempotency-Key.
+     */
+    @Id
+    @Column(name = "clave_id", length = 64)
+    private String keyId;
+
+    /**
+     * SHA-256 (hex) of the original request body.
+     */
+    @Column(name = "huella", nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(name = "codigo_respuesta", nullable = false)
+    private Integer responseStatus;
+
+    /**
+     * JSON body of the original response.
+     */
+    @Column(name = "cuerpo_respuesta", nullable = false, columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private LocalDateTime createdDate;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -1,31 +1,53 @@
 package com.bookmycut.entities;
 
+import com.bookmycut.tenancy.TenantContext;
+import com.bookmycut.tenancy.TenantEntityListener;
+import com.bookmycut.tenancy.TenantScoped;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Filter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 /**
  * Entity representing a notification in the system.
+ * An appointment reminder is unique per appointment, schedule and recipient.
  */
 @Entity
-@Table(name = "notificaciones")
-@EntityListeners(AuditingEntityListener.class)
+@Table(name = "notificaciones", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_recordatorio_cita_horario", columnNames = {
+        "related_appointment_id", "type", "related_appointment_date", "related_appointment_start_time", "usuario_id"})
+})
+@EntityListeners({AuditingEntityListener.class, TenantEntityListener.class})
+@Filter(name = TenantContext.FILTER_NAME, condition = "salon_id = :" + TenantContext.FILTER_PARAMETER)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Notification {
+public class Notification implements TenantScoped {
     
+    /**
+     * ID generated from the notificaciones_seq table with a pooled optimizer: IDs are reserved
+     * in blocks of 50, so Hibernate knows them before the INSERT and can batch the statements
+     * (IDENTITY forces one INSERT per row to read the generated key back).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notificaciones_seq")
+    @SequenceGenerator(name = "notificaciones_seq", sequenceName = "notificaciones_seq", allocationSize = 50)
     @Column(name = "notificacion_id")
     private Long notificationId;
     
+    @Column(name = "salon_id", nullable = false, updatable = false)
+    @ColumnDefault("1")
+    private Long salonId;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", nullable = false)
     @NotNull(message = "El usuario es obligatorio")
@@ -48,10 +70,25 @@ public class Notification {
     @Column(name = "related_appointment_id")
     private Long relatedAppointmentId;
     
+    /**
+     * Date and start time of the appointment when the reminder was created. Reminders are deduplicated
+     * on (appointment, slot), so rescheduling an appointment makes it eligible for a new reminder.
+     */
+    @Column(name = "related_appointment_date")
+    private LocalDate relatedAppointmentDate;
+    
+    @Column(name = "related_appointment_start_time")
+    private LocalTime relatedAppointmentStartTime;
+    
     @CreatedDate
     @Column(name = "created_date", updatable = false)
     private LocalDateTime createdDate;
     
+    @Override
+    public Long ownerSalonId() {
+        return user != null ? user.getSalonId() : null;
+    }
+    
     public enum NotificationType {
         INFO,
         SUCCESS,
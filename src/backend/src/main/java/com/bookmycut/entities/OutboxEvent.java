@@ -0,0 +1,63 @@
+package com.bookmycut.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a pending event of the transactional outbox.
+ * It is written in the same transaction as the booking and processed later by
+ * {@code NotificationOutboxDispatcher}, which materializes the notifications and pushes them.
+ */
+@Entity
+@Table(name = "eventos_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "evento_id")
+    private Long eventId;
+
+    @Column(name = "tipo", nullable = false, length = 40)
+    private String eventType;
+
+    @Column(name = "cita_id")
+    private Long appointmentId;
+
+    /**
+     * JSON payload (the notifications to create).
+     */
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private Status status = Status.PENDIENTE;
+
+    @Column(name = "intentos", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "reclamado_en")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private LocalDateTime createdDate;
+
+    public enum Status {
+        PENDIENTE,
+        PROCESANDO,
+        FALLIDO
+    }
+}
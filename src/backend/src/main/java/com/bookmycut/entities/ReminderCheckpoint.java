@@ -0,0 +1,34 @@
+package com.bookmycut.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing the progress of the reminder run for one appointment date.
+ * Appointments are processed in ID order, so the last processed ID is enough to resume.
+ */
+@Entity
+@Table(name = "recordatorios_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderCheckpoint {
+
+    @Id
+    @Column(name = "fecha_cita")
+    private LocalDate appointmentDate;
+
+    @Column(name = "ultima_cita_id", nullable = false)
+    private Long lastAppointmentId = 0L;
+
+    @Column(name = "completado", nullable = false)
+    private Boolean completed = false;
+
+    @Column(name = "actualizado_en", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,34 @@
+package com.bookmycut.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a revoked JWT.
+ * The identifier is the token's jti, or "usuario:{id}" when every token of a user
+ * issued before the revocation date must be rejected (e.g. after deactivating the user).
+ */
+@Entity
+@Table(name = "tokens_revocados")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @Column(name = "token_id", length = 64)
+    private String tokenId;
+
+    @Column(name = "usuario_id")
+    private Long userId;
+
+    @Column(name = "revocado_en", nullable = false)
+    private LocalDateTime revokedAt;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiresAt;
+}
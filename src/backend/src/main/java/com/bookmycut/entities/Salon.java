@@ -0,0 +1,41 @@
+package com.bookmycut.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a salon (tenant).
+ * Users, services, appointments, availabilities, schedule exceptions and notifications
+ * belong to a salon through their salon_id column. A salon can be reached through its
+ * own host name; otherwise it is resolved from the salon claim of the JWT.
+ */
+@Entity
+@Table(name = "salones")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Salon {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "salon_id")
+    private Long salonId;
+
+    @Column(name = "nombre", nullable = false, length = 100)
+    private String name;
+
+    @Column(unique = true)
+    private String host;
+
+    @Column(name = "activo", nullable = false)
+    private Boolean active = true;
+
+    @Column(name = "created_date", nullable = false, updatable = false, insertable = false)
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    private LocalDateTime createdDate;
+}
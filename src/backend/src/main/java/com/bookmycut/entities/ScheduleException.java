@@ -1,26 +1,37 @@
 package com.bookmycut.entities;
 
+import com.bookmycut.tenancy.TenantContext;
+import com.bookmycut.tenancy.TenantEntityListener;
+import com.bookmycut.tenancy.TenantScoped;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Filter;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
 @Table(name = "excepciones_horario")
+@EntityListeners(TenantEntityListener.class)
+@Filter(name = TenantContext.FILTER_NAME, condition = "salon_id = :" + TenantContext.FILTER_PARAMETER)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class ScheduleException {
+public class ScheduleException implements TenantScoped {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "excep_horario_id")
     private Long scheduleExceptionId;
     
+    @Column(name = "salon_id", nullable = false, updatable = false)
+    @ColumnDefault("1")
+    private Long salonId;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "estilista_id")
     private User stylist; // Optional: null means for all stylists
@@ -48,6 +59,11 @@ public class ScheduleException {
     @Column(length = 500)
     private String reason;
     
+    @Override
+    public Long ownerSalonId() {
+        return administrator != null ? administrator.getSalonId() : null;
+    }
+    
     public enum ExceptionType {
         DISPONIBLE,
         NO_DISPONIBLE
@@ -1,5 +1,8 @@
 package com.bookmycut.entities;
 
+import com.bookmycut.tenancy.TenantContext;
+import com.bookmycut.tenancy.TenantEntityListener;
+import com.bookmycut.tenancy.TenantScoped;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -7,6 +10,8 @@ import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Filter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -22,17 +27,22 @@ import java.util.List;
  */
 @Entity
 @Table(name = "servicios")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, TenantEntityListener.class})
+@Filter(name = TenantContext.FILTER_NAME, condition = "salon_id = :" + TenantContext.FILTER_PARAMETER)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class ServiceOffer {
+public class ServiceOffer implements TenantScoped {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "servicio_id")
     private Long serviceId;
     
+    @Column(name = "salon_id", nullable = false, updatable = false)
+    @ColumnDefault("1")
+    private Long salonId;
+    
     @NotBlank(message = "El nombre del servicio es obligatorio")
     @Column(nullable = false, length = 100)
     private String name;
@@ -1,5 +1,8 @@
 package com.bookmycut.entities;
 
+import com.bookmycut.tenancy.TenantContext;
+import com.bookmycut.tenancy.TenantEntityListener;
+import com.bookmycut.tenancy.TenantScoped;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -7,6 +10,10 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -19,31 +26,41 @@ import java.util.List;
  * Entity representing a user in the system.
  * Uses a single table with a role field instead of inheritance.
  * Includes audit fields to track creation and modification dates.
+ * Username and email are unique within each salon.
  */
 @Entity
-@Table(name = "usuarios")
-@EntityListeners(AuditingEntityListener.class)
+@Table(name = "usuarios", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_salon_username", columnNames = {"salon_id", "username"}),
+    @UniqueConstraint(name = "uk_salon_email", columnNames = {"salon_id", "email"})
+})
+@EntityListeners({AuditingEntityListener.class, TenantEntityListener.class})
+@FilterDef(name = TenantContext.FILTER_NAME, parameters = @ParamDef(name = TenantContext.FILTER_PARAMETER, type = Long.class))
+@Filter(name = TenantContext.FILTER_NAME, condition = "salon_id = :" + TenantContext.FILTER_PARAMETER)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class User {
+public class User implements TenantScoped {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "usuario_id")
     private Long userId;
     
+    @Column(name = "salon_id", nullable = false, updatable = false)
+    @ColumnDefault("1")
+    private Long salonId;
+    
     @NotBlank(message = "El nombre es obligatorio")
     @Size(min = 2, max = 100, message = "El nombre debe tener entre 2 y 100 caracteres")
     @Column(nullable = false, length = 100)
     private String name;
     
     @Size(min = 3, max = 50, message = "El username debe tener entre 3 y 50 caracteres")
-    @Column(name = "username", unique = true, length = 50)
+    @Column(name = "username", length = 50)
     private String username; // Requerido para ESTILISTA y ADMINISTRADOR, opcional para CLIENTE
     
     @Email(message = "El email debe tener un formato válido")
-    @Column(nullable = true, unique = true, length = 100)
+    @Column(nullable = true, length = 100)
     private String email; // Opcional, solo para clientes
     
     @NotBlank(message = "La contraseña es obligatoria")
@@ -0,0 +1,22 @@
+package com.bookmycut.exception;
+
+/**
+ * Excepción lanzada cuando el servicio está saturado temporalmente y la petición puede reintentarse más tarde.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+    
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
+
+
+
+
+
+
+
@@ -0,0 +1,86 @@
+package com.bookmycut.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Muestreo por logger para eventos de mucho volumen: de cada N eventos INFO (o inferiores) se escribe uno.
+ * WARN y ERROR no se muestrean nunca.
+ *
+ * Se configura en logback-spring.xml con {@code logging.sampling.rules}:
+ * {@code prefijo=N,prefijo=N}, donde el prefijo es un nombre de logger o paquete y gana el más largo.
+ * Los eventos de niveles desactivados no consumen el contador.
+ */
+public class LogSamplingTurboFilter extends TurboFilter {
+
+    /** Contador compartido por todos los loggers de una misma regla. */
+    private record Sampler(int rate, AtomicLong counter) {
+    }
+
+    /** Resultado cacheado para loggers sin regla. */
+    private static final Sampler NO_RULE = new Sampler(1, new AtomicLong());
+
+    private final Map<String, Sampler> samplersByRule = new LinkedHashMap<>();
+    private final Map<String, Sampler> samplersByLogger = new ConcurrentHashMap<>();
+    private String rules = "";
+
+    public void setRules(String rules) {
+        this.rules = rules != null ? rules : "";
+    }
+
+    @Override
+    public void start() {
+        samplersByRule.clear();
+        samplersByLogger.clear();
+        for (String rule : rules.split(",")) {
+            String[] parts = rule.trim().split("=");
+            if (parts.length != 2 || parts[0].isBlank()) {
+                continue;
+            }
+            try {
+                int rate = Integer.parseInt(parts[1].trim());
+                if (rate > 1) {
+                    samplersByRule.put(parts[0].trim(), new Sampler(rate, new AtomicLong()));
+                }
+            } catch (NumberFormatException e) {
+                addWarn("Regla de muestreo de logs inválida: " + rule);
+            }
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (samplersByRule.isEmpty() || logger == null || level == null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        // getEffectiveLevel no vuelve a pasar por los turbo filters (isEnabledFor sí)
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Sampler sampler = samplersByLogger.computeIfAbsent(logger.getName(), this::samplerFor);
+        if (sampler == NO_RULE) {
+            return FilterReply.NEUTRAL;
+        }
+        return sampler.counter().getAndIncrement() % sampler.rate() == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private Sampler samplerFor(String loggerName) {
+        String best = null;
+        for (String prefix : samplersByRule.keySet()) {
+            boolean matches = loggerName.equals(prefix) || loggerName.startsWith(prefix + ".");
+            if (matches && (best == null || prefix.length() > best.length())) {
+                best = prefix;
+            }
+        }
+        return best != null ? samplersByRule.get(best) : NO_RULE;
+    }
+}
@@ -0,0 +1,41 @@
+package com.bookmycut.logging;
+
+import com.bookmycut.tenancy.TenantContext;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Copia el MDC del hilo que lanza la tarea (p. ej. el {@code requestId} de la petición) al hilo que la
+ * ejecuta. Se aplica al ejecutor de {@code @Async} ({@code TaskExecutionConfig}), tanto con hilos de plataforma
+ * como virtuales.
+ * Propaga también el salón del hilo ({@link TenantContext}), para que la tarea consulte y guarde en el mismo
+ * salón y base de datos que la petición.
+ */
+@Component
+public class MdcTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return TenantContext.propagate(() -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            if (context != null) {
+                MDC.setContextMap(context);
+            } else {
+                MDC.clear();
+            }
+            try {
+                runnable.run();
+            } finally {
+                if (previous != null) {
+                    MDC.setContextMap(previous);
+                } else {
+                    MDC.clear();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,113 @@
+package com.bookmycut.metrics;
+
+import com.bookmycut.config.WebSocketSessionMetrics;
+import com.bookmycut.service.AppointmentReminderWheel;
+import com.bookmycut.service.NotificationInboxCache;
+import com.bookmycut.service.NotificationOutboxDispatcher;
+import com.bookmycut.service.NotificationReadCoalescer;
+import com.bookmycut.service.NotificationRetentionJob;
+import com.bookmycut.service.NotificationStreamRegistry;
+import com.bookmycut.service.PasswordHashingService;
+import com.bookmycut.service.PublicReadCoalescer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publica en Micrometer los contadores que ya mantienen los componentes (WebSocket, SSE, outbox,
+ * recordatorios, bandeja, retención, hashing de contraseñas y lecturas públicas agrupadas). El pool de Hikari, las peticiones HTTP y
+ * la JVM los instrumenta Spring Boot automáticamente.
+ */
+@Component
+public class ApplicationMetricsBinder implements MeterBinder {
+
+    @Autowired
+    private ObjectProvider<WebSocketSessionMetrics> webSocketMetrics;
+
+    @Autowired
+    private ObjectProvider<NotificationStreamRegistry> streamRegistry;
+
+    @Autowired
+    private ObjectProvider<NotificationOutboxDispatcher> outboxDispatcher;
+
+    @Autowired
+    private ObjectProvider<AppointmentReminderWheel> reminderWheel;
+
+    @Autowired
+    private ObjectProvider<NotificationInboxCache> inboxCache;
+
+    @Autowired
+    private ObjectProvider<NotificationReadCoalescer> readCoalescer;
+
+    @Autowired
+    private ObjectProvider<NotificationRetentionJob> retentionJob;
+
+    @Autowired
+    private ObjectProvider<PasswordHashingService> passwordHashingService;
+
+    @Autowired
+    private ObjectProvider<PublicReadCoalescer> publicReadCoalescer;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        webSocketMetrics.ifAvailable(metrics -> {
+            gauge(registry, "bookmycut.websocket.sessions", metrics, WebSocketSessionMetrics::getOpenSessions);
+            gauge(registry, "bookmycut.websocket.inbound.queue", metrics, WebSocketSessionMetrics::getInboundQueueDepth);
+            gauge(registry, "bookmycut.websocket.outbound.queue", metrics, WebSocketSessionMetrics::getOutboundQueueDepth);
+            counter(registry, "bookmycut.websocket.sessions.opened", metrics, WebSocketSessionMetrics::getOpenedSessions);
+            counter(registry, "bookmycut.websocket.slow.consumers", metrics, WebSocketSessionMetrics::getSlowConsumersDropped);
+        });
+        streamRegistry.ifAvailable(sse -> {
+            gauge(registry, "bookmycut.sse.connections", sse, NotificationStreamRegistry::getConnectionCount);
+            counter(registry, "bookmycut.sse.events.sent", sse, NotificationStreamRegistry::getSentCount);
+            counter(registry, "bookmycut.sse.dropped", sse, NotificationStreamRegistry::getDroppedCount);
+        });
+        outboxDispatcher.ifAvailable(outbox -> {
+            gauge(registry, "bookmycut.outbox.pending", outbox, NotificationOutboxDispatcher::getPendingCount);
+            counter(registry, "bookmycut.outbox.processed", outbox, NotificationOutboxDispatcher::getProcessedCount);
+            counter(registry, "bookmycut.outbox.retried", outbox, NotificationOutboxDispatcher::getRetriedCount);
+            counter(registry, "bookmycut.outbox.failed", outbox, NotificationOutboxDispatcher::getFailedCount);
+        });
+        reminderWheel.ifAvailable(wheel -> {
+            gauge(registry, "bookmycut.reminders.scheduled", wheel, AppointmentReminderWheel::getScheduledCount);
+            counter(registry, "bookmycut.reminders.fired", wheel, AppointmentReminderWheel::getFiredCount);
+            counter(registry, "bookmycut.reminders.sent", wheel, AppointmentReminderWheel::getSentCount);
+        });
+        inboxCache.ifAvailable(cache -> {
+            gauge(registry, "bookmycut.inbox.users", cache, NotificationInboxCache::size);
+            counter(registry, "bookmycut.inbox.hits", cache, NotificationInboxCache::getHitCount);
+            counter(registry, "bookmycut.inbox.misses", cache, NotificationInboxCache::getMissCount);
+        });
+        readCoalescer.ifAvailable(coalescer -> {
+            counter(registry, "bookmycut.notifications.read.acks", coalescer, NotificationReadCoalescer::getReceivedCount);
+            counter(registry, "bookmycut.notifications.read.flushes", coalescer, NotificationReadCoalescer::getFlushCount);
+        });
+        retentionJob.ifAvailable(job ->
+                counter(registry, "bookmycut.notifications.purged", job, NotificationRetentionJob::getPurgedCount));
+        passwordHashingService.ifAvailable(hashing -> {
+            gauge(registry, "bookmycut.password.hashing.active", hashing, PasswordHashingService::getActiveCount);
+            gauge(registry, "bookmycut.password.hashing.queue", hashing, PasswordHashingService::getQueueSize);
+            counter(registry, "bookmycut.password.hashing.rejected", hashing, PasswordHashingService::getRejectedCount);
+            counter(registry, "bookmycut.password.hashing.timeouts", hashing, PasswordHashingService::getTimeoutCount);
+        });
+        publicReadCoalescer.ifAvailable(coalescer -> {
+            gauge(registry, "bookmycut.public.reads.entries", coalescer, PublicReadCoalescer::size);
+            counter(registry, "bookmycut.public.reads.loads", coalescer, PublicReadCoalescer::getLoadCount);
+            counter(registry, "bookmycut.public.reads.shared", coalescer, PublicReadCoalescer::getSharedCount);
+        });
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value) {
+        Gauge.builder(name, source, value).register(registry);
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value) {
+        FunctionCounter.builder(name, source, value).register(registry);
+    }
+}
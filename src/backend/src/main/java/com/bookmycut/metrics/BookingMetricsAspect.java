@@ -0,0 +1,106 @@
+package com.bookmycut.metrics;
+
+import com.bookmycut.dto.NotificationDTO;
+import com.bookmycut.exception.BadRequestException;
+import com.bookmycut.exception.ConflictException;
+import com.bookmycut.exception.ForbiddenException;
+import com.bookmycut.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Métricas de las rutas de reserva.
+ *
+ * <ul>
+ *   <li>{@code bookmycut.appointments.save}: duración de {@code createAppointment}/{@code updateAppointment}
+ *       por operación y resultado (ok, conflict, bad_request, not_found, forbidden, error).</li>
+ *   <li>{@code bookmycut.notifications.created}: notificaciones creadas por tipo.</li>
+ * </ul>
+ *
+ * Se ejecuta por fuera de la transacción para contar también los fallos al hacer commit.
+ */
+@Aspect
+@Component
+@Order(0)
+public class BookingMetricsAspect {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("execution(* com.bookmycut.service.AppointmentService.createAppointment(..))")
+    public Object timeCreate(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("create", joinPoint);
+    }
+
+    @Around("execution(* com.bookmycut.service.AppointmentService.updateAppointment(..))")
+    public Object timeUpdate(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("update", joinPoint);
+    }
+
+    @AfterReturning(pointcut = "execution(* com.bookmycut.service.NotificationService.createNotification*(..))",
+                    returning = "result")
+    public void countNotifications(Object result) {
+        if (result instanceof NotificationDTO dto) {
+            countNotification(dto);
+        } else if (result instanceof Collection<?> dtos) {
+            dtos.forEach(dto -> {
+                if (dto instanceof NotificationDTO notification) {
+                    countNotification(notification);
+                }
+            });
+        }
+    }
+
+    private Object time(String operation, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "ok";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("bookmycut.appointments.save")
+                    .description("Duración de la creación y modificación de citas")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private void countNotification(NotificationDTO dto) {
+        Counter.builder("bookmycut.notifications.created")
+                .description("Notificaciones creadas")
+                .tag("type", dto.getType() != null ? dto.getType().name() : "UNKNOWN")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    static String outcomeOf(Throwable e) {
+        if (e instanceof ConflictException || e instanceof DataIntegrityViolationException) {
+            return "conflict";
+        }
+        if (e instanceof BadRequestException) {
+            return "bad_request";
+        }
+        if (e instanceof ResourceNotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof ForbiddenException) {
+            return "forbidden";
+        }
+        return "error";
+    }
+}
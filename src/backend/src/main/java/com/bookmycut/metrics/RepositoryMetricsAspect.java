@@ -0,0 +1,76 @@
+package com.bookmycut.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia por método de repositorio ({@code bookmycut.repository.query}, etiquetado con repositorio y
+ * método) y registro de las consultas que superan {@code metrics.slow-query-ms}.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryMetricsAspect.class);
+
+    private static final String REPOSITORY_PACKAGE = "com.bookmycut.repositories.";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${metrics.slow-query-ms:200}")
+    private long slowQueryMs;
+
+    /** Nombre del repositorio de la aplicación por clase de proxy. */
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeQuery(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = "ok";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            String repository = repositoryName(joinPoint.getThis().getClass());
+            String method = joinPoint.getSignature().getName();
+            Timer.builder("bookmycut.repository.query")
+                    .description("Duración de las llamadas a repositorios")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsed);
+            if (elapsedMs >= slowQueryMs) {
+                logger.warn("Consulta lenta: {}.{} tardó {} ms", repository, method, elapsedMs);
+            }
+        }
+    }
+
+    private String repositoryName(Class<?> proxyClass) {
+        return repositoryNames.computeIfAbsent(proxyClass, type -> {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (candidate.getName().startsWith(REPOSITORY_PACKAGE)) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package com.bookmycut.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Duración de cada ejecución de las tareas {@code @Scheduled} de los servicios ({@code bookmycut.scheduler.run},
+ * etiquetado con la tarea y el resultado). Los filtros se dejan fuera: un proxy CGLIB no puede interceptar
+ * los métodos finales de {@code OncePerRequestFilter}.
+ */
+@Aspect
+@Component
+public class ScheduledTaskMetricsAspect {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("@annotation(org.springframework.scheduling.annotation.Scheduled) && within(com.bookmycut.service..*)")
+    public Object timeRun(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "ok";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            String task = joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                    + joinPoint.getSignature().getName();
+            sample.stop(Timer.builder("bookmycut.scheduler.run")
+                    .description("Duración de las tareas programadas")
+                    .tag("task", task)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
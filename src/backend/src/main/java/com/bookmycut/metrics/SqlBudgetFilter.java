@@ -0,0 +1,102 @@
+package com.bookmycut.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Presupuesto de sentencias SQL por petición HTTP.
+ *
+ * Cuenta las sentencias y su tiempo de ejecución (ver {@link SqlStatementContext}) y registra un WARN si
+ * la petición supera {@code sql.budget.max-statements} o si una misma sentencia se repite
+ * {@code sql.budget.n-plus-one-threshold} veces o más (patrón N+1). Con {@code sql.budget.expose-header}
+ * los valores se devuelven en las cabeceras {@code X-SQL-Statements} y {@code X-SQL-Time-Ms}; pensado
+ * para desarrollo y tests, en producción debe desactivarse.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    @Value("${sql.budget.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sql.budget.max-statements:20}")
+    private int maxStatements;
+
+    @Value("${sql.budget.n-plus-one-threshold:5}")
+    private int nPlusOneThreshold;
+
+    @Value("${sql.budget.expose-header:false}")
+    private boolean exposeHeader;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementContext.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementContext context = SqlStatementContext.close();
+            if (context != null) {
+                report(request, response, context);
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, HttpServletResponse response, SqlStatementContext context) {
+        int statements = context.getStatements();
+        if (exposeHeader && !response.isCommitted()) {
+            writeHeaders(response, context);
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            DistributionSummary.builder("bookmycut.http.sql.statements")
+                    .description("Sentencias SQL por petición HTTP")
+                    .register(registry)
+                    .record(statements);
+        }
+        String endpoint = request.getMethod() + " " + request.getRequestURI();
+        if (statements > maxStatements) {
+            logger.warn("Presupuesto SQL superado en {}: {} sentencias (máximo {}), {} ms",
+                    endpoint, statements, maxStatements, context.getExecutionMillis());
+        }
+        Map.Entry<String, Integer> mostRepeated = context.getMostRepeated();
+        if (mostRepeated != null && mostRepeated.getValue() >= nPlusOneThreshold) {
+            logger.warn("Posible N+1 en {}: la misma sentencia se ejecutó {} veces: {}",
+                    endpoint, mostRepeated.getValue(), mostRepeated.getKey());
+        }
+    }
+
+    static void writeHeaders(HttpServletResponse response, SqlStatementContext context) {
+        response.setHeader(STATEMENTS_HEADER, String.valueOf(context.getStatements()));
+        response.setHeader(TIME_HEADER, String.valueOf(context.getExecutionMillis()));
+    }
+}
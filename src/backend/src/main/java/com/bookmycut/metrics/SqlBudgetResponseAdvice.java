@@ -0,0 +1,41 @@
+package com.bookmycut.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Escribe las cabeceras de {@link SqlBudgetFilter} justo antes de serializar el cuerpo: después el
+ * filtro ya no puede añadirlas porque la respuesta está confirmada.
+ */
+@ControllerAdvice
+public class SqlBudgetResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Value("${sql.budget.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sql.budget.expose-header:false}")
+    private boolean exposeHeader;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled && exposeHeader;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementContext context = SqlStatementContext.current();
+        if (context != null) {
+            response.getHeaders().set(SqlBudgetFilter.STATEMENTS_HEADER, String.valueOf(context.getStatements()));
+            response.getHeaders().set(SqlBudgetFilter.TIME_HEADER, String.valueOf(context.getExecutionMillis()));
+        }
+        return body;
+    }
+}
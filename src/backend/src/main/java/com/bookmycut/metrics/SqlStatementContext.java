@@ -0,0 +1,84 @@
+package com.bookmycut.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Recuento de sentencias SQL del hilo actual (normalmente, una petición HTTP).
+ *
+ * Lo abre {@link SqlBudgetFilter} al empezar la petición y lo alimentan {@link SqlStatementInspector}
+ * (número de sentencias y texto) y {@link SqlTimingSessionListener} (tiempo de ejecución). En hilos sin
+ * contexto abierto (tareas programadas, pools propios) no se cuenta nada.
+ */
+public final class SqlStatementContext {
+
+    /** Máximo de sentencias distintas que se guardan para detectar N+1. */
+    private static final int MAX_DISTINCT_STATEMENTS = 200;
+
+    private static final ThreadLocal<SqlStatementContext> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long executionNanos;
+    private final Map<String, Integer> countsBySql = new HashMap<>();
+
+    private SqlStatementContext() {
+    }
+
+    /**
+     * Abre un contexto nuevo en el hilo actual (sustituye al anterior si lo hubiera).
+     */
+    public static SqlStatementContext open() {
+        SqlStatementContext context = new SqlStatementContext();
+        CURRENT.set(context);
+        return context;
+    }
+
+    /**
+     * Cierra el contexto del hilo actual y lo devuelve (o null si no había).
+     */
+    public static SqlStatementContext close() {
+        SqlStatementContext context = CURRENT.get();
+        CURRENT.remove();
+        return context;
+    }
+
+    public static SqlStatementContext current() {
+        return CURRENT.get();
+    }
+
+    static void recordStatement(String sql) {
+        SqlStatementContext context = CURRENT.get();
+        if (context == null) {
+            return;
+        }
+        context.statements++;
+        if (context.countsBySql.size() < MAX_DISTINCT_STATEMENTS || context.countsBySql.containsKey(sql)) {
+            context.countsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    static void recordExecution(long nanos) {
+        SqlStatementContext context = CURRENT.get();
+        if (context != null) {
+            context.executionNanos += nanos;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getExecutionMillis() {
+        return executionNanos / 1_000_000;
+    }
+
+    /**
+     * La sentencia que más se ha repetido y cuántas veces, o null si no hubo ninguna. Una misma sentencia
+     * repetida muchas veces en una petición suele ser un N+1 (una consulta por elemento de una lista).
+     */
+    public Map.Entry<String, Integer> getMostRepeated() {
+        return countsBySql.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+    }
+}
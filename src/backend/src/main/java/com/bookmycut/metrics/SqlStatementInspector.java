@@ -0,0 +1,34 @@
+package com.bookmycut.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Registra en Hibernate el recuento de sentencias por petición: este inspector ve cada SQL antes de
+ * prepararse y {@link SqlTimingSessionListener} mide su ejecución. No modifica las sentencias.
+ */
+@Component
+public class SqlStatementInspector implements StatementInspector, HibernatePropertiesCustomizer {
+
+    @Value("${sql.budget.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        if (enabled) {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+            hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingSessionListener.class.getName());
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementContext.recordStatement(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bookmycut.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Mide el tiempo de ejecución JDBC de las sentencias y lotes de la sesión y lo suma al
+ * {@link SqlStatementContext} del hilo. Hibernate crea una instancia por sesión.
+ */
+public class SqlTimingSessionListener implements SessionEventListener {
+
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementContext.recordExecution(System.nanoTime() - executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatementContext.recordExecution(System.nanoTime() - batchStart);
+    }
+}
@@ -1,25 +1,55 @@
 package com.bookmycut.repositories;
 
 import com.bookmycut.entities.Appointment;
+import com.bookmycut.entities.Notification;
 import com.bookmycut.entities.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+
+    /*
+     * Los listados se convierten a AppointmentDTO, que lee el cliente, el estilista y los servicios de cada
+     * cita: el cliente y el estilista se cargan en la misma consulta y los servicios en bloque
+     * (@BatchSize en Appointment.services), en lugar de una consulta por cita.
+     */
+
+    @Override
+    @EntityGraph(attributePaths = {"client", "stylist"})
+    List<Appointment> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"client", "stylist"})
+    Page<Appointment> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"client", "stylist"})
     List<Appointment> findByClient(User client);
+
+    @EntityGraph(attributePaths = {"client", "stylist"})
     Page<Appointment> findByClient(User client, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"client", "stylist"})
     List<Appointment> findByStylist(User stylist);
+
+    @EntityGraph(attributePaths = {"client", "stylist"})
     Page<Appointment> findByStylist(User stylist, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"client", "stylist"})
     List<Appointment> findByDate(LocalDate date);
+
     List<Appointment> findByClientAndDateAfter(User client, LocalDate date);
+
+    @EntityGraph(attributePaths = {"client", "stylist"})
     List<Appointment> findByStylistAndDate(User stylist, LocalDate date);
     
     @Query("SELECT a FROM Appointment a WHERE a.stylist = :stylist AND a.date BETWEEN :startDate AND :endDate")
@@ -66,6 +96,77 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     
     List<Appointment> findByDateAndStatusOrderByStartTime(LocalDate date, Appointment.AppointmentStatus status);
     
+    /**
+     * Siguiente bloque (keyset por ID) de citas de una fecha y estado que aún no tienen una notificación
+     * del tipo indicado para su horario actual (fecha y hora de inicio). La exclusión se resuelve con un
+     * anti-join; una notificación de un horario anterior (cita reprogramada) no excluye la cita.
+     * El tamaño del bloque lo fija el {@link Pageable}.
+     */
+    @Query("SELECT a.appointmentId FROM Appointment a " +
+           "WHERE a.date = :date AND a.status = :status AND a.appointmentId > :afterId " +
+           "AND NOT EXISTS (SELECT n.notificationId FROM Notification n " +
+           "WHERE n.relatedAppointmentId = a.appointmentId AND n.type = :type " +
+           "AND n.relatedAppointmentDate = a.date AND n.relatedAppointmentStartTime = a.startTime) " +
+           "ORDER BY a.appointmentId")
+    List<Long> findIdsWithoutNotificationAfter(
+        @Param("date") LocalDate date,
+        @Param("status") Appointment.AppointmentStatus status,
+        @Param("afterId") Long afterId,
+        @Param("type") Notification.NotificationType type,
+        Pageable pageable
+    );
+    
+    /**
+     * Citas de un rango de fechas y estado sin notificación del tipo indicado para su horario actual,
+     * por bloques (keyset por ID). Usado para reconstruir la rueda de recordatorios al arrancar.
+     */
+    @Query("SELECT a FROM Appointment a " +
+           "WHERE a.date BETWEEN :fromDate AND :toDate AND a.status = :status AND a.appointmentId > :afterId " +
+           "AND NOT EXISTS (SELECT n.notificationId FROM Notification n " +
+           "WHERE n.relatedAppointmentId = a.appointmentId AND n.type = :type " +
+           "AND n.relatedAppointmentDate = a.date AND n.relatedAppointmentStartTime = a.startTime) " +
+           "ORDER BY a.appointmentId")
+    List<Appointment> findWithoutNotificationBetween(
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate,
+        @Param("status") Appointment.AppointmentStatus status,
+        @Param("afterId") Long afterId,
+        @Param("type") Notification.NotificationType type,
+        Pageable pageable
+    );
+    
+    /**
+     * De las citas indicadas, las que siguen en el estado dado y no tienen notificación del tipo indicado
+     * para su horario actual.
+     */
+    @Query("SELECT a.appointmentId FROM Appointment a " +
+           "WHERE a.appointmentId IN :ids AND a.status = :status " +
+           "AND NOT EXISTS (SELECT n.notificationId FROM Notification n " +
+           "WHERE n.relatedAppointmentId = a.appointmentId AND n.type = :type " +
+           "AND n.relatedAppointmentDate = a.date AND n.relatedAppointmentStartTime = a.startTime)")
+    List<Long> findIdsWithoutNotificationIn(
+        @Param("ids") Collection<Long> ids,
+        @Param("status") Appointment.AppointmentStatus status,
+        @Param("type") Notification.NotificationType type
+    );
+    
+    /**
+     * Bloquea las citas indicadas hasta el final de la transacción para crear sus recordatorios.
+     * SKIP LOCKED devuelve solo las que no tiene bloqueadas otra transacción (otro nodo enviando el mismo
+     * recordatorio o una modificación de la cita en curso), sin esperarla.
+     */
+    @Query(value = "SELECT cita_id FROM citas WHERE cita_id IN (:ids) ORDER BY cita_id FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Long> lockIdsIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Carga las citas indicadas con cliente, estilista y servicios en una sola consulta.
+     */
+    @Query("SELECT DISTINCT a FROM Appointment a " +
+           "JOIN FETCH a.client JOIN FETCH a.stylist LEFT JOIN FETCH a.services " +
+           "WHERE a.appointmentId IN :ids ORDER BY a.appointmentId")
+    List<Appointment> findWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+    
     /**
      * Busca citas por nombre del cliente (case-insensitive, contiene).
      */
@@ -87,6 +188,7 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     /**
      * Busca citas con múltiples criterios (paginado).
      */
+    @EntityGraph(attributePaths = {"client", "stylist"})
     @Query("SELECT DISTINCT a FROM Appointment a " +
            "LEFT JOIN a.services s " +
            "WHERE (:clientName IS NULL OR LOWER(a.client.name) LIKE LOWER(CONCAT('%', :clientName, '%'))) " +
@@ -106,6 +208,7 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     /**
      * Busca citas con múltiples criterios (sin paginación).
      */
+    @EntityGraph(attributePaths = {"client", "stylist"})
     @Query("SELECT DISTINCT a FROM Appointment a " +
            "LEFT JOIN a.services s " +
            "WHERE (:clientName IS NULL OR LOWER(a.client.name) LIKE LOWER(CONCAT('%', :clientName, '%'))) " +
@@ -2,6 +2,7 @@ package com.bookmycut.repositories;
 
 import com.bookmycut.entities.Availability;
 import com.bookmycut.entities.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,6 +11,16 @@ import java.util.List;
 
 @Repository
 public interface AvailabilityRepository extends JpaRepository<Availability, Long> {
+
+    /** Listado de todas las franjas: el estilista de cada una en la misma consulta. */
+    @Override
+    @EntityGraph(attributePaths = {"stylist"})
+    List<Availability> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"stylist"})
+    org.springframework.data.domain.Page<Availability> findAll(org.springframework.data.domain.Pageable pageable);
+
     List<Availability> findByStylist(User stylist);
     org.springframework.data.domain.Page<Availability> findByStylist(User stylist, org.springframework.data.domain.Pageable pageable);
     List<Availability> findByStylistAndDayOfWeek(User stylist, DayOfWeek dayOfWeek);
@@ -0,0 +1,21 @@
+package com.bookmycut.repositories;
+
+import com.bookmycut.entities.IdempotentRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotentRequestRepository extends JpaRepository<IdempotentRequest, String> {
+
+    /**
+     * Elimina las respuestas guardadas cuya clave ya puede reutilizarse.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotentRequest r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
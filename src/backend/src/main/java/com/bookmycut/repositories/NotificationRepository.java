@@ -5,11 +5,13 @@ import com.bookmycut.entities.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,6 +23,44 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     
     long countByUserAndReadFalse(User user);
     
+    Page<Notification> findByUserUserIdOrderByCreatedDateDesc(Long userId, Pageable pageable);
+    
+    long countByUserUserIdAndReadFalse(Long userId);
+
+    List<Notification> findByUserUserIdAndNotificationIdGreaterThanOrderByNotificationIdAsc(Long userId, Long afterId,
+                                                                                           Pageable pageable);
+
+    List<Notification> findByUserUserIdAndCreatedDateGreaterThanEqualOrderByCreatedDateAscNotificationIdAsc(
+            Long userId, LocalDateTime from, Pageable pageable);
+    
+    /**
+     * Marca como leídas todas las notificaciones pendientes de un usuario con un único UPDATE.
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.user.userId = :userId AND n.read = false")
+    int markAllAsReadByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Marca como leídas las notificaciones indicadas que pertenezcan al usuario.
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true " +
+           "WHERE n.user.userId = :userId AND n.notificationId IN :ids AND n.read = false")
+    int markAsReadByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+    
+    /**
+     * Borra un lote de notificaciones anteriores a {@code before}, opcionalmente de un tipo y solo leídas.
+     * El LIMIT mantiene cada transacción corta para no bloquear la tabla durante las purgas.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM notificaciones WHERE created_date < :before " +
+                   "AND (:type IS NULL OR type = :type) AND (:onlyRead = FALSE OR is_read = TRUE) " +
+                   "ORDER BY created_date LIMIT :limit", nativeQuery = true)
+    int deleteBatchOlderThan(@Param("before") LocalDateTime before,
+                             @Param("type") String type,
+                             @Param("onlyRead") boolean onlyRead,
+                             @Param("limit") int limit);
+    
     @Query("SELECT n FROM Notification n WHERE n.user = :user AND n.read = false ORDER BY n.createdDate DESC")
     List<Notification> findUnreadNotifications(@Param("user") User user);
     
@@ -28,6 +68,10 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findRecentNotifications(@Param("user") User user, @Param("since") LocalDateTime since);
     
     List<Notification> findByRelatedAppointmentIdAndType(Long appointmentId, Notification.NotificationType type);
+    
+    boolean existsByRelatedAppointmentIdAndTypeAndCreatedDateGreaterThanEqual(Long appointmentId,
+                                                                              Notification.NotificationType type,
+                                                                              LocalDateTime since);
 }
 
 
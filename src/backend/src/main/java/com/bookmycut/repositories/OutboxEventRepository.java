@@ -0,0 +1,45 @@
+package com.bookmycut.repositories;
+
+import com.bookmycut.entities.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Bloquea un lote de eventos pendientes listos para procesarse.
+     * SKIP LOCKED permite que varias instancias reclamen lotes distintos sin esperarse entre sí.
+     */
+    @Query(value = "SELECT evento_id FROM eventos_outbox " +
+                   "WHERE estado = 'PENDIENTE' AND proximo_intento <= :now " +
+                   "ORDER BY evento_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockPendingIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Marca como reclamados los eventos bloqueados por {@link #lockPendingIds}.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :claimed, e.claimedAt = :now WHERE e.eventId IN :ids")
+    int markClaimed(@Param("ids") Collection<Long> ids, @Param("claimed") OutboxEvent.Status claimed,
+                    @Param("now") LocalDateTime now);
+
+    /**
+     * Devuelve a pendiente los eventos reclamados hace demasiado tiempo (instancia caída a mitad de proceso).
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :pending, e.claimedAt = null " +
+           "WHERE e.status = :claimed AND e.claimedAt < :claimedBefore")
+    int releaseStaleClaims(@Param("claimedBefore") LocalDateTime claimedBefore,
+                           @Param("pending") OutboxEvent.Status pending,
+                           @Param("claimed") OutboxEvent.Status claimed);
+
+    long countByStatus(OutboxEvent.Status status);
+}
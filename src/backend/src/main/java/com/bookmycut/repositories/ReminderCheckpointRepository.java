@@ -0,0 +1,14 @@
+package com.bookmycut.repositories;
+
+import com.bookmycut.entities.ReminderCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ReminderCheckpointRepository extends JpaRepository<ReminderCheckpoint, LocalDate> {
+
+    List<ReminderCheckpoint> findByCompletedFalseAndAppointmentDateBetween(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,13 @@
+package com.bookmycut.repositories;
+
+import com.bookmycut.entities.Salon;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SalonRepository extends JpaRepository<Salon, Long> {
+
+    List<Salon> findByActiveTrue();
+}
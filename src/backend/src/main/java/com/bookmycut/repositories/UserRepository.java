@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -25,6 +26,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.username = :identifier OR u.email = :identifier")
     Optional<User> findByUsernameOrEmail(@Param("identifier") String identifier);
     
+    /**
+     * Sustituye el hash de la contraseña sin modificar la fecha de último cambio.
+     * Usado para migrar contraseñas antiguas al algoritmo actual tras un login correcto.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.userId = :userId")
+    int updatePasswordHash(@Param("userId") Long userId, @Param("password") String password);
+    
     @EntityGraph(attributePaths = {"services"})
     Optional<User> findWithServicesByUserId(Long userId);
     
@@ -1,7 +1,9 @@
 package com.bookmycut.security;
 
+import com.bookmycut.service.TokenRevocationService;
 import com.bookmycut.util.JwtUtil;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,18 +27,34 @@ import java.util.List;
  * Filtro de autenticación JWT que intercepta cada solicitud HTTP entrante
  * y valida el token JWT si está presente en el encabezado de autorización.
  * Extrae los roles del token y los establece en el contexto de seguridad.
+ * Los roles se toman del propio token, por lo que una petición autenticada no consulta
+ * la base de datos; los tokens revocados se rechazan mediante {@link TokenRevocationService}.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     
+    /**
+     * Atributo de la petición con el ID del usuario autenticado (claim "usuarioId"), para que los
+     * controladores no tengan que buscarlo en base de datos.
+     */
+    public static final String USER_ID_ATTRIBUTE = "usuarioId";
+    
+    /**
+     * Atributo de la petición con el salón del token (claim "salonId"); lo usa {@code TenantFilter}.
+     */
+    public static final String SALON_ID_ATTRIBUTE = "salonId";
+    
     @Autowired
     private JwtUtil jwtUtil;
     
     @Autowired
     private UserDetailsService userDetailsService;
     
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
     /**
      * Método principal del filtro que intercepta cada solicitud HTTP entrante
      * y valida el token JWT si está presente en el encabezado de autorización.
@@ -61,60 +79,71 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
         
         try {
-            // 4. Extraer el nombre de usuario (claim "sub") del token
-            username = jwtUtil.extractUsername(jwt);
+            // 4. Validar firma y expiración y extraer los claims una sola vez
+            Claims claims = jwtUtil.extractAllClaims(jwt);
+            username = claims.getSubject();
             
             // 5. Verificar si:
             // - El nombre de usuario extraído no es nulo
             // - No hay una autenticación existente en el contexto de seguridad
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // 6. Cargar los detalles del usuario desde el servicio personalizado
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // 6. Rechazar tokens revocados (logout, usuario desactivado o con cambio de rol).
+                // El caso habitual se resuelve en memoria con el filtro de Bloom, sin acceder a base de datos.
+                if (tokenRevocationService.isRevoked(claims)) {
+                    logger.warn("Token JWT revocado para usuario: {}", username);
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+                
+                // 7. Extraer los roles del claim "roles" y convertirlos en GrantedAuthority
+                @SuppressWarnings("unchecked")
+                List<String> roles = claims.get("roles", List.class);
                 
-                // 7. Validar el token JWT con el nombre de usuario del usuario cargado
-                if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
-                    // 8. Extraer los claims del token (como los roles)
-                    Claims claims = jwtUtil.extractAllClaims(jwt);
-                    
-                    // 9. Extraer los roles del claim "roles" y convertirlos en GrantedAuthority
-                    @SuppressWarnings("unchecked")
-                    List<String> roles = claims.get("roles", List.class);
-                    
-                    List<SimpleGrantedAuthority> authorities;
-                    if (roles != null && !roles.isEmpty()) {
-                        // Usar los roles del token
-                        authorities = roles.stream()
-                                .map(SimpleGrantedAuthority::new)
-                                .toList();
-                    } else {
-                        // Fallback a los roles del UserDetails
-                        authorities = userDetails.getAuthorities().stream()
-                                .map(auth -> new SimpleGrantedAuthority(auth.getAuthority()))
-                                .toList();
-                    }
-                    
-                    // 10. Crear un objeto UsernamePasswordAuthenticationToken con los detalles del usuario y sus roles
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, authorities);
-                    
-                    // 11. Configurar los detalles adicionales de la solicitud actual
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    
-                    // 12. Establecer la autenticación en el contexto de seguridad de Spring
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    logger.debug("Usuario autenticado: {} con roles: {}", username, roles);
+                Object principal;
+                List<SimpleGrantedAuthority> authorities;
+                if (roles != null && !roles.isEmpty()) {
+                    // Usar los roles del token: no hace falta cargar el usuario
+                    principal = username;
+                    authorities = roles.stream()
+                            .map(SimpleGrantedAuthority::new)
+                            .toList();
                 } else {
-                    logger.warn("Token JWT no válido para usuario: {}", username);
+                    // Fallback a los roles del UserDetails (tokens sin claim "roles")
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    principal = userDetails;
+                    authorities = userDetails.getAuthorities().stream()
+                            .map(auth -> new SimpleGrantedAuthority(auth.getAuthority()))
+                            .toList();
+                }
+                
+                // 8. Crear un objeto UsernamePasswordAuthenticationToken con el usuario y sus roles
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        principal, null, authorities);
+                
+                // 9. Configurar los detalles adicionales de la solicitud actual
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                
+                // 10. Establecer la autenticación en el contexto de seguridad de Spring
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                Object usuarioId = claims.get("usuarioId");
+                if (usuarioId instanceof Number number) {
+                    request.setAttribute(USER_ID_ATTRIBUTE, number.longValue());
+                }
+                if (claims.get("salonId") instanceof Number salonId) {
+                    request.setAttribute(SALON_ID_ATTRIBUTE, salonId.longValue());
                 }
+                logger.debug("Usuario autenticado: {} con roles: {}", username, roles);
             } else {
                 logger.debug("Username es null o ya existe autenticación en el contexto para request: {}", request.getRequestURI());
             }
+        } catch (ExpiredJwtException e) {
+            logger.warn("Token JWT expirado para request {}", request.getRequestURI());
         } catch (Exception e) {
             logger.error("Error al procesar el token JWT para request {}: {}", request.getRequestURI(), e.getMessage(), e);
             // Continuar con el filtro aunque haya error (dejar que SecurityConfig maneje la autorización)
         }
         
-        // 13. Continuar con el siguiente filtro en la cadena de filtros
+        // 11. Continuar con el siguiente filtro en la cadena de filtros
         filterChain.doFilter(request, response);
     }
 }
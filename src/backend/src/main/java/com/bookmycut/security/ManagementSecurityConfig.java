@@ -0,0 +1,73 @@
+package com.bookmycut.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Seguridad de los endpoints de Actuator (puerto {@code management.server.port}).
+ *
+ * {@code /actuator/health} es público para las sondas; el resto (Prometheus, métricas) exige HTTP Basic
+ * con el usuario de scraping {@code metrics.scrape.user}/{@code metrics.scrape.password}, independiente
+ * de los usuarios de la aplicación. Sin contraseña configurada solo queda accesible health.
+ */
+@Configuration
+public class ManagementSecurityConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManagementSecurityConfig.class);
+
+    private static final String SCRAPE_ROLE = "METRICS";
+
+    @Value("${metrics.scrape.user:prometheus}")
+    private String scrapeUser;
+
+    @Value("${metrics.scrape.password:}")
+    private String scrapePassword;
+
+    @Bean
+    @Order(1)
+    public SecurityFilterChain managementFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher(EndpointRequest.toAnyEndpoint())
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(auth -> {
+                auth.requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll();
+                if (scrapePassword.isBlank()) {
+                    auth.anyRequest().denyAll();
+                } else {
+                    auth.anyRequest().hasRole(SCRAPE_ROLE);
+                }
+            })
+            .httpBasic(Customizer.withDefaults());
+
+        if (scrapePassword.isBlank()) {
+            logger.warn("Actuator: metrics.scrape.password vacío, solo /actuator/health es accesible");
+        } else {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+            InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(User.withUsername(scrapeUser)
+                    .password(encoder.encode(scrapePassword))
+                    .roles(SCRAPE_ROLE)
+                    .build());
+            DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+            provider.setUserDetailsService(users);
+            provider.setPasswordEncoder(encoder);
+            http.authenticationManager(new ProviderManager(provider));
+        }
+        return http.build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.bookmycut.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * PasswordEncoder de las cuentas sin contraseña ("{nologin}" en la columna password), p. ej. los clientes
+ * creados al reservar sin registrarse. Ninguna contraseña coincide, así que esas cuentas no pueden iniciar
+ * sesión, y crearlas no consume el pool de hashing.
+ * NO USAR PARA CODIFICAR CONTRASEÑAS
+ */
+public class NoLoginPasswordEncoder implements PasswordEncoder {
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        throw new UnsupportedOperationException("Las cuentas sin contraseña no admiten codificar contraseñas");
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return false;
+    }
+}
@@ -4,7 +4,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 /**
  * PasswordEncoder que usa contraseñas en texto plano (sin encriptar).
- * SOLO PARA DESARROLLO - NO USAR EN PRODUCCIÓN
+ * Solo se usa para verificar las filas antiguas sin hash, que se migran a bcrypt en el login.
+ * NO USAR PARA CODIFICAR CONTRASEÑAS NUEVAS
  */
 public class PlainTextPasswordEncoder implements PasswordEncoder {
     
@@ -0,0 +1,267 @@
+package com.bookmycut.security;
+
+import com.bookmycut.exception.GlobalExceptionHandler.ErrorResponse;
+import com.bookmycut.util.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Filtro de limitación de tasa para los endpoints públicos (login, registro, reservas sin autenticación...).
+ * Aplica un token bucket por IP y por ruta y responde 429 con el header Retry-After cuando se agota.
+ * Los límites se configuran en {@code rate-limit.routes} con el formato
+ * {@code METODO:/ruta=capacidad/segundos}, separados por comas.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    /** Solo literales IPv4/IPv6: evita que un valor del header provoque una resolución DNS. */
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9.]+|[0-9a-fA-F.]*:[0-9a-fA-F.:]*");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${rate-limit.routes:POST:/citas/public=10/60,GET:/citas=120/60,POST:/auth/login=10/60,POST:/auth/register=5/300}")
+    private String routesConfig = "";
+
+    @Value("${rate-limit.max-clients:100000}")
+    private int maxClients = 100000;
+
+    /** Header con la IP real del cliente cuando hay un proxy delante (p. ej. X-Real-IP con nginx). Vacío = IP de la conexión. */
+    @Value("${rate-limit.client-ip-header:}")
+    private String clientIpHeader = "";
+
+    /**
+     * IPs o rangos CIDR de los proxies de confianza, separados por comas. El header de
+     * {@code rate-limit.client-ip-header} solo se tiene en cuenta si la conexión llega desde uno de ellos.
+     */
+    @Value("${rate-limit.trusted-proxies:}")
+    private String trustedProxiesConfig = "";
+
+    private List<RouteLimit> routes = List.of();
+
+    private List<IpAddressMatcher> trustedProxies = List.of();
+
+    @PostConstruct
+    public void init() {
+        List<RouteLimit> parsed = new ArrayList<>();
+        for (String entry : routesConfig.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            parsed.add(RouteLimit.parse(entry.trim(), maxClients));
+        }
+        routes = List.copyOf(parsed);
+
+        List<IpAddressMatcher> proxies = new ArrayList<>();
+        for (String entry : trustedProxiesConfig.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            try {
+                proxies.add(new IpAddressMatcher(entry.trim()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Configuración de rate-limit.trusted-proxies no válida: '" + entry
+                        + "' (se esperaba una IP o un rango CIDR)", e);
+            }
+        }
+        trustedProxies = List.copyOf(proxies);
+        if (!clientIpHeader.isEmpty() && trustedProxies.isEmpty()) {
+            logger.warn("rate-limit.client-ip-header={} sin rate-limit.trusted-proxies: se ignora el header y se usa la IP de la conexión",
+                    clientIpHeader);
+        }
+        logger.info("Limitación de tasa {}: {}", enabled ? "activada" : "desactivada", routesConfig);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RouteLimit route = enabled ? findRoute(request) : null;
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = route.limiter.tryAcquire(resolveClientIp(request), System.nanoTime());
+        if (waitNanos == 0) {
+            route.allowed.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        route.rejected.increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        logger.debug("Límite de tasa superado en {} para {}", route.name, resolveClientIp(request));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Demasiadas peticiones",
+                "Has superado el límite de peticiones. Inténtalo de nuevo en " + retryAfterSeconds + " segundos.",
+                LocalDateTime.now()
+        ));
+    }
+
+    private RouteLimit findRoute(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getServletPath();
+        for (RouteLimit route : routes) {
+            if (route.method.equals(method) && route.path.equals(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * IP con la que se limita la petición. El header configurado solo se usa si la conexión viene de un
+     * proxy de confianza; si no, cualquiera podría cambiar de cubo en cada petición falsificándolo.
+     * Con una lista (X-Forwarded-For) se recorre de derecha a izquierda saltando los proxies de confianza:
+     * la primera IP que no lo es la ha añadido nuestro propio proxy y no se puede falsificar.
+     */
+    private String resolveClientIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (clientIpHeader.isEmpty() || !isTrustedProxy(remoteAddr)) {
+            return remoteAddr;
+        }
+        String forwarded = request.getHeader(clientIpHeader);
+        if (forwarded == null || forwarded.isBlank()) {
+            return remoteAddr;
+        }
+        String[] hops = forwarded.split(",");
+        String client = remoteAddr;
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!isTrustedProxy(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        if (address == null || !IP_LITERAL.matcher(address).matches()) {
+            return false;
+        }
+        for (IpAddressMatcher proxy : trustedProxies) {
+            try {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Elimina periódicamente los cubos inactivos (ya recargados por completo).
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleClients() {
+        long now = System.nanoTime();
+        for (RouteLimit route : routes) {
+            int evicted = route.limiter.evictIdle(now);
+            if (evicted > 0) {
+                logger.debug("Limitación de tasa {}: {} clientes inactivos eliminados", route.name, evicted);
+            }
+        }
+    }
+
+    /**
+     * Peticiones rechazadas por ruta desde el arranque.
+     */
+    public Map<String, Long> getRejectedCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        routes.forEach(route -> counts.put(route.name, route.rejected.sum()));
+        return counts;
+    }
+
+    /**
+     * Peticiones permitidas por ruta desde el arranque.
+     */
+    public Map<String, Long> getAllowedCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        routes.forEach(route -> counts.put(route.name, route.allowed.sum()));
+        return counts;
+    }
+
+    /**
+     * Número de clientes con cubo en memoria por ruta.
+     */
+    public Map<String, Integer> getTrackedClients() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        routes.forEach(route -> counts.put(route.name, route.limiter.size()));
+        return counts;
+    }
+
+    private static final class RouteLimit {
+        final String name;
+        final String method;
+        final String path;
+        final TokenBucketRateLimiter limiter;
+        final LongAdder allowed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+
+        private RouteLimit(String method, String path, int capacity, long seconds, int maxClients) {
+            this.name = method + " " + path;
+            this.method = method;
+            this.path = path;
+            this.limiter = new TokenBucketRateLimiter(capacity, TimeUnit.SECONDS.toNanos(seconds), maxClients);
+        }
+
+        /**
+         * Parsea una entrada con formato {@code METODO:/ruta=capacidad/segundos}.
+         */
+        static RouteLimit parse(String entry, int maxClients) {
+            try {
+                int colon = entry.indexOf(':');
+                int equals = entry.lastIndexOf('=');
+                int slash = entry.lastIndexOf('/');
+                String method = entry.substring(0, colon).trim().toUpperCase();
+                String path = entry.substring(colon + 1, equals).trim();
+                int capacity = Integer.parseInt(entry.substring(equals + 1, slash).trim());
+                long seconds = Long.parseLong(entry.substring(slash + 1).trim());
+                return new RouteLimit(method, path, capacity, seconds, maxClients);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Configuración de rate-limit.routes no válida: '" + entry
+                        + "' (formato esperado METODO:/ruta=capacidad/segundos)", e);
+            }
+        }
+    }
+}
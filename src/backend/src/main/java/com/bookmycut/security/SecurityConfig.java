@@ -1,6 +1,9 @@
 package com.bookmycut.security;
 
+import com.bookmycut.tenancy.TenantFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,11 +16,15 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -29,12 +36,33 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
     
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+    
+    @Autowired
+    private TenantFilter tenantFilter;
+    
     @Autowired
     private CorsConfigurationSource corsConfigurationSource;
     
+    @Value("${security.bcrypt.strength:10}")
+    private int bcryptStrength;
+    
+    /**
+     * Codificador de contraseñas con bcrypt por defecto ("{bcrypt}..." en la columna password).
+     * Las filas antiguas en texto plano (sin prefijo) se siguen aceptando y se migran a bcrypt
+     * en el siguiente login correcto (ver {@code AuthService.login}). Las cuentas sin contraseña
+     * ("{nologin}") no coinciden con ninguna.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new PlainTextPasswordEncoder();
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(bcryptStrength));
+        encoders.put("noop", new PlainTextPasswordEncoder());
+        encoders.put("nologin", new NoLoginPasswordEncoder());
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", encoders);
+        delegating.setDefaultPasswordEncoderForMatches(new PlainTextPasswordEncoder());
+        return delegating;
     }
     
     @Bean
@@ -65,10 +93,14 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Despachos asíncronos (SSE de /notificaciones/stream): la petición original ya se autorizó
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // Endpoints públicos - WebSocket (SockJS necesita /ws/info antes de la conexión)
                 .requestMatchers("/ws/**").permitAll()
                 // Endpoints públicos - Swagger/OpenAPI (sin /api porque context-path ya lo añade)
                 .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/api-docs/**", "/v3/api-docs/**").permitAll()
+                // Documento OpenAPI generado en la compilación (imagen fast-startup, sin Springdoc)
+                .requestMatchers(HttpMethod.GET, "/openapi.json").permitAll()
                 // Endpoints públicos - Autenticación (login, register y logout son públicos)
                 .requestMatchers("/auth/login", "/auth/register", "/auth/logout").permitAll()
                 
@@ -110,7 +142,11 @@ public class SecurityConfig {
                 .anyRequest().authenticated()
             )
             .authenticationProvider(authenticationProvider())
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            // Limitar la tasa antes de procesar el JWT para que las peticiones rechazadas cuesten lo mínimo
+            .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Salón de la petición (token o host), una vez leído el token
+            .addFilterAfter(tenantFilter, JwtAuthenticationFilter.class);
         
         return http.build();
     }
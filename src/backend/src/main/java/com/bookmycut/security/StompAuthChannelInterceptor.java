@@ -0,0 +1,158 @@
+package com.bookmycut.security;
+
+import com.bookmycut.repositories.UserRepository;
+import com.bookmycut.service.TokenRevocationService;
+import com.bookmycut.tenancy.TenantContext;
+import com.bookmycut.tenancy.TenantDataSources;
+import com.bookmycut.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Autenticación de las sesiones STOMP.
+ *
+ * El token JWT se valida una sola vez, en el frame CONNECT (cabecera nativa {@code Authorization:
+ * Bearer ...}), y el usuario queda asociado a la sesión para el resto de mensajes: los comandos enviados
+ * a {@code /app} no vuelven a pasar por el filtro HTTP. Una conexión sin token (o con uno no válido) sigue
+ * pudiendo suscribirse a {@code /topic}, pero sus envíos a {@code /app} se rechazan.
+ *
+ * El salón de la sesión (claim "salonId" del token, o {@code tenancy.default-salon-id}) se guarda también en
+ * el CONNECT y se fija en {@link TenantContext} mientras se procesa cada mensaje de la sesión.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ExecutorChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StompAuthChannelInterceptor.class);
+
+    private static final String APP_PREFIX = "/app/";
+
+    private static final String SALON_ATTRIBUTE = "salonId";
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TenantDataSources tenantDataSources;
+
+    @Value("${tenancy.default-salon-id:1}")
+    private long defaultSalonId = TenantContext.DEFAULT_SALON_ID;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            Map<String, Object> session = accessor.getSessionAttributes();
+            if (session != null) {
+                session.put(SALON_ATTRIBUTE, defaultSalonId);
+            }
+            UsernamePasswordAuthenticationToken user = authenticate(accessor.getFirstNativeHeader("Authorization"), session);
+            if (user != null) {
+                accessor.setUser(user);
+            }
+        } else if (accessor.getCommand() == StompCommand.SEND) {
+            String destination = accessor.getDestination();
+            if (destination != null && destination.startsWith(APP_PREFIX) && userIdOf(accessor.getUser()) == null) {
+                throw new MessageDeliveryException(message, "Sesión STOMP no autenticada");
+            }
+        }
+        return message;
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        Map<String, Object> session = StompHeaderAccessor.getSessionAttributes(message.getHeaders());
+        if (session != null && session.get(SALON_ATTRIBUTE) instanceof Long salonId) {
+            TenantContext.set(salonId, tenantDataSources.dataSourceKey(salonId));
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        TenantContext.clear();
+    }
+
+    /**
+     * ID del usuario de una sesión autenticada en el CONNECT, o null.
+     */
+    public static Long userIdOf(Principal principal) {
+        if (principal instanceof UsernamePasswordAuthenticationToken token && token.getDetails() instanceof Long id) {
+            return id;
+        }
+        return null;
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(String authHeader, Map<String, Object> session) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            Claims claims = jwtUtil.extractAllClaims(authHeader.substring(7));
+            String username = claims.getSubject();
+            if (username == null || tokenRevocationService.isRevoked(claims)) {
+                logger.warn("CONNECT STOMP con token revocado o sin usuario");
+                return null;
+            }
+            Long userId = resolveUserId(claims, username);
+            if (userId == null) {
+                return null;
+            }
+            @SuppressWarnings("unchecked")
+            List<String> roles = claims.get("roles", List.class);
+            List<SimpleGrantedAuthority> authorities = roles != null
+                    ? roles.stream().map(SimpleGrantedAuthority::new).toList()
+                    : List.of();
+            UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken(username, null, authorities);
+            user.setDetails(userId);
+            if (session != null && claims.get("salonId") instanceof Number salonId) {
+                session.put(SALON_ATTRIBUTE, salonId.longValue());
+            }
+            logger.debug("Sesión STOMP autenticada: {} ({})", username, userId);
+            return user;
+        } catch (ExpiredJwtException e) {
+            logger.warn("CONNECT STOMP con token expirado");
+        } catch (Exception e) {
+            logger.warn("CONNECT STOMP con token no válido: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private Long resolveUserId(Claims claims, String username) {
+        Object usuarioId = claims.get("usuarioId");
+        if (usuarioId instanceof Number number) {
+            return number.longValue();
+        }
+        // Tokens antiguos sin el claim: se busca una única vez por conexión
+        return userRepository.findByUsernameOrEmail(username)
+                .map(user -> user.getUserId())
+                .orElse(null);
+    }
+}
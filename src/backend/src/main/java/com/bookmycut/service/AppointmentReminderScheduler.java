@@ -1,24 +1,52 @@
 package com.bookmycut.service;
 
+import com.bookmycut.dto.NotificationCreateDTO;
 import com.bookmycut.entities.Appointment;
 import com.bookmycut.entities.Notification;
+import com.bookmycut.entities.ReminderCheckpoint;
 import com.bookmycut.repositories.AppointmentRepository;
+import com.bookmycut.repositories.ReminderCheckpointRepository;
+import com.bookmycut.tenancy.ForEachDataSource;
+import com.bookmycut.tenancy.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Servicio programado para enviar recordatorios automáticos de citas.
- * Ejecuta diariamente a las 9:00 AM y envía recordatorios para citas que ocurren en las próximas 24 horas.
+ * Con {@code reminders.mode=cron} ejecuta diariamente a las 9:00 AM y envía recordatorios para las citas
+ * de mañana; en el modo por defecto ({@code wheel}) los recordatorios los dispara {@link AppointmentReminderWheel}
+ * cita a cita y este servicio solo aporta el procesamiento por bloques.
+ *
+ * Las citas se recorren por bloques (keyset por ID) y cada bloque se procesa en su propia transacción
+ * con una inserción por lotes. Las citas que ya tienen recordatorio se excluyen en la propia consulta
+ * (anti-join por cita y horario), y el último ID confirmado se guarda como checkpoint para reanudar un envío interrumpido.
+ * Cada bloque bloquea sus citas antes de crear los recordatorios, de modo que dos envíos simultáneos
+ * (varios nodos, un reintento y el cron) no duplican el recordatorio de una cita.
  */
 @Component
 public class AppointmentReminderScheduler {
@@ -31,73 +59,266 @@ public class AppointmentReminderScheduler {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private ReminderCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${reminders.mode:wheel}")
+    private String mode;
+
+    @Value("${reminders.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${reminders.parallelism:1}")
+    private int parallelism;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService chunkExecutor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (parallelism > 1) {
+            AtomicInteger threadCount = new AtomicInteger();
+            chunkExecutor = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, "reminder-worker-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (chunkExecutor != null) {
+            chunkExecutor.shutdown();
+        }
+    }
+
     /**
      * Envía recordatorios automáticos de citas.
      * Se ejecuta diariamente a las 9:00 AM.
      * Envía recordatorios para citas confirmadas que ocurren mañana.
      */
     @Scheduled(cron = "0 0 9 * * *") // Diariamente a las 9:00 AM
-    @Transactional
+    @ForEachDataSource
     public void sendAppointmentReminders() {
+        if (!isCronMode()) {
+            return;
+        }
         logger.info("Iniciando envío de recordatorios automáticos de citas...");
-        
         try {
-            LocalDate tomorrow = LocalDate.now().plusDays(1);
-            
-            // Buscar todas las citas confirmadas de mañana
-            List<Appointment> appointments = appointmentRepository
-                    .findByDateAndStatusOrderByStartTime(tomorrow, Appointment.AppointmentStatus.CONFIRMADA);
-            
-            logger.info("Encontradas {} citas para mañana", appointments.size());
-            
-            int remindersSent = 0;
-            for (Appointment appointment : appointments) {
-                try {
-                    // Verificar que no se haya enviado ya un recordatorio de recordatorio para esta cita
-                    if (!hasReminderBeenSent(appointment)) {
-                        sendReminderForAppointment(appointment);
-                        remindersSent++;
+            sendRemindersForDate(LocalDate.now().plusDays(1));
+        } catch (Exception e) {
+            logger.error("Error en el scheduler de recordatorios: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reintenta los envíos que quedaron a medias: al arrancar (caída durante la ejecución) y cada
+     * {@code reminders.retry-interval-ms} (bloques fallidos). Se revisan los checkpoints sin completar de hoy y
+     * de mañana, de modo que un envío de las 9:00 que falló se sigue reintentando el mismo día aunque el
+     * siguiente cron ya apunte a otra fecha, y las citas de hoy aún reciben su recordatorio.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${reminders.retry-interval-ms:900000}",
+            initialDelayString = "${reminders.retry-interval-ms:900000}")
+    @ForEachDataSource
+    public void retryUnfinishedRuns() {
+        if (!isCronMode()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        try {
+            for (ReminderCheckpoint checkpoint : checkpointRepository
+                    .findByCompletedFalseAndAppointmentDateBetween(today, today.plusDays(1))) {
+                logger.info("Reintentando recordatorios del {} desde la cita ID {}",
+                        checkpoint.getAppointmentDate(), checkpoint.getLastAppointmentId());
+                sendRemindersForDate(checkpoint.getAppointmentDate());
+            }
+        } catch (Exception e) {
+            logger.error("Error reintentando el envío de recordatorios: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Envía los recordatorios de las citas confirmadas de una fecha, por bloques.
+     *
+     * Se leen hasta {@code parallelism} bloques de IDs seguidos, se procesan (en paralelo si procede) y el
+     * checkpoint avanza hasta el final del último bloque confirmado sin huecos. Si un bloque falla, los
+     * siguientes se procesan igualmente pero el checkpoint no lo rebasa, de modo que
+     * {@link #retryUnfinishedRuns()} lo reintenta; el anti-join evita duplicar los recordatorios de los bloques
+     * ya confirmados, también los enviados el día anterior a la fecha de las citas.
+     *
+     * @param date Fecha de las citas.
+     * @return Número de citas recordadas en esta ejecución.
+     */
+    public int sendRemindersForDate(LocalDate date) {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Ya hay un envío de recordatorios en curso, se omite esta ejecución");
+            return 0;
+        }
+        try {
+            long checkpointId = checkpointRepository.findById(date)
+                    .map(ReminderCheckpoint::getLastAppointmentId)
+                    .orElse(0L);
+            long cursor = checkpointId;
+            boolean failed = false;
+            boolean exhausted = false;
+            int reminded = 0;
+
+            while (!exhausted) {
+                List<List<Long>> wave = new ArrayList<>();
+                while (wave.size() < Math.max(parallelism, 1)) {
+                    List<Long> ids = appointmentRepository.findIdsWithoutNotificationAfter(
+                            date, Appointment.AppointmentStatus.CONFIRMADA, cursor,
+                            Notification.NotificationType.APPOINTMENT_REMINDER,
+                            PageRequest.of(0, chunkSize));
+                    if (!ids.isEmpty()) {
+                        wave.add(ids);
+                        cursor = ids.get(ids.size() - 1);
                     }
-                } catch (Exception e) {
-                    logger.error("Error enviando recordatorio para cita ID {}: {}", 
-                            appointment.getAppointmentId(), e.getMessage(), e);
+                    if (ids.size() < chunkSize) {
+                        exhausted = true;
+                        break;
+                    }
+                }
+                if (wave.isEmpty()) {
+                    break;
                 }
+
+                List<ChunkResult> results = processWave(wave);
+                for (int i = 0; i < wave.size(); i++) {
+                    ChunkResult result = results.get(i);
+                    if (result.failed()) {
+                        failed = true;
+                        continue;
+                    }
+                    reminded += result.reminded();
+                    if (!result.skipped().isEmpty()) {
+                        // Citas bloqueadas por otra transacción: el checkpoint no las rebasa y se reintentan
+                        failed = true;
+                    }
+                    if (!failed) {
+                        List<Long> ids = wave.get(i);
+                        checkpointId = ids.get(ids.size() - 1);
+                    }
+                }
+                saveCheckpoint(date, checkpointId, false);
             }
-            
-            logger.info("Recordatorios enviados: {}/{}", remindersSent, appointments.size());
+
+            saveCheckpoint(date, checkpointId, !failed);
+            logger.info("Recordatorios enviados para {} citas del {}{}", reminded, date,
+                    failed ? " (con bloques fallidos pendientes de reintento)" : "");
+            return reminded;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private boolean isCronMode() {
+        return "cron".equalsIgnoreCase(mode);
+    }
+
+    private List<ChunkResult> processWave(List<List<Long>> wave) {
+        if (chunkExecutor == null || wave.size() == 1) {
+            return wave.stream().map(this::processChunk).toList();
+        }
+        // Los bloques se procesan en la misma base de datos que la ejecución (ver @ForEachDataSource)
+        Executor executor = task -> chunkExecutor.execute(TenantContext.inCurrentDataSource(task));
+        List<CompletableFuture<ChunkResult>> futures = wave.stream()
+                .map(ids -> CompletableFuture.supplyAsync(() -> processChunk(ids), executor))
+                .toList();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Procesa un bloque de citas en su propia transacción: bloquea las citas (SKIP LOCKED), descarta las que
+     * ya tienen recordatorio para su horario, carga el resto con cliente, estilista y servicios en una consulta
+     * y crea todos sus recordatorios con una inserción por lotes.
+     *
+     * El bloqueo es la primera lectura de la transacción, así que la comprobación posterior ya ve los
+     * recordatorios que confirmó quien tenía bloqueada la cita. Las citas bloqueadas por otra transacción
+     * se devuelven en {@link ChunkResult#skipped()} para reintentarlas.
+     *
+     * @return Citas recordadas y citas omitidas por estar bloqueadas, o {@link ChunkResult#FAILED} si el bloque falló.
+     */
+    ChunkResult processChunk(List<Long> ids) {
+        try {
+            ChunkResult result = transactionTemplate.execute(status -> {
+                Set<Long> locked = new HashSet<>(appointmentRepository.lockIdsIn(ids));
+                List<Long> skipped = ids.stream().filter(id -> !locked.contains(id)).toList();
+                List<Long> pending = locked.isEmpty() ? List.of()
+                        : appointmentRepository.findIdsWithoutNotificationIn(locked,
+                                Appointment.AppointmentStatus.CONFIRMADA,
+                                Notification.NotificationType.APPOINTMENT_REMINDER);
+                List<Appointment> appointments = pending.isEmpty() ? List.of()
+                        : appointmentRepository.findWithDetailsByIdIn(pending);
+                List<NotificationCreateDTO> reminders = new ArrayList<>();
+                int prepared = 0;
+                for (Appointment appointment : appointments) {
+                    try {
+                        reminders.addAll(buildRemindersForAppointment(appointment));
+                        prepared++;
+                    } catch (Exception e) {
+                        logger.error("Error preparando recordatorio para cita ID {}: {}",
+                                appointment.getAppointmentId(), e.getMessage(), e);
+                    }
+                }
+                notificationService.createNotifications(reminders);
+                return new ChunkResult(prepared, skipped);
+            });
+            return result != null ? result : new ChunkResult(0, List.of());
         } catch (Exception e) {
-            logger.error("Error en el scheduler de recordatorios: {}", e.getMessage(), e);
+            logger.error("Error procesando bloque de recordatorios (citas {}-{}): {}",
+                    ids.get(0), ids.get(ids.size() - 1), e.getMessage(), e);
+            return ChunkResult.FAILED;
         }
     }
 
     /**
-     * Verifica si ya se envió un recordatorio para esta cita.
-     * Solo verifica recordatorios enviados hoy para evitar duplicados.
+     * Resultado de {@link #processChunk(List)}: citas recordadas (-1 si el bloque falló) y citas omitidas
+     * porque otra transacción las tenía bloqueadas.
      */
-    private boolean hasReminderBeenSent(Appointment appointment) {
-        // Verificar si ya existe una notificación de tipo APPOINTMENT_REMINDER para esta cita hoy
-        // Esto evita enviar múltiples recordatorios en la misma ejecución del scheduler
-        return notificationService.hasReminderForAppointmentToday(appointment.getAppointmentId());
+    record ChunkResult(int reminded, List<Long> skipped) {
+
+        static final ChunkResult FAILED = new ChunkResult(-1, List.of());
+
+        boolean failed() {
+            return reminded < 0;
+        }
+    }
+
+    private void saveCheckpoint(LocalDate date, long lastAppointmentId, boolean completed) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> checkpointRepository.save(
+                    new ReminderCheckpoint(date, lastAppointmentId, completed, LocalDateTime.now())));
+        } catch (Exception e) {
+            // Sin checkpoint la siguiente ejecución repite la lectura, pero el anti-join evita duplicados
+            logger.error("No se pudo guardar el checkpoint de recordatorios del {}: {}", date, e.getMessage(), e);
+        }
     }
 
     /**
-     * Envía recordatorios al cliente y al estilista para una cita.
+     * Prepara los recordatorios del cliente y del estilista para una cita.
      */
-    private void sendReminderForAppointment(Appointment appointment) {
-        logger.info("Enviando recordatorio para cita ID: {} - Cliente: {}, Estilista: {}", 
+    private List<NotificationCreateDTO> buildRemindersForAppointment(Appointment appointment) {
+        logger.debug("Preparando recordatorio para cita ID: {} - Cliente: {}, Estilista: {}", 
                 appointment.getAppointmentId(), 
                 appointment.getClient().getName(), 
                 appointment.getStylist().getName());
 
         // Crear notificación para el cliente
-        com.bookmycut.dto.NotificationCreateDTO clientNotification = 
-                new com.bookmycut.dto.NotificationCreateDTO();
+        NotificationCreateDTO clientNotification = new NotificationCreateDTO();
         clientNotification.setUserId(appointment.getClient().getUserId());
-        clientNotification.setTitle("Recordatorio de cita mañana");
-        String fechaRecordatorioCliente = appointment.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        String cuando = describeDay(appointment.getDate());
+        clientNotification.setTitle(titleFor(appointment.getDate()));
         clientNotification.setMessage(String.format(
-            "Recordatorio: Tienes una cita mañana (%s) a las %s con %s. Servicios: %s",
-            fechaRecordatorioCliente,
+            "Recordatorio: Tienes una cita %s a las %s con %s. Servicios: %s",
+            cuando,
             appointment.getStartTime(),
             appointment.getStylist().getName(),
             appointment.getServices().stream()
@@ -107,18 +328,17 @@ public class AppointmentReminderScheduler {
         ));
         clientNotification.setType(Notification.NotificationType.APPOINTMENT_REMINDER);
         clientNotification.setRelatedAppointmentId(appointment.getAppointmentId());
-        
-        notificationService.createNotification(clientNotification);
+        clientNotification.setRelatedAppointmentDate(appointment.getDate());
+        clientNotification.setRelatedAppointmentStartTime(appointment.getStartTime());
+        clientNotification.setSalonId(appointment.getSalonId());
 
         // Crear notificación para el estilista
-        com.bookmycut.dto.NotificationCreateDTO stylistNotification = 
-                new com.bookmycut.dto.NotificationCreateDTO();
+        NotificationCreateDTO stylistNotification = new NotificationCreateDTO();
         stylistNotification.setUserId(appointment.getStylist().getUserId());
-        stylistNotification.setTitle("Recordatorio de cita mañana");
-        String fechaRecordatorioEstilista = appointment.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        stylistNotification.setTitle(titleFor(appointment.getDate()));
         stylistNotification.setMessage(String.format(
-            "Recordatorio: Tienes una cita mañana (%s) a las %s con %s. Servicios: %s",
-            fechaRecordatorioEstilista,
+            "Recordatorio: Tienes una cita %s a las %s con %s. Servicios: %s",
+            cuando,
             appointment.getStartTime(),
             appointment.getClient().getName(),
             appointment.getServices().stream()
@@ -128,12 +348,36 @@ public class AppointmentReminderScheduler {
         ));
         stylistNotification.setType(Notification.NotificationType.APPOINTMENT_REMINDER);
         stylistNotification.setRelatedAppointmentId(appointment.getAppointmentId());
+        stylistNotification.setRelatedAppointmentDate(appointment.getDate());
+        stylistNotification.setRelatedAppointmentStartTime(appointment.getStartTime());
+        stylistNotification.setSalonId(appointment.getSalonId());
         
-        notificationService.createNotification(stylistNotification);
+        return List.of(clientNotification, stylistNotification);
     }
-}
-
-
-
 
+    /**
+     * "hoy (dd/MM/yyyy)", "mañana (dd/MM/yyyy)" o "el dd/MM/yyyy", según la fecha de la cita.
+     */
+    private String describeDay(LocalDate date) {
+        String fecha = date.format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        LocalDate today = LocalDate.now();
+        if (date.equals(today)) {
+            return "hoy (" + fecha + ")";
+        }
+        if (date.equals(today.plusDays(1))) {
+            return "mañana (" + fecha + ")";
+        }
+        return "el " + fecha;
+    }
 
+    private String titleFor(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        if (date.equals(today)) {
+            return "Recordatorio de cita hoy";
+        }
+        if (date.equals(today.plusDays(1))) {
+            return "Recordatorio de cita mañana";
+        }
+        return "Recordatorio de cita";
+    }
+}
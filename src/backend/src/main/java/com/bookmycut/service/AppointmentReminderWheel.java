@@ -0,0 +1,245 @@
+package com.bookmycut.service;
+
+import com.bookmycut.entities.Appointment;
+import com.bookmycut.entities.Notification;
+import com.bookmycut.repositories.AppointmentRepository;
+import com.bookmycut.tenancy.ForEachDataSource;
+import com.bookmycut.tenancy.TenantDataSources;
+import com.bookmycut.util.HierarchicalTimingWheel;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recordatorios de cita a su hora: cada cita confirmada se programa en una rueda de temporización
+ * jerárquica para {@code reminders.wheel.offset-minutes} antes de su inicio.
+ *
+ * La rueda se alimenta de las altas, reprogramaciones y cancelaciones de {@link AppointmentService}
+ * (tras el commit) y se reconstruye desde {@code citas} al arrancar; una recarga periódica incorpora las
+ * citas que entran en el horizonte. Los recordatorios vencidos se envían por bloques acotados en cada tick,
+ * de modo que los atrasados tras una caída se ponen al día sin un pico de carga.
+ *
+ * Una sola rueda contiene las citas de todas las bases de datos de salones: sus IDs no se repiten entre
+ * bases de datos (ver {@code TenancyConfig}) y cada bloque vencido se consulta en todas ellas.
+ */
+@Component
+@ConditionalOnProperty(name = "reminders.mode", havingValue = "wheel", matchIfMissing = true)
+public class AppointmentReminderWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentReminderWheel.class);
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 4;
+    private static final long RETRY_DELAY_MS = 60_000;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentReminderScheduler reminderScheduler;
+
+    @Autowired
+    private TenantDataSources tenantDataSources;
+
+    @Value("${reminders.wheel.offset-minutes:1440}")
+    private long offsetMinutes;
+
+    @Value("${reminders.wheel.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${reminders.wheel.max-per-tick:200}")
+    private int maxPerTick;
+
+    @Value("${reminders.wheel.horizon-days:2}")
+    private int horizonDays;
+
+    @Value("${reminders.chunk-size:500}")
+    private int chunkSize;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private HierarchicalTimingWheel<Long> wheel;
+
+    /** Citas vencidas pendientes de envío; solo lo usa el hilo del tick. */
+    private final Deque<Long> due = new ArrayDeque<>();
+
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        wheel = new HierarchicalTimingWheel<>(tickMs, WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+    }
+
+    /**
+     * Reconstruye la rueda desde la base de datos al arrancar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @ForEachDataSource
+    public void rebuild() {
+        int loaded = loadHorizon();
+        logger.info("Rueda de recordatorios reconstruida con {} citas (offset {} min)", loaded, offsetMinutes);
+    }
+
+    /**
+     * Incorpora periódicamente las citas que entran en el horizonte. Reprogramar una cita ya presente
+     * no tiene efecto, así que la recarga es idempotente.
+     */
+    @Scheduled(fixedDelayString = "${reminders.wheel.refill-interval-ms:3600000}",
+               initialDelayString = "${reminders.wheel.refill-interval-ms:3600000}")
+    @ForEachDataSource
+    public void refill() {
+        int loaded = loadHorizon();
+        logger.debug("Recarga de la rueda de recordatorios: {} citas en el horizonte", loaded);
+    }
+
+    /**
+     * Programa, reprograma o retira el recordatorio de una cita según su estado y horario.
+     * Dentro de una transacción se aplica tras el commit.
+     */
+    public void track(Appointment appointment) {
+        Long appointmentId = appointment.getAppointmentId();
+        boolean confirmed = appointment.getStatus() == Appointment.AppointmentStatus.CONFIRMADA;
+        LocalDate date = appointment.getDate();
+        LocalTime startTime = appointment.getStartTime();
+        Runnable update = () -> {
+            if (confirmed) {
+                schedule(appointmentId, date, startTime);
+            } else {
+                wheel.cancel(appointmentId);
+            }
+        };
+        runAfterCommit(update);
+    }
+
+    /**
+     * Retira el recordatorio de una cita eliminada.
+     */
+    public void untrack(Long appointmentId) {
+        runAfterCommit(() -> wheel.cancel(appointmentId));
+    }
+
+    /**
+     * Avanza la rueda y envía como mucho {@code maxPerTick} recordatorios vencidos.
+     */
+    @Scheduled(fixedDelayString = "${reminders.wheel.tick-ms:1000}")
+    public void tick() {
+        try {
+            int expired = wheel.advanceTo(System.currentTimeMillis(), due::addLast);
+            fired.add(expired);
+            if (due.isEmpty()) {
+                return;
+            }
+            List<Long> batch = new ArrayList<>();
+            while (!due.isEmpty() && batch.size() < maxPerTick) {
+                batch.add(due.pollFirst());
+            }
+            tenantDataSources.forEach(() -> sendBatch(batch));
+        } catch (Exception e) {
+            logger.error("Error en el tick de la rueda de recordatorios: {}", e.getMessage(), e);
+        }
+    }
+
+    private void sendBatch(List<Long> batch) {
+        // Descartar las citas canceladas o ya recordadas para su horario actual mientras esperaban; un
+        // recordatorio de un horario anterior (cita reprogramada) no impide enviar el del nuevo
+        List<Long> pending = appointmentRepository.findIdsWithoutNotificationIn(batch,
+                Appointment.AppointmentStatus.CONFIRMADA,
+                Notification.NotificationType.APPOINTMENT_REMINDER);
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Long> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            AppointmentReminderScheduler.ChunkResult result = reminderScheduler.processChunk(chunk);
+            if (result.failed()) {
+                scheduleRetry(chunk);
+                logger.warn("Reintentando {} recordatorios en {} ms", chunk.size(), RETRY_DELAY_MS);
+                continue;
+            }
+            sent.add(result.reminded());
+            if (!result.skipped().isEmpty()) {
+                // Otro nodo las está recordando o se están modificando: el reintento pasa de nuevo por el anti-join
+                scheduleRetry(result.skipped());
+                logger.debug("{} citas bloqueadas por otra transacción, se reintentan en {} ms",
+                        result.skipped().size(), RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    private void scheduleRetry(List<Long> appointmentIds) {
+        long retryAt = System.currentTimeMillis() + RETRY_DELAY_MS;
+        appointmentIds.forEach(id -> wheel.schedule(id, retryAt));
+    }
+
+    private int loadHorizon() {
+        LocalDate today = LocalDate.now();
+        LocalDate toDate = today.plusDays(Math.max(horizonDays, offsetMinutes / 1440 + 1));
+        LocalDateTime now = LocalDateTime.now();
+        long afterId = 0L;
+        int loaded = 0;
+        while (true) {
+            List<Appointment> page = appointmentRepository.findWithoutNotificationBetween(today, toDate,
+                    Appointment.AppointmentStatus.CONFIRMADA, afterId,
+                    Notification.NotificationType.APPOINTMENT_REMINDER,
+                    PageRequest.of(0, chunkSize));
+            for (Appointment appointment : page) {
+                if (LocalDateTime.of(appointment.getDate(), appointment.getStartTime()).isAfter(now)
+                        && !wheel.contains(appointment.getAppointmentId())) {
+                    schedule(appointment.getAppointmentId(), appointment.getDate(), appointment.getStartTime());
+                    loaded++;
+                }
+            }
+            if (page.size() < chunkSize) {
+                return loaded;
+            }
+            afterId = page.get(page.size() - 1).getAppointmentId();
+        }
+    }
+
+    private void schedule(Long appointmentId, LocalDate date, LocalTime startTime) {
+        LocalDateTime reminderAt = LocalDateTime.of(date, startTime).minusMinutes(offsetMinutes);
+        wheel.schedule(appointmentId, reminderAt.atZone(zone).toInstant().toEpochMilli());
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    public int getScheduledCount() {
+        return wheel.size();
+    }
+
+    public long getFiredCount() {
+        return fired.sum();
+    }
+
+    public long getSentCount() {
+        return sent.sum();
+    }
+}
@@ -62,7 +62,10 @@ public class AppointmentService {
     private AppointmentMapper appointmentMapper;
 
     @Autowired(required = false)
-    private NotificationService notificationService;
+    private NotificationOutboxService notificationOutboxService;
+
+    @Autowired(required = false)
+    private AppointmentReminderWheel reminderWheel;
 
     /**
      * Gets all appointments in the system.
@@ -70,15 +73,10 @@ public class AppointmentService {
      * @return List of AppointmentDTO.
      */
     public List<AppointmentDTO> getAllAppointments() {
-        logger.info("Requesting all appointments");
-        try {
-            List<Appointment> appointments = appointmentRepository.findAll();
-            logger.info("Found {} appointments", appointments.size());
-            return appointmentMapper.toDTOList(appointments);
-        } catch (Exception e) {
-            logger.error("Error getting all appointments: {}", e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Requesting all appointments");
+        List<Appointment> appointments = appointmentRepository.findAll();
+        logger.debug("Found {} appointments", appointments.size());
+        return appointmentMapper.toDTOList(appointments);
     }
 
     /**
@@ -89,16 +87,11 @@ public class AppointmentService {
      * @return Page of AppointmentDTO.
      */
     public Page<AppointmentDTO> getAllAppointments(int page, int size) {
-        logger.info("Requesting all appointments - page: {}, size: {}", page, size);
-        try {
-            Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "date", "startTime"));
-            Page<Appointment> appointments = appointmentRepository.findAll(pageable);
-            logger.info("Found {} appointments", appointments.getTotalElements());
-            return appointments.map(appointmentMapper::toDTO);
-        } catch (Exception e) {
-            logger.error("Error getting paginated appointments: {}", e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Requesting all appointments - page: {}, size: {}", page, size);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "date", "startTime"));
+        Page<Appointment> appointments = appointmentRepository.findAll(pageable);
+        logger.debug("Found {} appointments", appointments.getTotalElements());
+        return appointments.map(appointmentMapper::toDTO);
     }
 
     /**
@@ -109,19 +102,14 @@ public class AppointmentService {
      * @throws ResourceNotFoundException If the appointment does not exist.
      */
     public AppointmentDTO getAppointmentById(Long id) {
-        logger.info("Searching for appointment with ID: {}", id);
-        try {
-            Appointment appointment = appointmentRepository.findById(id)
-                    .orElseThrow(() -> {
-                        logger.warn("Appointment not found with ID: {}", id);
-                        return new ResourceNotFoundException("Appointment", "id", id);
-                    });
-            logger.debug("Appointment with ID {} found", id);
-            return appointmentMapper.toDTO(appointment);
-        } catch (Exception e) {
-            logger.error("Error getting appointment with ID {}: {}", id, e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Searching for appointment with ID: {}", id);
+        Appointment appointment = appointmentRepository.findById(id)
+                .orElseThrow(() -> {
+                    logger.debug("Appointment not found with ID: {}", id);
+                    return new ResourceNotFoundException("Appointment", "id", id);
+                });
+        logger.debug("Appointment with ID {} found", id);
+        return appointmentMapper.toDTO(appointment);
     }
 
     /**
@@ -131,20 +119,15 @@ public class AppointmentService {
      * @return List of AppointmentDTO for the client.
      */
     public List<AppointmentDTO> getAppointmentsByClient(Long clientId) {
-        logger.info("Searching for appointments for client ID: {}", clientId);
-        try {
-            User client = userRepository.findById(clientId)
-                    .orElseThrow(() -> {
-                        logger.warn("Client not found with ID: {}", clientId);
-                        return new ResourceNotFoundException("User", "id", clientId);
-                    });
-            List<Appointment> appointments = appointmentRepository.findByClient(client);
-            logger.info("Found {} appointments for client ID: {}", appointments.size(), clientId);
-            return appointmentMapper.toDTOList(appointments);
-        } catch (Exception e) {
-            logger.error("Error getting appointments for client ID {}: {}", clientId, e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Searching for appointments for client ID: {}", clientId);
+        User client = userRepository.findById(clientId)
+                .orElseThrow(() -> {
+                    logger.debug("Client not found with ID: {}", clientId);
+                    return new ResourceNotFoundException("User", "id", clientId);
+                });
+        List<Appointment> appointments = appointmentRepository.findByClient(client);
+        logger.debug("Found {} appointments for client ID: {}", appointments.size(), clientId);
+        return appointmentMapper.toDTOList(appointments);
     }
 
     /**
@@ -156,21 +139,16 @@ public class AppointmentService {
      * @return Page of AppointmentDTO for the client.
      */
     public Page<AppointmentDTO> getAppointmentsByClient(Long clientId, int page, int size) {
-        logger.info("Searching for appointments for client ID: {} - page: {}, size: {}", clientId, page, size);
-        try {
-            User client = userRepository.findById(clientId)
-                    .orElseThrow(() -> {
-                        logger.warn("Client not found with ID: {}", clientId);
-                        return new ResourceNotFoundException("User", "id", clientId);
-                    });
-            Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "date", "startTime"));
-            Page<Appointment> appointments = appointmentRepository.findByClient(client, pageable);
-            logger.info("Found {} appointments for client ID: {}", appointments.getTotalElements(), clientId);
-            return appointments.map(appointmentMapper::toDTO);
-        } catch (Exception e) {
-            logger.error("Error getting paginated appointments for client ID {}: {}", clientId, e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Searching for appointments for client ID: {} - page: {}, size: {}", clientId, page, size);
+        User client = userRepository.findById(clientId)
+                .orElseThrow(() -> {
+                    logger.debug("Client not found with ID: {}", clientId);
+                    return new ResourceNotFoundException("User", "id", clientId);
+                });
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "date", "startTime"));
+        Page<Appointment> appointments = appointmentRepository.findByClient(client, pageable);
+        logger.debug("Found {} appointments for client ID: {}", appointments.getTotalElements(), clientId);
+        return appointments.map(appointmentMapper::toDTO);
     }
 
     /**
@@ -180,20 +158,15 @@ public class AppointmentService {
      * @return List of AppointmentDTO for the stylist.
      */
     public List<AppointmentDTO> getAppointmentsByStylist(Long stylistId) {
-        logger.info("Searching for appointments for stylist ID: {}", stylistId);
-        try {
-            User stylist = userRepository.findById(stylistId)
-                    .orElseThrow(() -> {
-                        logger.warn("Stylist not found with ID: {}", stylistId);
-                        return new ResourceNotFoundException("User", "id", stylistId);
-                    });
-            List<Appointment> appointments = appointmentRepository.findByStylist(stylist);
-            logger.info("Found {} appointments for stylist ID: {}", appointments.size(), stylistId);
-            return appointmentMapper.toDTOList(appointments);
-        } catch (Exception e) {
-            logger.error("Error getting appointments for stylist ID {}: {}", stylistId, e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Searching for appointments for stylist ID: {}", stylistId);
+        User stylist = userRepository.findById(stylistId)
+                .orElseThrow(() -> {
+                    logger.debug("Stylist not found with ID: {}", stylistId);
+                    return new ResourceNotFoundException("User", "id", stylistId);
+                });
+        List<Appointment> appointments = appointmentRepository.findByStylist(stylist);
+        logger.debug("Found {} appointments for stylist ID: {}", appointments.size(), stylistId);
+        return appointmentMapper.toDTOList(appointments);
     }
 
     /**
@@ -205,21 +178,16 @@ public class AppointmentService {
      * @return Page of AppointmentDTO for the stylist.
      */
     public Page<AppointmentDTO> getAppointmentsByStylist(Long stylistId, int page, int size) {
-        logger.info("Searching for appointments for stylist ID: {} - page: {}, size: {}", stylistId, page, size);
-        try {
-            User stylist = userRepository.findById(stylistId)
-                    .orElseThrow(() -> {
-                        logger.warn("Stylist not found with ID: {}", stylistId);
-                        return new ResourceNotFoundException("User", "id", stylistId);
-                    });
-            Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "date", "startTime"));
-            Page<Appointment> appointments = appointmentRepository.findByStylist(stylist, pageable);
-            logger.info("Found {} appointments for stylist ID: {}", appointments.getTotalElements(), stylistId);
-            return appointments.map(appointmentMapper::toDTO);
-        } catch (Exception e) {
-            logger.error("Error getting paginated appointments for stylist ID {}: {}", stylistId, e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Searching for appointments for stylist ID: {} - page: {}, size: {}", stylistId, page, size);
+        User stylist = userRepository.findById(stylistId)
+                .orElseThrow(() -> {
+                    logger.debug("Stylist not found with ID: {}", stylistId);
+                    return new ResourceNotFoundException("User", "id", stylistId);
+                });
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "date", "startTime"));
+        Page<Appointment> appointments = appointmentRepository.findByStylist(stylist, pageable);
+        logger.debug("Found {} appointments for stylist ID: {}", appointments.getTotalElements(), stylistId);
+        return appointments.map(appointmentMapper::toDTO);
     }
 
     /**
@@ -229,15 +197,10 @@ public class AppointmentService {
      * @return List of AppointmentDTO for the date.
      */
     public List<AppointmentDTO> getAppointmentsByDate(LocalDate date) {
-        logger.info("Searching for appointments for date: {}", date);
-        try {
-            List<Appointment> appointments = appointmentRepository.findByDate(date);
-            logger.info("Found {} appointments for date: {}", appointments.size(), date);
-            return appointmentMapper.toDTOList(appointments);
-        } catch (Exception e) {
-            logger.error("Error getting appointments for date {}: {}", date, e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Searching for appointments for date: {}", date);
+        List<Appointment> appointments = appointmentRepository.findByDate(date);
+        logger.debug("Found {} appointments for date: {}", appointments.size(), date);
+        return appointmentMapper.toDTOList(appointments);
     }
 
     /**
@@ -249,20 +212,15 @@ public class AppointmentService {
      * @return List of AppointmentDTO for the stylist and date.
      */
     public List<AppointmentDTO> getAppointmentsByStylistAndDate(Long stylistId, LocalDate date) {
-        logger.info("Searching for appointments for stylist ID: {} and date: {}", stylistId, date);
-        try {
-            User stylist = userRepository.findById(stylistId)
-                    .orElseThrow(() -> {
-                        logger.warn("Stylist not found with ID: {}", stylistId);
-                        return new ResourceNotFoundException("User", "id", stylistId);
-                    });
-            List<Appointment> appointments = appointmentRepository.findByStylistAndDate(stylist, date);
-            logger.info("Found {} appointments for stylist ID: {} and date: {}", appointments.size(), stylistId, date);
-            return appointmentMapper.toDTOList(appointments);
-        } catch (Exception e) {
-            logger.error("Error getting appointments for stylist ID {} and date {}: {}", stylistId, date, e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Searching for appointments for stylist ID: {} and date: {}", stylistId, date);
+        User stylist = userRepository.findById(stylistId)
+                .orElseThrow(() -> {
+                    logger.debug("Stylist not found with ID: {}", stylistId);
+                    return new ResourceNotFoundException("User", "id", stylistId);
+                });
+        List<Appointment> appointments = appointmentRepository.findByStylistAndDate(stylist, date);
+        logger.debug("Found {} appointments for stylist ID: {} and date: {}", appointments.size(), stylistId, date);
+        return appointmentMapper.toDTOList(appointments);
     }
 
     /**
@@ -278,17 +236,12 @@ public class AppointmentService {
     public List<AppointmentDTO> searchAppointmentsWithFilters(
             String clientName, String stylistName, String serviceName, 
             LocalDate date, Appointment.AppointmentStatus status) {
-        logger.info("Searching appointments with filters - Client: {}, Stylist: {}, Service: {}, Date: {}, Status: {}", 
+        logger.debug("Searching appointments with filters - Client: {}, Stylist: {}, Service: {}, Date: {}, Status: {}", 
                 clientName, stylistName, serviceName, date, status);
-        try {
-            List<Appointment> appointments = appointmentRepository.findWithAdvancedFilters(
-                    clientName, stylistName, serviceName, date, status);
-            logger.info("Found {} appointments matching filters", appointments.size());
-            return appointmentMapper.toDTOList(appointments);
-        } catch (Exception e) {
-            logger.error("Error searching appointments with filters: {}", e.getMessage(), e);
-            throw e;
-        }
+        List<Appointment> appointments = appointmentRepository.findWithAdvancedFilters(
+                clientName, stylistName, serviceName, date, status);
+        logger.debug("Found {} appointments matching filters", appointments.size());
+        return appointmentMapper.toDTOList(appointments);
     }
 
     /**
@@ -307,19 +260,14 @@ public class AppointmentService {
             String clientName, String stylistName, String serviceName, 
             LocalDate date, Appointment.AppointmentStatus status,
             int page, int size) {
-        logger.info("Searching appointments with filters (paginated) - Client: {}, Stylist: {}, Service: {}, Date: {}, Status: {}, Page: {}, Size: {}", 
+        logger.debug("Searching appointments with filters (paginated) - Client: {}, Stylist: {}, Service: {}, Date: {}, Status: {}, Page: {}, Size: {}", 
                 clientName, stylistName, serviceName, date, status, page, size);
-        try {
-            Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "date", "startTime"));
-            Page<Appointment> appointments = appointmentRepository.findWithAdvancedFilters(
-                    clientName, stylistName, serviceName, date, status, pageable);
-            logger.info("Found {} appointments matching filters (total: {})", 
-                    appointments.getNumberOfElements(), appointments.getTotalElements());
-            return appointments.map(appointmentMapper::toDTO);
-        } catch (Exception e) {
-            logger.error("Error searching appointments with filters (paginated): {}", e.getMessage(), e);
-            throw e;
-        }
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "date", "startTime"));
+        Page<Appointment> appointments = appointmentRepository.findWithAdvancedFilters(
+                clientName, stylistName, serviceName, date, status, pageable);
+        logger.debug("Found {} appointments matching filters (total: {})", 
+                appointments.getNumberOfElements(), appointments.getTotalElements());
+        return appointments.map(appointmentMapper::toDTO);
     }
 
     /**
@@ -334,132 +282,129 @@ public class AppointmentService {
      */
     @Transactional
     public AppointmentDTO createAppointment(AppointmentCreateDTO createDTO) {
-        logger.info("Creating new appointment for client ID: {} and stylist ID: {}", 
+        logger.debug("Creating new appointment for client ID: {} and stylist ID: {}", 
                 createDTO.getClientId(), createDTO.getStylistId());
         
-        try {
-            // Validar cliente
-            User client = userRepository.findById(createDTO.getClientId())
-                    .orElseThrow(() -> {
-                        logger.warn("Client not found with ID: {}", createDTO.getClientId());
-                        return new ResourceNotFoundException("User", "id", createDTO.getClientId());
-                    });
-            
-            if (client.getRole() != User.Role.CLIENTE) {
-                logger.warn("User with ID {} is not a client", createDTO.getClientId());
-                throw new BadRequestException("El usuario especificado no es un cliente");
-            }
+        // Validar cliente
+        User client = userRepository.findById(createDTO.getClientId())
+                .orElseThrow(() -> {
+                    logger.debug("Client not found with ID: {}", createDTO.getClientId());
+                    return new ResourceNotFoundException("User", "id", createDTO.getClientId());
+                });
+
+        if (client.getRole() != User.Role.CLIENTE) {
+            logger.debug("User with ID {} is not a client", createDTO.getClientId());
+            throw new BadRequestException("El usuario especificado no es un cliente");
+        }
 
-            // Validar estilista
-            User stylist = userRepository.findById(createDTO.getStylistId())
-                    .orElseThrow(() -> {
-                        logger.warn("Stylist not found with ID: {}", createDTO.getStylistId());
-                        return new ResourceNotFoundException("User", "id", createDTO.getStylistId());
-                    });
-            
-            if (stylist.getRole() != User.Role.ESTILISTA) {
-                logger.warn("User with ID {} is not a stylist", createDTO.getStylistId());
-                throw new BadRequestException("El usuario especificado no es un estilista");
-            }
+        // Validar estilista
+        User stylist = userRepository.findById(createDTO.getStylistId())
+                .orElseThrow(() -> {
+                    logger.debug("Stylist not found with ID: {}", createDTO.getStylistId());
+                    return new ResourceNotFoundException("User", "id", createDTO.getStylistId());
+                });
 
-            // Validar que la hora de fin sea posterior a la de inicio
-            if (createDTO.getEndTime().isBefore(createDTO.getStartTime()) || 
-                createDTO.getEndTime().equals(createDTO.getStartTime())) {
-                logger.warn("End time must be after start time");
-                throw new BadRequestException("La hora de fin debe ser posterior a la hora de inicio");
-            }
+        if (stylist.getRole() != User.Role.ESTILISTA) {
+            logger.debug("User with ID {} is not a stylist", createDTO.getStylistId());
+            throw new BadRequestException("El usuario especificado no es un estilista");
+        }
 
-            // Validar que no se creen citas en el pasado
-            LocalDate nowDate = LocalDate.now();
-            java.time.LocalTime nowTime = java.time.LocalTime.now();
-            if (createDTO.getDate().isBefore(nowDate) || 
-                (createDTO.getDate().equals(nowDate) && createDTO.getStartTime().isBefore(nowTime))) {
-                logger.warn("Attempt to create appointment in the past - Date: {}, Time: {}", 
-                        createDTO.getDate(), createDTO.getStartTime());
-                throw new BadRequestException("No se pueden crear citas en el pasado");
-            }
+        // Validar que la hora de fin sea posterior a la de inicio
+        if (createDTO.getEndTime().isBefore(createDTO.getStartTime()) || 
+            createDTO.getEndTime().equals(createDTO.getStartTime())) {
+            logger.debug("End time must be after start time");
+            throw new BadRequestException("La hora de fin debe ser posterior a la hora de inicio");
+        }
 
-            // Validar disponibilidad del estilista
-            validateStylistAvailability(stylist, createDTO.getDate(), 
-                    createDTO.getStartTime(), createDTO.getEndTime());
-
-            // Validar solapamiento de citas
-            validateNoOverlappingAppointments(stylist, createDTO.getDate(), 
-                    createDTO.getStartTime(), createDTO.getEndTime(), null);
-
-            // Obtener servicios
-            List<ServiceOffer> services = null;
-            if (createDTO.getServiceIds() != null && !createDTO.getServiceIds().isEmpty()) {
-                services = serviceOfferRepository.findAllById(createDTO.getServiceIds());
-                if (services.size() != createDTO.getServiceIds().size()) {
-                    logger.warn("Some services were not found");
-                    throw new ResourceNotFoundException("Services", "ids", createDTO.getServiceIds());
-                }
-                logger.debug("Associated {} services to appointment", services.size());
-            }
+        // Validar que no se creen citas en el pasado
+        LocalDate nowDate = LocalDate.now();
+        java.time.LocalTime nowTime = java.time.LocalTime.now();
+        if (createDTO.getDate().isBefore(nowDate) || 
+            (createDTO.getDate().equals(nowDate) && createDTO.getStartTime().isBefore(nowTime))) {
+            logger.debug("Attempt to create appointment in the past - Date: {}, Time: {}", 
+                    createDTO.getDate(), createDTO.getStartTime());
+            throw new BadRequestException("No se pueden crear citas en el pasado");
+        }
 
-            // Calcular precio automáticamente si no se proporciona o si hay servicios
-            BigDecimal totalPrice = createDTO.getTotalPrice();
-            if (services != null && !services.isEmpty()) {
-                totalPrice = calculateTotalPrice(services);
-                logger.debug("Calculated total price: {} from {} services", totalPrice, services.size());
-            } else if (totalPrice == null) {
-                throw new BadRequestException("Debe proporcionarse un precio total o una lista de servicios");
+        // Validar disponibilidad del estilista
+        validateStylistAvailability(stylist, createDTO.getDate(), 
+                createDTO.getStartTime(), createDTO.getEndTime());
+
+        // Validar solapamiento de citas
+        validateNoOverlappingAppointments(stylist, createDTO.getDate(), 
+                createDTO.getStartTime(), createDTO.getEndTime(), null);
+
+        // Obtener servicios
+        List<ServiceOffer> services = null;
+        if (createDTO.getServiceIds() != null && !createDTO.getServiceIds().isEmpty()) {
+            services = serviceOfferRepository.findAllById(createDTO.getServiceIds());
+            if (services.size() != createDTO.getServiceIds().size()) {
+                logger.debug("Some services were not found");
+                throw new ResourceNotFoundException("Services", "ids", createDTO.getServiceIds());
             }
+            logger.debug("Associated {} services to appointment", services.size());
+        }
 
-            // Crear la cita con el precio calculado
-            AppointmentCreateDTO dtoWithPrice = new AppointmentCreateDTO(
-                    createDTO.getClientId(),
-                    createDTO.getStylistId(),
-                    createDTO.getDate(),
-                    createDTO.getStartTime(),
-                    createDTO.getEndTime(),
-                    createDTO.getClientPhone(),
-                    totalPrice,
-                    createDTO.getServiceIds()
-            );
-
-            Appointment appointment = appointmentMapper.toEntity(dtoWithPrice, client, stylist, services);
-            Appointment savedAppointment = appointmentRepository.save(appointment);
-            logger.info("Appointment created successfully with ID: {}", savedAppointment.getAppointmentId());
-            
-            // Enviar notificaciones de confirmación
-            if (notificationService != null) {
-                try {
-                    com.bookmycut.dto.NotificationCreateDTO clientNotif = new com.bookmycut.dto.NotificationCreateDTO();
-                    clientNotif.setUserId(client.getUserId());
-                    clientNotif.setTitle("Cita confirmada");
-                    // Formatear fecha usando formato español para evitar problemas
-                    String fechaFormateada = createDTO.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-                    clientNotif.setMessage(String.format("Tu cita con %s ha sido confirmada para el %s a las %s", 
-                        stylist.getName(), fechaFormateada, createDTO.getStartTime()));
-                    clientNotif.setType(com.bookmycut.entities.Notification.NotificationType.APPOINTMENT_CONFIRMED);
-                    clientNotif.setRelatedAppointmentId(savedAppointment.getAppointmentId());
-                    notificationService.createNotification(clientNotif);
+        // Calcular precio automáticamente si no se proporciona o si hay servicios
+        BigDecimal totalPrice = createDTO.getTotalPrice();
+        if (services != null && !services.isEmpty()) {
+            totalPrice = calculateTotalPrice(services);
+            logger.debug("Calculated total price: {} from {} services", totalPrice, services.size());
+        } else if (totalPrice == null) {
+            throw new BadRequestException("Debe proporcionarse un precio total o una lista de servicios");
+        }
 
-                    com.bookmycut.dto.NotificationCreateDTO stylistNotif = new com.bookmycut.dto.NotificationCreateDTO();
-                    stylistNotif.setUserId(stylist.getUserId());
-                    stylistNotif.setTitle("Nueva cita asignada");
-                    // Formatear fecha usando formato español para evitar problemas
-                    String fechaFormateadaEstilista = createDTO.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-                    stylistNotif.setMessage(String.format("Tienes una nueva cita con %s el %s a las %s", 
-                        client.getName(), fechaFormateadaEstilista, createDTO.getStartTime()));
-                    stylistNotif.setType(com.bookmycut.entities.Notification.NotificationType.APPOINTMENT_CONFIRMED);
-                    stylistNotif.setRelatedAppointmentId(savedAppointment.getAppointmentId());
-                    notificationService.createNotification(stylistNotif);
-                } catch (Exception e) {
-                    logger.warn("Error sending notifications for appointment creation: {}", e.getMessage());
-                }
+        // Crear la cita con el precio calculado
+        AppointmentCreateDTO dtoWithPrice = new AppointmentCreateDTO(
+                createDTO.getClientId(),
+                createDTO.getStylistId(),
+                createDTO.getDate(),
+                createDTO.getStartTime(),
+                createDTO.getEndTime(),
+                createDTO.getClientPhone(),
+                totalPrice,
+                createDTO.getServiceIds()
+        );
+
+        Appointment appointment = appointmentMapper.toEntity(dtoWithPrice, client, stylist, services);
+        Appointment savedAppointment = appointmentRepository.save(appointment);
+        logger.info("Appointment created successfully with ID: {}", savedAppointment.getAppointmentId());
+
+        // Programar el recordatorio de la cita (tras el commit)
+        if (reminderWheel != null) {
+            reminderWheel.track(savedAppointment);
+        }
+
+        // Registrar las notificaciones de confirmación en el outbox (se crean y envían fuera de la reserva)
+        if (notificationOutboxService != null) {
+            try {
+                com.bookmycut.dto.NotificationCreateDTO clientNotif = new com.bookmycut.dto.NotificationCreateDTO();
+                clientNotif.setUserId(client.getUserId());
+                clientNotif.setTitle("Cita confirmada");
+                // Formatear fecha usando formato español para evitar problemas
+                String fechaFormateada = createDTO.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+                clientNotif.setMessage(String.format("Tu cita con %s ha sido confirmada para el %s a las %s", 
+                    stylist.getName(), fechaFormateada, createDTO.getStartTime()));
+                clientNotif.setType(com.bookmycut.entities.Notification.NotificationType.APPOINTMENT_CONFIRMED);
+                clientNotif.setRelatedAppointmentId(savedAppointment.getAppointmentId());
+
+                com.bookmycut.dto.NotificationCreateDTO stylistNotif = new com.bookmycut.dto.NotificationCreateDTO();
+                stylistNotif.setUserId(stylist.getUserId());
+                stylistNotif.setTitle("Nueva cita asignada");
+                // Formatear fecha usando formato español para evitar problemas
+                String fechaFormateadaEstilista = createDTO.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+                stylistNotif.setMessage(String.format("Tienes una nueva cita con %s el %s a las %s", 
+                    client.getName(), fechaFormateadaEstilista, createDTO.getStartTime()));
+                stylistNotif.setType(com.bookmycut.entities.Notification.NotificationType.APPOINTMENT_CONFIRMED);
+                stylistNotif.setRelatedAppointmentId(savedAppointment.getAppointmentId());
+                notificationOutboxService.enqueue("CITA_CREADA", savedAppointment.getAppointmentId(),
+                        List.of(clientNotif, stylistNotif));
+            } catch (Exception e) {
+                logger.warn("Error sending notifications for appointment creation: {}", e.getMessage());
             }
-            
-            return appointmentMapper.toDTO(savedAppointment);
-        } catch (BadRequestException | ConflictException | ResourceNotFoundException e) {
-            logger.warn("Validation error creating appointment: {}", e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            logger.error("Error creating appointment: {}", e.getMessage(), e);
-            throw e;
         }
+
+        return appointmentMapper.toDTO(savedAppointment);
     }
 
     /**
@@ -484,14 +429,14 @@ public class AppointmentService {
             if (exception.getType() == ScheduleException.ExceptionType.NO_DISPONIBLE) {
                 // Si la excepción es para todo el día (sin horas específicas)
                 if (exception.getStartTime() == null || exception.getEndTime() == null) {
-                    logger.warn("Stylist {} not available on {} due to schedule exception", 
+                    logger.debug("Stylist {} not available on {} due to schedule exception", 
                             stylist.getUserId(), date);
                     throw new ConflictException("El estilista no está disponible en esta fecha");
                 }
                 // Si la excepción es para un rango de horas específico
                 if (!(endTime.isBefore(exception.getStartTime()) || 
                       startTime.isAfter(exception.getEndTime()))) {
-                    logger.warn("Stylist {} not available on {} from {} to {} due to schedule exception", 
+                    logger.debug("Stylist {} not available on {} from {} to {} due to schedule exception", 
                             stylist.getUserId(), date, exception.getStartTime(), exception.getEndTime());
                     throw new ConflictException("El estilista no está disponible en este horario");
                 }
@@ -503,7 +448,7 @@ public class AppointmentService {
                 .findByStylistAndDayOfWeek(stylist, dayOfWeek);
         
         if (availabilities.isEmpty()) {
-            logger.warn("Stylist {} has no availability configured for {}", 
+            logger.debug("Stylist {} has no availability configured for {}", 
                     stylist.getUserId(), dayOfWeek);
             throw new BadRequestException("El estilista no tiene disponibilidad configurada para los " + 
                     getDayOfWeekName(dayOfWeek));
@@ -516,7 +461,7 @@ public class AppointmentService {
         );
         
         if (!isAvailable) {
-            logger.warn("Appointment time {} - {} is outside stylist {} availability on {}", 
+            logger.debug("Appointment time {} - {} is outside stylist {} availability on {}", 
                     startTime, endTime, stylist.getUserId(), dayOfWeek);
             throw new BadRequestException("La cita está fuera del horario disponible del estilista");
         }
@@ -547,7 +492,7 @@ public class AppointmentService {
         }
         
         if (!overlapping.isEmpty()) {
-            logger.warn("Found {} overlapping appointments for stylist {} on {} from {} to {}", 
+            logger.debug("Found {} overlapping appointments for stylist {} on {} from {} to {}", 
                     overlapping.size(), stylist.getUserId(), date, startTime, endTime);
             throw new ConflictException("Ya existe una cita en este horario para el estilista");
         }
@@ -593,111 +538,108 @@ public class AppointmentService {
      */
     @Transactional
     public AppointmentDTO updateAppointment(Long id, Map<String, Object> updates) {
-        logger.info("Updating appointment with ID: {}", id);
+        logger.debug("Updating appointment with ID: {}", id);
         
-        try {
-            Appointment appointment = appointmentRepository.findById(id)
-                    .orElseThrow(() -> {
-                        logger.warn("Appointment not found with ID: {}", id);
-                        return new ResourceNotFoundException("Appointment", "id", id);
-                    });
-
-            LocalDate newDate = appointment.getDate();
-            java.time.LocalTime newStartTime = appointment.getStartTime();
-            java.time.LocalTime newEndTime = appointment.getEndTime();
-            boolean dateOrTimeChanged = false;
-
-            Appointment.AppointmentStatus oldStatus = appointment.getStatus();
-            if (updates.containsKey("estado")) {
-                String statusStr = updates.get("estado").toString();
-                appointment.setStatus(Appointment.AppointmentStatus.valueOf(statusStr));
-                logger.debug("Appointment status updated to: {}", statusStr);
-                
-                // Enviar notificación si se cancela la cita
-                if (notificationService != null && 
-                    appointment.getStatus() == Appointment.AppointmentStatus.CANCELADA &&
-                    oldStatus != Appointment.AppointmentStatus.CANCELADA) {
-                    try {
-                        com.bookmycut.dto.NotificationCreateDTO clientNotif = new com.bookmycut.dto.NotificationCreateDTO();
-                        clientNotif.setUserId(appointment.getClient().getUserId());
-                        clientNotif.setTitle("Cita cancelada");
-                        String fechaCancelada = appointment.getDate().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-                        clientNotif.setMessage(String.format("Tu cita con %s del %s a las %s ha sido cancelada", 
-                            appointment.getStylist().getName(), fechaCancelada, appointment.getStartTime()));
-                        clientNotif.setType(com.bookmycut.entities.Notification.NotificationType.APPOINTMENT_CANCELLED);
-                        clientNotif.setRelatedAppointmentId(appointment.getAppointmentId());
-                        notificationService.createNotification(clientNotif);
-
-                        com.bookmycut.dto.NotificationCreateDTO stylistNotif = new com.bookmycut.dto.NotificationCreateDTO();
-                        stylistNotif.setUserId(appointment.getStylist().getUserId());
-                        stylistNotif.setTitle("Cita cancelada");
-                        String fechaCanceladaEstilista = appointment.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-                        stylistNotif.setMessage(String.format("La cita con %s del %s a las %s ha sido cancelada", 
-                            appointment.getClient().getName(), fechaCanceladaEstilista, appointment.getStartTime()));
-                        stylistNotif.setType(com.bookmycut.entities.Notification.NotificationType.APPOINTMENT_CANCELLED);
-                        stylistNotif.setRelatedAppointmentId(appointment.getAppointmentId());
-                        notificationService.createNotification(stylistNotif);
-                    } catch (Exception e) {
-                        logger.warn("Error sending cancellation notifications: {}", e.getMessage());
-                    }
+        Appointment appointment = appointmentRepository.findById(id)
+                .orElseThrow(() -> {
+                    logger.debug("Appointment not found with ID: {}", id);
+                    return new ResourceNotFoundException("Appointment", "id", id);
+                });
+
+        LocalDate newDate = appointment.getDate();
+        java.time.LocalTime newStartTime = appointment.getStartTime();
+        java.time.LocalTime newEndTime = appointment.getEndTime();
+        boolean dateOrTimeChanged = false;
+
+        Appointment.AppointmentStatus oldStatus = appointment.getStatus();
+        if (updates.containsKey("estado")) {
+            String statusStr = updates.get("estado").toString();
+            appointment.setStatus(Appointment.AppointmentStatus.valueOf(statusStr));
+            logger.debug("Appointment status updated to: {}", statusStr);
+
+            // Registrar en el outbox la notificación de cancelación
+            if (notificationOutboxService != null && 
+                appointment.getStatus() == Appointment.AppointmentStatus.CANCELADA &&
+                oldStatus != Appointment.AppointmentStatus.CANCELADA) {
+                try {
+                    com.bookmycut.dto.NotificationCreateDTO clientNotif = new com.bookmycut.dto.NotificationCreateDTO();
+                    clientNotif.setUserId(appointment.getClient().getUserId());
+                    clientNotif.setTitle("Cita cancelada");
+                    String fechaCancelada = appointment.getDate().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+                    clientNotif.setMessage(String.format("Tu cita con %s del %s a las %s ha sido cancelada", 
+                        appointment.getStylist().getName(), fechaCancelada, appointment.getStartTime()));
+                    clientNotif.setType(com.bookmycut.entities.Notification.NotificationType.APPOINTMENT_CANCELLED);
+                    clientNotif.setRelatedAppointmentId(appointment.getAppointmentId());
+
+                    com.bookmycut.dto.NotificationCreateDTO stylistNotif = new com.bookmycut.dto.NotificationCreateDTO();
+                    stylistNotif.setUserId(appointment.getStylist().getUserId());
+                    stylistNotif.setTitle("Cita cancelada");
+                    String fechaCanceladaEstilista = appointment.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+                    stylistNotif.setMessage(String.format("La cita con %s del %s a las %s ha sido cancelada", 
+                        appointment.getClient().getName(), fechaCanceladaEstilista, appointment.getStartTime()));
+                    stylistNotif.setType(com.bookmycut.entities.Notification.NotificationType.APPOINTMENT_CANCELLED);
+                    stylistNotif.setRelatedAppointmentId(appointment.getAppointmentId());
+                    notificationOutboxService.enqueue("CITA_CANCELADA", appointment.getAppointmentId(),
+                            List.of(clientNotif, stylistNotif));
+                } catch (Exception e) {
+                    logger.warn("Error sending cancellation notifications: {}", e.getMessage());
                 }
             }
+        }
 
-            if (updates.containsKey("fecha")) {
-                newDate = java.time.LocalDate.parse(updates.get("fecha").toString());
-                appointment.setDate(newDate);
-                dateOrTimeChanged = true;
-                logger.debug("Appointment date updated");
-            }
+        if (updates.containsKey("fecha")) {
+            newDate = java.time.LocalDate.parse(updates.get("fecha").toString());
+            appointment.setDate(newDate);
+            dateOrTimeChanged = true;
+            logger.debug("Appointment date updated");
+        }
 
-            if (updates.containsKey("horaInicio")) {
-                newStartTime = java.time.LocalTime.parse(updates.get("horaInicio").toString());
-                appointment.setStartTime(newStartTime);
-                dateOrTimeChanged = true;
-                logger.debug("Appointment start time updated");
-            }
+        if (updates.containsKey("horaInicio")) {
+            newStartTime = java.time.LocalTime.parse(updates.get("horaInicio").toString());
+            appointment.setStartTime(newStartTime);
+            dateOrTimeChanged = true;
+            logger.debug("Appointment start time updated");
+        }
 
-            if (updates.containsKey("horaFin")) {
-                newEndTime = java.time.LocalTime.parse(updates.get("horaFin").toString());
-                appointment.setEndTime(newEndTime);
-                dateOrTimeChanged = true;
-                logger.debug("Appointment end time updated");
-            }
+        if (updates.containsKey("horaFin")) {
+            newEndTime = java.time.LocalTime.parse(updates.get("horaFin").toString());
+            appointment.setEndTime(newEndTime);
+            dateOrTimeChanged = true;
+            logger.debug("Appointment end time updated");
+        }
 
-            // Validar que la hora de fin sea posterior a la de inicio
-            if (newEndTime.isBefore(newStartTime) || newEndTime.equals(newStartTime)) {
-                throw new BadRequestException("La hora de fin debe ser posterior a la hora de inicio");
-            }
+        // Validar que la hora de fin sea posterior a la de inicio
+        if (newEndTime.isBefore(newStartTime) || newEndTime.equals(newStartTime)) {
+            throw new BadRequestException("La hora de fin debe ser posterior a la hora de inicio");
+        }
 
-            // Validar que no se actualice a fechas/horas en el pasado
-            if (dateOrTimeChanged) {
-                LocalDate nowDate = LocalDate.now();
-                java.time.LocalTime nowTime = java.time.LocalTime.now();
-                if (newDate.isBefore(nowDate) || 
-                    (newDate.equals(nowDate) && newStartTime.isBefore(nowTime))) {
-                    logger.warn("Attempt to update appointment to past date/time - Date: {}, Time: {}", 
-                            newDate, newStartTime);
-                    throw new BadRequestException("No se pueden actualizar citas a fechas u horas en el pasado");
-                }
+        // Validar que no se actualice a fechas/horas en el pasado
+        if (dateOrTimeChanged) {
+            LocalDate nowDate = LocalDate.now();
+            java.time.LocalTime nowTime = java.time.LocalTime.now();
+            if (newDate.isBefore(nowDate) || 
+                (newDate.equals(nowDate) && newStartTime.isBefore(nowTime))) {
+                logger.debug("Attempt to update appointment to past date/time - Date: {}, Time: {}", 
+                        newDate, newStartTime);
+                throw new BadRequestException("No se pueden actualizar citas a fechas u horas en el pasado");
             }
+        }
 
-            // Si cambió la fecha u horario, validar disponibilidad y solapamiento
-            if (dateOrTimeChanged) {
-                validateStylistAvailability(appointment.getStylist(), newDate, newStartTime, newEndTime);
-                validateNoOverlappingAppointments(appointment.getStylist(), newDate, 
-                        newStartTime, newEndTime, appointment.getAppointmentId());
-            }
+        // Si cambió la fecha u horario, validar disponibilidad y solapamiento
+        if (dateOrTimeChanged) {
+            validateStylistAvailability(appointment.getStylist(), newDate, newStartTime, newEndTime);
+            validateNoOverlappingAppointments(appointment.getStylist(), newDate, 
+                    newStartTime, newEndTime, appointment.getAppointmentId());
+        }
 
-            Appointment updatedAppointment = appointmentRepository.save(appointment);
-            logger.info("Appointment with ID {} updated successfully", id);
-            return appointmentMapper.toDTO(updatedAppointment);
-        } catch (BadRequestException | ConflictException | ResourceNotFoundException e) {
-            logger.warn("Validation error updating appointment: {}", e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            logger.error("Error updating appointment with ID {}: {}", id, e.getMessage(), e);
-            throw e;
+        Appointment updatedAppointment = appointmentRepository.save(appointment);
+        logger.info("Appointment with ID {} updated successfully", id);
+
+        // Reprogramar o retirar el recordatorio si cambió el horario o el estado
+        if (reminderWheel != null && (dateOrTimeChanged || updatedAppointment.getStatus() != oldStatus)) {
+            reminderWheel.track(updatedAppointment);
         }
+        return appointmentMapper.toDTO(updatedAppointment);
     }
 
     /**
@@ -708,20 +650,19 @@ public class AppointmentService {
      */
     @Transactional
     public void deleteAppointment(Long id) {
-        logger.info("Deleting appointment with ID: {}", id);
+        logger.debug("Deleting appointment with ID: {}", id);
         
-        try {
-            Appointment appointment = appointmentRepository.findById(id)
-                    .orElseThrow(() -> {
-                        logger.warn("Appointment not found with ID: {}", id);
-                        return new ResourceNotFoundException("Appointment", "id", id);
-                    });
-
-            appointmentRepository.delete(appointment);
-            logger.info("Appointment with ID {} deleted successfully", id);
-        } catch (Exception e) {
-            logger.error("Error deleting appointment with ID {}: {}", id, e.getMessage(), e);
-            throw e;
+        Appointment appointment = appointmentRepository.findById(id)
+                .orElseThrow(() -> {
+                    logger.debug("Appointment not found with ID: {}", id);
+                    return new ResourceNotFoundException("Appointment", "id", id);
+                });
+
+        appointmentRepository.delete(appointment);
+        logger.info("Appointment with ID {} deleted successfully", id);
+
+        if (reminderWheel != null) {
+            reminderWheel.untrack(id);
         }
     }
 }
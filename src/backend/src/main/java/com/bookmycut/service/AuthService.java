@@ -5,20 +5,20 @@ import com.bookmycut.dto.LoginRequest;
 import com.bookmycut.dto.RegisterRequest;
 import com.bookmycut.exception.BadRequestException;
 import com.bookmycut.exception.ConflictException;
+import com.bookmycut.exception.ServiceUnavailableException;
 import com.bookmycut.exception.UnauthorizedException;
 import com.bookmycut.entities.User;
 import com.bookmycut.repositories.UserRepository;
 import com.bookmycut.util.JwtUtil;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -36,102 +36,159 @@ public class AuthService {
     private UserRepository userRepository;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
     
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
     public JwtUtil getJwtUtil() {
         return jwtUtil;
     }
     
-    @Autowired
-    private AuthenticationManager authenticationManager;
+    /**
+     * Codifica la contraseña de un registro. Se llama antes de abrir cualquier transacción (también la de
+     * la clave de idempotencia): la espera al pool de hashing no retiene una conexión de base de datos.
+     * Los duplicados se comprueban después, en {@link #register(RegisterRequest, String)}, para que repetir
+     * un registro idempotente devuelva la respuesta guardada.
+     *
+     * @param request DTO con los datos del usuario a registrar.
+     * @return Contraseña codificada para {@link #register(RegisterRequest, String)}.
+     * @throws BadRequestException Si falta el email.
+     */
+    public String encodePasswordForRegistration(RegisterRequest request) {
+        requireEmail(request);
+        return passwordHashingService.encode(request.getPassword());
+    }
     
     /**
-     * Registra un nuevo usuario en el sistema.
+     * Registra un nuevo usuario en el sistema, en su propia transacción (o en la que esté en curso).
      *
      * @param request DTO con los datos del usuario a registrar.
+     * @param encodedPassword Contraseña codificada con {@link #encodePasswordForRegistration(RegisterRequest)}.
      * @return AuthResponse con el token JWT y datos del usuario.
      * @throws RuntimeException Si el email ya está registrado o el rol no es válido.
      */
-    @Transactional
-    public AuthResponse register(RegisterRequest request) {
-        logger.info("Iniciando registro de usuario con rol: {}", request.getRole());
-        
+    public AuthResponse register(RegisterRequest request, String encodedPassword) {
+        return transactionTemplate.execute(status -> createRegisteredUser(request, encodedPassword));
+    }
+    
+    private void requireEmail(RegisterRequest request) {
         // Los usuarios registrados siempre obtienen el rol CLIENTE
         // Validar email (obligatorio para CLIENTE)
         if (request.getEmail() == null || request.getEmail().trim().isEmpty()) {
             throw new BadRequestException("El email es obligatorio");
         }
+    }
+    
+    private void validateRegistration(RegisterRequest request) {
+        logger.info("Iniciando registro de usuario con rol: {}", request.getRole());
+        
+        requireEmail(request);
         if (userRepository.existsByEmail(request.getEmail())) {
-            logger.warn("Intento de registro con email ya existente: {}", request.getEmail());
+            logger.debug("Intento de registro con email ya existente: {}", request.getEmail());
             throw new ConflictException("El email ya está registrado");
         }
         
         // Validar username si se proporciona (opcional para CLIENTE pero permite login)
         if (request.getUsername() != null && !request.getUsername().trim().isEmpty()) {
             if (userRepository.existsByUsername(request.getUsername())) {
-                logger.warn("Intento de registro con username ya existente: {}", request.getUsername());
+                logger.debug("Intento de registro con username ya existente: {}", request.getUsername());
                 throw new ConflictException("El username ya está registrado");
             }
         }
+    }
+    
+    private AuthResponse createRegisteredUser(RegisterRequest request, String encodedPassword) {
+        validateRegistration(request);
         
+        User user = new User();
+        user.setName(request.getName());
+        user.setPassword(encodedPassword);
+        // Los usuarios registrados siempre obtienen el rol CLIENTE
+        user.setRole(User.Role.CLIENTE);
+        user.setActive(true);
+
+        // Para CLIENTE: email obligatorio, username opcional (si se proporciona permite login)
+        user.setEmail(request.getEmail());
+        user.setPhone(request.getPhone());
+
+        // Si se proporciona username, usarlo para permitir login
+        if (request.getUsername() != null && !request.getUsername().trim().isEmpty()) {
+            user.setUsername(request.getUsername());
+            logger.debug("Creando usuario CLIENTE con username: {} para permitir login", request.getUsername());
+        } else {
+            // Si no hay username, generar uno basado en email para permitir login
+            String usernameFromEmail = request.getEmail().trim().toLowerCase();
+            user.setUsername(usernameFromEmail);
+            logger.debug("Creando usuario CLIENTE con username generado desde email: {}", usernameFromEmail);
+        }
+
+        user = userRepository.save(user);
+        userRepository.flush(); // Asegurar persistencia antes de insertar en tabla clientes
+        logger.info("Usuario registrado exitosamente con ID: {} y rol: {}", user.getUserId(), user.getRole());
+
+        // Insertar registro en la tabla clientes (requerido por la foreign key)
         try {
-            User user = new User();
-            user.setName(request.getName());
-            user.setPassword(request.getPassword()); // Guardar contraseña en texto plano
-            // Los usuarios registrados siempre obtienen el rol CLIENTE
-            user.setRole(User.Role.CLIENTE);
-            user.setActive(true);
-            
-            // Para CLIENTE: email obligatorio, username opcional (si se proporciona permite login)
-            user.setEmail(request.getEmail());
-            user.setPhone(request.getPhone());
-            
-            // Si se proporciona username, usarlo para permitir login
-            if (request.getUsername() != null && !request.getUsername().trim().isEmpty()) {
-                user.setUsername(request.getUsername());
-                logger.debug("Creando usuario CLIENTE con username: {} para permitir login", request.getUsername());
-            } else {
-                // Si no hay username, generar uno basado en email para permitir login
-                String usernameFromEmail = request.getEmail().trim().toLowerCase();
-                user.setUsername(usernameFromEmail);
-                logger.debug("Creando usuario CLIENTE con username generado desde email: {}", usernameFromEmail);
-            }
-            
-            user = userRepository.save(user);
-            userRepository.flush(); // Asegurar persistencia antes de insertar en tabla clientes
-            logger.info("Usuario registrado exitosamente con ID: {} y rol: {}", user.getUserId(), user.getRole());
-            
-            // Insertar registro en la tabla clientes (requerido por la foreign key)
-            try {
-                userRepository.insertClienteRecord(user.getUserId(), request.getPhone());
-                logger.info("Registro de cliente insertado en tabla clientes para usuario ID: {}", user.getUserId());
-            } catch (Exception e) {
-                logger.error("Error al insertar registro en tabla clientes para usuario ID {}: {}", user.getUserId(), e.getMessage(), e);
-                throw new RuntimeException("Error al crear registro de cliente: " + e.getMessage(), e);
-            }
-            
-            // Usar username o email para el token
-            String tokenSubject = user.getUsername() != null ? user.getUsername() : 
-                                 (user.getEmail() != null ? user.getEmail() : String.valueOf(user.getUserId()));
-            String token = jwtUtil.generateToken(tokenSubject, user.getUserId(), 
-                    List.of("ROLE_" + user.getRole().name()));
-            logger.debug("Token JWT generado para usuario ID: {}", user.getUserId());
-            
-            return new AuthResponse(
-                token,
-                "Bearer",
-                user.getUserId(),
-                user.getName(),
-                user.getEmail() != null ? user.getEmail() : "",
-                user.getRole()
-            );
+            userRepository.insertClienteRecord(user.getUserId(), request.getPhone());
+            logger.debug("Registro de cliente insertado en tabla clientes para usuario ID: {}", user.getUserId());
         } catch (Exception e) {
-            logger.error("Error al registrar usuario: {}", e.getMessage(), e);
-            throw e;
+            // Sin log aquí: GlobalExceptionHandler registra la traza una sola vez
+            throw new RuntimeException("Error al crear registro de cliente para usuario ID " + user.getUserId() + ": " + e.getMessage(), e);
         }
+
+        // Usar username o email para el token
+        String tokenSubject = user.getUsername() != null ? user.getUsername() : 
+                             (user.getEmail() != null ? user.getEmail() : String.valueOf(user.getUserId()));
+        String token = jwtUtil.generateToken(tokenSubject, user.getUserId(), 
+                List.of("ROLE_" + user.getRole().name()));
+        logger.debug("Token JWT generado para usuario ID: {}", user.getUserId());
+
+        return new AuthResponse(
+            token,
+            "Bearer",
+            user.getUserId(),
+            user.getName(),
+            user.getEmail() != null ? user.getEmail() : "",
+            user.getRole()
+        );
+    }
+    
+    /**
+     * Emite un token nuevo para un usuario ya registrado. Se usa al repetir la respuesta de un registro
+     * idempotente, que se guarda sin el token.
+     *
+     * @param userId ID del usuario.
+     * @return AuthResponse con un token JWT nuevo y los datos actuales del usuario.
+     * @throws UnauthorizedException Si el usuario no existe o está inactivo.
+     */
+    public AuthResponse reissueToken(Long userId) {
+        User user = userRepository.findById(userId)
+                .filter(User::getActive)
+                .orElseThrow(() -> new UnauthorizedException("Usuario inactivo"));
+        String tokenSubject = user.getUsername() != null ? user.getUsername() :
+                             (user.getEmail() != null ? user.getEmail() : String.valueOf(user.getUserId()));
+        String token = jwtUtil.generateToken(tokenSubject, user.getUserId(),
+                List.of("ROLE_" + user.getRole().name()));
+        logger.debug("Token JWT emitido de nuevo para usuario ID: {}", user.getUserId());
+
+        return new AuthResponse(
+            token,
+            "Bearer",
+            user.getUserId(),
+            user.getName(),
+            user.getEmail() != null ? user.getEmail() : "",
+            user.getRole()
+        );
     }
     
     /**
@@ -149,13 +206,13 @@ public class AuthService {
             // Buscar usuario por username o email (el campo puede contener cualquiera de los dos)
             Optional<User> userOpt = userRepository.findByUsernameOrEmail(request.getUsername());
             if (userOpt.isEmpty()) {
-                logger.warn("Usuario no encontrado con username o email: {}", request.getUsername());
+                logger.debug("Usuario no encontrado con username o email: {}", request.getUsername());
                 throw new BadCredentialsException("Credenciales inválidas");
             }
             
             User user = userOpt.get();
             if (!user.getActive()) {
-                logger.warn("Intento de login de usuario inactivo: {}", request.getUsername());
+                logger.debug("Intento de login de usuario inactivo: {}", request.getUsername());
                 throw new UnauthorizedException("Usuario inactivo");
             }
             
@@ -168,13 +225,25 @@ public class AuthService {
             logger.debug("Usuario encontrado: ID={}, Username={}, Email={}, Active={}, AuthIdentifier={}", 
                     user.getUserId(), user.getUsername(), user.getEmail(), user.getActive(), authIdentifier);
             
-            // Intentar autenticar con Spring Security usando el identificador correcto
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(authIdentifier, request.getPassword())
-            );
+            // Verificar la contraseña contra el usuario ya cargado (una sola consulta por login).
+            // El hashing se ejecuta en el pool acotado de PasswordHashingService, no en el hilo de la petición.
+            if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
+                throw new BadCredentialsException("Credenciales inválidas");
+            }
             
             logger.debug("Autenticación exitosa para: {}", authIdentifier);
             
+            // Migrar de forma transparente las contraseñas antiguas (texto plano) al algoritmo actual
+            if (passwordHashingService.needsRehash(user.getPassword())) {
+                try {
+                    userRepository.updatePasswordHash(user.getUserId(), passwordHashingService.encode(request.getPassword()));
+                    logger.info("Contraseña migrada al algoritmo actual para usuario ID: {}", user.getUserId());
+                } catch (ServiceUnavailableException e) {
+                    // No bloquear el login: se reintentará en el siguiente
+                    logger.warn("No se pudo migrar la contraseña del usuario ID {}: {}", user.getUserId(), e.getMessage());
+                }
+            }
+            
             // Usar username para el token si existe, sino email
             String tokenSubject = user.getUsername() != null ? user.getUsername() : user.getEmail();
             String token = jwtUtil.generateToken(tokenSubject, user.getUserId(), 
@@ -190,9 +259,9 @@ public class AuthService {
                 user.getRole()
             );
         } catch (BadCredentialsException e) {
-            logger.warn("Credenciales incorrectas para: {} - {}", request.getUsername(), e.getMessage());
+            logger.debug("Credenciales incorrectas para: {} - {}", request.getUsername(), e.getMessage());
             throw new UnauthorizedException("Credenciales inválidas");
-        } catch (UnauthorizedException e) {
+        } catch (UnauthorizedException | ServiceUnavailableException e) {
             throw e;
         } catch (Exception e) {
             logger.error("Error durante el login para {}: {}", request.getUsername(), e.getMessage(), e);
@@ -249,56 +318,50 @@ public class AuthService {
                 return user;
             } else {
                 // Si existe pero no es CLIENTE, lanzar error
-                logger.warn("Email {} ya existe pero no es CLIENTE, es: {}", email, user.getRole());
+                logger.debug("Email {} ya existe pero no es CLIENTE, es: {}", email, user.getRole());
                 throw new ConflictException("El email ya está registrado con otro tipo de cuenta");
             }
         }
         
         // Crear nuevo usuario CLIENTE
-        logger.info("Creando nuevo usuario CLIENTE con email: {}", email);
+        logger.debug("Creando nuevo usuario CLIENTE con email: {}", email);
+        User newUser = new User();
+        newUser.setName(name);
+        newUser.setEmail(email);
+
+        // Si se proporciona contraseña, crear usuario con username para permitir login
+        if (password != null && !password.trim().isEmpty()) {
+            // Usar email como username (sin espacios y en minúsculas)
+            String username = email.trim().toLowerCase();
+            newUser.setUsername(username);
+            newUser.setPassword(passwordHashingService.encode(password));
+            logger.debug("Usuario CLIENTE se creará con username '{}' para permitir login", username);
+        } else {
+            // Cuenta sin contraseña (el cliente no hará login): sin bcrypt dentro de la transacción de la reserva
+            newUser.setPassword(PasswordHashingService.NO_LOGIN_PASSWORD);
+            logger.debug("Usuario CLIENTE se creará sin username (no tendrá acceso de login)");
+        }
+
+        newUser.setRole(User.Role.CLIENTE);
+        newUser.setActive(true);
+        newUser.setPhone(phone);
+
+        newUser = userRepository.save(newUser);
+        // Hacer flush para asegurar que el usuario esté persistido antes de insertar en clientes
+        userRepository.flush();
+        logger.info("Usuario CLIENTE creado exitosamente con ID: {}", newUser.getUserId());
+
+        // Insertar registro en la tabla clientes (requerido por la foreign key)
         try {
-            User newUser = new User();
-            newUser.setName(name);
-            newUser.setEmail(email);
-            
-            // Si se proporciona contraseña, crear usuario con username para permitir login
-            if (password != null && !password.trim().isEmpty()) {
-                // Usar email como username (sin espacios y en minúsculas)
-                String username = email.trim().toLowerCase();
-                newUser.setUsername(username);
-                newUser.setPassword(password); // Guardar contraseña en texto plano
-                logger.info("Usuario CLIENTE se creará con username '{}' para permitir login", username);
-            } else {
-                // Generar contraseña aleatoria (el cliente no hará login)
-                String randomPassword = java.util.UUID.randomUUID().toString();
-                newUser.setPassword(randomPassword); // Guardar contraseña en texto plano
-                logger.info("Usuario CLIENTE se creará sin username (no tendrá acceso de login)");
-            }
-            
-            newUser.setRole(User.Role.CLIENTE);
-            newUser.setActive(true);
-            newUser.setPhone(phone);
-            
-            newUser = userRepository.save(newUser);
-            // Hacer flush para asegurar que el usuario esté persistido antes de insertar en clientes
-            userRepository.flush();
-            logger.info("Usuario CLIENTE creado exitosamente con ID: {}", newUser.getUserId());
-            
-            // Insertar registro en la tabla clientes (requerido por la foreign key)
-            try {
-                userRepository.insertClienteRecord(newUser.getUserId(), phone);
-                logger.info("Registro de cliente insertado en tabla clientes para usuario ID: {}", newUser.getUserId());
-            } catch (Exception e) {
-                logger.error("Error al insertar registro en tabla clientes para usuario ID {}: {}", newUser.getUserId(), e.getMessage(), e);
-                // Si falla la inserción en clientes, lanzar error para que se revierta la transacción
-                throw new RuntimeException("Error al crear registro de cliente: " + e.getMessage(), e);
-            }
-            
-            return newUser;
+            userRepository.insertClienteRecord(newUser.getUserId(), phone);
+            logger.debug("Registro de cliente insertado en tabla clientes para usuario ID: {}", newUser.getUserId());
         } catch (Exception e) {
-            logger.error("Error al crear usuario CLIENTE con email {}: {}", email, e.getMessage(), e);
-            throw e;
+            // Si falla la inserción en clientes, lanzar error para que se revierta la transacción;
+            // GlobalExceptionHandler registra la traza una sola vez
+            throw new RuntimeException("Error al crear registro de cliente para usuario ID " + newUser.getUserId() + ": " + e.getMessage(), e);
         }
+
+        return newUser;
     }
     
     /**
@@ -0,0 +1,192 @@
+package com.bookmycut.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.stomp.ReactorNettyTcpStompClient;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Avisos entre los nodos del backend, p. ej. que la bandeja en memoria de un usuario ha cambiado.
+ *
+ * Con {@code websocket.broker.mode=relay} los avisos se publican en el mismo broker STOMP externo que usa
+ * WebSocket (destino {@code /topic/bookmycut.cluster}), con una conexión propia que se reabre si se pierde;
+ * cada nodo ignora los suyos. Con el broker en memoria solo hay un nodo y los avisos no salen de él.
+ *
+ * Los avisos no se guardan: un nodo desconectado del broker pierde los que se publiquen mientras tanto.
+ */
+@Component
+public class ClusterBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterBroadcaster.class);
+
+    static final String DESTINATION = "/topic/bookmycut.cluster";
+    private static final String CHANNEL_HEADER = "channel";
+    private static final String NODE_HEADER = "node";
+
+    @Value("${websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${websocket.broker.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${websocket.broker.relay.virtual-host:/}")
+    private String relayVirtualHost;
+
+    @Value("${cluster.broadcast.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    @Autowired
+    @Qualifier("taskScheduler")
+    private TaskScheduler taskScheduler;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+    private ReactorNettyTcpStompClient client;
+    private volatile StompSession session;
+    private volatile boolean stopped;
+
+    /**
+     * Registra un receptor de los avisos de otros nodos en un canal.
+     */
+    public void subscribe(String channel, Consumer<String> listener) {
+        listeners.computeIfAbsent(channel, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Indica si hay conexión con el broker, para no preparar avisos que se descartarían.
+     */
+    public boolean isConnected() {
+        StompSession current = session;
+        return current != null && current.isConnected();
+    }
+
+    /**
+     * Publica un aviso para el resto de nodos. Sin conexión con el broker, el aviso se descarta.
+     */
+    public void publish(String channel, String value) {
+        StompSession current = session;
+        if (current == null || !current.isConnected()) {
+            return;
+        }
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination(DESTINATION);
+        headers.set(CHANNEL_HEADER, channel);
+        headers.set(NODE_HEADER, nodeId);
+        try {
+            current.send(headers, value);
+        } catch (Exception e) {
+            logger.warn("Error publicando el aviso {} para otros nodos: {}", channel, e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!"relay".equalsIgnoreCase(brokerMode)) {
+            return;
+        }
+        client = new ReactorNettyTcpStompClient(relayHost, relayPort);
+        client.setMessageConverter(new StringMessageConverter());
+        connect();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+
+    private void connect() {
+        if (stopped) {
+            return;
+        }
+        StompHeaders headers = new StompHeaders();
+        headers.setLogin(relayLogin);
+        headers.setPasscode(relayPasscode);
+        headers.setHost(relayVirtualHost);
+        client.connectAsync(headers, new SessionHandler());
+    }
+
+    private void deliver(StompHeaders headers, Object payload) {
+        String channel = headers.getFirst(CHANNEL_HEADER);
+        if (channel == null || nodeId.equals(headers.getFirst(NODE_HEADER))) {
+            return;
+        }
+        for (Consumer<String> listener : listeners.getOrDefault(channel, List.of())) {
+            try {
+                listener.accept((String) payload);
+            } catch (Exception e) {
+                logger.warn("Error procesando el aviso {} de otro nodo: {}", channel, e.getMessage());
+            }
+        }
+    }
+
+    private final class SessionHandler extends StompSessionHandlerAdapter {
+
+        @Override
+        public void afterConnected(StompSession connected, StompHeaders connectedHeaders) {
+            session = connected;
+            connected.subscribe(DESTINATION, this);
+            logger.info("Avisos entre nodos conectados al broker STOMP {}:{}", relayHost, relayPort);
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            deliver(headers, payload);
+        }
+
+        @Override
+        public void handleException(StompSession failed, StompCommand command, StompHeaders headers,
+                                    byte[] payload, Throwable exception) {
+            logger.warn("Error en un aviso de otro nodo: {}", exception.getMessage());
+        }
+
+        /**
+         * Fallo al conectar o conexión perdida: se reintenta pasado {@code cluster.broadcast.reconnect-delay-ms}.
+         */
+        @Override
+        public void handleTransportError(StompSession failed, Throwable exception) {
+            if (failed.isConnected() || stopped) {
+                return;
+            }
+            session = null;
+            logger.warn("Avisos entre nodos sin conexión con el broker STOMP: {}. Reintentando en {} ms",
+                    exception.getMessage(), reconnectDelayMs);
+            taskScheduler.schedule(ClusterBroadcaster.this::connect, Instant.now().plusMillis(reconnectDelayMs));
+        }
+    }
+}
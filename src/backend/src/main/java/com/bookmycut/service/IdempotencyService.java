@@ -0,0 +1,269 @@
+package com.bookmycut.service;
+
+import com.bookmycut.entities.IdempotentRequest;
+import com.bookmycut.exception.BadRequestException;
+import com.bookmycut.exception.ConflictException;
+import com.bookmycut.repositories.IdempotentRequestRepository;
+import com.bookmycut.tenancy.ForEachDataSource;
+import com.bookmycut.tenancy.TenantContext;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Idempotencia de los POST que crean recursos (cabecera {@code Idempotency-Key}).
+ *
+ * La operación y la fila de peticiones_idempotentes con su respuesta se confirman en la misma
+ * transacción. Un reintento con la misma clave recibe la respuesta guardada, con la cabecera
+ * {@code Idempotent-Replayed: true}, sin volver a ejecutar la operación. Si la operación falla no
+ * queda nada guardado y el reintento se ejecuta de nuevo.
+ *
+ * Los duplicados simultáneos en la misma instancia esperan a que termine la primera ejecución. En
+ * otra instancia, la inserción de la misma clave queda bloqueada en la clave primaria hasta que la
+ * primera transacción termina, y después se devuelve la respuesta que esta guardó.
+ *
+ * No se guarda ningún secreto: la huella del cuerpo de la petición (que puede incluir una contraseña)
+ * es un HMAC con {@code idempotency.fingerprint-key}, y las respuestas con un token JWT se guardan sin
+ * él y lo vuelven a emitir al repetirse.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+
+    @Autowired
+    private IdempotentRequestRepository idempotentRequestRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours = 24;
+
+    @Value("${idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs = 30000;
+
+    @Value("${idempotency.fingerprint-key:${jwt.secret}}")
+    private String fingerprintKey;
+
+    /** Ejecuciones en curso en esta instancia: clave -> futuro que se completa al terminar. */
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+
+    private SecretKeySpec fingerprintKeySpec;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        fingerprintKeySpec = new SecretKeySpec(fingerprintKey.getBytes(StandardCharsets.UTF_8), FINGERPRINT_ALGORITHM);
+    }
+
+    /**
+     * Ejecuta la operación una sola vez por clave de idempotencia y guarda la respuesta tal cual.
+     *
+     * @see #execute(String, String, Object, Class, Supplier, UnaryOperator, UnaryOperator)
+     */
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String scope, Object request,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> operation) {
+        return execute(idempotencyKey, scope, request, responseType, operation,
+                UnaryOperator.identity(), UnaryOperator.identity());
+    }
+
+    /**
+     * Ejecuta la operación una sola vez por clave de idempotencia.
+     *
+     * @param idempotencyKey Valor de la cabecera Idempotency-Key; si es null la operación se ejecuta sin más.
+     * @param scope Endpoint y, si lo hay, usuario autenticado: la misma clave en otro ámbito es otra petición.
+     *              Se le antepone el salón de la petición, para que dos salones no compartan claves.
+     * @param request Cuerpo de la petición, para detectar la reutilización de la clave con otros datos.
+     * @param responseType Tipo del cuerpo de la respuesta, para reconstruir la respuesta guardada.
+     * @param operation Operación que crea el recurso; se ejecuta dentro de la transacción.
+     * @param toStored Cuerpo que se guarda a partir del de la respuesta, sin credenciales (tokens JWT). Debe
+     *                 devolver una copia: la respuesta original se envía sin cambios.
+     * @param onReplay Completa el cuerpo guardado al repetirlo, p. ej. emitiendo un token nuevo. Se ejecuta
+     *                 dentro de una transacción.
+     * @throws BadRequestException Si la clave no es válida o ya se usó con una petición distinta.
+     * @throws ConflictException Si la primera ejecución con la misma clave no termina a tiempo.
+     */
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String scope, Object request,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> operation,
+                                         UnaryOperator<T> toStored, UnaryOperator<T> onReplay) {
+        if (idempotencyKey == null) {
+            return operation.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("La cabecera " + HEADER + " debe tener entre 1 y " + MAX_KEY_LENGTH + " caracteres");
+        }
+        Long salonId = TenantContext.getSalonId();
+        String keyId = sha256((salonId != null ? "salon:" + salonId + "\n" : "") + scope + "\n" + idempotencyKey);
+        String fingerprint = hmac(writeJson(request));
+        StoredResponse<T> storedResponse = new StoredResponse<>(responseType, toStored, onReplay);
+
+        while (true) {
+            CompletableFuture<Void> execution = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(keyId, execution);
+            if (running != null) {
+                // Duplicado simultáneo: esperar a la primera ejecución y volver a consultar su resultado
+                awaitExecution(running);
+                continue;
+            }
+            try {
+                return executeOnce(keyId, fingerprint, storedResponse, operation);
+            } finally {
+                inFlight.remove(keyId, execution);
+                execution.complete(null);
+            }
+        }
+    }
+
+    private <T> ResponseEntity<T> executeOnce(String keyId, String fingerprint, StoredResponse<T> storedResponse,
+                                              Supplier<ResponseEntity<T>> operation) {
+        try {
+            return transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                Optional<IdempotentRequest> stored = idempotentRequestRepository.findById(keyId);
+                if (stored.isPresent()) {
+                    if (stored.get().getExpiresAt().isAfter(now)) {
+                        return replay(stored.get(), fingerprint, storedResponse);
+                    }
+                    idempotentRequestRepository.delete(stored.get());
+                    idempotentRequestRepository.flush();
+                }
+
+                // Se inserta antes de la operación: en otra instancia, la misma clave espera aquí a este commit
+                IdempotentRequest record = new IdempotentRequest(keyId, fingerprint, 0, "", now, now.plusHours(ttlHours));
+                record = idempotentRequestRepository.saveAndFlush(record);
+
+                ResponseEntity<T> response = operation.get();
+                record.setResponseStatus(response.getStatusCode().value());
+                T body = response.getBody();
+                record.setResponseBody(writeJson(body != null ? storedResponse.toStored().apply(body) : null));
+                return response;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia confirmó la misma clave mientras esta esperaba: devolver su respuesta
+            Optional<ResponseEntity<T>> replayed = transactionTemplate.execute(status ->
+                    idempotentRequestRepository.findById(keyId)
+                            .map(stored -> replay(stored, fingerprint, storedResponse)));
+            if (replayed == null || replayed.isEmpty()) {
+                throw e;
+            }
+            return replayed.get();
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotentRequest stored, String fingerprint, StoredResponse<T> storedResponse) {
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            throw new BadRequestException("La cabecera " + HEADER + " ya se usó con una petición distinta");
+        }
+        logger.debug("Petición idempotente repetida, se devuelve la respuesta guardada ({})", stored.getResponseStatus());
+        try {
+            T body = objectMapper.readValue(stored.getResponseBody(), storedResponse.type());
+            if (body != null) {
+                body = storedResponse.onReplay().apply(body);
+            }
+            return ResponseEntity.status(stored.getResponseStatus())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta idempotente guardada no válida", e);
+        }
+    }
+
+    private void awaitExecution(CompletableFuture<Void> running) {
+        try {
+            running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ConflictException("Hay una petición con la misma " + HEADER + " en curso");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Hay una petición con la misma " + HEADER + " en curso");
+        } catch (ExecutionException e) {
+            // No ocurre: el futuro siempre se completa con null
+        }
+    }
+
+    /**
+     * Elimina las respuestas caducadas; a partir de entonces la clave puede reutilizarse.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}",
+            initialDelayString = "${idempotency.purge-interval-ms:3600000}")
+    @ForEachDataSource
+    public void purgeExpired() {
+        Integer deleted = transactionTemplate.execute(status ->
+                idempotentRequestRepository.deleteExpired(LocalDateTime.now()));
+        if (deleted != null && deleted > 0) {
+            logger.info("Eliminadas {} respuestas idempotentes caducadas", deleted);
+        }
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar a JSON", e);
+        }
+    }
+
+    private String hmac(String value) {
+        try {
+            Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+            mac.init(fingerprintKeySpec);
+            return HexFormat.of().formatHex(mac.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(FINGERPRINT_ALGORITHM + " no disponible", e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /** Cómo se guarda y se reconstruye el cuerpo de la respuesta. */
+    private record StoredResponse<T>(Class<T> type, UnaryOperator<T> toStored, UnaryOperator<T> onReplay) {
+    }
+}
@@ -0,0 +1,265 @@
+package com.bookmycut.service;
+
+import com.bookmycut.dto.NotificationDTO;
+import com.bookmycut.entities.Notification;
+import com.bookmycut.repositories.NotificationRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Bandeja en memoria por usuario: contador de no leídas, total y las últimas N notificaciones.
+ *
+ * Se hidrata desde {@code notificaciones} la primera vez que se consulta un usuario, así que consultar el
+ * contador de la campana no accede a la base de datos mientras no haya cambios. Cada cambio de las
+ * notificaciones de un usuario (tras el commit) descarta su bandeja en este nodo y, mediante
+ * {@link ClusterBroadcaster}, en el resto; el nodo que hace el cambio la recarga si la tenía y envía el
+ * contador por WebSocket a {@code /topic/notifications.{id}} como {@code {"unreadCount": n}}. Las bandejas
+ * se expulsan por LRU al superar {@code notifications.inbox.max-users}.
+ */
+@Component
+public class NotificationInboxCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationInboxCache.class);
+
+    static final String INVALIDATION_CHANNEL = "notifications.inbox";
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired(required = false)
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired(required = false)
+    private ClusterBroadcaster clusterBroadcaster;
+
+    @Value("${notifications.inbox.max-users:10000}")
+    private int maxUsers;
+
+    @Value("${notifications.inbox.recent-size:20}")
+    private int recentSize;
+
+    private Map<Long, Inbox> inboxes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Estado de un usuario. Se accede siempre con su propio monitor.
+     * Cada cambio incrementa {@code generation}; una carga solo se instala si la generación no ha cambiado
+     * desde que empezó, ya que si llegó un cambio entretanto su lectura puede ser anterior al commit. La
+     * carga descartada se repite en la siguiente consulta.
+     */
+    private static final class Inbox {
+        long unread;
+        long total;
+        final ArrayDeque<NotificationDTO> recent = new ArrayDeque<>();
+        boolean loaded;
+        long generation;
+    }
+
+    @PostConstruct
+    public void init() {
+        inboxes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Inbox> eldest) {
+                return size() > maxUsers;
+            }
+        };
+        if (clusterBroadcaster != null) {
+            clusterBroadcaster.subscribe(INVALIDATION_CHANNEL, userId -> invalidate(Long.valueOf(userId)));
+        }
+    }
+
+    /**
+     * Número de notificaciones no leídas del usuario.
+     */
+    public long getUnreadCount(Long userId) {
+        Inbox inbox = inboxFor(userId, true);
+        synchronized (inbox) {
+            if (inbox.loaded) {
+                hits.increment();
+                return inbox.unread;
+            }
+        }
+        misses.increment();
+        return hydrate(userId, inbox).unread;
+    }
+
+    /**
+     * Página de notificaciones servida desde memoria si cae dentro de las últimas N.
+     *
+     * @return La página, o vacío si hay que consultarla en base de datos.
+     */
+    public Optional<Page<NotificationDTO>> getPage(Long userId, int page, int size) {
+        if (page < 0 || size <= 0) {
+            return Optional.empty();
+        }
+        Inbox inbox = inboxFor(userId, true);
+        Snapshot snapshot;
+        synchronized (inbox) {
+            snapshot = inbox.loaded ? new Snapshot(inbox) : null;
+        }
+        if (snapshot == null) {
+            misses.increment();
+            snapshot = hydrate(userId, inbox);
+        } else {
+            hits.increment();
+        }
+        long from = (long) page * size;
+        long to = Math.min(from + size, snapshot.total);
+        if (to > snapshot.recent.size()) {
+            return Optional.empty();
+        }
+        List<NotificationDTO> content = from < to
+                ? snapshot.recent.subList((int) from, (int) to)
+                : List.of();
+        return Optional.of(new PageImpl<>(content,
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdDate")), snapshot.total));
+    }
+
+    /**
+     * Notificaciones creadas (y confirmadas).
+     */
+    public void onCreated(List<NotificationDTO> dtos) {
+        dtos.stream()
+                .map(NotificationDTO::getUserId)
+                .distinct()
+                .forEach(this::onChanged);
+    }
+
+    /**
+     * Notificaciones del usuario creadas, leídas o borradas, después del commit.
+     *
+     * El cambio no se aplica sobre la bandeja en memoria: una carga que leyó la base de datos después del
+     * commit ya lo incluye y lo contaría dos veces. La bandeja se descarta aquí y en el resto de nodos; si
+     * estaba en memoria se recarga para enviar el contador actualizado.
+     */
+    public void onChanged(Long userId) {
+        if (clusterBroadcaster != null) {
+            clusterBroadcaster.publish(INVALIDATION_CHANNEL, String.valueOf(userId));
+        }
+        Inbox inbox = invalidate(userId);
+        if (inbox != null) {
+            pushUnreadCount(userId, hydrate(userId, inbox).unread);
+        }
+    }
+
+    /**
+     * Vacía todas las bandejas (p. ej. tras una purga de notificaciones antiguas).
+     */
+    public void clear() {
+        synchronized (inboxes) {
+            inboxes.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (inboxes) {
+            return inboxes.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Descarta la bandeja del usuario, que se recargará en la siguiente consulta.
+     *
+     * @return La bandeja descartada, o null si el usuario no estaba en memoria.
+     */
+    private Inbox invalidate(Long userId) {
+        Inbox inbox = inboxFor(userId, false);
+        if (inbox != null) {
+            synchronized (inbox) {
+                inbox.loaded = false;
+                inbox.generation++;
+            }
+        }
+        return inbox;
+    }
+
+    private Inbox inboxFor(Long userId, boolean create) {
+        synchronized (inboxes) {
+            Inbox inbox = inboxes.get(userId);
+            if (inbox == null && create) {
+                inbox = new Inbox();
+                inboxes.put(userId, inbox);
+            }
+            return inbox;
+        }
+    }
+
+    private Snapshot hydrate(Long userId, Inbox inbox) {
+        long generation;
+        synchronized (inbox) {
+            generation = inbox.generation;
+        }
+        Page<Notification> recent = notificationRepository.findByUserUserIdOrderByCreatedDateDesc(userId,
+                PageRequest.of(0, recentSize));
+        long unread = notificationRepository.countByUserUserIdAndReadFalse(userId);
+        List<NotificationDTO> dtos = recent.getContent().stream()
+                .map(NotificationService::toDTO)
+                .collect(Collectors.toList());
+        synchronized (inbox) {
+            if (inbox.generation == generation && !inbox.loaded) {
+                inbox.unread = unread;
+                inbox.total = recent.getTotalElements();
+                inbox.recent.clear();
+                inbox.recent.addAll(dtos);
+                inbox.loaded = true;
+                logger.debug("Bandeja del usuario {} cargada: {} no leídas", userId, unread);
+            }
+        }
+        return new Snapshot(unread, recent.getTotalElements(), dtos);
+    }
+
+    private void pushUnreadCount(Long userId, long unread) {
+        if (messagingTemplate == null) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSend(NotificationService.USER_TOPIC_PREFIX + userId, Map.of("unreadCount", unread));
+        } catch (Exception e) {
+            logger.warn("Error sending unread count to user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private static final class Snapshot {
+        final long unread;
+        final long total;
+        final List<NotificationDTO> recent;
+
+        Snapshot(Inbox inbox) {
+            this(inbox.unread, inbox.total, new ArrayList<>(inbox.recent));
+        }
+
+        Snapshot(long unread, long total, List<NotificationDTO> recent) {
+            this.unread = unread;
+            this.total = total;
+            this.recent = recent;
+        }
+    }
+}
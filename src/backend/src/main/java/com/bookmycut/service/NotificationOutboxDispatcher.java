@@ -0,0 +1,261 @@
+package com.bookmycut.service;
+
+import com.bookmycut.dto.NotificationCreateDTO;
+import com.bookmycut.entities.OutboxEvent;
+import com.bookmycut.repositories.OutboxEventRepository;
+import com.bookmycut.tenancy.ForEachDataSource;
+import com.bookmycut.tenancy.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Procesa en segundo plano los eventos del outbox de notificaciones.
+ *
+ * Reclama lotes de eventos pendientes (SELECT ... FOR UPDATE SKIP LOCKED), los reparte en un pool de
+ * workers acotado y, por cada lote, crea las notificaciones con una inserción por lotes y borra los eventos
+ * en la misma transacción; el envío por WebSocket se hace tras el commit. Si un lote falla se reprocesa
+ * evento a evento y los que siguen fallando se reintentan con backoff exponencial hasta marcarse FALLIDO.
+ */
+@Component
+public class NotificationOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutboxDispatcher.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private NotificationOutboxService notificationOutboxService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.workers:2}")
+    private int workerCount;
+
+    @Value("${outbox.queue-capacity:4}")
+    private int queueCapacity;
+
+    @Value("${outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${outbox.backoff-base-ms:1000}")
+    private long backoffBaseMs;
+
+    @Value("${outbox.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    @Value("${outbox.claim-timeout-ms:60000}")
+    private long claimTimeoutMs;
+
+    private ThreadPoolExecutor workers;
+    private TransactionTemplate transactionTemplate;
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "outbox-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * Solicita un ciclo de despacho inmediato (llamado tras el commit de una reserva).
+     * Si el pool está ocupado no hace nada: el sondeo periódico recogerá el evento.
+     * Despacha la base de datos del salón de la reserva.
+     */
+    public void requestDispatch() {
+        try {
+            workers.execute(TenantContext.inCurrentDataSource(this::dispatch));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Pool de outbox ocupado, el evento se procesará en el siguiente sondeo");
+        }
+    }
+
+    /**
+     * Sondeo periódico: libera reclamaciones caducadas y despacha los eventos pendientes.
+     */
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:1000}")
+    @ForEachDataSource
+    public void poll() {
+        try {
+            Integer released = transactionTemplate.execute(status ->
+                    outboxEventRepository.releaseStaleClaims(LocalDateTime.now().minusNanos(claimTimeoutMs * 1_000_000),
+                            OutboxEvent.Status.PENDIENTE, OutboxEvent.Status.PROCESANDO));
+            if (released != null && released > 0) {
+                logger.warn("Liberados {} eventos de outbox reclamados hace más de {} ms", released, claimTimeoutMs);
+            }
+        } catch (Exception e) {
+            logger.error("Error liberando eventos de outbox caducados: {}", e.getMessage(), e);
+        }
+        dispatch();
+    }
+
+    /**
+     * Reclama lotes mientras haya hueco en la cola del pool. Solo un hilo reclama a la vez.
+     */
+    void dispatch() {
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (workers.getQueue().remainingCapacity() > 0) {
+                List<Long> ids = claimBatch();
+                if (ids.isEmpty()) {
+                    break;
+                }
+                try {
+                    workers.execute(TenantContext.inCurrentDataSource(() -> process(ids)));
+                } catch (RejectedExecutionException e) {
+                    // El lote ya está reclamado: procesarlo en este hilo (nunca es un hilo de petición)
+                    process(ids);
+                }
+                if (ids.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error despachando eventos de outbox: {}", e.getMessage(), e);
+        } finally {
+            dispatching.set(false);
+        }
+    }
+
+    private List<Long> claimBatch() {
+        List<Long> ids = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> locked = outboxEventRepository.lockPendingIds(now, batchSize);
+            if (!locked.isEmpty()) {
+                outboxEventRepository.markClaimed(locked, OutboxEvent.Status.PROCESANDO, now);
+            }
+            return locked;
+        });
+        return ids != null ? ids : List.of();
+    }
+
+    /**
+     * Materializa las notificaciones de un lote de eventos y elimina los eventos, todo en una transacción.
+     */
+    void process(List<Long> ids) {
+        List<OutboxEvent> events = outboxEventRepository.findAllById(ids);
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<NotificationCreateDTO> notifications = new ArrayList<>();
+                for (OutboxEvent event : events) {
+                    notifications.addAll(notificationOutboxService.readPayload(event));
+                }
+                notificationService.createNotifications(notifications);
+                outboxEventRepository.deleteAllByIdInBatch(ids);
+            });
+            processed.add(events.size());
+            logger.debug("Procesados {} eventos de outbox", events.size());
+        } catch (Exception e) {
+            if (events.size() == 1) {
+                markFailed(events.get(0).getEventId(), e);
+                return;
+            }
+            // Aislar el evento problemático: reprocesar uno a uno
+            logger.warn("Error procesando lote de {} eventos de outbox, reintentando individualmente: {}",
+                    events.size(), e.getMessage());
+            for (OutboxEvent event : events) {
+                process(List.of(event.getEventId()));
+            }
+        }
+    }
+
+    private void markFailed(Long eventId, Exception error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.findById(eventId).ifPresent(event -> {
+                int attempts = event.getAttempts() + 1;
+                event.setAttempts(attempts);
+                event.setClaimedAt(null);
+                String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+                event.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+                if (attempts >= maxAttempts) {
+                    event.setStatus(OutboxEvent.Status.FALLIDO);
+                    failed.increment();
+                    logger.error("Evento de outbox {} marcado como FALLIDO tras {} intentos: {}", eventId, attempts, message);
+                } else {
+                    event.setStatus(OutboxEvent.Status.PENDIENTE);
+                    event.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMillis(attempts) * 1_000_000));
+                    retried.increment();
+                    logger.warn("Evento de outbox {} fallido (intento {}), se reintentará: {}", eventId, attempts, message);
+                }
+                outboxEventRepository.save(event);
+            }));
+        } catch (Exception e) {
+            // El evento sigue en PROCESANDO y se liberará al caducar la reclamación
+            logger.error("No se pudo registrar el fallo del evento de outbox {}: {}", eventId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Backoff exponencial con jitter: base * 2^(intentos-1), acotado a backoffMaxMs.
+     */
+    long backoffMillis(int attempts) {
+        long exponential = backoffBaseMs << Math.min(attempts - 1, 20);
+        long capped = Math.min(backoffMaxMs, exponential);
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    public long getProcessedCount() {
+        return processed.sum();
+    }
+
+    public long getRetriedCount() {
+        return retried.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getPendingCount() {
+        return outboxEventRepository.countByStatus(OutboxEvent.Status.PENDIENTE);
+    }
+}
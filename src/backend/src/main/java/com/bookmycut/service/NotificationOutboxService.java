@@ -0,0 +1,102 @@
+package com.bookmycut.service;
+
+import com.bookmycut.dto.NotificationCreateDTO;
+import com.bookmycut.entities.OutboxEvent;
+import com.bookmycut.repositories.OutboxEventRepository;
+import com.bookmycut.tenancy.TenantContext;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Servicio de escritura en el outbox transaccional de notificaciones.
+ * La reserva solo inserta un evento compacto en su propia transacción; la creación de las
+ * notificaciones y el envío por WebSocket los hace después {@link NotificationOutboxDispatcher}.
+ */
+@Service
+public class NotificationOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutboxService.class);
+
+    private static final TypeReference<List<NotificationCreateDTO>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** Dependencia circular con el dispatcher. Sin @Lazy: su proxy CGLIB choca con el que genera Spring AOT. */
+    @Autowired
+    private ObjectProvider<NotificationOutboxDispatcher> dispatcher;
+
+    /**
+     * Registra las notificaciones de un evento de cita en la transacción actual.
+     * Si la transacción se revierte, el evento desaparece con ella.
+     *
+     * @param eventType Tipo de evento (p. ej. CITA_CREADA, CITA_CANCELADA).
+     * @param appointmentId ID de la cita relacionada.
+     * @param notifications Notificaciones que deben crearse.
+     */
+    @Transactional
+    public void enqueue(String eventType, Long appointmentId, List<NotificationCreateDTO> notifications) {
+        // El evento se procesa fuera de la petición: cada notificación lleva su salón
+        Long salonId = TenantContext.getSalonId();
+        if (salonId != null) {
+            notifications.stream()
+                    .filter(notification -> notification.getSalonId() == null)
+                    .forEach(notification -> notification.setSalonId(salonId));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(eventType);
+        event.setAppointmentId(appointmentId);
+        event.setPayload(writePayload(notifications));
+        event.setStatus(OutboxEvent.Status.PENDIENTE);
+        event.setAttempts(0);
+        event.setNextAttemptAt(now);
+        event.setCreatedDate(now);
+        outboxEventRepository.save(event);
+        logger.debug("Evento {} encolado en el outbox para la cita ID: {}", eventType, appointmentId);
+
+        // Despertar al dispatcher tras el commit para no esperar al siguiente sondeo
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatcher.ifAvailable(NotificationOutboxDispatcher::requestDispatch);
+                }
+            });
+        }
+    }
+
+    /**
+     * Convierte el payload de un evento en las notificaciones que representa.
+     */
+    public List<NotificationCreateDTO> readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Payload de outbox no válido en el evento " + event.getEventId(), e);
+        }
+    }
+
+    private String writePayload(List<NotificationCreateDTO> notifications) {
+        try {
+            return objectMapper.writeValueAsString(notifications);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento de outbox", e);
+        }
+    }
+}
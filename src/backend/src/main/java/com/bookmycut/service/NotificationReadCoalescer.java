@@ -0,0 +1,168 @@
+package com.bookmycut.service;
+
+import com.bookmycut.tenancy.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Agrupa las confirmaciones de lectura que llegan por STOMP ({@code /app/notificaciones/markRead} y
+ * {@code markAllRead}) durante {@code notifications.read-coalesce-ms} y las aplica por usuario con un único
+ * UPDATE. Al terminar envía el nuevo contador de no leídas a cada sesión que envió confirmaciones, en
+ * {@code /user/queue/notifications}.
+ *
+ * Los IDs de usuario no se repiten entre salones, así que las confirmaciones se agrupan solo por usuario; el
+ * UPDATE se aplica en la base de datos del salón de la sesión.
+ */
+@Component
+public class NotificationReadCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationReadCoalescer.class);
+
+    static final String REPLY_DESTINATION = "/queue/notifications";
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired(required = false)
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${notifications.read-coalesce-ms:250}")
+    private long windowMs;
+
+    @Value("${notifications.read-coalesce-max-ids:500}")
+    private int maxIds;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Confirmaciones pendientes de un usuario. Solo se modifica dentro de {@code pending.compute}.
+     */
+    private static final class Pending {
+        final Set<Long> ids = new LinkedHashSet<>();
+        final Set<String> sessionIds = new LinkedHashSet<>();
+        boolean all;
+    }
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "read-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        new ArrayList<>(pending.keySet()).forEach(this::flush);
+    }
+
+    public void markRead(Long userId, String sessionId, Collection<Long> notificationIds) {
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            return;
+        }
+        received.add(notificationIds.size());
+        enqueue(userId, sessionId, notificationIds, false);
+    }
+
+    public void markAllRead(Long userId, String sessionId) {
+        received.increment();
+        enqueue(userId, sessionId, null, true);
+    }
+
+    private void enqueue(Long userId, String sessionId, Collection<Long> notificationIds, boolean all) {
+        boolean[] created = {false};
+        boolean[] full = {false};
+        pending.compute(userId, (id, current) -> {
+            Pending batch = current;
+            if (batch == null) {
+                batch = new Pending();
+                created[0] = true;
+            }
+            if (all) {
+                // "Todas leídas" engloba cualquier ID pendiente
+                batch.all = true;
+                batch.ids.clear();
+            } else if (!batch.all) {
+                batch.ids.addAll(notificationIds);
+            }
+            if (sessionId != null) {
+                batch.sessionIds.add(sessionId);
+            }
+            full[0] = batch.ids.size() >= maxIds;
+            return batch;
+        });
+        if (full[0]) {
+            scheduler.execute(TenantContext.inCurrentDataSource(() -> flush(userId)));
+        } else if (created[0]) {
+            scheduler.schedule(TenantContext.inCurrentDataSource(() -> flush(userId)), windowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void flush(Long userId) {
+        Pending batch = pending.remove(userId);
+        if (batch == null) {
+            return;
+        }
+        flushes.increment();
+        try {
+            if (batch.all) {
+                notificationService.markAllAsRead(userId);
+            } else if (!batch.ids.isEmpty()) {
+                notificationService.markAsRead(new ArrayList<>(batch.ids), userId);
+            }
+            reply(userId, batch.sessionIds, notificationService.getUnreadCount(userId));
+        } catch (Exception e) {
+            logger.error("Error aplicando confirmaciones de lectura del usuario {}: {}", userId, e.getMessage(), e);
+        }
+    }
+
+    private void reply(Long userId, Set<String> sessionIds, long unreadCount) {
+        if (messagingTemplate == null) {
+            return;
+        }
+        for (String sessionId : sessionIds) {
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            headers.setSessionId(sessionId);
+            headers.setLeaveMutable(true);
+            try {
+                messagingTemplate.convertAndSendToUser(sessionId, REPLY_DESTINATION,
+                        Map.of("unreadCount", unreadCount), headers.getMessageHeaders());
+            } catch (Exception e) {
+                logger.warn("Error sending unread count to user {} (session {}): {}", userId, sessionId, e.getMessage());
+            }
+        }
+    }
+
+    public long getReceivedCount() {
+        return received.sum();
+    }
+
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+}
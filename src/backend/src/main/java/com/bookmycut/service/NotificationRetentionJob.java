@@ -0,0 +1,239 @@
+package com.bookmycut.service;
+
+import com.bookmycut.entities.Notification;
+import com.bookmycut.repositories.NotificationRepository;
+import com.bookmycut.tenancy.ForEachDataSource;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mantenimiento periódico de la tabla {@code notificaciones}.
+ *
+ * Purga las notificaciones leídas más antiguas que {@code notifications.retention.read-days} y los
+ * recordatorios más antiguos que {@code notifications.retention.reminder-days} en lotes pequeños, cada
+ * uno confirmado en su propia transacción, con una pausa entre lotes para no acaparar bloqueos.
+ *
+ * Si la tabla está particionada por mes (ver la migración {@code db/particionado/V2__notificaciones_particionadas.sql}), además crea
+ * por adelantado las particiones de los próximos meses y elimina con DROP PARTITION las que quedan fuera
+ * de {@code notifications.retention.partition-months}, lo que evita borrar fila a fila.
+ */
+@Component
+public class NotificationRetentionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetentionJob.class);
+
+    private static final String TABLE = "notificaciones";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired(required = false)
+    private NotificationInboxCache inboxCache;
+
+    @Value("${notifications.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notifications.retention.read-days:90}")
+    private int readDays;
+
+    @Value("${notifications.retention.reminder-days:30}")
+    private int reminderDays;
+
+    @Value("${notifications.retention.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${notifications.retention.pause-ms:50}")
+    private long pauseMs;
+
+    @Value("${notifications.retention.max-duration-ms:600000}")
+    private long maxDurationMs;
+
+    @Value("${notifications.retention.partition-months:12}")
+    private int partitionMonths;
+
+    @Value("${notifications.retention.premake-months:2}")
+    private int premakeMonths;
+
+    private TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder purged = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Ejecución diaria (por defecto a las 3:30 AM), en su propio planificador para que las pausas entre lotes
+     * no retrasen el resto de tareas programadas.
+     */
+    @Scheduled(cron = "${notifications.retention.cron:0 30 3 * * *}", scheduler = "notificationRetentionScheduler")
+    @ForEachDataSource
+    public void run() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long deadline = System.currentTimeMillis() + maxDurationMs;
+            LocalDateTime now = LocalDateTime.now();
+            long deleted = purge(now.minusDays(readDays), null, true, deadline);
+            deleted += purge(now.minusDays(reminderDays), Notification.NotificationType.APPOINTMENT_REMINDER, false, deadline);
+            if (isPartitioned()) {
+                long dropped = maintainPartitions(LocalDate.now());
+                if (dropped > 0 && inboxCache != null) {
+                    inboxCache.clear();
+                }
+                deleted += dropped;
+            }
+            logger.info("Retención de notificaciones completada: {} eliminadas", deleted);
+        } catch (Exception e) {
+            logger.error("Error en la retención de notificaciones: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Borra por lotes las notificaciones anteriores a {@code before}.
+     *
+     * @param before Fecha límite (exclusiva).
+     * @param type Tipo de notificación, o null para todos.
+     * @param onlyRead Si solo se borran las leídas.
+     * @param deadline Instante (epoch millis) a partir del cual no se empiezan más lotes.
+     * @return Número de notificaciones borradas.
+     */
+    public long purge(LocalDateTime before, Notification.NotificationType type, boolean onlyRead, long deadline) {
+        String typeName = type != null ? type.name() : null;
+        long total = 0;
+        while (System.currentTimeMillis() < deadline) {
+            Integer deleted = transactionTemplate.execute(status ->
+                    notificationRepository.deleteBatchOlderThan(before, typeName, onlyRead, batchSize));
+            int count = deleted != null ? deleted : 0;
+            total += count;
+            purged.add(count);
+            if (count < batchSize) {
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        if (total > 0 && inboxCache != null) {
+            // Las bandejas en memoria pueden contener notificaciones borradas: se recargarán bajo demanda
+            inboxCache.clear();
+        }
+        logger.debug("Purgadas {} notificaciones anteriores a {} (tipo: {}, solo leídas: {})",
+                total, before, typeName, onlyRead);
+        return total;
+    }
+
+    /**
+     * Crea las particiones mensuales que faltan y elimina las que han salido del periodo de retención.
+     *
+     * @return Número aproximado de filas eliminadas con las particiones.
+     */
+    long maintainPartitions(LocalDate today) {
+        LocalDate currentMonth = today.withDayOfMonth(1);
+        List<Map<String, Object>> partitions = jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION", TABLE);
+
+        // Particiones futuras: se separan de pmax mientras está vacía, así la operación es inmediata
+        long lastBound = partitions.stream()
+                .map(p -> String.valueOf(p.get("PARTITION_DESCRIPTION")))
+                .filter(description -> !"MAXVALUE".equalsIgnoreCase(description))
+                .mapToLong(Long::parseLong)
+                .max()
+                .orElse(0L);
+        for (int i = 0; i <= premakeMonths; i++) {
+            LocalDate month = currentMonth.plusMonths(i);
+            long upperBound = epochSeconds(month.plusMonths(1));
+            if (upperBound > lastBound) {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION pmax INTO (" +
+                        "PARTITION " + month.format(PARTITION_NAME) + " VALUES LESS THAN (" + upperBound + "), " +
+                        "PARTITION pmax VALUES LESS THAN MAXVALUE)");
+                lastBound = upperBound;
+                logger.info("Creada la partición {} de notificaciones", month.format(PARTITION_NAME));
+            }
+        }
+
+        // Particiones caducadas: todo su rango es anterior al límite de retención
+        long cutoff = epochSeconds(currentMonth.minusMonths(partitionMonths));
+        long dropped = 0;
+        for (Map<String, Object> partition : partitions) {
+            String description = String.valueOf(partition.get("PARTITION_DESCRIPTION"));
+            if ("MAXVALUE".equalsIgnoreCase(description) || Long.parseLong(description) > cutoff) {
+                continue;
+            }
+            String name = String.valueOf(partition.get("PARTITION_NAME"));
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + name);
+            Object rows = partition.get("TABLE_ROWS");
+            dropped += rows instanceof Number number ? number.longValue() : 0;
+            logger.info("Eliminada la partición {} de notificaciones (~{} filas)", name, rows);
+        }
+        return dropped;
+    }
+
+    private boolean isPartitioned() {
+        try {
+            Integer count = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.PARTITIONS " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+                    Integer.class, TABLE);
+            return count != null && count > 0;
+        } catch (Exception e) {
+            logger.debug("No se pudo comprobar el particionado de {}: {}", TABLE, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Límite de partición para el inicio de un día, calculado por MySQL con la misma zona horaria que usa
+     * UNIX_TIMESTAMP(created_date) al repartir las filas.
+     */
+    private long epochSeconds(LocalDate date) {
+        Long seconds = jdbcTemplate.queryForObject("SELECT UNIX_TIMESTAMP(?)", Long.class, date + " 00:00:00");
+        return seconds != null ? seconds : 0L;
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public long getPurgedCount() {
+        return purged.sum();
+    }
+}
@@ -19,10 +19,17 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +37,13 @@ public class NotificationService {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
 
+    /**
+     * Prefijo del destino STOMP de las notificaciones de un usuario ({@code /topic/notifications.{id}}).
+     * El identificador se separa con punto: con el broker externo (RabbitMQ) lo que sigue a {@code /topic/}
+     * es la clave de enrutamiento de {@code amq.topic} y no admite más segmentos con barra.
+     */
+    public static final String USER_TOPIC_PREFIX = "/topic/notifications.";
+
     @Autowired
     private NotificationRepository notificationRepository;
 
@@ -39,40 +53,50 @@ public class NotificationService {
     @Autowired(required = false)
     private SimpMessagingTemplate messagingTemplate;
 
+    @Autowired(required = false)
+    private NotificationInboxCache inboxCache;
+
+    @Autowired(required = false)
+    private NotificationStreamRegistry streamRegistry;
+
     public Page<NotificationDTO> getUserNotifications(Long userId, int page, int size) {
-        logger.info("Requesting notifications for user ID: {}, page: {}, size: {}", userId, page, size);
-        try {
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-            
+        logger.debug("Requesting notifications for user ID: {}, page: {}, size: {}", userId, page, size);
+        // Las primeras páginas se sirven desde la bandeja en memoria
+        if (inboxCache != null) {
+            Optional<Page<NotificationDTO>> cached = inboxCache.getPage(userId, page, size);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
             Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdDate"));
-            Page<Notification> notifications = notificationRepository.findByUserOrderByCreatedDateDesc(user, pageable);
-            
-            return notifications.map(this::toDTO);
-        } catch (Exception e) {
-            logger.error("Error getting notifications: {}", e.getMessage(), e);
-            throw e;
+            return notificationRepository.findByUserUserIdOrderByCreatedDateDesc(userId, pageable)
+                    .map(NotificationService::toDTO);
         }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdDate"));
+        Page<Notification> notifications = notificationRepository.findByUserOrderByCreatedDateDesc(user, pageable);
+
+        return notifications.map(NotificationService::toDTO);
     }
 
     public List<NotificationDTO> getUnreadNotifications(Long userId) {
-        logger.info("Requesting unread notifications for user ID: {}", userId);
-        try {
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-            
-            List<Notification> notifications = notificationRepository.findUnreadNotifications(user);
-            return notifications.stream()
-                    .map(this::toDTO)
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            logger.error("Error getting unread notifications: {}", e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Requesting unread notifications for user ID: {}", userId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+
+        List<Notification> notifications = notificationRepository.findUnreadNotifications(user);
+        return notifications.stream()
+                .map(NotificationService::toDTO)
+                .collect(Collectors.toList());
     }
 
     public long getUnreadCount(Long userId) {
         try {
+            if (inboxCache != null) {
+                return inboxCache.getUnreadCount(userId);
+            }
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
             return notificationRepository.countByUserAndReadFalse(user);
@@ -84,35 +108,118 @@ public class NotificationService {
 
     @Transactional
     public NotificationDTO createNotification(NotificationCreateDTO createDTO) {
-        logger.info("Creating notification for user ID: {}", createDTO.getUserId());
-        try {
-            User user = userRepository.findById(createDTO.getUserId())
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", createDTO.getUserId()));
+        logger.debug("Creating notification for user ID: {}", createDTO.getUserId());
+        User user = userRepository.findById(createDTO.getUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", createDTO.getUserId()));
+
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setTitle(createDTO.getTitle());
+        notification.setMessage(createDTO.getMessage());
+        notification.setType(createDTO.getType());
+        notification.setRead(false);
+        notification.setRelatedAppointmentId(createDTO.getRelatedAppointmentId());
+        notification.setSalonId(createDTO.getSalonId());
+
+        Notification saved = notificationRepository.save(notification);
+        NotificationDTO dto = toDTO(saved);
+
+        // Enviar notificación por WebSocket cuando se confirme la transacción
+        publishAfterCommit(List.of(dto));
+
+        logger.info("Notification created successfully with ID: {}", saved.getNotificationId());
+        return dto;
+    }
 
+    /**
+     * Crea varias notificaciones en una sola operación.
+     * Los usuarios se referencian con getReferenceById (sin SELECT por destinatario) y, gracias al
+     * generador de IDs por bloques de {@link Notification}, los INSERT se envían en lotes JDBC.
+     * Los envíos por WebSocket se agrupan por usuario y se hacen tras el commit.
+     *
+     * @param createDTOs Notificaciones a crear.
+     * @return Notificaciones creadas, en el mismo orden.
+     */
+    @Transactional
+    public List<NotificationDTO> createNotifications(List<NotificationCreateDTO> createDTOs) {
+        if (createDTOs == null || createDTOs.isEmpty()) {
+            return List.of();
+        }
+        logger.debug("Creating {} notifications in batch", createDTOs.size());
+
+        Map<Long, User> users = new HashMap<>();
+        List<Notification> notifications = new ArrayList<>(createDTOs.size());
+        for (NotificationCreateDTO createDTO : createDTOs) {
             Notification notification = new Notification();
-            notification.setUser(user);
+            notification.setUser(users.computeIfAbsent(createDTO.getUserId(), userRepository::getReferenceById));
             notification.setTitle(createDTO.getTitle());
             notification.setMessage(createDTO.getMessage());
             notification.setType(createDTO.getType());
             notification.setRead(false);
             notification.setRelatedAppointmentId(createDTO.getRelatedAppointmentId());
+            notification.setRelatedAppointmentDate(createDTO.getRelatedAppointmentDate());
+            notification.setRelatedAppointmentStartTime(createDTO.getRelatedAppointmentStartTime());
+            notification.setSalonId(createDTO.getSalonId());
+            notifications.add(notification);
+        }
 
-            Notification saved = notificationRepository.save(notification);
-            NotificationDTO dto = toDTO(saved);
+        List<NotificationDTO> dtos = notificationRepository.saveAll(notifications).stream()
+                .map(NotificationService::toDTO)
+                .collect(Collectors.toList());
 
-            // Enviar notificación por WebSocket
+        publishAfterCommit(dtos);
+        return dtos;
+    }
+
+    /**
+     * Envía las notificaciones por WebSocket y SSE después del commit (nunca se notifica algo que luego se
+     * revierte); por WebSocket, un único mensaje por usuario: el objeto si solo hay una notificación o un
+     * array si hay varias.
+     * En ese momento se descarta también la bandeja en memoria de cada usuario, que envía el nuevo contador.
+     */
+    private void publishAfterCommit(List<NotificationDTO> dtos) {
+        if (dtos.isEmpty()) {
+            return;
+        }
+        runAfterCommit(() -> {
             if (messagingTemplate != null) {
-                messagingTemplate.convertAndSend("/topic/notifications/" + user.getUserId(), dto);
+                publish(dtos);
+            }
+            if (streamRegistry != null) {
+                streamRegistry.publish(dtos);
+            }
+            if (inboxCache != null) {
+                inboxCache.onCreated(dtos);
             }
+        });
+    }
 
-            logger.info("Notification created successfully with ID: {}", saved.getNotificationId());
-            return dto;
-        } catch (Exception e) {
-            logger.error("Error creating notification: {}", e.getMessage(), e);
-            throw e;
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
     }
 
+    private void publish(List<NotificationDTO> dtos) {
+        Map<Long, List<NotificationDTO>> byUser = dtos.stream()
+                .collect(Collectors.groupingBy(NotificationDTO::getUserId, LinkedHashMap::new, Collectors.toList()));
+        byUser.forEach((userId, userDtos) -> {
+            try {
+                messagingTemplate.convertAndSend(USER_TOPIC_PREFIX + userId,
+                        userDtos.size() == 1 ? userDtos.get(0) : userDtos);
+            } catch (Exception e) {
+                logger.warn("Error sending WebSocket notification to user {}: {}", userId, e.getMessage());
+            }
+        });
+    }
+
     @Async
     public void sendAppointmentReminder(Appointment appointment) {
         try {
@@ -130,7 +237,8 @@ public class NotificationService {
                 ));
                 clientNotification.setType(Notification.NotificationType.APPOINTMENT_REMINDER);
                 clientNotification.setRelatedAppointmentId(appointment.getAppointmentId());
-                createNotification(clientNotification);
+                clientNotification.setRelatedAppointmentDate(appointment.getDate());
+                clientNotification.setRelatedAppointmentStartTime(appointment.getStartTime());
 
                 // Crear notificación para el estilista
                 NotificationCreateDTO stylistNotification = new NotificationCreateDTO();
@@ -144,7 +252,10 @@ public class NotificationService {
                 ));
                 stylistNotification.setType(Notification.NotificationType.APPOINTMENT_REMINDER);
                 stylistNotification.setRelatedAppointmentId(appointment.getAppointmentId());
-                createNotification(stylistNotification);
+                stylistNotification.setRelatedAppointmentDate(appointment.getDate());
+                stylistNotification.setRelatedAppointmentStartTime(appointment.getStartTime());
+
+                createNotifications(List.of(clientNotification, stylistNotification));
             }
         } catch (Exception e) {
             logger.error("Error sending appointment reminder: {}", e.getMessage(), e);
@@ -153,59 +264,68 @@ public class NotificationService {
 
     @Transactional
     public NotificationDTO markAsRead(Long notificationId, Long userId) {
-        logger.info("Marking notification ID: {} as read for user ID: {}", notificationId, userId);
-        try {
-            Notification notification = notificationRepository.findById(notificationId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Notification", "id", notificationId));
+        logger.debug("Marking notification ID: {} as read for user ID: {}", notificationId, userId);
+        Notification notification = notificationRepository.findById(notificationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification", "id", notificationId));
 
-            if (!notification.getUser().getUserId().equals(userId)) {
-                throw new ResourceNotFoundException("Notification", "id", notificationId);
-            }
+        if (!notification.getUser().getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Notification", "id", notificationId);
+        }
 
-            notification.setRead(true);
-            Notification updated = notificationRepository.save(notification);
-            logger.info("Notification marked as read");
-            return toDTO(updated);
-        } catch (Exception e) {
-            logger.error("Error marking notification as read: {}", e.getMessage(), e);
-            throw e;
+        notification.setRead(true);
+        Notification updated = notificationRepository.save(notification);
+        if (inboxCache != null) {
+            runAfterCommit(() -> inboxCache.onChanged(userId));
         }
+        logger.info("Notification marked as read");
+        return toDTO(updated);
     }
 
     @Transactional
     public void markAllAsRead(Long userId) {
-        logger.info("Marking all notifications as read for user ID: {}", userId);
-        try {
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-            
-            List<Notification> unread = notificationRepository.findUnreadNotifications(user);
-            unread.forEach(n -> n.setRead(true));
-            notificationRepository.saveAll(unread);
-            logger.info("All notifications marked as read");
-        } catch (Exception e) {
-            logger.error("Error marking all notifications as read: {}", e.getMessage(), e);
-            throw e;
+        logger.debug("Marking all notifications as read for user ID: {}", userId);
+        // Un único UPDATE en lugar de cargar y guardar cada notificación
+        int updated = notificationRepository.markAllAsReadByUserId(userId);
+        if (inboxCache != null) {
+            runAfterCommit(() -> inboxCache.onChanged(userId));
         }
+        logger.info("{} notifications marked as read", updated);
+    }
+
+    /**
+     * Marca como leídas varias notificaciones del usuario con un único UPDATE.
+     * Las que no pertenecen al usuario o ya estaban leídas se ignoran.
+     *
+     * @return Número de notificaciones marcadas.
+     */
+    @Transactional
+    public int markAsRead(List<Long> notificationIds, Long userId) {
+        logger.debug("Marking {} notifications as read for user ID: {}", notificationIds.size(), userId);
+        if (notificationIds.isEmpty()) {
+            return 0;
+        }
+        int updated = notificationRepository.markAsReadByIds(userId, notificationIds);
+        if (inboxCache != null && updated > 0) {
+            runAfterCommit(() -> inboxCache.onChanged(userId));
+        }
+        return updated;
     }
 
     @Transactional
     public void deleteNotification(Long notificationId, Long userId) {
-        logger.info("Deleting notification ID: {} for user ID: {}", notificationId, userId);
-        try {
-            Notification notification = notificationRepository.findById(notificationId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Notification", "id", notificationId));
+        logger.debug("Deleting notification ID: {} for user ID: {}", notificationId, userId);
+        Notification notification = notificationRepository.findById(notificationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification", "id", notificationId));
 
-            if (!notification.getUser().getUserId().equals(userId)) {
-                throw new ResourceNotFoundException("Notification", "id", notificationId);
-            }
+        if (!notification.getUser().getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Notification", "id", notificationId);
+        }
 
-            notificationRepository.delete(notification);
-            logger.info("Notification deleted successfully");
-        } catch (Exception e) {
-            logger.error("Error deleting notification: {}", e.getMessage(), e);
-            throw e;
+        notificationRepository.delete(notification);
+        if (inboxCache != null) {
+            runAfterCommit(() -> inboxCache.onChanged(userId));
         }
+        logger.info("Notification deleted successfully");
     }
 
     /**
@@ -231,31 +351,17 @@ public class NotificationService {
      */
     public boolean hasReminderForAppointmentToday(Long appointmentId) {
         try {
-            LocalDate today = LocalDate.now();
-            LocalDateTime startOfDay = today.atStartOfDay();
-            LocalDateTime endOfDay = today.atTime(23, 59, 59);
-            
-            List<Notification> reminders = notificationRepository
-                    .findByRelatedAppointmentIdAndType(
-                            appointmentId, 
-                            Notification.NotificationType.APPOINTMENT_REMINDER
-                    );
-            
-            // Filtrar solo las notificaciones de hoy
-            return reminders.stream()
-                    .anyMatch(n -> {
-                        LocalDateTime created = n.getCreatedDate();
-                        return created != null && 
-                               !created.isBefore(startOfDay) && 
-                               !created.isAfter(endOfDay);
-                    });
+            return notificationRepository.existsByRelatedAppointmentIdAndTypeAndCreatedDateGreaterThanEqual(
+                    appointmentId,
+                    Notification.NotificationType.APPOINTMENT_REMINDER,
+                    LocalDate.now().atStartOfDay());
         } catch (Exception e) {
             logger.error("Error checking reminder for appointment {} today: {}", appointmentId, e.getMessage());
             return false;
         }
     }
 
-    private NotificationDTO toDTO(Notification notification) {
+    static NotificationDTO toDTO(Notification notification) {
         NotificationDTO dto = new NotificationDTO();
         dto.setNotificationId(notification.getNotificationId());
         dto.setUserId(notification.getUser().getUserId());
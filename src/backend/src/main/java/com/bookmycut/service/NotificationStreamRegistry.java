@@ -0,0 +1,357 @@
+package com.bookmycut.service;
+
+import com.bookmycut.dto.NotificationDTO;
+import com.bookmycut.entities.Notification;
+import com.bookmycut.repositories.NotificationRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Conexiones Server-Sent Events de {@code GET /notificaciones/stream}, agrupadas por usuario.
+ *
+ * Una conexión inactiva no ocupa ningún hilo (petición asíncrona del contenedor): solo su emisor y una
+ * cola acotada de eventos pendientes. Los envíos los hace un pool pequeño compartido, así que quien
+ * publica nunca espera a un cliente lento; si la cola de un cliente se llena, se cierra su conexión y
+ * el navegador se reconecta con {@code Last-Event-ID} para recuperar desde {@code notificaciones} lo
+ * que se perdió. La entrega es "al menos una vez": al reanudar puede repetirse alguna notificación.
+ *
+ * El ID de cada evento es un cursor {@code fecha_id} (fecha de creación al segundo e ID de la notificación).
+ * No se reanuda por ID: con la secuencia agrupada ({@code allocationSize = 50}) cada nodo reserva bloques
+ * de IDs, así que una notificación confirmada después puede tener un ID menor que la última recibida. Al
+ * reanudar se reenvían las creadas desde la fecha del cursor menos {@code notifications.sse.replay-overlap-ms},
+ * que cubre las transacciones que confirmaron más tarde una notificación creada antes. Un Last-Event-ID
+ * solo numérico (conexiones abiertas con versiones anteriores) se sigue reanudando por ID.
+ *
+ * Las notificaciones creadas en otro nodo llegan por {@link ClusterBroadcaster}, como la invalidación de
+ * la bandeja en memoria, y se envían a las conexiones abiertas en este.
+ */
+@Component
+public class NotificationStreamRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStreamRegistry.class);
+
+    private static final String EVENT_NAME = "notification";
+
+    static final String PUBLISH_CHANNEL = "notifications.sse";
+
+    private static final TypeReference<List<NotificationDTO>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private ClusterBroadcaster clusterBroadcaster;
+
+    @Value("${notifications.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${notifications.sse.max-buffered-events:64}")
+    private int maxBufferedEvents;
+
+    @Value("${notifications.sse.max-per-user:5}")
+    private int maxPerUser;
+
+    @Value("${notifications.sse.replay-limit:100}")
+    private int replayLimit;
+
+    @Value("${notifications.sse.replay-overlap-ms:60000}")
+    private long replayOverlapMs;
+
+    @Value("${notifications.sse.retry-ms:5000}")
+    private long retryMs;
+
+    @Value("${notifications.sse.sender-threads:4}")
+    private int senderThreads;
+
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private ExecutorService sender;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (clusterBroadcaster != null) {
+            clusterBroadcaster.subscribe(PUBLISH_CHANNEL, this::deliverRemote);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(list -> list.forEach(Subscriber::close));
+        sender.shutdownNow();
+    }
+
+    /**
+     * Abre una conexión para el usuario. Si se indica el último evento recibido, primero se reenvían
+     * las notificaciones posteriores (como mucho {@code notifications.sse.replay-limit}).
+     *
+     * @throws IllegalArgumentException Si {@code lastEventId} no es un ID de evento válido.
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        ResumeCursor cursor = lastEventId != null && !lastEventId.isBlank() ? ResumeCursor.parse(lastEventId) : null;
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        List<Subscriber> userSubscribers = subscribers.compute(userId, (id, list) -> {
+            List<Subscriber> result = list != null ? list : new CopyOnWriteArrayList<>();
+            result.add(subscriber);
+            return result;
+        });
+        connections.incrementAndGet();
+        while (userSubscribers.size() > maxPerUser) {
+            // Demasiadas pestañas abiertas: se cierra la conexión más antigua
+            userSubscribers.get(0).close();
+        }
+
+        subscriber.offer(SseEmitter.event().reconnectTime(retryMs).comment("conectado"));
+        if (cursor != null) {
+            List<Notification> missed = findMissed(userId, cursor);
+            missed.stream().map(NotificationService::toDTO).forEach(dto -> subscriber.offer(toEvent(dto)));
+            logger.debug("SSE: reenviadas {} notificaciones al usuario {} desde {}", missed.size(), userId, lastEventId);
+        }
+        return emitter;
+    }
+
+    private List<Notification> findMissed(Long userId, ResumeCursor cursor) {
+        if (cursor.createdDate == null) {
+            return notificationRepository.findByUserUserIdAndNotificationIdGreaterThanOrderByNotificationIdAsc(
+                    userId, cursor.notificationId, PageRequest.of(0, replayLimit));
+        }
+        LocalDateTime from = cursor.createdDate.minus(replayOverlapMs, ChronoUnit.MILLIS);
+        // La última recibida no se repite; las demás del solape pueden llegar dos veces
+        return notificationRepository
+                .findByUserUserIdAndCreatedDateGreaterThanEqualOrderByCreatedDateAscNotificationIdAsc(userId, from,
+                        PageRequest.of(0, replayLimit + 1))
+                .stream()
+                .filter(notification -> !notification.getNotificationId().equals(cursor.notificationId))
+                .limit(replayLimit)
+                .toList();
+    }
+
+    /**
+     * Envía las notificaciones (ya confirmadas) a las conexiones abiertas de sus usuarios, en este nodo y
+     * en el resto.
+     */
+    public void publish(List<NotificationDTO> dtos) {
+        deliver(dtos);
+        if (clusterBroadcaster != null && clusterBroadcaster.isConnected()) {
+            try {
+                clusterBroadcaster.publish(PUBLISH_CHANNEL, objectMapper.writeValueAsString(dtos));
+            } catch (JsonProcessingException e) {
+                logger.warn("SSE: no se pudieron enviar {} notificaciones a otros nodos: {}", dtos.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void deliverRemote(String payload) {
+        try {
+            deliver(objectMapper.readValue(payload, PAYLOAD_TYPE));
+        } catch (JsonProcessingException e) {
+            logger.warn("SSE: aviso de notificaciones de otro nodo no válido: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(List<NotificationDTO> dtos) {
+        Map<Long, List<NotificationDTO>> byUser = dtos.stream()
+                .collect(Collectors.groupingBy(NotificationDTO::getUserId));
+        byUser.forEach((userId, userDtos) -> {
+            List<Subscriber> userSubscribers = subscribers.get(userId);
+            if (userSubscribers == null) {
+                return;
+            }
+            for (Subscriber subscriber : userSubscribers) {
+                userDtos.forEach(dto -> subscriber.offer(toEvent(dto)));
+            }
+        });
+    }
+
+    /**
+     * Comentario periódico para que los proxies no cierren las conexiones inactivas y para detectar las
+     * que el cliente ya cerró.
+     */
+    @Scheduled(fixedDelayString = "${notifications.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(list -> list.forEach(subscriber ->
+                subscriber.offer(SseEmitter.event().comment("ping"))));
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private SseEmitter.SseEventBuilder toEvent(NotificationDTO dto) {
+        return SseEmitter.event()
+                .id(ResumeCursor.format(dto))
+                .name(EVENT_NAME)
+                .data(dto, MediaType.APPLICATION_JSON);
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.removed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriber.closed = true;
+        connections.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.userId, (id, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * ID de evento: {@code 2025-01-31T10:15:30_1234} (fecha de creación al segundo e ID de la notificación),
+     * o solo el ID en los eventos de versiones anteriores ({@code createdDate} nulo).
+     */
+    static final class ResumeCursor {
+        final LocalDateTime createdDate;
+        final Long notificationId;
+
+        private ResumeCursor(LocalDateTime createdDate, Long notificationId) {
+            this.createdDate = createdDate;
+            this.notificationId = notificationId;
+        }
+
+        static String format(NotificationDTO dto) {
+            if (dto.getCreatedDate() == null) {
+                return String.valueOf(dto.getNotificationId());
+            }
+            return dto.getCreatedDate().truncatedTo(ChronoUnit.SECONDS) + "_" + dto.getNotificationId();
+        }
+
+        static ResumeCursor parse(String value) {
+            String trimmed = value.trim();
+            try {
+                int separator = trimmed.lastIndexOf('_');
+                if (separator < 0) {
+                    return new ResumeCursor(null, Long.parseLong(trimmed));
+                }
+                return new ResumeCursor(LocalDateTime.parse(trimmed.substring(0, separator)),
+                        Long.parseLong(trimmed.substring(separator + 1)));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Last-Event-ID no válido: " + value, e);
+            }
+        }
+    }
+
+    /**
+     * Una conexión: cola acotada de eventos que vacía, de uno en uno, un hilo del pool de envío.
+     */
+    private final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean removed = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(maxBufferedEvents);
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                dropped.increment();
+                logger.warn("SSE: cola llena para el usuario {}, se cierra la conexión", userId);
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                    sent.increment();
+                }
+            } catch (Exception e) {
+                // Cliente desconectado: el contenedor no siempre avisa, se detecta al escribir
+                logger.debug("SSE: error enviando al usuario {}: {}", userId, e.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void close() {
+            closed = true;
+            queue.clear();
+            remove(this);
+            try {
+                emitter.complete();
+            } catch (Exception e) {
+                logger.debug("SSE: error cerrando la conexión del usuario {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.bookmycut.service;
+
+import com.bookmycut.exception.ServiceUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servicio que ejecuta el hashing y la verificación de contraseñas en un pool de hilos dedicado y acotado.
+ * El coste de CPU de bcrypt queda limitado a {@code security.password-hashing.threads} hilos, de modo que una
+ * avalancha de logins no puede ocupar todos los núcleos que necesitan las peticiones de reservas.
+ * Si la cola se llena o la espera supera el timeout se responde 503 en lugar de acumular peticiones.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    /**
+     * Valor de la columna password de las cuentas sin contraseña: no coincide con ninguna (ver
+     * {@code NoLoginPasswordEncoder}) y no pasa por el pool.
+     */
+    public static final String NO_LOGIN_PASSWORD = "{nologin}";
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${security.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${security.password-hashing.queue-capacity:64}")
+    private int queueCapacity = 64;
+
+    @Value("${security.password-hashing.timeout-ms:5000}")
+    private long timeoutMs = 5000;
+
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        // Por defecto, la mitad de los núcleos: el resto queda libre para el tráfico de reservas
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Pool de hashing de contraseñas inicializado: {} hilos, cola de {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Calcula el hash de una contraseña con el algoritmo por defecto.
+     *
+     * @param rawPassword Contraseña en claro.
+     * @return Contraseña codificada (con prefijo del algoritmo).
+     * @throws ServiceUnavailableException Si el pool está saturado.
+     */
+    public String encode(String rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Verifica una contraseña contra su valor almacenado.
+     *
+     * @param rawPassword Contraseña en claro.
+     * @param encodedPassword Valor almacenado (hash o, en filas antiguas, texto plano).
+     * @return true si coinciden.
+     * @throws ServiceUnavailableException Si el pool está saturado.
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Indica si el valor almacenado debe volver a calcularse con el algoritmo actual
+     * (filas en texto plano o con un coste de bcrypt distinto). No consume CPU de hashing.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    totalHashNanos.add(System.nanoTime() - start);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            logger.warn("Cola de hashing de contraseñas llena ({} pendientes)", executor.getQueue().size());
+            throw new ServiceUnavailableException("Servicio de autenticación saturado, inténtelo de nuevo en unos segundos");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            logger.warn("Timeout de {} ms esperando el hashing de contraseña", timeoutMs);
+            throw new ServiceUnavailableException("Servicio de autenticación saturado, inténtelo de nuevo en unos segundos");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Operación de autenticación interrumpida");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Error al procesar la contraseña", cause);
+        }
+    }
+
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timedOut.sum();
+    }
+
+    /**
+     * Tiempo medio de CPU por operación de hashing, en milisegundos.
+     */
+    public double getAverageHashMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0 : totalHashNanos.sum() / 1_000_000.0 / count;
+    }
+}
@@ -0,0 +1,126 @@
+package com.bookmycut.service;
+
+import com.bookmycut.tenancy.TenantContext;
+import com.bookmycut.util.SingleFlight;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Agrupa las lecturas idénticas y simultáneas de los GET que se consultan a la vez al abrir las reservas
+ * ({@code /disponibilidades}, {@code /excepciones-horario} y {@code /estilistas/{id}/servicios}).
+ *
+ * La clave es el salón de la petición más el endpoint con sus parámetros ya convertidos (un
+ * {@code estilistaId=03} y un {@code 3} son la misma lectura). Las peticiones con la misma clave comparten una sola consulta y los bytes JSON ya
+ * serializados, que se reutilizan además durante {@code public-reads.ttl-ms} (0: solo entre peticiones
+ * simultáneas). Así la carga de base de datos en un pico depende del número de claves distintas, no del
+ * de visitantes.
+ *
+ * Los servicios que modifican esos datos llaman a {@link #invalidate(String)}, que actúa tras el commit.
+ * La invalidación es local: en otra instancia el dato anterior puede servirse hasta que caduque el TTL.
+ */
+@Component
+public class PublicReadCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublicReadCoalescer.class);
+
+    public static final String AVAILABILITIES = "disponibilidades";
+    public static final String SCHEDULE_EXCEPTIONS = "excepciones-horario";
+    public static final String STYLIST_SERVICES = "estilistas/servicios";
+
+    private static final MediaType JSON_UTF8 = new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${public-reads.coalescing.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${public-reads.ttl-ms:1000}")
+    private long ttlMs = 1000;
+
+    @Value("${public-reads.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    private SingleFlight<String, byte[]> flights;
+
+    @PostConstruct
+    public void init() {
+        flights = new SingleFlight<>(TimeUnit.MILLISECONDS.toNanos(ttlMs), maxEntries);
+    }
+
+    /**
+     * Respuesta JSON de la lectura, compartida con las peticiones simultáneas de la misma clave.
+     *
+     * @param endpoint Endpoint (una de las constantes de esta clase).
+     * @param loader Consulta que devuelve el cuerpo de la respuesta; sus excepciones llegan a todas las peticiones agrupadas.
+     * @param params Parámetros de la lectura, siempre en el mismo orden (null si no se indican).
+     */
+    public ResponseEntity<byte[]> json(String endpoint, Supplier<?> loader, Object... params) {
+        byte[] body = enabled
+                ? flights.get(key(endpoint, params), () -> serialize(loader.get()))
+                : serialize(loader.get());
+        return ResponseEntity.ok().contentType(JSON_UTF8).body(body);
+    }
+
+    /**
+     * Descarta las lecturas del endpoint en el salón actual. Dentro de una transacción se aplica tras el
+     * commit, para que una lectura simultánea no vuelva a guardar el dato anterior.
+     */
+    public void invalidate(String endpoint) {
+        String prefix = key(endpoint);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    flights.invalidate(key -> key.startsWith(prefix));
+                }
+            });
+        } else {
+            flights.invalidate(key -> key.startsWith(prefix));
+        }
+        logger.debug("Lecturas públicas de {} invalidadas", endpoint);
+    }
+
+    static String key(String endpoint, Object... params) {
+        return TenantContext.getSalonId() + ":" + endpoint + "?" + Arrays.stream(params)
+                .map(param -> Objects.toString(param, ""))
+                .collect(Collectors.joining("&"));
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta", e);
+        }
+    }
+
+    public int size() {
+        return flights.size();
+    }
+
+    public long getLoadCount() {
+        return flights.getLoadCount();
+    }
+
+    public long getSharedCount() {
+        return flights.getSharedCount();
+    }
+}
@@ -33,21 +33,19 @@ public class ServiceOfferService {
     @Autowired
     private ServiceOfferMapper serviceOfferMapper;
 
+    @Autowired
+    private PublicReadCoalescer publicReadCoalescer;
+
     /**
      * Gets all available service offers.
      *
      * @return List of ServiceOfferDTO.
      */
     public List<ServiceOfferDTO> getAllServiceOffers() {
-        logger.info("Requesting all service offers");
-        try {
-            List<ServiceOffer> serviceOffers = serviceOfferRepository.findAll();
-            logger.info("Found {} service offers", serviceOffers.size());
-            return serviceOfferMapper.toDTOList(serviceOffers);
-        } catch (Exception e) {
-            logger.error("Error getting all service offers: {}", e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Requesting all service offers");
+        List<ServiceOffer> serviceOffers = serviceOfferRepository.findAll();
+        logger.debug("Found {} service offers", serviceOffers.size());
+        return serviceOfferMapper.toDTOList(serviceOffers);
     }
 
     /**
@@ -58,16 +56,11 @@ public class ServiceOfferService {
      * @return Page of ServiceOfferDTO.
      */
     public Page<ServiceOfferDTO> getAllServiceOffers(int page, int size) {
-        logger.info("Requesting all service offers - page: {}, size: {}", page, size);
-        try {
-            Pageable pageable = PageRequest.of(page, size, Sort.by("name"));
-            Page<ServiceOffer> serviceOffers = serviceOfferRepository.findAll(pageable);
-            logger.info("Found {} service offers", serviceOffers.getTotalElements());
-            return serviceOffers.map(serviceOfferMapper::toDTO);
-        } catch (Exception e) {
-            logger.error("Error getting paginated service offers: {}", e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Requesting all service offers - page: {}, size: {}", page, size);
+        Pageable pageable = PageRequest.of(page, size, Sort.by("name"));
+        Page<ServiceOffer> serviceOffers = serviceOfferRepository.findAll(pageable);
+        logger.debug("Found {} service offers", serviceOffers.getTotalElements());
+        return serviceOffers.map(serviceOfferMapper::toDTO);
     }
 
     /**
@@ -78,19 +71,14 @@ public class ServiceOfferService {
      * @throws ResourceNotFoundException If the service offer does not exist.
      */
     public ServiceOfferDTO getServiceOfferById(Long id) {
-        logger.info("Searching for service offer with ID: {}", id);
-        try {
-            ServiceOffer serviceOffer = serviceOfferRepository.findById(id)
-                    .orElseThrow(() -> {
-                        logger.warn("Service offer not found with ID: {}", id);
-                        return new ResourceNotFoundException("ServiceOffer", "id", id);
-                    });
-            logger.debug("Service offer with ID {} found", id);
-            return serviceOfferMapper.toDTO(serviceOffer);
-        } catch (Exception e) {
-            logger.error("Error getting service offer with ID {}: {}", id, e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Searching for service offer with ID: {}", id);
+        ServiceOffer serviceOffer = serviceOfferRepository.findById(id)
+                .orElseThrow(() -> {
+                    logger.debug("Service offer not found with ID: {}", id);
+                    return new ResourceNotFoundException("ServiceOffer", "id", id);
+                });
+        logger.debug("Service offer with ID {} found", id);
+        return serviceOfferMapper.toDTO(serviceOffer);
     }
 
     /**
@@ -101,16 +89,11 @@ public class ServiceOfferService {
      */
     @Transactional
     public ServiceOfferDTO createServiceOffer(ServiceOfferCreateDTO createDTO) {
-        logger.info("Creating new service offer: {}", createDTO.getName());
-        try {
-            ServiceOffer serviceOffer = serviceOfferMapper.toEntity(createDTO);
-            ServiceOffer savedServiceOffer = serviceOfferRepository.save(serviceOffer);
-            logger.info("Service offer created successfully with ID: {}", savedServiceOffer.getServiceId());
-            return serviceOfferMapper.toDTO(savedServiceOffer);
-        } catch (Exception e) {
-            logger.error("Error creating service offer: {}", e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Creating new service offer: {}", createDTO.getName());
+        ServiceOffer serviceOffer = serviceOfferMapper.toEntity(createDTO);
+        ServiceOffer savedServiceOffer = serviceOfferRepository.save(serviceOffer);
+        logger.info("Service offer created successfully with ID: {}", savedServiceOffer.getServiceId());
+        return serviceOfferMapper.toDTO(savedServiceOffer);
     }
 
     /**
@@ -123,22 +106,19 @@ public class ServiceOfferService {
      */
     @Transactional
     public ServiceOfferDTO updateServiceOffer(Long id, ServiceOfferCreateDTO createDTO) {
-        logger.info("Updating service offer with ID: {}", id);
-        try {
-            ServiceOffer serviceOffer = serviceOfferRepository.findById(id)
-                    .orElseThrow(() -> {
-                        logger.warn("Service offer not found with ID: {}", id);
-                        return new ResourceNotFoundException("ServiceOffer", "id", id);
-                    });
-
-            serviceOfferMapper.updateEntity(serviceOffer, createDTO);
-            ServiceOffer updatedServiceOffer = serviceOfferRepository.save(serviceOffer);
-            logger.info("Service offer with ID {} updated successfully", id);
-            return serviceOfferMapper.toDTO(updatedServiceOffer);
-        } catch (Exception e) {
-            logger.error("Error updating service offer with ID {}: {}", id, e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Updating service offer with ID: {}", id);
+        ServiceOffer serviceOffer = serviceOfferRepository.findById(id)
+                .orElseThrow(() -> {
+                    logger.debug("Service offer not found with ID: {}", id);
+                    return new ResourceNotFoundException("ServiceOffer", "id", id);
+                });
+
+        serviceOfferMapper.updateEntity(serviceOffer, createDTO);
+        ServiceOffer updatedServiceOffer = serviceOfferRepository.save(serviceOffer);
+        // Nombre, duración y precio aparecen en las listas de servicios de cada estilista
+        publicReadCoalescer.invalidate(PublicReadCoalescer.STYLIST_SERVICES);
+        logger.info("Service offer with ID {} updated successfully", id);
+        return serviceOfferMapper.toDTO(updatedServiceOffer);
     }
 
     /**
@@ -149,20 +129,16 @@ public class ServiceOfferService {
      */
     @Transactional
     public void deleteServiceOffer(Long id) {
-        logger.info("Deleting service offer with ID: {}", id);
-        try {
-            ServiceOffer serviceOffer = serviceOfferRepository.findById(id)
-                    .orElseThrow(() -> {
-                        logger.warn("Service offer not found with ID: {}", id);
-                        return new ResourceNotFoundException("ServiceOffer", "id", id);
-                    });
-
-            serviceOfferRepository.delete(serviceOffer);
-            logger.info("Service offer with ID {} deleted successfully", id);
-        } catch (Exception e) {
-            logger.error("Error deleting service offer with ID {}: {}", id, e.getMessage(), e);
-            throw e;
-        }
+        logger.debug("Deleting service offer with ID: {}", id);
+        ServiceOffer serviceOffer = serviceOfferRepository.findById(id)
+                .orElseThrow(() -> {
+                    logger.debug("Service offer not found with ID: {}", id);
+                    return new ResourceNotFoundException("ServiceOffer", "id", id);
+                });
+
+        serviceOfferRepository.delete(serviceOffer);
+        publicReadCoalescer.invalidate(PublicReadCoalescer.STYLIST_SERVICES);
+        logger.info("Service offer with ID {} deleted successfully", id);
     }
 }
 
@@ -0,0 +1,314 @@
+package com.bookmycut.service;
+
+import com.bookmycut.entities.RevokedToken;
+import com.bookmycut.repositories.RevokedTokenRepository;
+import com.bookmycut.tenancy.ForEachDataSource;
+import com.bookmycut.tenancy.TenantDataSources;
+import com.bookmycut.util.BloomFilter;
+import com.bookmycut.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Servicio de revocación de tokens JWT.
+ * Las revocaciones se persisten en la tabla tokens_revocados y se mantienen en memoria
+ * con un filtro de Bloom (camino rápido para el caso habitual: token no revocado) y un
+ * conjunto exacto que confirma los positivos. La comprobación por petición no hace I/O.
+ * Cada revocación se guarda en la base de datos del salón del token; en memoria se reúnen las de todas.
+ *
+ * Las revocaciones de otros nodos llegan al momento por {@link ClusterBroadcaster} (broker externo) y,
+ * como respaldo de los avisos perdidos, releyendo cada {@code jwt.revocation.refresh-interval-ms} las
+ * revocaciones recientes de la base de datos.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private static final String USER_KEY_PREFIX = "usuario:";
+
+    static final String REVOCATION_CHANNEL = "jwt.revocations";
+
+    /** Margen de la relectura periódica para las revocaciones que se confirmaron después de su instante. */
+    private static final long REFRESH_OVERLAP_MS = 60_000;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired(required = false)
+    private TenantDataSources tenantDataSources;
+
+    @Autowired(required = false)
+    private ClusterBroadcaster clusterBroadcaster;
+
+    @Value("${jwt.expiration:86400000}")
+    private long expiration = 86400000L;
+
+    @Value("${jwt.revocation.expected-insertions:100000}")
+    private int expectedInsertions = 100000;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate = 0.01;
+
+    @Value("${jwt.revocation.refresh-interval-ms:30000}")
+    private long refreshIntervalMs = 30000;
+
+    /** Revocaciones vigentes: clave (jti o usuario:{id}) -> instantes de revocación y expiración. */
+    private final Map<String, Revocation> revocations = new ConcurrentHashMap<>();
+
+    /** Serializa las escrituras en memoria frente a la reconstrucción del filtro; las lecturas no bloquean. */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile BloomFilter bloomFilter;
+
+    @PostConstruct
+    public void init() {
+        loadRevocations();
+        if (clusterBroadcaster != null) {
+            clusterBroadcaster.subscribe(REVOCATION_CHANNEL, this::applyRemote);
+        }
+    }
+
+    /**
+     * Carga en memoria las revocaciones vigentes al arrancar.
+     */
+    public void loadRevocations() {
+        List<RevokedToken> active = new ArrayList<>();
+        if (tenantDataSources != null) {
+            tenantDataSources.forEach(() -> active.addAll(revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now())));
+        } else {
+            active.addAll(revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now()));
+        }
+        writeLock.lock();
+        try {
+            revocations.clear();
+            for (RevokedToken token : active) {
+                revocations.put(token.getTokenId(), new Revocation(toMillis(token.getRevokedAt()), toMillis(token.getExpiresAt())));
+            }
+            rebuildBloomFilter();
+        } finally {
+            writeLock.unlock();
+        }
+        logger.info("Cargadas {} revocaciones de token vigentes", active.size());
+    }
+
+    /**
+     * Indica si un token ya validado (firma y expiración) ha sido revocado,
+     * ya sea individualmente (jti) o de forma global para su usuario.
+     *
+     * El iat del token tiene precisión de segundos, así que la revocación de un usuario también se guarda
+     * truncada a segundos y solo afecta a los tokens emitidos en segundos anteriores: un token del mismo
+     * segundo (normalmente el del login que sigue a la revocación) se acepta.
+     *
+     * @param claims Claims del token.
+     * @return true si el token no debe aceptarse.
+     */
+    public boolean isRevoked(Claims claims) {
+        BloomFilter filter = bloomFilter;
+        if (filter == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+
+        String tokenId = claims.getId();
+        if (tokenId != null && filter.mightContain(tokenId)) {
+            Revocation revocation = revocations.get(tokenId);
+            if (revocation != null && revocation.expiresAt() > now) {
+                return true;
+            }
+        }
+
+        Object userId = claims.get("usuarioId");
+        if (userId != null) {
+            String userKey = USER_KEY_PREFIX + userId;
+            if (filter.mightContain(userKey)) {
+                Revocation revocation = revocations.get(userKey);
+                Date issuedAt = claims.getIssuedAt();
+                return revocation != null && revocation.expiresAt() > now
+                        && issuedAt != null && issuedAt.getTime() <= revocation.revokedAt();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Revoca un token concreto (por ejemplo, en el logout).
+     * Los tokens inválidos o ya expirados se ignoran.
+     *
+     * @param token Token JWT sin el prefijo "Bearer ".
+     */
+    @Transactional
+    public void revokeToken(String token) {
+        Claims claims;
+        try {
+            claims = jwtUtil.extractAllClaims(token);
+        } catch (Exception e) {
+            logger.debug("Se ignora la revocación de un token no válido: {}", e.getMessage());
+            return;
+        }
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            logger.debug("Se ignora la revocación de un token sin jti");
+            return;
+        }
+        Object userId = claims.get("usuarioId");
+        revoke(claims.getId(),
+                userId instanceof Number number ? number.longValue() : null,
+                System.currentTimeMillis(),
+                claims.getExpiration().getTime());
+        logger.info("Token revocado para usuario ID: {}", userId);
+    }
+
+    /**
+     * Revoca todos los tokens emitidos hasta ahora para un usuario
+     * (desactivación, cambio de rol...). Los tokens emitidos después siguen siendo válidos.
+     *
+     * @param userId ID del usuario.
+     */
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        long now = System.currentTimeMillis();
+        revoke(USER_KEY_PREFIX + userId, userId, now, now + expiration);
+        logger.info("Revocados todos los tokens del usuario ID: {}", userId);
+    }
+
+    /**
+     * Compacta periódicamente: elimina de base de datos y de memoria las revocaciones
+     * de tokens que ya han expirado y reconstruye el filtro de Bloom sin ellas.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.compaction-interval-ms:600000}",
+            initialDelayString = "${jwt.revocation.compaction-interval-ms:600000}")
+    @Transactional
+    @ForEachDataSource
+    public void compact() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        long now = System.currentTimeMillis();
+        writeLock.lock();
+        try {
+            int before = revocations.size();
+            revocations.values().removeIf(revocation -> revocation.expiresAt() <= now);
+            if (before != revocations.size() || deleted > 0) {
+                rebuildBloomFilter();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        logger.debug("Compactación de revocaciones: {} filas eliminadas, {} vigentes", deleted, revocations.size());
+    }
+
+    /**
+     * Incorpora las revocaciones recientes guardadas por otros nodos, por si se perdió su aviso o no hay
+     * broker externo. Relee las de los últimos {@code jwt.revocation.refresh-interval-ms} más un margen.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:30000}",
+            initialDelayString = "${jwt.revocation.refresh-interval-ms:30000}")
+    @Transactional(readOnly = true)
+    @ForEachDataSource
+    public void refresh() {
+        LocalDateTime since = toLocalDateTime(System.currentTimeMillis() - refreshIntervalMs - REFRESH_OVERLAP_MS);
+        List<RevokedToken> recent = revokedTokenRepository.findByRevokedAtAfter(since);
+        for (RevokedToken token : recent) {
+            remember(token.getTokenId(), new Revocation(toMillis(token.getRevokedAt()), toMillis(token.getExpiresAt())));
+        }
+        logger.debug("Relectura de revocaciones: {} recientes, {} vigentes", recent.size(), revocations.size());
+    }
+
+    private void revoke(String key, Long userId, long revokedAt, long expiresAt) {
+        Revocation revocation = new Revocation(revokedAt, expiresAt);
+        revokedTokenRepository.save(new RevokedToken(key, userId,
+                toLocalDateTime(revocation.revokedAt()), toLocalDateTime(revocation.expiresAt())));
+        remember(key, revocation);
+        if (clusterBroadcaster != null) {
+            String message = key + " " + revocation.revokedAt() + " " + revocation.expiresAt();
+            runAfterCommit(() -> clusterBroadcaster.publish(REVOCATION_CHANNEL, message));
+        }
+    }
+
+    /**
+     * Revocación recibida de otro nodo: {@code "<clave> <revocada en> <expira en>"} en milisegundos.
+     */
+    private void applyRemote(String message) {
+        String[] parts = message.split(" ");
+        if (parts.length != 3) {
+            logger.warn("Aviso de revocación no válido: {}", message);
+            return;
+        }
+        remember(parts[0], new Revocation(Long.parseLong(parts[1]), Long.parseLong(parts[2])));
+    }
+
+    /**
+     * Añade la revocación en memoria; de dos revocaciones de la misma clave se queda la más reciente.
+     */
+    private void remember(String key, Revocation revocation) {
+        writeLock.lock();
+        try {
+            revocations.merge(key, revocation, (current, added) -> added.revokedAt() >= current.revokedAt() ? added : current);
+            if (bloomFilter == null) {
+                rebuildBloomFilter();
+            } else {
+                bloomFilter.put(key);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void rebuildBloomFilter() {
+        BloomFilter filter = BloomFilter.create(Math.max(expectedInsertions, revocations.size() * 2), falsePositiveRate);
+        revocations.keySet().forEach(filter::put);
+        bloomFilter = filter;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Instantes en milisegundos; revokedAt se trunca a segundos, la precisión del iat de los tokens.
+     * Un iat igual a revokedAt puede ser anterior a la revocación dentro de ese segundo, así que
+     * también se rechaza: como mucho obliga a repetir un login hecho en el mismo segundo.
+     */
+    private record Revocation(long revokedAt, long expiresAt) {
+        Revocation {
+            revokedAt -= Math.floorMod(revokedAt, 1000L);
+        }
+    }
+}
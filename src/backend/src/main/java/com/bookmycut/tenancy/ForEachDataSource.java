@@ -0,0 +1,19 @@
+package com.bookmycut.tenancy;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * El método (void) se ejecuta una vez por base de datos de salones, con {@link TenantDataSources#forEach(Runnable)}.
+ * Se aplica por encima de {@code @Transactional}: cada base de datos tiene su propia transacción.
+ *
+ * Para tareas programadas y de arranque que se invocan a través del proxy del bean.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ForEachDataSource {
+}
@@ -0,0 +1,39 @@
+package com.bookmycut.tenancy;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ejecuta los métodos {@link ForEachDataSource} en cada base de datos de salones. Con la prioridad más alta
+ * queda por fuera de {@code @Transactional} y de las métricas de tareas programadas.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ForEachDataSourceAspect {
+
+    @Autowired
+    private TenantDataSources tenantDataSources;
+
+    @Around("@annotation(com.bookmycut.tenancy.ForEachDataSource)")
+    public Object runPerDataSource(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (tenantDataSources.getDedicated().isEmpty()) {
+            return joinPoint.proceed();
+        }
+        tenantDataSources.forEach(() -> {
+            try {
+                joinPoint.proceed();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return null;
+    }
+}
@@ -0,0 +1,56 @@
+package com.bookmycut.tenancy;
+
+import com.bookmycut.entities.Salon;
+import com.bookmycut.repositories.SalonRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Salones activos por host, leídos de la tabla salones de la base de datos compartida.
+ * Se recarga cada {@code tenancy.hosts-refresh-ms}; un salón nuevo se resuelve por host a partir de la
+ * siguiente recarga.
+ */
+@Component
+public class SalonDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalonDirectory.class);
+
+    @Autowired
+    private SalonRepository salonRepository;
+
+    private volatile Map<String, Long> salonsByHost = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${tenancy.hosts-refresh-ms:60000}",
+            initialDelayString = "${tenancy.hosts-refresh-ms:60000}")
+    public void refresh() {
+        Map<String, Long> hosts = new HashMap<>();
+        for (Salon salon : salonRepository.findByActiveTrue()) {
+            if (salon.getHost() != null && !salon.getHost().isBlank()) {
+                hosts.put(normalize(salon.getHost()), salon.getSalonId());
+            }
+        }
+        salonsByHost = Map.copyOf(hosts);
+        logger.debug("Directorio de salones recargado: {} hosts", hosts.size());
+    }
+
+    /**
+     * Salón asociado al host, o null si el host no corresponde a ningún salón activo.
+     */
+    public Long salonForHost(String host) {
+        return host == null ? null : salonsByHost.get(normalize(host));
+    }
+
+    private static String normalize(String host) {
+        return host.trim().toLowerCase(Locale.ROOT);
+    }
+}
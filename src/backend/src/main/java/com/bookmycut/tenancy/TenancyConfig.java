@@ -0,0 +1,150 @@
+package com.bookmycut.tenancy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Configuración de la multi-tenencia.
+ *
+ * Todos los salones comparten por defecto la base de datos de {@code spring.datasource}; los que se configuran
+ * en {@code tenancy.datasources.<salonId>.url/username/password} tienen una propia. Con alguno configurado, el
+ * bean {@code dataSource} pasa a ser un {@link TenantRoutingDataSource} y Flyway migra también cada base de
+ * datos propia.
+ *
+ * Cada EntityManager abierto con un salón en el contexto activa el filtro {@link TenantContext#FILTER_NAME}.
+ */
+@Configuration
+public class TenancyConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenancyConfig.class);
+
+    /**
+     * Primer ID de las tablas con AUTO_INCREMENT y de notificaciones_seq en la base de datos propia de un salón
+     * ({@code salonId * ID_RANGE}). Los IDs no se repiten entre bases de datos, así que las estructuras en memoria
+     * indexadas por ID (caché de notificaciones, rueda de recordatorios, revocaciones, topics STOMP) no mezclan
+     * salones.
+     */
+    static final long ID_RANGE = 1_000_000_000_000L;
+
+    /** allocationSize de notificaciones_seq en {@code Notification}. */
+    private static final long NOTIFICATION_ID_ALLOCATION = 50;
+
+    private static final List<String> ID_TABLES = List.of(
+            "usuarios:usuario_id", "servicios:servicio_id", "disponibilidades:disp_id",
+            "excepciones_horario:excep_horario_id", "citas:cita_id");
+
+    @Bean
+    public static TenantDataSourcePostProcessor tenantDataSourcePostProcessor(Environment environment) {
+        return new TenantDataSourcePostProcessor(environment);
+    }
+
+    /**
+     * Migra la base de datos compartida y después la de cada salón con base de datos propia, con la misma
+     * configuración de Flyway.
+     */
+    @Bean
+    public FlywayMigrationStrategy tenantFlywayMigrationStrategy(TenantDataSources tenantDataSources) {
+        return flyway -> {
+            flyway.migrate();
+            tenantDataSources.getDedicated().forEach((salonId, dataSource) -> {
+                logger.info("Aplicando migraciones en la base de datos del salón {}", salonId);
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(dataSource)
+                        .load()
+                        .migrate();
+                reserveIdRange(salonId, dataSource);
+            });
+        };
+    }
+
+    private static void reserveIdRange(Long salonId, DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        long firstId = salonId * ID_RANGE;
+        for (String table : ID_TABLES) {
+            String[] parts = table.split(":");
+            Long maxId = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(" + parts[1] + "), 0) FROM " + parts[0], Long.class);
+            if (maxId != null && maxId < firstId) {
+                jdbcTemplate.execute("ALTER TABLE " + parts[0] + " AUTO_INCREMENT = " + firstId);
+            }
+        }
+        // Con el optimizador pooled, un next_val de N reserva los IDs N - 49 ... N: con firstId el primer bloque
+        // empezaría en el rango del salón anterior, con firstId + 50 empieza en firstId + 1
+        jdbcTemplate.update("UPDATE notificaciones_seq SET next_val = GREATEST(next_val, ?)",
+                firstId + NOTIFICATION_ID_ALLOCATION);
+    }
+
+    /**
+     * Crea las bases de datos propias de los salones, sustituye el bean {@code dataSource} por un
+     * {@link TenantRoutingDataSource} y activa el filtro de salón en los EntityManager.
+     * Cierra los pools de las bases de datos propias al parar la aplicación.
+     */
+    static class TenantDataSourcePostProcessor implements BeanPostProcessor, DisposableBean {
+
+        private final Map<Long, DataSourceProperties> configured;
+        private final Map<Long, HikariDataSource> dedicated = new LinkedHashMap<>();
+
+        TenantDataSourcePostProcessor(Environment environment) {
+            this.configured = new TreeMap<>(Binder.get(environment)
+                    .bind("tenancy.datasources", Bindable.mapOf(Long.class, DataSourceProperties.class))
+                    .orElse(Map.of()));
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            if (bean instanceof LocalContainerEntityManagerFactoryBean factory) {
+                factory.setEntityManagerInitializer(entityManager -> {
+                    Long salonId = TenantContext.getSalonId();
+                    if (salonId != null) {
+                        entityManager.unwrap(Session.class)
+                                .enableFilter(TenantContext.FILTER_NAME)
+                                .setParameter(TenantContext.FILTER_PARAMETER, salonId);
+                    }
+                });
+            }
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource shared) || configured.isEmpty()) {
+                return bean;
+            }
+            configured.forEach((salonId, properties) -> {
+                HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                        .type(HikariDataSource.class)
+                        .build();
+                dataSource.setPoolName("salon-" + salonId);
+                dedicated.put(salonId, dataSource);
+                logger.info("Salón {} con base de datos propia: {}", salonId, properties.getUrl());
+            });
+            return new TenantRoutingDataSource(shared, Map.copyOf(dedicated));
+        }
+
+        @Override
+        public void destroy() {
+            dedicated.values().forEach(HikariDataSource::close);
+        }
+    }
+}
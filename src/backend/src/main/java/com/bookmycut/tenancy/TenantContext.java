@@ -0,0 +1,109 @@
+package com.bookmycut.tenancy;
+
+import java.util.function.Supplier;
+
+/**
+ * Salón (tenant) del hilo actual.
+ *
+ * Lo fija {@link TenantFilter} en cada petición HTTP, {@code StompAuthChannelInterceptor} en los mensajes
+ * STOMP y {@link TenantDataSources#forEach(Runnable)} en las tareas en segundo plano. Con un salón en el
+ * contexto, las sesiones de Hibernate abiertas en el hilo filtran por {@code salon_id} y
+ * {@link TenantRoutingDataSource} elige su base de datos si el salón tiene una propia.
+ *
+ * Sin salón (tareas programadas sobre la base de datos compartida, arranque) no se filtra: se ven todos los
+ * salones de la base de datos compartida.
+ */
+public final class TenantContext {
+
+    /** Salón de las filas anteriores a la multi-tenencia y de las peticiones sin salón resuelto. */
+    public static final long DEFAULT_SALON_ID = 1L;
+
+    /** Filtro de Hibernate declarado en {@code User} y aplicado a todas las entidades de un salón. */
+    public static final String FILTER_NAME = "salonFilter";
+    public static final String FILTER_PARAMETER = "salonId";
+
+    private static final ThreadLocal<Long> SALON = new ThreadLocal<>();
+    private static final ThreadLocal<Long> DATA_SOURCE = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * Salón del hilo actual, o null si no hay ninguno.
+     */
+    public static Long getSalonId() {
+        return SALON.get();
+    }
+
+    /**
+     * Salón con base de datos propia cuya conexión se usa en el hilo actual, o null para la compartida.
+     */
+    public static Long getDataSourceKey() {
+        return DATA_SOURCE.get();
+    }
+
+    /**
+     * @param salonId Salón del hilo (null: sin filtrar).
+     * @param dataSourceKey Salón con base de datos propia, o null para la compartida
+     *                      (ver {@link TenantDataSources#dataSourceKey(Long)}).
+     */
+    public static void set(Long salonId, Long dataSourceKey) {
+        if (salonId == null) {
+            SALON.remove();
+        } else {
+            SALON.set(salonId);
+        }
+        if (dataSourceKey == null) {
+            DATA_SOURCE.remove();
+        } else {
+            DATA_SOURCE.set(dataSourceKey);
+        }
+    }
+
+    public static void clear() {
+        SALON.remove();
+        DATA_SOURCE.remove();
+    }
+
+    /**
+     * Ejecuta la tarea con el salón y la base de datos indicados y restaura después los anteriores.
+     */
+    public static <T> T callAs(Long salonId, Long dataSourceKey, Supplier<T> task) {
+        Long previousSalon = SALON.get();
+        Long previousDataSource = DATA_SOURCE.get();
+        set(salonId, dataSourceKey);
+        try {
+            return task.get();
+        } finally {
+            set(previousSalon, previousDataSource);
+        }
+    }
+
+    public static void runAs(Long salonId, Long dataSourceKey, Runnable task) {
+        callAs(salonId, dataSourceKey, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Envuelve la tarea para que se ejecute con el salón y la base de datos del hilo que la crea
+     * (tareas {@code @Async}, ver {@code MdcTaskDecorator}).
+     */
+    public static Runnable propagate(Runnable task) {
+        Long salonId = SALON.get();
+        Long dataSourceKey = DATA_SOURCE.get();
+        return () -> runAs(salonId, dataSourceKey, task);
+    }
+
+    /**
+     * Envuelve la tarea para que se ejecute en la base de datos del hilo que la crea, pero sin limitarla a
+     * su salón: en la base de datos compartida, los procesos en segundo plano (outbox, confirmaciones de
+     * lectura) tratan a la vez las filas de todos los salones. En una base de datos propia el salón es el
+     * mismo que la base de datos.
+     */
+    public static Runnable inCurrentDataSource(Runnable task) {
+        Long dataSourceKey = DATA_SOURCE.get();
+        return () -> runAs(dataSourceKey, dataSourceKey, task);
+    }
+}
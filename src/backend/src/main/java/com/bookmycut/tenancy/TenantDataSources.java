@@ -0,0 +1,88 @@
+package com.bookmycut.tenancy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bases de datos de los salones: la compartida y las propias de {@code tenancy.datasources}.
+ *
+ * Las tareas en segundo plano que recorren tablas de salones (outbox, recordatorios, retención...) se
+ * ejecutan una vez por base de datos con {@link #forEach(Runnable)} (o {@link ForEachDataSource}).
+ */
+@Component
+public class TenantDataSources {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantDataSources.class);
+
+    private final Map<Long, DataSource> dedicated;
+
+    public TenantDataSources(DataSource dataSource) {
+        this.dedicated = new TreeMap<>(unwrap(dataSource));
+    }
+
+    private static Map<Long, DataSource> unwrap(DataSource dataSource) {
+        if (dataSource instanceof TenantRoutingDataSource routing) {
+            return routing.getDedicatedDataSources();
+        }
+        try {
+            if (dataSource.isWrapperFor(TenantRoutingDataSource.class)) {
+                return dataSource.unwrap(TenantRoutingDataSource.class).getDedicatedDataSources();
+            }
+        } catch (SQLException e) {
+            logger.warn("No se pudo comprobar si el DataSource enruta por salón: {}", e.getMessage());
+        }
+        return Map.of();
+    }
+
+    /**
+     * Bases de datos propias, por salón (vacío si todos comparten la base de datos).
+     */
+    public Map<Long, DataSource> getDedicated() {
+        return dedicated;
+    }
+
+    /**
+     * Clave de {@link TenantContext} con la que el salón usa su base de datos: el propio salón si tiene una
+     * propia, null si usa la compartida.
+     */
+    public Long dataSourceKey(Long salonId) {
+        return salonId != null && dedicated.containsKey(salonId) ? salonId : null;
+    }
+
+    /**
+     * Ejecuta la tarea en cada base de datos: primero en la compartida, sin salón en el contexto (ve las filas
+     * de todos sus salones), y después en la de cada salón con base de datos propia, con ese salón. Un fallo
+     * en una base de datos no impide ejecutarla en las demás; al terminar se relanza el primero.
+     */
+    public void forEach(Runnable task) {
+        if (dedicated.isEmpty()) {
+            task.run();
+            return;
+        }
+        RuntimeException failure = null;
+        failure = runIn(null, task, failure);
+        for (Long salonId : dedicated.keySet()) {
+            failure = runIn(salonId, task, failure);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private RuntimeException runIn(Long salonId, Runnable task, RuntimeException failure) {
+        try {
+            TenantContext.runAs(salonId, salonId, task);
+            return failure;
+        } catch (RuntimeException e) {
+            logger.error("Error en la base de datos {}: {}",
+                    salonId == null ? "compartida" : "del salón " + salonId, e.getMessage(), e);
+            return failure != null ? failure : e;
+        }
+    }
+}
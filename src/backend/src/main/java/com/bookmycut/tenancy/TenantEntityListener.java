@@ -0,0 +1,44 @@
+package com.bookmycut.tenancy;
+
+import com.bookmycut.exception.ResourceNotFoundException;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PrePersist;
+
+/**
+ * Asigna y comprueba el salón de las entidades {@link TenantScoped}.
+ *
+ * Al insertar, una entidad sin salón toma el del contexto, el de sus relaciones o, en su defecto,
+ * {@link TenantContext#DEFAULT_SALON_ID}. Una entidad de otro salón que el del contexto no se inserta.
+ *
+ * Al cargar, una fila de otro salón que el del contexto se trata como inexistente. El filtro de Hibernate
+ * solo se aplica a las consultas; esta comprobación cubre las búsquedas por ID ({@code findById},
+ * {@code getReferenceById}), que no pasan por él.
+ */
+public class TenantEntityListener {
+
+    @PrePersist
+    public void assignSalon(Object entity) {
+        if (!(entity instanceof TenantScoped scoped)) {
+            return;
+        }
+        Long contextSalonId = TenantContext.getSalonId();
+        if (scoped.getSalonId() == null) {
+            Long salonId = contextSalonId != null ? contextSalonId : scoped.ownerSalonId();
+            scoped.setSalonId(salonId != null ? salonId : TenantContext.DEFAULT_SALON_ID);
+        } else if (contextSalonId != null && !contextSalonId.equals(scoped.getSalonId())) {
+            throw new IllegalStateException("No se puede guardar " + entity.getClass().getSimpleName()
+                    + " del salón " + scoped.getSalonId() + " desde el salón " + contextSalonId);
+        }
+    }
+
+    @PostLoad
+    public void checkSalon(Object entity) {
+        if (!(entity instanceof TenantScoped scoped)) {
+            return;
+        }
+        Long contextSalonId = TenantContext.getSalonId();
+        if (contextSalonId != null && scoped.getSalonId() != null && !contextSalonId.equals(scoped.getSalonId())) {
+            throw new ResourceNotFoundException(entity.getClass().getSimpleName() + " no encontrado");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bookmycut.tenancy;
+
+import com.bookmycut.exception.GlobalExceptionHandler.ErrorResponse;
+import com.bookmycut.security.JwtAuthenticationFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Resuelve el salón de cada petición y lo deja en {@link TenantContext} mientras se procesa.
+ *
+ * El salón sale, por este orden, del claim "salonId" del token (ver {@link JwtAuthenticationFilter}), del host
+ * de la petición ({@link SalonDirectory}) o de {@code tenancy.default-salon-id}. Un token de un salón usado
+ * contra el host de otro se rechaza con 403.
+ *
+ * Va en la cadena de seguridad después de {@link JwtAuthenticationFilter}.
+ */
+@Component
+public class TenantFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantFilter.class);
+
+    public static final String MDC_KEY = "salonId";
+
+    @Autowired
+    private SalonDirectory salonDirectory;
+
+    @Autowired
+    private TenantDataSources tenantDataSources;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${tenancy.default-salon-id:1}")
+    private long defaultSalonId = TenantContext.DEFAULT_SALON_ID;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Long hostSalonId = salonDirectory.salonForHost(request.getServerName());
+        Long tokenSalonId = request.getAttribute(JwtAuthenticationFilter.SALON_ID_ATTRIBUTE) instanceof Long id ? id : null;
+
+        if (tokenSalonId != null && hostSalonId != null && !tokenSalonId.equals(hostSalonId)) {
+            logger.warn("Token del salón {} usado en el host {} (salón {})",
+                    tokenSalonId, request.getServerName(), hostSalonId);
+            writeForbidden(response);
+            return;
+        }
+
+        long salonId = tokenSalonId != null ? tokenSalonId : hostSalonId != null ? hostSalonId : defaultSalonId;
+        TenantContext.set(salonId, tenantDataSources.dataSourceKey(salonId));
+        MDC.put(MDC_KEY, Long.toString(salonId));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    private void writeForbidden(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.FORBIDDEN.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                HttpStatus.FORBIDDEN.value(),
+                "Salón no válido",
+                "El token no pertenece al salón de este dominio",
+                LocalDateTime.now()));
+    }
+}
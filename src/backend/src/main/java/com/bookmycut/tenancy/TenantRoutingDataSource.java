@@ -0,0 +1,39 @@
+package com.bookmycut.tenancy;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Conexiones de la base de datos del salón del hilo actual: la compartida ({@code spring.datasource}) o
+ * la propia de los salones configurados en {@code tenancy.datasources.<salonId>}.
+ *
+ * La base de datos se elige al pedir la conexión, es decir, al empezar la transacción: una transacción
+ * no cambia de base de datos aunque cambie el contexto después.
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Map<Long, DataSource> dedicatedDataSources;
+
+    TenantRoutingDataSource(DataSource sharedDataSource, Map<Long, DataSource> dedicatedDataSources) {
+        this.dedicatedDataSources = Map.copyOf(dedicatedDataSources);
+        setDefaultTargetDataSource(sharedDataSource);
+        setTargetDataSources(new HashMap<>(dedicatedDataSources));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Bases de datos propias, por salón.
+     */
+    public Map<Long, DataSource> getDedicatedDataSources() {
+        return dedicatedDataSources;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TenantContext.getDataSourceKey();
+    }
+}
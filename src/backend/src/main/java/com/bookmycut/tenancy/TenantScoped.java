@@ -0,0 +1,22 @@
+package com.bookmycut.tenancy;
+
+/**
+ * Entidad que pertenece a un salón (columna {@code salon_id}).
+ *
+ * Las entidades que la implementan llevan el filtro {@link TenantContext#FILTER_NAME} y
+ * {@link TenantEntityListener}, que asigna el salón al insertar y comprueba el de las filas cargadas.
+ */
+public interface TenantScoped {
+
+    Long getSalonId();
+
+    void setSalonId(Long salonId);
+
+    /**
+     * Salón que corresponde a la entidad por sus relaciones (el del usuario de una notificación, el del
+     * estilista de una cita...), para insertarla fuera de una petición. Null si no se puede deducir.
+     */
+    default Long ownerSalonId() {
+        return null;
+    }
+}
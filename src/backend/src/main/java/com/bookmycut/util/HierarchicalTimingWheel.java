@@ -0,0 +1,197 @@
+package com.bookmycut.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Rueda de temporización jerárquica en memoria.
+ *
+ * Cada nivel tiene {@code wheelSize} huecos; un hueco del nivel 0 dura un tick y uno del nivel i dura
+ * wheelSize^i ticks. Programar y cancelar cuestan O(1) y cada tick solo toca el hueco actual; cuando un
+ * nivel da la vuelta, el hueco correspondiente del nivel superior se redistribuye hacia abajo. Las tareas
+ * más lejanas que el alcance total esperan en una lista de desbordamiento.
+ *
+ * Cada clave tiene como mucho una tarea: volver a programarla sustituye la anterior.
+ *
+ * @param <K> Tipo de la clave de las tareas.
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private static final class Entry<K> {
+        final K key;
+        final long deadlineTick;
+        boolean cancelled;
+
+        Entry(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final int levels;
+    private final long totalSpan;
+    private final List<Entry<K>>[][] slots;
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private List<Entry<K>> overflow = new ArrayList<>();
+    private List<Entry<K>> expired = new ArrayList<>();
+    private long currentTick;
+
+    /**
+     * @param tickMs Duración de un tick en milisegundos.
+     * @param wheelSize Número de huecos por nivel.
+     * @param levels Número de niveles.
+     * @param startMs Instante inicial (epoch millis).
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, int levels, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("Parámetros de la rueda de temporización no válidos");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.levels = levels;
+        long span = 1;
+        for (int i = 0; i < levels; i++) {
+            span = Math.multiplyExact(span, wheelSize);
+        }
+        this.totalSpan = span;
+        this.slots = new List[levels][wheelSize];
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots[level][slot] = new ArrayList<>();
+            }
+        }
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Programa (o reprograma) la tarea de una clave. Si el instante ya pasó, vence en el siguiente avance.
+     */
+    public synchronized void schedule(K key, long deadlineMs) {
+        Entry<K> previous = entries.remove(key);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        Entry<K> entry = new Entry<>(key, (deadlineMs + tickMs - 1) / tickMs);
+        entries.put(key, entry);
+        insert(entry);
+    }
+
+    /**
+     * Cancela la tarea de una clave. La entrada se descarta de forma perezosa al llegar a su hueco.
+     *
+     * @return true si había una tarea programada.
+     */
+    public synchronized boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    public synchronized boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Avanza la rueda hasta el instante indicado y entrega las claves vencidas, en orden de vencimiento.
+     *
+     * @return Número de tareas vencidas.
+     */
+    public synchronized int advanceTo(long nowMs, Consumer<K> onExpired) {
+        int fired = fireExpired(onExpired);
+        long targetTick = nowMs / tickMs;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            int index = (int) (currentTick % wheelSize);
+            List<Entry<K>> slot = slots[0][index];
+            slots[0][index] = new ArrayList<>();
+            for (Entry<K> entry : slot) {
+                fired += fire(entry, onExpired);
+            }
+            fired += fireExpired(onExpired);
+        }
+        return fired;
+    }
+
+    private void insert(Entry<K> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            expired.add(entry);
+            return;
+        }
+        long unit = 1;
+        for (int level = 0; level < levels; level++) {
+            if (delta < unit * wheelSize) {
+                slots[level][(int) ((entry.deadlineTick / unit) % wheelSize)].add(entry);
+                return;
+            }
+            unit *= wheelSize;
+        }
+        overflow.add(entry);
+    }
+
+    /**
+     * Redistribuye hacia niveles inferiores los huecos de los niveles que acaban de dar la vuelta,
+     * empezando por el más alto.
+     */
+    private void cascade() {
+        if (currentTick % totalSpan == 0 && !overflow.isEmpty()) {
+            List<Entry<K>> pending = overflow;
+            overflow = new ArrayList<>();
+            reinsert(pending);
+        }
+        long unit = totalSpan / wheelSize;
+        for (int level = levels - 1; level >= 1; level--) {
+            if (currentTick % unit == 0) {
+                int index = (int) ((currentTick / unit) % wheelSize);
+                List<Entry<K>> slot = slots[level][index];
+                slots[level][index] = new ArrayList<>();
+                reinsert(slot);
+            }
+            unit /= wheelSize;
+        }
+    }
+
+    private void reinsert(List<Entry<K>> pending) {
+        for (Entry<K> entry : pending) {
+            if (!entry.cancelled) {
+                insert(entry);
+            }
+        }
+    }
+
+    private int fireExpired(Consumer<K> onExpired) {
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        List<Entry<K>> due = expired;
+        expired = new ArrayList<>();
+        int fired = 0;
+        for (Entry<K> entry : due) {
+            fired += fire(entry, onExpired);
+        }
+        return fired;
+    }
+
+    private int fire(Entry<K> entry, Consumer<K> onExpired) {
+        if (entry.cancelled) {
+            return 0;
+        }
+        entries.remove(entry.key);
+        onExpired.accept(entry.key);
+        return 1;
+    }
+}
@@ -1,5 +1,6 @@
 package com.bookmycut.util;
 
+import com.bookmycut.tenancy.TenantContext;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -13,6 +14,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
@@ -46,6 +48,16 @@ public class JwtUtil {
         return extractClaim(token, Claims::getExpiration);
     }
     
+    /**
+     * Extrae el identificador único del token (claim "jti"), usado para la revocación.
+     *
+     * @param token Token JWT.
+     * @return jti del token, o null si el token no lo incluye.
+     */
+    public String extractTokenId(String token) {
+        return extractClaim(token, Claims::getId);
+    }
+    
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
@@ -71,6 +83,8 @@ public class JwtUtil {
     
     /**
      * Genera un token JWT con los roles del usuario.
+     * Si hay un salón en el contexto (el de la petición de login o registro), se guarda en el claim
+     * "salonId" y las peticiones con el token se resuelven en ese salón.
      *
      * @param email Email del usuario (subject del token).
      * @param usuarioId ID del usuario.
@@ -81,6 +95,10 @@ public class JwtUtil {
         Map<String, Object> claims = new HashMap<>();
         claims.put("usuarioId", usuarioId);
         claims.put("roles", roles);
+        Long salonId = TenantContext.getSalonId();
+        if (salonId != null) {
+            claims.put("salonId", salonId);
+        }
         return createToken(claims, email);
     }
     
@@ -100,6 +118,7 @@ public class JwtUtil {
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
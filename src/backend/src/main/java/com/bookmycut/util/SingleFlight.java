@@ -0,0 +1,142 @@
+package com.bookmycut.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Agrupación de cálculos concurrentes por clave ("single flight").
+ *
+ * Mientras hay un cálculo en curso para una clave, las demás llamadas con la misma clave esperan su
+ * resultado en lugar de repetirlo. Si el cálculo falla, todas reciben la misma excepción y el fallo no se
+ * conserva. Con {@code ttlNanos > 0} el resultado se sigue sirviendo durante ese tiempo; con 0 solo se
+ * comparte entre las llamadas simultáneas.
+ *
+ * {@link #invalidate(Predicate)} quita las entradas al momento: quien ya esperaba un cálculo recibe su
+ * resultado, pero las llamadas siguientes calculan de nuevo.
+ */
+public class SingleFlight<K, V> {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    private static final class Flight<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        /** Se escribe antes de completar {@code result}; solo se lee una vez completado. */
+        volatile long expiresAtNanos;
+    }
+
+    /**
+     * @param ttlNanos Tiempo durante el que se reutiliza un resultado ya calculado; 0 para no conservarlo.
+     * @param maxEntries Número máximo de resultados conservados; por encima, los nuevos no se conservan.
+     */
+    public SingleFlight(long ttlNanos, int maxEntries) {
+        this(ttlNanos, maxEntries, System::nanoTime);
+    }
+
+    SingleFlight(long ttlNanos, int maxEntries, LongSupplier clock) {
+        if (ttlNanos < 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("ttlNanos no puede ser negativo y maxEntries debe ser positivo");
+        }
+        this.ttlNanos = ttlNanos;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Devuelve el resultado de la clave: el del cálculo en curso, el conservado si no ha caducado o,
+     * si no hay ninguno, el de {@code loader}, que se ejecuta en el hilo que llama.
+     */
+    public V get(K key, Supplier<V> loader) {
+        while (true) {
+            Flight<V> flight = flights.get(key);
+            if (flight != null && (!flight.result.isDone() || clock.getAsLong() - flight.expiresAtNanos < 0)) {
+                shared.increment();
+                return await(flight);
+            }
+            Flight<V> created = new Flight<>();
+            boolean owner = flight == null
+                    ? flights.putIfAbsent(key, created) == null
+                    : flights.replace(key, flight, created);
+            if (owner) {
+                loads.increment();
+                return load(key, created, loader);
+            }
+        }
+    }
+
+    private V load(K key, Flight<V> flight, Supplier<V> loader) {
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        flight.expiresAtNanos = clock.getAsLong() + ttlNanos;
+        if (ttlNanos == 0) {
+            flights.remove(key, flight);
+        } else if (flights.size() > maxEntries) {
+            evictExpired();
+            if (flights.size() > maxEntries) {
+                flights.remove(key, flight);
+            }
+        }
+        flight.result.complete(value);
+        return value;
+    }
+
+    private V await(Flight<V> flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void evictExpired() {
+        long now = clock.getAsLong();
+        flights.values().removeIf(flight -> flight.result.isDone() && now - flight.expiresAtNanos >= 0);
+    }
+
+    /**
+     * Olvida los resultados (y cálculos en curso) de las claves que cumplen la condición.
+     */
+    public void invalidate(Predicate<? super K> keys) {
+        flights.keySet().removeIf(keys);
+    }
+
+    public void invalidateAll() {
+        flights.clear();
+    }
+
+    public int size() {
+        return flights.size();
+    }
+
+    /** Cálculos ejecutados. */
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    /** Llamadas que reutilizaron un cálculo en curso o un resultado conservado. */
+    public long getSharedCount() {
+        return shared.sum();
+    }
+}
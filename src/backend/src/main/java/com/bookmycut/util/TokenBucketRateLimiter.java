@@ -0,0 +1,126 @@
+package com.bookmycut.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador de tasa por clave (por ejemplo, IP) con semántica de token bucket.
+ *
+ * Cada cubo se representa con un único long, el "instante teórico de llegada" (GCRA): consumir un token
+ * es un compareAndSet sin bloqueos, sin hilos de recarga y sin asignaciones de memoria en el camino habitual.
+ * Los cubos viven en hasta {@link #MAX_SEGMENTS} segmentos (por hash de la clave), cada uno un LinkedHashMap en orden
+ * de acceso con su parte de {@code maxEntries}: al llenarse se descarta el cubo usado menos recientemente, de
+ * modo que una avalancha de claves nuevas nunca deja sin cubo propio a los clientes activos. Solo la búsqueda
+ * del cubo toma el cerrojo de su segmento. Un cubo cuyo instante teórico ya ha pasado está lleno y puede
+ * eliminarse sin perder información.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int MAX_SEGMENTS = 16;
+    /** Tamaño mínimo de un segmento: por debajo, un único mapa con LRU exacto. */
+    private static final int MIN_SEGMENT_ENTRIES = 1024;
+
+    private final long emissionIntervalNanos;
+    private final long periodNanos;
+    private final Segment[] segments;
+
+    /**
+     * @param capacity Número de peticiones permitidas en ráfaga.
+     * @param periodNanos Tiempo en el que se recargan {@code capacity} tokens.
+     * @param maxEntries Número máximo de claves en memoria.
+     */
+    public TokenBucketRateLimiter(int capacity, long periodNanos, int maxEntries) {
+        if (capacity <= 0 || periodNanos <= 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("capacity, periodNanos y maxEntries deben ser positivos");
+        }
+        this.periodNanos = periodNanos;
+        this.emissionIntervalNanos = periodNanos / capacity;
+        this.segments = new Segment[Math.max(1, Math.min(MAX_SEGMENTS, maxEntries / MIN_SEGMENT_ENTRIES))];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(maxEntries / segments.length);
+        }
+    }
+
+    /**
+     * Intenta consumir un token para la clave.
+     *
+     * @param key Clave del cubo (IP del cliente).
+     * @param nowNanos Instante actual según {@link System#nanoTime()}.
+     * @return 0 si se permite la petición; si no, nanosegundos hasta que haya un token disponible.
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        AtomicLong bucket = segmentFor(key).bucket(key, nowNanos);
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            long excess = newTat - nowNanos - periodNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+    }
+
+    /**
+     * Elimina los cubos llenos (sin actividad desde que se recargaron por completo), segmento a segmento.
+     * Una petición concurrente que ya tuviera la referencia a un cubo eliminado (aquí o al descartar el menos
+     * usado) consume sobre él y ese token se pierde: como mucho se permite una ráfaga extra de tamaño mínimo.
+     *
+     * @return Número de cubos eliminados.
+     */
+    public int evictIdle(long nowNanos) {
+        int evicted = 0;
+        for (Segment segment : segments) {
+            evicted += segment.evictIdle(nowNanos);
+        }
+        return evicted;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Cubos de las claves de un segmento en orden de acceso; al superar su capacidad se descarta el usado
+     * menos recientemente.
+     */
+    private static final class Segment {
+
+        private final Map<String, AtomicLong> buckets;
+
+        Segment(int capacity) {
+            buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, AtomicLong> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized AtomicLong bucket(String key, long nowNanos) {
+            return buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        }
+
+        synchronized int evictIdle(long nowNanos) {
+            int before = buckets.size();
+            buckets.values().removeIf(bucket -> bucket.get() <= nowNanos);
+            return before - buckets.size();
+        }
+
+        synchronized int size() {
+            return buckets.size();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+-- ============================================
+-- V1_2: Índices y tablas auxiliares
+-- ============================================
+-- Cambios de esquema posteriores al esquema inicial (V1). Se aplica también
+-- en las bases de datos creadas con el antiguo schema.sql, registradas como
+-- ya en la versión 1.1: su número de versión queda entre la de esas bases de
+-- datos y V2 (db/particionado, opcional).
+--
+-- Los índices se sustituyen con DDL online de InnoDB, sin bloquear escrituras.
+-- ============================================
+
+-- Contraseñas cifradas con BCrypt (solo cambia el comentario de la columna)
+ALTER TABLE usuarios
+    MODIFY password VARCHAR(255) NOT NULL COMMENT 'Contraseña ({bcrypt}hash; las filas antiguas en texto plano se migran en el login)',
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Recorrido por keyset de las citas de una fecha y estado
+ALTER TABLE citas
+    DROP INDEX idx_date_status,
+    ADD INDEX idx_date_status (date, status, cita_id) COMMENT 'Índice compuesto para búsquedas por fecha y estado (recorrido por keyset)',
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Purga por lotes de notificaciones y exclusión de citas ya recordadas
+ALTER TABLE notificaciones
+    DROP INDEX idx_read,
+    DROP INDEX idx_type,
+    ADD INDEX idx_read_fecha (is_read, created_date) COMMENT 'Índice para la purga por lotes de notificaciones leídas',
+    ADD INDEX idx_type_fecha (type, created_date) COMMENT 'Índice para la purga por tipo y antigüedad',
+    ADD INDEX idx_cita_tipo_fecha (related_appointment_id, type, created_date) COMMENT 'Índice para excluir citas que ya tienen recordatorio',
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Generador de IDs de notificaciones (secuencia emulada por Hibernate en MySQL).
+-- Hibernate reserva bloques de 50 IDs (allocationSize) para poder enviar los INSERT
+-- de notificaciones en lotes JDBC. El optimizador pooled toma el valor leído como el
+-- último del bloque (usa next_val - 49 .. next_val), así que next_val debe ser al
+-- menos el máximo ID existente + 50. Se crea después de db/seed (V1_1), por lo que
+-- también cuenta las notificaciones de los datos de prueba.
+CREATE TABLE notificaciones_seq (
+    next_val BIGINT NOT NULL COMMENT 'Siguiente valor de la secuencia'
+) ENGINE=InnoDB
+COMMENT='Secuencia de IDs de notificaciones';
+
+INSERT INTO notificaciones_seq (next_val)
+SELECT COALESCE(MAX(notificacion_id), 0) + 50 FROM notificaciones;
+
+-- ============================================
+-- Tabla de Tokens Revocados
+-- ============================================
+-- Almacena los tokens JWT invalidados antes de su expiración (logout,
+-- desactivación o cambio de rol). token_id es el jti del token, o
+-- 'usuario:{id}' para revocar todos los tokens de un usuario emitidos
+-- antes de revocado_en. Las filas expiradas se compactan periódicamente.
+-- ============================================
+CREATE TABLE tokens_revocados (
+    token_id VARCHAR(64) PRIMARY KEY COMMENT 'jti del token o usuario:{id}',
+    usuario_id BIGINT NULL COMMENT 'ID del usuario propietario del token',
+    revocado_en TIMESTAMP NOT NULL COMMENT 'Fecha de revocación',
+    expira_en TIMESTAMP NOT NULL COMMENT 'Fecha a partir de la cual la revocación puede descartarse',
+    INDEX idx_expira_en (expira_en)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Tabla de tokens JWT revocados';
+
+-- ============================================
+-- Tabla de Eventos Outbox
+-- ============================================
+-- Outbox transaccional de notificaciones: la reserva inserta aquí un evento
+-- en su propia transacción y un proceso en segundo plano crea las
+-- notificaciones y las envía por WebSocket. Los eventos procesados se borran.
+-- ============================================
+CREATE TABLE eventos_outbox (
+    evento_id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT 'ID único del evento',
+    tipo VARCHAR(40) NOT NULL COMMENT 'Tipo de evento (CITA_CREADA, CITA_CANCELADA...)',
+    cita_id BIGINT NULL COMMENT 'ID de la cita que origina el evento',
+    payload TEXT NOT NULL COMMENT 'Notificaciones a crear, en JSON',
+    estado ENUM('PENDIENTE', 'PROCESANDO', 'FALLIDO') NOT NULL DEFAULT 'PENDIENTE' COMMENT 'Estado del evento',
+    intentos INT NOT NULL DEFAULT 0 COMMENT 'Número de intentos fallidos',
+    proximo_intento TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'No procesar antes de esta fecha (backoff)',
+    reclamado_en TIMESTAMP NULL COMMENT 'Fecha en la que un dispatcher reclamó el evento',
+    ultimo_error VARCHAR(500) NULL COMMENT 'Último error de procesamiento',
+    created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Fecha de creación del evento',
+    INDEX idx_estado_proximo (estado, proximo_intento, evento_id) COMMENT 'Índice para reclamar lotes pendientes'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Outbox transaccional de notificaciones';
+
+-- ============================================
+-- Tabla de Checkpoints de Recordatorios
+-- ============================================
+-- Progreso del envío de recordatorios por fecha de cita: último ID de cita
+-- procesado en orden. Se actualiza tras cada bloque confirmado para que un
+-- envío interrumpido se reanude donde se quedó.
+-- ============================================
+CREATE TABLE recordatorios_checkpoint (
+    fecha_cita DATE PRIMARY KEY COMMENT 'Fecha de las citas recordadas',
+    ultima_cita_id BIGINT NOT NULL DEFAULT 0 COMMENT 'Último ID de cita procesado (keyset)',
+    completado BOOLEAN NOT NULL DEFAULT FALSE COMMENT 'Si el envío de esa fecha terminó sin errores',
+    actualizado_en TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Fecha de la última actualización'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Progreso del envío de recordatorios de citas';
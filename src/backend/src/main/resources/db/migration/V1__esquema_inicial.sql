@@ -1,41 +1,26 @@
 -- ============================================
--- Script de Creación de Base de Datos - BookMyCut
+-- V1: Esquema inicial - BookMyCut
 -- ============================================
--- Este script crea la base de datos y todas las tablas según el modelo E-R
+-- Crea todas las tablas según el modelo E-R
 -- Basado en el diagrama DB_Schema_BookMyCut.drawio
 --
--- Ejecución:
---   mysql -u root -p < schema.sql
---   O desde mysql: source schema.sql;
+-- Lo aplica Flyway al arrancar el backend y queda registrado en
+-- flyway_schema_history junto con su checksum. Una migración ya aplicada
+-- no se modifica: cualquier cambio de esquema va en un fichero nuevo
+-- V<n>__descripcion.sql de este directorio.
 --
--- Nota: La base de datos se crea si no existe
+-- Es el mismo esquema que creaba el antiguo schema.sql: las bases de datos
+-- creadas con él se registran como ya en la versión 1.1
+-- (spring.flyway.baseline-version) y no ejecutan este fichero. Las tablas e
+-- índices añadidos después están en V1_2.
+--
+-- Los cambios de índices en migraciones nuevas deben poder aplicarse sin
+-- bloquear escrituras (DDL online de InnoDB):
+--   ALTER TABLE citas ADD INDEX idx_ejemplo (...), ALGORITHM=INPLACE, LOCK=NONE;
+-- Si la operación no admite LOCK=NONE, MySQL falla en lugar de bloquear la
+-- tabla y la migración no se da por aplicada.
 -- ============================================
 
--- Crear la base de datos si no existe
--- Nota: MySQL ya crea la base de datos automáticamente si MYSQL_DATABASE está definido
--- Este comando es por si acaso y no causará problemas si ya existe
-CREATE DATABASE IF NOT EXISTS bookmycut 
-CHARACTER SET utf8mb4 
-COLLATE utf8mb4_unicode_ci;
-
--- Usar la base de datos
--- Nota: Cuando MySQL ejecuta scripts en docker-entrypoint-initdb.d, ya está en la BD correcta
--- pero es buena práctica incluir USE para ejecuciones manuales
-USE bookmycut;
-
--- Eliminar tablas si existen (en orden inverso de dependencias)
-DROP TABLE IF EXISTS notificaciones;
-DROP TABLE IF EXISTS cita_servicio;
-DROP TABLE IF EXISTS citas;
-DROP TABLE IF EXISTS excepciones_horario;
-DROP TABLE IF EXISTS disponibilidades;
-DROP TABLE IF EXISTS estilista_servicio;
-DROP TABLE IF EXISTS servicios;
-DROP TABLE IF EXISTS clientes;
-DROP TABLE IF EXISTS estilistas;
-DROP TABLE IF EXISTS administradores;
-DROP TABLE IF EXISTS usuarios;
-
 -- ============================================
 -- Tabla de Usuarios (tabla base)
 -- ============================================
@@ -44,7 +29,7 @@ DROP TABLE IF EXISTS usuarios;
 -- Las tablas clientes, estilistas y administradores son tablas de relación
 -- que referencian esta tabla principal.
 -- ============================================
-CREATE TABLE IF NOT EXISTS usuarios (
+CREATE TABLE usuarios (
     usuario_id BIGINT AUTO_INCREMENT PRIMARY KEY,
     name VARCHAR(100) NOT NULL COMMENT 'Nombre completo del usuario',
     username VARCHAR(50) NULL UNIQUE COMMENT 'Username para login (requerido para ESTILISTA y ADMINISTRADOR, opcional para CLIENTE)',
@@ -70,7 +55,7 @@ COMMENT='Tabla principal de usuarios del sistema';
 -- Nota: El teléfono puede estar también en la tabla usuarios, pero esta tabla
 -- permite tener información adicional específica de clientes si se necesita en el futuro.
 -- ============================================
-CREATE TABLE IF NOT EXISTS clientes (
+CREATE TABLE clientes (
     usuario_id BIGINT PRIMARY KEY COMMENT 'ID del usuario cliente (FK a usuarios)',
     phone VARCHAR(20) NULL COMMENT 'Teléfono del cliente (duplicado de usuarios.phone para compatibilidad)',
     FOREIGN KEY (usuario_id) REFERENCES usuarios(usuario_id) ON DELETE CASCADE
@@ -82,7 +67,7 @@ COMMENT='Tabla de relación para identificar usuarios clientes';
 -- ============================================
 -- Tabla de relación que identifica qué usuarios son estilistas.
 -- ============================================
-CREATE TABLE IF NOT EXISTS estilistas (
+CREATE TABLE estilistas (
     usuario_id BIGINT PRIMARY KEY COMMENT 'ID del usuario estilista (FK a usuarios)',
     FOREIGN KEY (usuario_id) REFERENCES usuarios(usuario_id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
@@ -93,7 +78,7 @@ COMMENT='Tabla de relación para identificar usuarios estilistas';
 -- ============================================
 -- Tabla de relación que identifica qué usuarios son administradores.
 -- ============================================
-CREATE TABLE IF NOT EXISTS administradores (
+CREATE TABLE administradores (
     usuario_id BIGINT PRIMARY KEY COMMENT 'ID del usuario administrador (FK a usuarios)',
     FOREIGN KEY (usuario_id) REFERENCES usuarios(usuario_id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
@@ -105,7 +90,7 @@ COMMENT='Tabla de relación para identificar usuarios administradores';
 -- Almacena los servicios ofrecidos por la peluquería.
 -- Los servicios pueden ser ofrecidos por múltiples estilistas (relación N:M).
 -- ============================================
-CREATE TABLE IF NOT EXISTS servicios (
+CREATE TABLE servicios (
     servicio_id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT 'ID único del servicio',
     name VARCHAR(100) NOT NULL COMMENT 'Nombre del servicio',
     description VARCHAR(500) NULL COMMENT 'Descripción detallada del servicio',
@@ -123,7 +108,7 @@ COMMENT='Tabla de servicios ofrecidos por la peluquería';
 -- Define los horarios de disponibilidad de cada estilista por día de la semana.
 -- Un estilista puede tener múltiples disponibilidades (una por día de la semana).
 -- ============================================
-CREATE TABLE IF NOT EXISTS disponibilidades (
+CREATE TABLE disponibilidades (
     disp_id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT 'ID único de la disponibilidad',
     estilista_id BIGINT NOT NULL COMMENT 'ID del estilista (FK a estilistas)',
     dia_semana ENUM('MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY', 'SATURDAY', 'SUNDAY') NOT NULL COMMENT 'Día de la semana',
@@ -141,7 +126,7 @@ COMMENT='Tabla de disponibilidades horarias de los estilistas';
 -- Puede ser para un estilista específico o para todos (estilista_id NULL).
 -- Puede ser para un rango de horas o para todo el día (hora_inicio/hora_fin NULL).
 -- ============================================
-CREATE TABLE IF NOT EXISTS excepciones_horario (
+CREATE TABLE excepciones_horario (
     excep_horario_id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT 'ID único de la excepción',
     estilista_id BIGINT NULL COMMENT 'ID del estilista (FK a estilistas). NULL significa para todos los estilistas',
     admin_id BIGINT NOT NULL COMMENT 'ID del administrador que crea la excepción (FK a administradores)',
@@ -164,7 +149,7 @@ COMMENT='Tabla de excepciones de horario para estilistas';
 -- Almacena las citas/reservas realizadas por los clientes.
 -- Una cita puede tener múltiples servicios asociados (relación N:M).
 -- ============================================
-CREATE TABLE IF NOT EXISTS citas (
+CREATE TABLE citas (
     cita_id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT 'ID único de la cita',
     cliente_id BIGINT NOT NULL COMMENT 'ID del cliente (FK a clientes)',
     estilista_id BIGINT NOT NULL COMMENT 'ID del estilista asignado (FK a estilistas)',
@@ -190,7 +175,7 @@ COMMENT='Tabla de citas/reservas del sistema';
 -- ============================================
 -- Tabla de Relación Cita-Servicio (N:M)
 -- ============================================
-CREATE TABLE IF NOT EXISTS cita_servicio (
+CREATE TABLE cita_servicio (
     cita_id BIGINT NOT NULL COMMENT 'ID de la cita (FK a citas)',
     servicio_id BIGINT NOT NULL COMMENT 'ID del servicio (FK a servicios)',
     PRIMARY KEY (cita_id, servicio_id),
@@ -202,7 +187,7 @@ COMMENT='Tabla de relación N:M entre citas y servicios';
 -- ============================================
 -- Tabla de Relación Estilista-Servicio (N:M)
 -- ============================================
-CREATE TABLE IF NOT EXISTS estilista_servicio (
+CREATE TABLE estilista_servicio (
     estilista_id BIGINT NOT NULL COMMENT 'ID del estilista (FK a estilistas)',
     servicio_id BIGINT NOT NULL COMMENT 'ID del servicio (FK a servicios)',
     PRIMARY KEY (estilista_id, servicio_id),
@@ -217,7 +202,7 @@ COMMENT='Tabla de relación N:M entre estilistas y servicios';
 -- Almacena las notificaciones del sistema para cada usuario.
 -- Puede estar relacionada con una cita específica (opcional).
 -- ============================================
-CREATE TABLE IF NOT EXISTS notificaciones (
+CREATE TABLE notificaciones (
     notificacion_id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT 'ID único de la notificación',
     usuario_id BIGINT NOT NULL COMMENT 'ID del usuario destinatario (FK a usuarios)',
     title VARCHAR(255) NOT NULL COMMENT 'Título de la notificación',
@@ -252,10 +237,8 @@ COMMENT='Tabla de notificaciones del sistema';
 --   - estilista_servicio (relación N:M)
 --   - notificaciones
 --
--- Para poblar la base de datos con datos de prueba, ejecutar:
---   source data.sql;
--- O
---   mysql -u root -p bookmycut < data.sql;
+-- Los datos de prueba están en db/seed y solo se cargan si esa ubicación
+-- se incluye en FLYWAY_LOCATIONS (entornos de desarrollo).
 -- ============================================
 
 
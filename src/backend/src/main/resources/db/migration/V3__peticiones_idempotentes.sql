@@ -0,0 +1,24 @@
+-- ============================================
+-- V3: Peticiones idempotentes
+-- ============================================
+-- Respuestas de los POST enviados con la cabecera Idempotency-Key
+-- (POST /citas, /citas/public y /auth/register). La fila se inserta en la
+-- misma transacción que la operación: si esta falla, la clave desaparece con
+-- ella y el reintento vuelve a ejecutarse; si se confirma, los reintentos
+-- reciben la respuesta guardada. Un duplicado simultáneo en otra instancia
+-- queda bloqueado en la clave primaria hasta que la primera transacción
+-- termina.
+--
+-- El número de versión deja libre V2 (db/particionado, opcional).
+-- ============================================
+
+CREATE TABLE peticiones_idempotentes (
+    clave_id CHAR(64) PRIMARY KEY COMMENT 'SHA-256 del endpoint, el usuario y la Idempotency-Key',
+    huella CHAR(64) NOT NULL COMMENT 'SHA-256 del cuerpo de la petición original',
+    codigo_respuesta INT NOT NULL COMMENT 'Código HTTP de la respuesta original',
+    cuerpo_respuesta TEXT NOT NULL COMMENT 'Cuerpo JSON de la respuesta original',
+    created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Fecha de la petición original',
+    expira_en TIMESTAMP NOT NULL COMMENT 'A partir de esta fecha la clave puede reutilizarse',
+    INDEX idx_expira_en (expira_en)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Respuestas de peticiones con Idempotency-Key';
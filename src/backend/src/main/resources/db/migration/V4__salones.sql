@@ -0,0 +1,68 @@
+-- ============================================
+-- V4: Salones (multi-tenencia)
+-- ============================================
+-- Cada usuario, servicio, cita, disponibilidad, excepción de horario y
+-- notificación pertenece a un salón (salon_id). Las filas existentes quedan
+-- en el salón 1 (DEFAULT 1), el salón único de las versiones anteriores.
+--
+-- La aplicación filtra por salon_id todas las consultas de una petición
+-- (filtro salonFilter de Hibernate) y los índices compuestos empiezan por
+-- salon_id para que cada salón recorra solo su parte del índice.
+--
+-- username y email pasan a ser únicos dentro de cada salón: el mismo cliente
+-- puede registrarse con el mismo email en dos salones distintos.
+--
+-- No se añaden claves foráneas a salones: notificaciones puede estar
+-- particionada (V2) y las tablas particionadas no las admiten.
+--
+-- Los salones con base de datos propia (tenancy.datasources.<salonId>) aplican
+-- estas mismas migraciones en su base de datos al arrancar el backend.
+-- ============================================
+
+CREATE TABLE salones (
+    salon_id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT 'ID único del salón',
+    nombre VARCHAR(100) NOT NULL COMMENT 'Nombre comercial del salón',
+    host VARCHAR(255) NULL UNIQUE COMMENT 'Host (cabecera Host) con el que se accede al salón; NULL si solo se resuelve por token',
+    activo BOOLEAN NOT NULL DEFAULT TRUE COMMENT 'Los salones inactivos no se resuelven por host',
+    created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Fecha de alta del salón'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Salones (tenants) de la aplicación';
+
+INSERT INTO salones (salon_id, nombre, host, activo) VALUES (1, 'Salón principal', NULL, TRUE);
+
+-- Columnas salon_id: ADD COLUMN con DEFAULT es instantáneo en InnoDB (MySQL 8.0.12+)
+ALTER TABLE usuarios ADD COLUMN salon_id BIGINT NOT NULL DEFAULT 1 COMMENT 'Salón del usuario', ALGORITHM=INSTANT;
+ALTER TABLE servicios ADD COLUMN salon_id BIGINT NOT NULL DEFAULT 1 COMMENT 'Salón del servicio', ALGORITHM=INSTANT;
+ALTER TABLE disponibilidades ADD COLUMN salon_id BIGINT NOT NULL DEFAULT 1 COMMENT 'Salón de la disponibilidad', ALGORITHM=INSTANT;
+ALTER TABLE excepciones_horario ADD COLUMN salon_id BIGINT NOT NULL DEFAULT 1 COMMENT 'Salón de la excepción', ALGORITHM=INSTANT;
+ALTER TABLE citas ADD COLUMN salon_id BIGINT NOT NULL DEFAULT 1 COMMENT 'Salón de la cita', ALGORITHM=INSTANT;
+ALTER TABLE notificaciones ADD COLUMN salon_id BIGINT NOT NULL DEFAULT 1 COMMENT 'Salón de la notificación', ALGORITHM=INSTANT;
+
+-- Unicidad de username y email por salón
+ALTER TABLE usuarios
+    DROP INDEX username,
+    DROP INDEX email,
+    ADD UNIQUE INDEX uk_salon_username (salon_id, username),
+    ADD UNIQUE INDEX uk_salon_email (salon_id, email),
+    ADD INDEX idx_salon_role_active (salon_id, role, active) COMMENT 'Índice para listar estilistas activos de un salón',
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE servicios
+    ADD INDEX idx_salon_name (salon_id, name) COMMENT 'Índice para listar los servicios de un salón',
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE disponibilidades
+    ADD INDEX idx_salon_estilista_dia (salon_id, estilista_id, dia_semana) COMMENT 'Índice compuesto para búsquedas por salón, estilista y día',
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE excepciones_horario
+    ADD INDEX idx_salon_date (salon_id, date) COMMENT 'Índice compuesto para búsquedas por salón y fecha',
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE citas
+    ADD INDEX idx_salon_date_status (salon_id, date, status, cita_id) COMMENT 'Índice compuesto para búsquedas por salón, fecha y estado',
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE notificaciones
+    ADD INDEX idx_salon_usuario_read (salon_id, usuario_id, is_read) COMMENT 'Índice compuesto para notificaciones no leídas por salón y usuario',
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,19 @@
+-- ============================================
+-- V5: Peticiones idempotentes sin credenciales
+-- ============================================
+-- La huella pasa a ser un HMAC-SHA256 con una clave del servidor
+-- (idempotency.fingerprint-key): el cuerpo de /auth/register y /citas/public
+-- incluye la contraseña y un SHA-256 sin clave permitiría comprobarla por
+-- fuerza bruta. La respuesta se guarda sin el token JWT, que se vuelve a
+-- emitir al repetirla.
+--
+-- Las filas anteriores tienen la huella antigua y pueden contener tokens
+-- válidos, así que se eliminan: como mucho se pierde la idempotencia de las
+-- peticiones de las últimas idempotency.ttl-hours.
+-- ============================================
+
+DELETE FROM peticiones_idempotentes;
+
+ALTER TABLE peticiones_idempotentes
+    MODIFY huella CHAR(64) NOT NULL COMMENT 'HMAC-SHA256 del cuerpo de la petición original',
+    MODIFY cuerpo_respuesta TEXT NOT NULL COMMENT 'Cuerpo JSON de la respuesta original, sin tokens';
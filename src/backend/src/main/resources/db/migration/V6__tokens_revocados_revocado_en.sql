@@ -0,0 +1,10 @@
+-- ============================================
+-- V6: Índice de tokens_revocados por fecha de revocación
+-- ============================================
+-- Cada nodo relee periódicamente las revocaciones recientes del resto
+-- (jwt.revocation.refresh-interval-ms) con revocado_en > ?.
+-- ============================================
+
+ALTER TABLE tokens_revocados
+    ADD INDEX idx_revocado_en (revocado_en),
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,29 @@
+-- ============================================
+-- V7: Horario de la cita en los recordatorios
+-- ============================================
+-- Los recordatorios se deduplican por (cita, horario) en lugar de por su
+-- antigüedad: una cita reprogramada vuelve a recibir recordatorio aunque el
+-- del horario anterior se enviara hace menos de reminders.wheel.offset-minutes.
+-- Las columnas solo se rellenan en los recordatorios (APPOINTMENT_REMINDER).
+-- ============================================
+
+ALTER TABLE notificaciones
+    ADD COLUMN related_appointment_date DATE NULL COMMENT 'Fecha de la cita en el momento del recordatorio',
+    ADD COLUMN related_appointment_start_time TIME NULL COMMENT 'Hora de inicio de la cita en el momento del recordatorio',
+    ALGORITHM=INSTANT;
+
+ALTER TABLE notificaciones
+    ADD INDEX idx_cita_tipo_horario (related_appointment_id, type, related_appointment_date, related_appointment_start_time) COMMENT 'Índice para excluir citas que ya tienen recordatorio para su horario',
+    DROP INDEX idx_cita_tipo_fecha,
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Recordatorios ya enviados de citas pendientes: se asume que corresponden al
+-- horario actual si se crearon a partir del día anterior a la cita (como
+-- pronto los envía el cron de las 9:00 o la rueda con el offset por defecto).
+UPDATE notificaciones n
+    JOIN citas c ON c.cita_id = n.related_appointment_id
+SET n.related_appointment_date = c.date,
+    n.related_appointment_start_time = c.hora_inicio
+WHERE n.type = 'APPOINTMENT_REMINDER'
+  AND c.date >= CURRENT_DATE
+  AND n.created_date >= DATE_SUB(c.date, INTERVAL 1 DAY);
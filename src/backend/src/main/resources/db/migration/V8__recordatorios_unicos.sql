@@ -0,0 +1,42 @@
+-- ============================================
+-- V8: Un solo recordatorio por cita, horario y usuario
+-- ============================================
+-- El anti-join de la rueda y del cron solo evita duplicados si nadie más envía
+-- el mismo recordatorio entre la consulta y la inserción (varios nodos con la
+-- misma rueda, un reintento solapado con el cron...). AppointmentReminderScheduler
+-- bloquea las citas con FOR UPDATE SKIP LOCKED antes de crear sus recordatorios,
+-- y esta clave única lo garantiza en la base de datos.
+--
+-- En las notificaciones que no son recordatorios la fecha y la hora de la cita
+-- son NULL, así que la clave no les afecta.
+--
+-- Con la tabla particionada (db/particionado) toda clave única debe incluir
+-- created_date, lo que la dejaría sin efecto: en ese caso se mantiene el índice
+-- no único de V7 y la garantía la da el bloqueo de las citas. Para particionar
+-- una base de datos que ya tiene V8 aplicada, eliminar antes la clave única:
+--   ALTER TABLE notificaciones
+--       ADD INDEX idx_cita_tipo_horario (related_appointment_id, type, related_appointment_date, related_appointment_start_time),
+--       DROP INDEX uk_recordatorio_cita_horario;
+-- ============================================
+
+-- Duplicados ya enviados: se conserva el primero de cada cita, horario y usuario
+DELETE n FROM notificaciones n
+    JOIN notificaciones d ON d.related_appointment_id = n.related_appointment_id
+                         AND d.type = n.type
+                         AND d.related_appointment_date = n.related_appointment_date
+                         AND d.related_appointment_start_time = n.related_appointment_start_time
+                         AND d.usuario_id = n.usuario_id
+                         AND d.notificacion_id < n.notificacion_id;
+
+SET @particionada = (SELECT COUNT(*) FROM information_schema.PARTITIONS
+                     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'notificaciones'
+                       AND PARTITION_NAME IS NOT NULL);
+SET @clave_unica = IF(@particionada > 0,
+    'DO 0',
+    'ALTER TABLE notificaciones
+         ADD UNIQUE KEY uk_recordatorio_cita_horario (related_appointment_id, type, related_appointment_date, related_appointment_start_time, usuario_id),
+         DROP INDEX idx_cita_tipo_horario,
+         ALGORITHM=INPLACE, LOCK=NONE');
+PREPARE clave_unica FROM @clave_unica;
+EXECUTE clave_unica;
+DEALLOCATE PREPARE clave_unica;
@@ -0,0 +1,48 @@
+-- ============================================
+-- V2: Particionado mensual de notificaciones (opcional)
+-- ============================================
+-- Convierte la tabla notificaciones en una tabla particionada por rango
+-- mensual de created_date. Con la tabla particionada, NotificationRetentionJob
+-- crea por adelantado las particiones de los próximos meses (separándolas de
+-- pmax) y elimina con DROP PARTITION las anteriores al periodo de retención
+-- (notifications.retention.partition-months), sin borrar fila a fila.
+--
+-- Limitaciones de MySQL a tener en cuenta antes de aplicarlo:
+--   - Las tablas particionadas no admiten claves foráneas: se eliminan las de
+--     usuario_id y related_appointment_id. El borrado en cascada al eliminar
+--     un usuario y el SET NULL al eliminar una cita dejan de hacerse en base
+--     de datos.
+--   - Toda clave única debe incluir la columna de particionado, por lo que la
+--     clave primaria pasa a ser (notificacion_id, created_date). Los IDs los
+--     sigue asignando notificaciones_seq, así que siguen siendo únicos.
+--   - Con DROP PARTITION se eliminan todas las notificaciones del mes, también
+--     las no leídas.
+--
+-- La partición p_historico se corta en el primer día del mes en que se aplica
+-- la migración. La reorganización inicial copia la tabla completa (no es DDL
+-- online): conviene aplicarla en una ventana de mantenimiento.
+--
+-- Aplicación, sin recompilar: añadir la ubicación a las de Flyway y reiniciar
+--   FLYWAY_LOCATIONS=classpath:db/migration,classpath:db/particionado
+-- Si ya hay migraciones posteriores a V2 aplicadas, arrancar una vez con
+-- FLYWAY_OUT_OF_ORDER=true.
+-- ============================================
+
+ALTER TABLE notificaciones
+    DROP FOREIGN KEY notificaciones_ibfk_1,
+    DROP FOREIGN KEY notificaciones_ibfk_2;
+
+ALTER TABLE notificaciones
+    MODIFY created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Fecha de creación de la notificación',
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (notificacion_id, created_date);
+
+-- Los límites de partición deben ser constantes: la sentencia se construye con la fecha ya resuelta
+SET @inicio_mes = DATE_FORMAT(CURRENT_DATE, '%Y-%m-01 00:00:00');
+SET @particionar = CONCAT(
+    'ALTER TABLE notificaciones PARTITION BY RANGE (UNIX_TIMESTAMP(created_date)) (',
+    'PARTITION p_historico VALUES LESS THAN (UNIX_TIMESTAMP(''', @inicio_mes, ''')), ',
+    'PARTITION pmax VALUES LESS THAN MAXVALUE)');
+PREPARE particionar FROM @particionar;
+EXECUTE particionar;
+DEALLOCATE PREPARE particionar;
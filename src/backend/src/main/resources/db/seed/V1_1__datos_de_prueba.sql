@@ -1,23 +1,13 @@
 -- ============================================
--- Script de Datos Iniciales - BookMyCut
+-- V1.1: Datos de prueba - BookMyCut
 -- ============================================
--- Este script pobla la base de datos con datos de prueba.
--- Basado en el esquema definido en schema.sql
+-- Pobla la base de datos con datos de prueba sobre el esquema de V1.
 --
--- Ejecución:
---   mysql -u root -p bookmycut < data.sql
---   O desde mysql: source data.sql;
---
--- IMPORTANTE: Ejecutar primero schema.sql
+-- Solo para desarrollo: Flyway lo aplica cuando db/seed está incluido en
+-- FLYWAY_LOCATIONS (docker-compose lo incluye por defecto, application.properties
+-- no). Como el resto de migraciones, se ejecuta una única vez por base de datos.
 -- ============================================
 
--- Asegurarse de usar la base de datos correcta
-USE bookmycut;
-
--- Asegurar que la conexión use UTF-8
-SET NAMES utf8mb4;
-SET CHARACTER SET utf8mb4;
-
 -- ============================================
 -- Usuarios de Prueba
 -- ============================================
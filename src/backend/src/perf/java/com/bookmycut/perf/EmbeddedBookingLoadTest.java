@@ -0,0 +1,644 @@
+package com.bookmycut.perf;
+
+import com.bookmycut.BookMyCutApplication;
+import com.bookmycut.entities.Availability;
+import com.bookmycut.entities.Notification;
+import com.bookmycut.entities.ServiceOffer;
+import com.bookmycut.entities.User;
+import com.bookmycut.repositories.AvailabilityRepository;
+import com.bookmycut.repositories.NotificationRepository;
+import com.bookmycut.repositories.ServiceOfferRepository;
+import com.bookmycut.repositories.UserRepository;
+import com.bookmycut.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Prueba de carga de la pila completa (filtros, controladores, Hibernate y base de datos) sin
+ * infraestructura externa: arranca {@link BookMyCutApplication} en un puerto libre contra H2 en modo
+ * MySQL (o contra un MySQL local con {@code -Dload.dbUrl}), genera datos con semilla fija y lanza
+ * cuatro escenarios concurrentes a ritmo constante (modelo abierto):
+ * <ul>
+ *   <li>{@code browse}: calendario anónimo (estilistas, servicios, disponibilidad y citas del día).</li>
+ *   <li>{@code booking}: reservas públicas que compiten por las mismas franjas; un 409 es un conflicto esperado.
+ *       Cada reserva lleva su {@code Idempotency-Key} y una fracción ({@code load.retryRate}) repite una
+ *       reserva reciente con la misma clave, como el reintento de un cliente móvil: debe recibir la
+ *       respuesta original, no un 409 ni una segunda cita.</li>
+ *   <li>{@code search}: búsquedas de administrador con filtros avanzados ({@code findWithAdvancedFilters}).</li>
+ *   <li>{@code poll}: consulta de notificaciones de clientes autenticados.</li>
+ * </ul>
+ *
+ * La latencia se mide desde el instante en que la petición debía salir, no desde que sale: si el
+ * backend se atasca, la espera en cola cuenta (sin omisión coordinada). Al terminar se escriben
+ * {@code load.output} (JSON con throughput, percentiles y tasas de conflicto y error) y un
+ * {@code .hgrm} por escenario con la distribución completa. El proceso termina con código 1 si la
+ * tasa de errores supera {@code load.maxErrorRate} o si se detectan citas solapadas.
+ *
+ * Con {@code -Dload.generateHistory=true} se carga antes un historial de años con
+ * {@link SyntheticDataGenerator}, para medir con tablas de citas y notificaciones de tamaño realista.
+ * Con {@code -Dload.threads=compare} la prueba se repite con hilos de plataforma y con hilos virtuales
+ * (Java 21), escribe un JSON por modo y muestra la variación de throughput y de las latencias de cola.
+ *
+ * <pre>
+ * mvn -Pload-test test-compile exec:java \
+ *     -Dperf.main=com.bookmycut.perf.EmbeddedBookingLoadTest \
+ *     -Dload.durationSeconds=60 -Dload.bookingRate=20 -Dload.browseRate=100
+ * </pre>
+ */
+public class EmbeddedBookingLoadTest {
+
+    private static final String DB_URL = System.getProperty("load.dbUrl",
+            "jdbc:h2:mem:bookmycut;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DATE,VALUE,USER;DB_CLOSE_DELAY=-1");
+    private static final String DB_USER = System.getProperty("load.dbUser", DB_URL.startsWith("jdbc:h2") ? "sa" : "root");
+    private static final String DB_PASSWORD = System.getProperty("load.dbPassword", DB_URL.startsWith("jdbc:h2") ? "" : "root");
+
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.durationSeconds", 60);
+    /** Peticiones por segundo de cada escenario; 0 lo desactiva. */
+    private static final double BROWSE_RATE = Double.parseDouble(System.getProperty("load.browseRate", "50"));
+    private static final double BOOKING_RATE = Double.parseDouble(System.getProperty("load.bookingRate", "10"));
+    private static final double SEARCH_RATE = Double.parseDouble(System.getProperty("load.searchRate", "5"));
+    private static final double POLL_RATE = Double.parseDouble(System.getProperty("load.pollRate", "40"));
+    private static final int MAX_CONCURRENCY = Integer.getInteger("load.maxConcurrency", 64);
+
+    private static final long SEED = Long.getLong("load.seed", 42L);
+    private static final int STYLISTS = Integer.getInteger("load.stylists", 5);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 500);
+    private static final int NOTIFICATIONS_PER_CLIENT = Integer.getInteger("load.notificationsPerClient", 20);
+    /** Días reservables a partir de mañana: cuantos menos, más compiten las reservas por las mismas franjas. */
+    private static final int BOOKING_DAYS = Integer.getInteger("load.bookingDays", 3);
+    /** Fracción de reservas que repiten una reciente con la misma Idempotency-Key. */
+    private static final double RETRY_RATE = Double.parseDouble(System.getProperty("load.retryRate", "0.1"));
+
+    /** Historial previo con {@link SyntheticDataGenerator} (propiedades {@code data.*}) antes de sembrar. */
+    private static final boolean GENERATE_HISTORY = Boolean.getBoolean("load.generateHistory");
+
+    /** platform, virtual (spring.threads.virtual.enabled, Java 21) o compare: ambos, uno tras otro. */
+    private static final String THREAD_MODE = System.getProperty("load.threads", "platform");
+
+    private static final String OUTPUT = System.getProperty("load.output", "target/load-results.json");
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.01"));
+
+    private static final LocalTime OPENING = LocalTime.of(9, 0);
+    private static final int SLOTS_PER_DAY = 22;
+    private static final String[] SERVICE_NAMES = {"Corte de pelo", "Tinte", "Peinado", "Barba", "Mechas"};
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private static String baseUrl;
+
+    public static void main(String[] args) throws Exception {
+        List<String> modes = THREAD_MODE.equals("compare") ? List.of("platform", "virtual") : List.of(THREAD_MODE);
+        if (modes.contains("virtual") && Runtime.version().feature() < 21) {
+            System.out.printf("AVISO: Java %d no tiene hilos virtuales; el modo virtual usará hilos de plataforma%n",
+                    Runtime.version().feature());
+        }
+        int exitCode = 0;
+        Map<String, Map<String, ScenarioStats>> resultsByMode = new LinkedHashMap<>();
+        for (String mode : modes) {
+            String output = modes.size() > 1 ? OUTPUT.replaceFirst("(\\.json)?$", "-" + mode + ".json") : OUTPUT;
+            Map<String, ScenarioStats> results = new LinkedHashMap<>();
+            exitCode = Math.max(exitCode, runMode(mode, modes.size() > 1, output, results));
+            resultsByMode.put(mode, results);
+        }
+        if (modes.size() > 1) {
+            compare(resultsByMode.get("platform"), resultsByMode.get("virtual"));
+        }
+        System.exit(exitCode);
+    }
+
+    private static int runMode(String mode, boolean isolatedDatabase, String output,
+                               Map<String, ScenarioStats> results) throws Exception {
+        // En la comparación cada modo arranca sobre su propia base H2 para no heredar las reservas del anterior
+        String dbUrl = isolatedDatabase && DB_URL.startsWith("jdbc:h2:mem:")
+                ? DB_URL.replaceFirst("^jdbc:h2:mem:([^;]*)", "jdbc:h2:mem:$1-" + mode)
+                : DB_URL;
+        ConfigurableApplicationContext context = startBackend(dbUrl, mode.equals("virtual"));
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port + "/api";
+            Dataset dataset = seed(context);
+            System.out.printf("Backend en %s (%s, hilos %s): %d estilistas, %d clientes%n",
+                    baseUrl, dbUrl, mode, dataset.stylistIds.size(), dataset.clients.size());
+
+            List<Scenario> scenarios = scenarios(dataset);
+            System.out.printf("Calentamiento (%d s)...%n", WARMUP_SECONDS);
+            run(scenarios, WARMUP_SECONDS, SEED - 1);
+            System.out.printf("Medición (%d s)...%n", DURATION_SECONDS);
+            results.putAll(run(scenarios, DURATION_SECONDS, SEED));
+
+            long doubleBookings = countDoubleBookings(context.getBean(JdbcTemplate.class));
+            return report(results, doubleBookings, mode, output);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext startBackend(String dbUrl, boolean virtualThreads) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("management.server.port", "-1");
+        properties.put("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+        properties.put("spring.datasource.url", dbUrl);
+        properties.put("spring.datasource.username", DB_USER);
+        properties.put("spring.datasource.password", DB_PASSWORD);
+        properties.put("spring.datasource.hikari.maximum-pool-size", System.getProperty("load.dbPoolSize", "20"));
+        properties.put("spring.sql.init.mode", "never");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+        // La prueba debe medir el backend, no el limitador de peticiones por IP
+        properties.put("rate-limit.enabled", "false");
+        properties.put("sql.budget.expose-header", "false");
+        properties.put("logging.level.com.bookmycut", System.getProperty("load.logLevel", "WARN"));
+        if (DB_URL.startsWith("jdbc:h2")) {
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.jpa.properties.hibernate.dialect", "");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            // Las migraciones son SQL de MySQL: en H2 el esquema lo genera Hibernate
+            properties.put("spring.flyway.enabled", "false");
+        } else {
+            // MySQL local: Flyway aplica las migraciones pendientes, si las hay
+            properties.put("spring.jpa.hibernate.ddl-auto", "none");
+        }
+
+        // Como argumentos de línea de comandos: deben prevalecer sobre application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return SpringApplication.run(BookMyCutApplication.class, args);
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Datos de prueba
+    // ---------------------------------------------------------------------------------------------
+
+    private record SeededClient(long id, String name, String email, String phone, String token) {
+    }
+
+    private static final class Dataset {
+        final List<Long> stylistIds = new ArrayList<>();
+        final List<String> stylistNames = new ArrayList<>();
+        final List<Long> serviceIds = new ArrayList<>();
+        final List<SeededClient> clients = new ArrayList<>();
+        String adminToken;
+    }
+
+    private static Dataset seed(ConfigurableApplicationContext context) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ServiceOfferRepository serviceOfferRepository = context.getBean(ServiceOfferRepository.class);
+        AvailabilityRepository availabilityRepository = context.getBean(AvailabilityRepository.class);
+        NotificationRepository notificationRepository = context.getBean(NotificationRepository.class);
+        JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+        // Una sola codificación: ningún usuario sembrado hace login por contraseña
+        String password = context.getBean(PasswordEncoder.class).encode("password123");
+        if (DB_URL.startsWith("jdbc:h2")) {
+            adjustH2Schema(context.getBean(JdbcTemplate.class));
+        }
+        if (GENERATE_HISTORY) {
+            generateHistory(context.getBean(DataSource.class));
+        }
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        Dataset dataset = new Dataset();
+
+        for (int i = 0; i < SERVICE_NAMES.length; i++) {
+            ServiceOffer service = new ServiceOffer();
+            service.setName(SERVICE_NAMES[i] + " " + run);
+            service.setDescription("Servicio de la prueba de carga");
+            service.setDuration(30);
+            service.setUnitPrice(BigDecimal.valueOf(15 + 5L * i));
+            dataset.serviceIds.add(serviceOfferRepository.save(service).getServiceId());
+        }
+
+        User admin = newUser("Administrador carga", "admin-" + run, null, User.Role.ADMINISTRADOR, password);
+        admin = userRepository.save(admin);
+        dataset.adminToken = jwtUtil.generateToken(admin.getUsername(), admin.getUserId(), "ADMINISTRADOR");
+
+        for (int i = 0; i < STYLISTS; i++) {
+            User stylist = userRepository.save(newUser("Estilista " + i + " " + run, "estilista" + i + "-" + run,
+                    null, User.Role.ESTILISTA, password));
+            dataset.stylistIds.add(stylist.getUserId());
+            dataset.stylistNames.add(stylist.getName());
+            List<Availability> week = new ArrayList<>();
+            for (DayOfWeek day : DayOfWeek.values()) {
+                Availability availability = new Availability();
+                availability.setStylist(stylist);
+                availability.setDayOfWeek(day);
+                availability.setStartTime(OPENING);
+                availability.setEndTime(OPENING.plusMinutes(30L * SLOTS_PER_DAY));
+                week.add(availability);
+            }
+            availabilityRepository.saveAll(week);
+        }
+
+        for (int i = 0; i < CLIENTS; i++) {
+            String phone = "6" + (10000000 + random.nextInt(89999999));
+            User client = newUser("Cliente " + i, null, "cliente" + i + "-" + run + "@carga.bookmycut.com",
+                    User.Role.CLIENTE, password);
+            client.setPhone(phone);
+            client = userRepository.save(client);
+            dataset.clients.add(new SeededClient(client.getUserId(), client.getName(), client.getEmail(), phone,
+                    jwtUtil.generateToken(client.getEmail(), client.getUserId(), "CLIENTE")));
+
+            List<Notification> notifications = new ArrayList<>(NOTIFICATIONS_PER_CLIENT);
+            for (int n = 0; n < NOTIFICATIONS_PER_CLIENT; n++) {
+                Notification notification = new Notification();
+                notification.setUser(client);
+                notification.setTitle("Recordatorio " + n);
+                notification.setMessage("Notificación generada por la prueba de carga");
+                notification.setType(Notification.NotificationType.INFO);
+                notification.setRead(random.nextInt(4) != 0);
+                notifications.add(notification);
+            }
+            notificationRepository.saveAll(notifications);
+        }
+        return dataset;
+    }
+
+    private static User newUser(String name, String username, String email, User.Role role, String password) {
+        User user = new User();
+        user.setName(name);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setRole(role);
+        user.setActive(true);
+        user.setPassword(password);
+        return user;
+    }
+
+    /**
+     * Ajustes del esquema generado en H2 respecto a las migraciones: tablas de rol que no son entidades (las
+     * reservas públicas insertan en {@code clientes} al dar de alta un cliente nuevo) y tamaños de columna.
+     */
+    private static void generateHistory(DataSource dataSource) {
+        try {
+            SyntheticDataGenerator.Summary summary = new SyntheticDataGenerator(dataSource,
+                    SyntheticDataGenerator.Config.fromSystemProperties()).generate();
+            System.out.printf("Historial generado en %d s: %d citas, %d notificaciones%n",
+                    summary.elapsedMs() / 1000, summary.appointments(), summary.notifications());
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo generar el historial sintético", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generación del historial interrumpida", e);
+        }
+    }
+
+    private static void adjustH2Schema(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS clientes (usuario_id BIGINT PRIMARY KEY, phone VARCHAR(20))");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS estilistas (usuario_id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS administradores (usuario_id BIGINT PRIMARY KEY)");
+        // En MySQL la columna es un ENUM; la generada por Hibernate (length = 20) no admite APPOINTMENT_CONFIRMED
+        jdbcTemplate.execute("ALTER TABLE notificaciones ALTER COLUMN type VARCHAR(30)");
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Escenarios
+    // ---------------------------------------------------------------------------------------------
+
+    /**
+     * Un escenario genera sus peticiones en el hilo que las planifica, con su propio generador
+     * aleatorio: con la misma semilla la secuencia de peticiones es la misma en cada ejecución.
+     */
+    private record Scenario(String name, double rate, Function<SplittableRandom, HttpRequest> requests) {
+    }
+
+    private static List<Scenario> scenarios(Dataset dataset) {
+        List<Scenario> scenarios = new ArrayList<>();
+        if (BROWSE_RATE > 0) {
+            scenarios.add(new Scenario("browse", BROWSE_RATE, random -> {
+                long stylistId = pick(random, dataset.stylistIds);
+                return switch (random.nextInt(4)) {
+                    case 0 -> get("/usuarios/public/estilistas", null);
+                    case 1 -> get("/servicios", null);
+                    case 2 -> get("/disponibilidades?estilistaId=" + stylistId, null);
+                    default -> get("/citas?estilistaId=" + stylistId + "&fecha=" + bookingDate(random), null);
+                };
+            }));
+        }
+        if (BOOKING_RATE > 0) {
+            AtomicReferenceArray<HttpRequest> recentBookings = new AtomicReferenceArray<>(32);
+            scenarios.add(new Scenario("booking", BOOKING_RATE, random -> {
+                if (random.nextDouble() < RETRY_RATE) {
+                    HttpRequest retry = recentBookings.get(random.nextInt(recentBookings.length()));
+                    if (retry != null) {
+                        return retry;
+                    }
+                }
+                SeededClient bookingClient = pick(random, dataset.clients);
+                LocalTime start = OPENING.plusMinutes(30L * random.nextInt(SLOTS_PER_DAY));
+                String body = "{\"clientName\":\"" + bookingClient.name() + "\""
+                        + ",\"clientEmail\":\"" + bookingClient.email() + "\""
+                        + ",\"clientPhone\":\"" + bookingClient.phone() + "\""
+                        + ",\"stylistId\":" + pick(random, dataset.stylistIds)
+                        + ",\"date\":\"" + bookingDate(random) + "\""
+                        + ",\"startTime\":\"" + start + "\""
+                        + ",\"endTime\":\"" + start.plusMinutes(30) + "\""
+                        + ",\"serviceIds\":[" + pick(random, dataset.serviceIds) + "]}";
+                HttpRequest booking = HttpRequest.newBuilder(URI.create(baseUrl + "/citas/public"))
+                        .timeout(Duration.ofSeconds(30))
+                        .header("Content-Type", "application/json")
+                        .header("Idempotency-Key", new UUID(random.nextLong(), random.nextLong()).toString())
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+                recentBookings.set(random.nextInt(recentBookings.length()), booking);
+                return booking;
+            }));
+        }
+        if (SEARCH_RATE > 0) {
+            scenarios.add(new Scenario("search", SEARCH_RATE, random -> {
+                String filter = switch (random.nextInt(3)) {
+                    case 0 -> "nombreCliente=" + encode("Cliente " + random.nextInt(Math.max(1, CLIENTS / 10)));
+                    case 1 -> "nombreEstilista=" + encode(pick(random, dataset.stylistNames));
+                    default -> "nombreServicio=" + encode(SERVICE_NAMES[random.nextInt(SERVICE_NAMES.length)]);
+                };
+                return get("/citas?paginated=true&page=0&size=20&estado=CONFIRMADA&" + filter, dataset.adminToken);
+            }));
+        }
+        if (POLL_RATE > 0) {
+            scenarios.add(new Scenario("poll", POLL_RATE, random -> {
+                String token = pick(random, dataset.clients).token();
+                return random.nextInt(5) == 0
+                        ? get("/notificaciones?page=0&size=20", token)
+                        : get("/notificaciones/unread/count", token);
+            }));
+        }
+        return scenarios;
+    }
+
+    private static LocalDate bookingDate(SplittableRandom random) {
+        return LocalDate.now().plusDays(1 + random.nextInt(BOOKING_DAYS));
+    }
+
+    private static <T> T pick(SplittableRandom random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Ejecución y resultados
+    // ---------------------------------------------------------------------------------------------
+
+    private static final class ScenarioStats {
+        /** Latencias en microsegundos. */
+        final Histogram latencies = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(60), 3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        final long startNanos = System.nanoTime();
+        final AtomicLong lastCompletionNanos = new AtomicLong(startNanos);
+
+        void record(int status, long latencyNanos) {
+            lastCompletionNanos.accumulateAndGet(System.nanoTime(), Math::max);
+            latencies.recordValue(Math.min(latencies.getHighestTrackableValue(),
+                    TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+            statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+            if (status >= 200 && status < 300) {
+                ok.increment();
+            } else if (status == 409) {
+                conflicts.increment();
+            } else {
+                errors.increment();
+            }
+        }
+
+        long total() {
+            return ok.sum() + conflicts.sum() + errors.sum();
+        }
+
+        /** Respuestas por segundo hasta la última completada: si el backend no da abasto queda por debajo del ritmo pedido. */
+        double throughput() {
+            long elapsed = lastCompletionNanos.get() - startNanos;
+            return elapsed > 0 ? total() * 1e9 / elapsed : 0.0;
+        }
+    }
+
+    private static Map<String, ScenarioStats> run(List<Scenario> scenarios, int seconds, long seed)
+            throws InterruptedException {
+        Map<String, ScenarioStats> results = new LinkedHashMap<>();
+        ExecutorService workers = Executors.newFixedThreadPool(MAX_CONCURRENCY);
+        List<Thread> dispatchers = new ArrayList<>();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        for (int i = 0; i < scenarios.size(); i++) {
+            Scenario scenario = scenarios.get(i);
+            ScenarioStats stats = new ScenarioStats();
+            results.put(scenario.name(), stats);
+            SplittableRandom random = new SplittableRandom(seed * 31 + i);
+            long interval = (long) (TimeUnit.SECONDS.toNanos(1) / scenario.rate());
+            Thread dispatcher = new Thread(() -> {
+                long next = System.nanoTime();
+                while (next < end) {
+                    long wait = next - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    long intendedStart = next;
+                    HttpRequest request = scenario.requests().apply(random);
+                    workers.execute(() -> execute(request, intendedStart, stats));
+                    next += interval;
+                }
+            }, "load-" + scenario.name());
+            dispatchers.add(dispatcher);
+            dispatcher.start();
+        }
+        for (Thread dispatcher : dispatchers) {
+            dispatcher.join();
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(60, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+        return results;
+    }
+
+    private static void execute(HttpRequest request, long intendedStart, ScenarioStats stats) {
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        stats.record(status, System.nanoTime() - intendedStart);
+    }
+
+    /**
+     * Pares de citas no canceladas del mismo estilista que se solapan: las reservas concurrentes
+     * deberían resolverse con un 409, nunca con una doble reserva.
+     */
+    private static long countDoubleBookings(JdbcTemplate jdbcTemplate) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM citas a JOIN citas b ON a.estilista_id = b.estilista_id "
+                        + "AND a.date = b.date AND a.cita_id < b.cita_id "
+                        + "AND a.hora_inicio < b.hora_fin AND b.hora_inicio < a.hora_fin "
+                        + "WHERE a.status <> 'CANCELADA' AND b.status <> 'CANCELADA'", Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static int report(Map<String, ScenarioStats> results, long doubleBookings, String mode,
+                              String outputPath) throws IOException {
+        Map<String, Object> output = new LinkedHashMap<>();
+        output.put("database", DB_URL.startsWith("jdbc:h2") ? "h2" : "mysql");
+        output.put("threads", mode);
+        output.put("javaVersion", Runtime.version().feature());
+        output.put("seed", SEED);
+        output.put("durationSeconds", DURATION_SECONDS);
+        output.put("doubleBookings", doubleBookings);
+
+        File outputFile = new File(outputPath);
+        if (outputFile.getParentFile() != null) {
+            outputFile.getParentFile().mkdirs();
+        }
+        long totalRequests = 0;
+        long totalErrors = 0;
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+        for (Map.Entry<String, ScenarioStats> entry : results.entrySet()) {
+            ScenarioStats stats = entry.getValue();
+            Histogram histogram = stats.latencies;
+            long total = stats.total();
+            totalRequests += total;
+            totalErrors += stats.errors.sum();
+
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("requests", total);
+            scenario.put("targetRatePerSecond", round((double) total / DURATION_SECONDS));
+            scenario.put("throughputPerSecond", round(stats.throughput()));
+            scenario.put("ok", stats.ok.sum());
+            scenario.put("conflicts", stats.conflicts.sum());
+            scenario.put("errors", stats.errors.sum());
+            scenario.put("conflictRate", total > 0 ? round((double) stats.conflicts.sum() / total) : 0.0);
+            scenario.put("errorRate", total > 0 ? round((double) stats.errors.sum() / total) : 0.0);
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("p50", millis(histogram.getValueAtPercentile(50)));
+            latency.put("p90", millis(histogram.getValueAtPercentile(90)));
+            latency.put("p99", millis(histogram.getValueAtPercentile(99)));
+            latency.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+            latency.put("max", millis(histogram.getMaxValue()));
+            latency.put("mean", millis((long) histogram.getMean()));
+            scenario.put("latencyMs", latency);
+            Map<String, Long> statuses = new TreeMap<>();
+            stats.statuses.forEach((status, count) -> statuses.put(String.valueOf(status), count.sum()));
+            scenario.put("statuses", statuses);
+            scenarios.put(entry.getKey(), scenario);
+
+            System.out.printf("[%s] %d peticiones (%.1f/s), %d conflictos, %d errores, p50=%.1f ms, p99=%.1f ms, "
+                            + "p99.9=%.1f ms, max=%.1f ms%n",
+                    entry.getKey(), total, stats.throughput(), stats.conflicts.sum(), stats.errors.sum(),
+                    latency.get("p50"), latency.get("p99"), latency.get("p999"), latency.get("max"));
+
+            // Distribución completa en formato HdrHistogram (microsegundos escalados a ms)
+            File hgrm = new File(outputFile.getParentFile(), outputFile.getName().replaceFirst("\\.json$", "")
+                    + "-" + entry.getKey() + ".hgrm");
+            try (PrintStream out = new PrintStream(hgrm, StandardCharsets.UTF_8)) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        output.put("scenarios", scenarios);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(outputFile, output);
+        System.out.printf("Citas solapadas: %d. Resultados en %s%n", doubleBookings, outputFile.getPath());
+
+        double errorRate = totalRequests > 0 ? (double) totalErrors / totalRequests : 0.0;
+        if (errorRate > MAX_ERROR_RATE || doubleBookings > 0) {
+            System.out.printf("RESULTADO: tasa de errores %.4f (máximo %.4f), %d citas solapadas%n",
+                    errorRate, MAX_ERROR_RATE, doubleBookings);
+            return 1;
+        }
+        System.out.println("RESULTADO: sin errores por encima del umbral ni citas solapadas");
+        return 0;
+    }
+
+    /**
+     * Throughput y latencias de cola de ambos modos por escenario; la variación es la del modo virtual
+     * respecto al de plataforma (negativa en latencia = mejor).
+     */
+    private static void compare(Map<String, ScenarioStats> platform, Map<String, ScenarioStats> virtual) {
+        System.out.println();
+        System.out.printf("%-8s %22s %22s %22s %22s%n", "", "throughput (/s)", "p99 (ms)", "p99.9 (ms)", "max (ms)");
+        for (Map.Entry<String, ScenarioStats> entry : platform.entrySet()) {
+            ScenarioStats before = entry.getValue();
+            ScenarioStats after = virtual.get(entry.getKey());
+            System.out.printf("%-8s %22s %22s %22s %22s%n", entry.getKey(),
+                    delta(before.throughput(), after.throughput()),
+                    delta(millis(before.latencies.getValueAtPercentile(99)),
+                            millis(after.latencies.getValueAtPercentile(99))),
+                    delta(millis(before.latencies.getValueAtPercentile(99.9)),
+                            millis(after.latencies.getValueAtPercentile(99.9))),
+                    delta(millis(before.latencies.getMaxValue()), millis(after.latencies.getMaxValue())));
+        }
+    }
+
+    private static String delta(double platform, double virtual) {
+        String change = platform > 0 ? String.format("%+.0f%%", (virtual - platform) * 100 / platform) : "-";
+        return String.format("%.1f → %.1f (%s)", platform, virtual, change);
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
@@ -0,0 +1,300 @@
+package com.bookmycut.perf;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prueba de carga: latencia del flujo de reservas durante una avalancha de logins.
+ *
+ * Fase 1 (base): solo tráfico de reservas. Fase 2 (avalancha): el mismo tráfico de reservas
+ * más hilos haciendo login en bucle, cada uno con su verificación bcrypt. Se comparan los p99
+ * de reservas de ambas fases; el proceso termina con código 1 si la degradación supera el umbral.
+ *
+ * Cada iteración de reserva consulta servicios, disponibilidad y citas del día y crea una cita en una
+ * franja aleatoria de un día laborable de los próximos {@code load.bookingDays}: con el cliente de la
+ * sesión ({@code POST /citas}) o, en una fracción {@code load.publicBookingRate}, sin autenticación y
+ * con un cliente nuevo ({@code POST /citas/public}), que crea su cuenta en la misma petición. Las
+ * franjas se agotan a lo largo de la prueba: un 409 (franja ocupada) es un resultado esperado y cuenta
+ * en la latencia, no como error.
+ *
+ * Mide el pool de hashing, no el limitador de tasa: todos los logins salen de la misma IP y con
+ * {@code rate-limit.enabled=true} casi todos se responderían con 429 sin llegar a bcrypt. El backend
+ * debe arrancarse con {@code RATE_LIMIT_ENABLED=false}; los 429 se cuentan aparte y, si aparecen, el
+ * resultado no es válido (código 3).
+ *
+ * Requiere el backend arrancado con los datos de prueba de db/seed. Ejecución:
+ * <pre>
+ * RATE_LIMIT_ENABLED=false docker-compose -f docker-compose.yml -f docker-compose.backend-port.yml up -d
+ * mvn -Pload-test test-compile exec:java \
+ *     -Dperf.main=com.bookmycut.perf.LoginStormLoadTest \
+ *     -Dload.baseUrl=http://localhost:8080/api -Dload.loginThreads=64
+ * </pre>
+ */
+public class LoginStormLoadTest {
+
+    private static final String BASE_URL = System.getProperty("load.baseUrl", "http://localhost:8080/api");
+    private static final int BOOKING_THREADS = Integer.getInteger("load.bookingThreads", 16);
+    private static final int LOGIN_THREADS = Integer.getInteger("load.loginThreads", 64);
+    private static final int PHASE_SECONDS = Integer.getInteger("load.phaseSeconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 10);
+    private static final long STYLIST_ID = Long.getLong("load.stylistId", 3L);
+    private static final long SERVICE_ID = Long.getLong("load.serviceId", 1L);
+    private static final int BOOKING_DAYS = Integer.getInteger("load.bookingDays", 60);
+    /** Fracción de reservas sin autenticación con un cliente nuevo. */
+    private static final double PUBLIC_BOOKING_RATE = Double.parseDouble(System.getProperty("load.publicBookingRate", "0.3"));
+    /** Franjas de 30 minutos dentro del horario de los datos de prueba (10:00 - 18:30). */
+    private static final LocalTime OPENING = LocalTime.of(10, 0);
+    private static final int SLOTS_PER_DAY = 17;
+    private static final String USERNAME = System.getProperty("load.username", "cliente@bookmycut.com");
+    private static final String PASSWORD = System.getProperty("load.password", "password123");
+    /** Degradación máxima admitida del p99 de reservas: storm <= base * factor + slack. */
+    private static final double MAX_P99_FACTOR = Double.parseDouble(System.getProperty("load.maxP99Factor", "1.5"));
+    private static final long P99_SLACK_MS = Long.getLong("load.p99SlackMs", 20L);
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /** Token y usuario de la sesión con la que se reserva. */
+    private record Session(String token, long userId) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Session session = login();
+        if (session == null) {
+            System.err.println("No se pudo hacer login con " + USERNAME + " en " + BASE_URL);
+            System.exit(2);
+        }
+
+        System.out.printf("Calentamiento (%d s)...%n", WARMUP_SECONDS);
+        runPhase(session, 0, WARMUP_SECONDS);
+
+        System.out.printf("Fase base: %d hilos de reservas, %d s%n", BOOKING_THREADS, PHASE_SECONDS);
+        PhaseResult baseline = runPhase(session, 0, PHASE_SECONDS);
+        baseline.print("base");
+
+        System.out.printf("Fase avalancha: %d hilos de reservas + %d hilos de login, %d s%n",
+                BOOKING_THREADS, LOGIN_THREADS, PHASE_SECONDS);
+        PhaseResult storm = runPhase(session, LOGIN_THREADS, PHASE_SECONDS);
+        storm.print("avalancha");
+
+        if (baseline.rateLimited() + storm.rateLimited() > 0) {
+            System.out.println("RESULTADO: no válido, el limitador de tasa respondió 429; arrancar el backend con RATE_LIMIT_ENABLED=false");
+            System.exit(3);
+        }
+
+        long limit = (long) (baseline.percentile(0.99) * MAX_P99_FACTOR) + P99_SLACK_MS;
+        long stormP99 = storm.percentile(0.99);
+        System.out.printf("p99 reservas: base=%d ms, avalancha=%d ms, límite=%d ms%n",
+                baseline.percentile(0.99), stormP99, limit);
+        if (stormP99 > limit) {
+            System.out.println("RESULTADO: el p99 de reservas se degrada durante la avalancha de logins");
+            System.exit(1);
+        }
+        System.out.println("RESULTADO: el p99 de reservas no se ve afectado por la avalancha de logins");
+    }
+
+    private static PhaseResult runPhase(Session session, int loginThreads, int seconds) throws InterruptedException {
+        PhaseResult result = new PhaseResult();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(BOOKING_THREADS + loginThreads);
+        String token = session.token();
+
+        for (int i = 0; i < BOOKING_THREADS; i++) {
+            pool.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                while (running.get()) {
+                    // Flujo de una reserva: servicios, disponibilidad del estilista, citas del día y alta de la cita
+                    LocalDate fecha = bookingDate();
+                    latencies.add(timed(get("/servicios", token), result));
+                    latencies.add(timed(get("/disponibilidades?estilistaId=" + STYLIST_ID, token), result));
+                    latencies.add(timed(get("/citas?estilistaId=" + STYLIST_ID + "&fecha=" + fecha, token), result));
+                    boolean publicBooking = ThreadLocalRandom.current().nextDouble() < PUBLIC_BOOKING_RATE;
+                    latencies.add(timed(publicBooking ? publicBookingRequest(fecha) : bookingRequest(session, fecha), result));
+                }
+                result.bookingLatencies.put(Thread.currentThread().getName(), latencies);
+            });
+        }
+        for (int i = 0; i < loginThreads; i++) {
+            pool.submit(() -> {
+                while (running.get()) {
+                    try {
+                        int status = client.send(loginRequest(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                        (switch (status) {
+                            case 200 -> result.loginOk;
+                            case 503 -> result.loginShed;
+                            case 429 -> result.loginLimited;
+                            default -> result.loginOther;
+                        }).increment();
+                    } catch (Exception e) {
+                        result.loginOther.increment();
+                    }
+                }
+            });
+        }
+
+        TimeUnit.SECONDS.sleep(seconds);
+        running.set(false);
+        pool.shutdown();
+        pool.awaitTermination(30, TimeUnit.SECONDS);
+        return result;
+    }
+
+    private static long timed(HttpRequest request, PhaseResult result) {
+        long start = System.nanoTime();
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status == 409) {
+                result.bookingConflicts.increment();
+            } else if (status == 429) {
+                result.bookingLimited.increment();
+            } else if (status >= 400) {
+                result.bookingErrors.increment();
+            }
+        } catch (Exception e) {
+            result.bookingErrors.increment();
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(BASE_URL + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    /** Día laborable (los datos de prueba no tienen disponibilidad en fin de semana) de los próximos días. */
+    private static LocalDate bookingDate() {
+        LocalDate date = LocalDate.now().plusDays(1 + ThreadLocalRandom.current().nextInt(BOOKING_DAYS));
+        while (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            date = date.plusDays(1);
+        }
+        return date;
+    }
+
+    private static HttpRequest bookingRequest(Session session, LocalDate date) {
+        LocalTime start = OPENING.plusMinutes(30L * ThreadLocalRandom.current().nextInt(SLOTS_PER_DAY));
+        String body = "{\"clientId\":" + session.userId()
+                + ",\"stylistId\":" + STYLIST_ID
+                + ",\"date\":\"" + date + "\""
+                + ",\"startTime\":\"" + start + "\""
+                + ",\"endTime\":\"" + start.plusMinutes(30) + "\""
+                + ",\"serviceIds\":[" + SERVICE_ID + "]}";
+        return HttpRequest.newBuilder(URI.create(BASE_URL + "/citas"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + session.token())
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /** Reserva sin autenticación de un cliente que no existe: crea su cuenta (sin contraseña) y la cita. */
+    private static HttpRequest publicBookingRequest(LocalDate date) {
+        LocalTime start = OPENING.plusMinutes(30L * ThreadLocalRandom.current().nextInt(SLOTS_PER_DAY));
+        String id = UUID.randomUUID().toString();
+        String body = "{\"clientName\":\"Cliente carga " + id.substring(0, 8) + "\""
+                + ",\"clientEmail\":\"carga-" + id + "@bookmycut.test\""
+                + ",\"clientPhone\":\"6" + String.format("%08d", ThreadLocalRandom.current().nextInt(100_000_000)) + "\""
+                + ",\"stylistId\":" + STYLIST_ID
+                + ",\"date\":\"" + date + "\""
+                + ",\"startTime\":\"" + start + "\""
+                + ",\"endTime\":\"" + start.plusMinutes(30) + "\""
+                + ",\"serviceIds\":[" + SERVICE_ID + "]}";
+        return HttpRequest.newBuilder(URI.create(BASE_URL + "/citas/public"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", id)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest loginRequest() {
+        String body = "{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}";
+        return HttpRequest.newBuilder(URI.create(BASE_URL + "/auth/login"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static Session login() throws Exception {
+        HttpResponse<String> response = client.send(loginRequest(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        // Extraer "token" y "userId" del JSON sin añadir dependencias al perfil de carga
+        String body = response.body();
+        int start = body.indexOf("\"token\":\"");
+        int userId = body.indexOf("\"userId\":");
+        if (start < 0 || userId < 0) {
+            return null;
+        }
+        start += 9;
+        userId += 9;
+        int userIdEnd = userId;
+        while (userIdEnd < body.length() && Character.isDigit(body.charAt(userIdEnd))) {
+            userIdEnd++;
+        }
+        return new Session(body.substring(start, body.indexOf('"', start)),
+                Long.parseLong(body.substring(userId, userIdEnd)));
+    }
+
+    private static final class PhaseResult {
+        final ConcurrentHashMap<String, List<Long>> bookingLatencies = new ConcurrentHashMap<>();
+        final LongAdder bookingErrors = new LongAdder();
+        final LongAdder bookingConflicts = new LongAdder();
+        final LongAdder bookingLimited = new LongAdder();
+        final LongAdder loginOk = new LongAdder();
+        final LongAdder loginShed = new LongAdder();
+        final LongAdder loginLimited = new LongAdder();
+        final LongAdder loginOther = new LongAdder();
+        private long[] sorted;
+
+        long percentile(double p) {
+            if (sorted == null) {
+                sorted = bookingLatencies.values().stream()
+                        .flatMap(List::stream)
+                        .mapToLong(Long::longValue)
+                        .toArray();
+                Arrays.sort(sorted);
+            }
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+        }
+
+        long rateLimited() {
+            return bookingLimited.sum() + loginLimited.sum();
+        }
+
+        void print(String phase) {
+            long count = bookingLatencies.values().stream().mapToLong(List::size).sum();
+            System.out.printf("[%s] reservas: %d peticiones, %d errores, %d conflictos (409), %d limitadas (429), p50=%d ms, p95=%d ms, p99=%d ms, max=%d ms%n",
+                    phase, count, bookingErrors.sum(), bookingConflicts.sum(), bookingLimited.sum(),
+                    percentile(0.50), percentile(0.95), percentile(0.99), percentile(1.0));
+            System.out.printf("[%s] logins: %d OK, %d rechazados (503), %d limitados (429), %d otros%n",
+                    phase, loginOk.sum(), loginShed.sum(), loginLimited.sum(), loginOther.sum());
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package com.bookmycut.perf;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo hasta la primera petición del backend en cada modo de arranque: se lanza la JVM (o la imagen
+ * nativa) y se cuenta hasta la primera respuesta 200 de {@code startup.path}, que ya pasa por los
+ * filtros, el controlador y la base de datos. Cada modo se repite {@code startup.runs} veces.
+ * <ul>
+ *   <li>{@code jar}: el jar ejecutable de {@code mvn package} (jars anidados, sin AOT ni CDS).</li>
+ *   <li>{@code aot}: jar fino de {@code -Pfast-startup} con las clases de Spring AOT.</li>
+ *   <li>{@code aot-cds}: lo anterior con su archivo AppCDS; es el modo de la imagen Docker {@code fast-startup}.</li>
+ *   <li>{@code native}: imagen nativa ({@code -Pnative,fast-startup native:compile}); solo contra MySQL.</li>
+ * </ul>
+ *
+ * Si falta el archivo CDS se crea antes con una ejecución de entrenamiento: arranque, unas cuantas
+ * peticiones públicas y parada ordenada con {@code -XX:ArchiveClassesAtExit}. Con {@code -Dstartup.train}
+ * solo se entrena, como hace el Dockerfile:
+ * <ul>
+ *   <li>{@code openapi}: arranca el jar ejecutable (con Springdoc) y guarda {@code /api-docs} en
+ *       {@code static/openapi.json}, que el modo AOT sirve como fichero estático.</li>
+ *   <li>{@code cds}: crea {@code app.jsa}. Tiene que ejecutarse con la misma JVM que usará la imagen.</li>
+ * </ul>
+ * Por defecto se arranca contra H2 en modo MySQL; con {@code -Dstartup.dbUrl} contra un MySQL ya migrado.
+ *
+ * Solo usa el JDK, para poder compilarse con {@code javac} en el Dockerfile. Resultados en
+ * {@code startup.output} y logs de cada arranque en {@code startup.logs}.
+ * <pre>
+ * mvn clean package -DskipTests &amp;&amp; mvn -Pfast-startup package -DskipTests
+ * mvn -Pload-test test-compile exec:java \
+ *     -Dperf.main=com.bookmycut.perf.StartupBenchmark -Dstartup.runs=5
+ * </pre>
+ */
+public class StartupBenchmark {
+
+    private static final Path DIR = Path.of(System.getProperty("startup.dir", "target/fast-startup/app"));
+    private static final String MODES = System.getProperty("startup.modes", "jar,aot,aot-cds,native");
+    private static final int RUNS = Integer.getInteger("startup.runs", 5);
+    private static final int PORT = Integer.getInteger("startup.port", 8080);
+    private static final String PROBE_PATH = System.getProperty("startup.path", "/api/servicios");
+    private static final long TIMEOUT_SECONDS = Long.getLong("startup.timeoutSeconds", 180);
+    /** openapi o cds: solo la ejecución de entrenamiento indicada. */
+    private static final String TRAIN = System.getProperty("startup.train", "");
+
+    private static final String DB_URL = System.getProperty("startup.dbUrl",
+            "jdbc:h2:mem:bookmycut;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DATE,VALUE,USER;DB_CLOSE_DELAY=-1");
+    private static final boolean H2 = DB_URL.startsWith("jdbc:h2");
+    private static final String DB_USER = System.getProperty("startup.dbUser", H2 ? "sa" : "root");
+    private static final String DB_PASSWORD = System.getProperty("startup.dbPassword", H2 ? "" : "root");
+
+    private static final Path FAT_JAR_DIR = Path.of(System.getProperty("startup.fatJarDir", "target"));
+    private static final Path NATIVE_IMAGE = Path.of(System.getProperty("startup.nativeImage",
+            "target/fast-startup/bookmycut-backend"));
+    private static final String OUTPUT = System.getProperty("startup.output", "target/startup-results.json");
+    private static final Path LOGS = Path.of(System.getProperty("startup.logs", "target/startup-logs"));
+
+    private static final String MAIN_CLASS = "com.bookmycut.BookMyCutApplication";
+    /** Peticiones públicas de la ejecución de entrenamiento, para que sus clases entren en el archivo CDS. */
+    private static final String[] TRAINING_PATHS = {
+            "/api/servicios", "/api/usuarios/public/estilistas", "/api/disponibilidades",
+            "/api/excepciones-horario", "/api/notificaciones"
+    };
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(500))
+            .build();
+
+    private record Mode(String name, List<String> command) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Files.createDirectories(LOGS);
+        if (TRAIN.equals("openapi")) {
+            exportOpenApi();
+            return;
+        }
+        if (TRAIN.equals("cds")) {
+            train(archive());
+            return;
+        }
+
+        Map<String, List<Long>> results = new LinkedHashMap<>();
+        Map<String, String> skipped = new LinkedHashMap<>();
+        for (String name : MODES.split(",")) {
+            String reason = prepare(name.trim());
+            if (reason != null) {
+                skipped.put(name.trim(), reason);
+                System.out.printf("[%s] omitido: %s%n", name.trim(), reason);
+                continue;
+            }
+            Mode mode = mode(name.trim());
+            List<Long> runs = new ArrayList<>();
+            for (int run = 1; run <= RUNS; run++) {
+                long millis = timeToFirstRequest(mode, run);
+                runs.add(millis);
+                System.out.printf("[%s] arranque %d: %d ms%n", mode.name(), run, millis);
+            }
+            results.put(mode.name(), runs);
+        }
+        report(results, skipped);
+    }
+
+    /**
+     * Comprueba que el modo se puede lanzar y entrena su archivo CDS si falta. Devuelve el motivo si no.
+     */
+    private static String prepare(String name) throws Exception {
+        switch (name) {
+            case "jar" -> {
+                return fatJar() != null ? null : "no hay jar ejecutable en " + FAT_JAR_DIR + " (mvn package)";
+            }
+            case "aot", "aot-cds" -> {
+                if (thinJar() == null) {
+                    return "falta " + DIR + " (mvn -Pfast-startup package)";
+                }
+                if (name.equals("aot-cds") && !Files.exists(archive())) {
+                    train(archive());
+                }
+                return null;
+            }
+            case "native" -> {
+                if (!Files.isExecutable(NATIVE_IMAGE)) {
+                    return "falta " + NATIVE_IMAGE + " (mvn -Pnative,fast-startup native:compile)";
+                }
+                return H2 ? "la imagen nativa no incluye H2: usar -Dstartup.dbUrl con MySQL" : null;
+            }
+            default -> {
+                return "modo desconocido";
+            }
+        }
+    }
+
+    private static Mode mode(String name) throws IOException {
+        List<String> command = switch (name) {
+            case "jar" -> fatJarCommand();
+            case "aot" -> aotCommand(null);
+            case "aot-cds" -> aotCommand("-XX:SharedArchiveFile=" + archive().toAbsolutePath());
+            case "native" -> new ArrayList<>(List.of(NATIVE_IMAGE.toString()));
+            default -> throw new IllegalArgumentException(name);
+        };
+        command.addAll(applicationArgs());
+        return new Mode(name, command);
+    }
+
+    /**
+     * PropertiesLauncher para poder añadir H2 ({@code loader.path}) sin tocar el jar.
+     */
+    private static List<String> fatJarCommand() throws IOException {
+        List<String> command = new ArrayList<>(List.of(java(), "-cp", fatJar().toString()));
+        if (H2) {
+            command.add("-Dloader.path=" + DIR.resolve("training/h2.jar"));
+        }
+        command.add("org.springframework.boot.loader.launch.PropertiesLauncher");
+        return command;
+    }
+
+    /**
+     * El classpath tiene que ser el mismo al crear el archivo CDS y al usarlo, y la imagen no incluye H2: el
+     * classpath es solo el jar fino y H2 va en el module path, que no impide usar el archivo sin él.
+     */
+    private static List<String> aotCommand(String cdsOption) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        if (cdsOption != null) {
+            command.add(cdsOption);
+        }
+        command.add("-Dspring.aot.enabled=true");
+        if (H2) {
+            command.addAll(List.of("--module-path", DIR.resolve("training/h2.jar").toAbsolutePath().toString(),
+                    "--add-modules", "com.h2database"));
+        }
+        command.addAll(List.of("-cp", thinJar().toAbsolutePath().toString(), MAIN_CLASS));
+        return command;
+    }
+
+    private static List<String> applicationArgs() {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=" + PORT,
+                "--management.server.port=-1",
+                "--spring.datasource.url=" + DB_URL,
+                "--spring.datasource.username=" + DB_USER,
+                "--spring.datasource.password=" + DB_PASSWORD,
+                "--rate-limit.enabled=false"));
+        if (H2) {
+            args.addAll(List.of(
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.jpa.properties.hibernate.dialect=",
+                    "--spring.jpa.hibernate.ddl-auto=create",
+                    // Las migraciones son SQL de MySQL. Con AOT el bean de Flyway queda fijado en la compilación
+                    // y enabled=false no tiene efecto: en una ubicación sin migraciones no aplica nada
+                    "--spring.flyway.enabled=false",
+                    "--spring.flyway.locations=classpath:db/sin-migraciones"));
+        }
+        return args;
+    }
+
+    private static long timeToFirstRequest(Mode mode, int run) throws Exception {
+        long start = System.nanoTime();
+        Process process = launch(mode.command(), mode.name() + "-" + run);
+        try {
+            awaitFirstRequest(process, mode.name());
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            stop(process);
+        }
+    }
+
+    /**
+     * Ejecución de entrenamiento con {@code -XX:ArchiveClassesAtExit}: el archivo se escribe al salir la JVM,
+     * por eso se para con SIGTERM (cierre ordenado) y no de forma forzada.
+     */
+    private static void train(Path archive) throws Exception {
+        System.out.printf("Entrenando %s%n", archive);
+        List<String> command = aotCommand("-XX:ArchiveClassesAtExit=" + archive.toAbsolutePath());
+        command.addAll(applicationArgs());
+        Process process = launch(command, "train-cds");
+        try {
+            awaitFirstRequest(process, "train");
+            for (String path : TRAINING_PATHS) {
+                get(path);
+            }
+        } finally {
+            stop(process);
+        }
+    }
+
+    /**
+     * Documento OpenAPI generado por Springdoc en el jar ejecutable y guardado en {@code static/openapi.json}.
+     */
+    private static void exportOpenApi() throws Exception {
+        if (fatJar() == null) {
+            throw new IllegalStateException("No hay jar ejecutable en " + FAT_JAR_DIR + " (mvn package)");
+        }
+        List<String> command = fatJarCommand();
+        command.addAll(applicationArgs());
+        Process process = launch(command, "train-openapi");
+        try {
+            awaitFirstRequest(process, "openapi");
+            HttpResponse<String> response = get("/api/api-docs");
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("GET /api/api-docs devolvió " + response.statusCode());
+            }
+            Path output = DIR.resolve("static/openapi.json");
+            Files.createDirectories(output.getParent());
+            Files.writeString(output, response.body(), StandardCharsets.UTF_8);
+            System.out.printf("OpenAPI exportado a %s%n", output);
+        } finally {
+            stop(process);
+        }
+    }
+
+    private static Process launch(List<String> command, String logName) throws IOException {
+        File log = LOGS.resolve(logName + ".log").toFile();
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+    }
+
+    private static void awaitFirstRequest(Process process, String name) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("[" + name + "] el backend terminó con código " + process.exitValue()
+                        + " (ver " + LOGS + ")");
+            }
+            try {
+                if (get(PROBE_PATH).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // Todavía no escucha
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("[" + name + "] sin respuesta en " + TIMEOUT_SECONDS + " s");
+    }
+
+    private static HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(60, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static Path archive() {
+        return DIR.resolve("app.jsa");
+    }
+
+    private static Path thinJar() throws IOException {
+        if (!Files.isDirectory(DIR)) {
+            return null;
+        }
+        try (var files = Files.list(DIR)) {
+            return files.filter(file -> file.toString().endsWith(".jar")).findFirst().orElse(null);
+        }
+    }
+
+    private static Path fatJar() throws IOException {
+        if (!Files.isDirectory(FAT_JAR_DIR)) {
+            return null;
+        }
+        try (var files = Files.list(FAT_JAR_DIR)) {
+            return files.filter(file -> file.toString().endsWith(".jar")).findFirst().orElse(null);
+        }
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static void report(Map<String, List<Long>> results, Map<String, String> skipped) throws IOException {
+        Long baseline = null;
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"javaVersion\": \"").append(System.getProperty("java.version")).append("\",\n");
+        json.append("  \"database\": \"").append(H2 ? "h2" : "mysql").append("\",\n");
+        json.append("  \"probe\": \"").append(PROBE_PATH).append("\",\n");
+        json.append("  \"modes\": {");
+
+        System.out.println();
+        System.out.printf("%-8s %10s %10s %10s %14s%n", "", "min (ms)", "p50 (ms)", "max (ms)", "p50 vs " + firstKey(results));
+        String separator = "\n";
+        for (Map.Entry<String, List<Long>> entry : results.entrySet()) {
+            long[] sorted = entry.getValue().stream().mapToLong(Long::longValue).sorted().toArray();
+            long median = sorted[sorted.length / 2];
+            if (baseline == null) {
+                baseline = median;
+            }
+            System.out.printf("%-8s %10d %10d %10d %14s%n", entry.getKey(), sorted[0], median, sorted[sorted.length - 1],
+                    String.format("%+.0f%%", (median - baseline) * 100.0 / baseline));
+            json.append(separator).append("    \"").append(entry.getKey()).append("\": {")
+                    .append("\"runsMs\": ").append(Arrays.toString(entry.getValue().toArray()))
+                    .append(", \"minMs\": ").append(sorted[0])
+                    .append(", \"medianMs\": ").append(median)
+                    .append(", \"maxMs\": ").append(sorted[sorted.length - 1]).append("}");
+            separator = ",\n";
+        }
+        json.append("\n  },\n  \"skipped\": {");
+        separator = "\n";
+        for (Map.Entry<String, String> entry : skipped.entrySet()) {
+            json.append(separator).append("    \"").append(entry.getKey()).append("\": \"")
+                    .append(entry.getValue().replace("\"", "'")).append("\"");
+            separator = ",\n";
+        }
+        json.append("\n  }\n}\n");
+
+        Path output = Path.of(OUTPUT);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (PrintStream out = new PrintStream(output.toFile(), StandardCharsets.UTF_8)) {
+            out.print(json);
+        }
+        System.out.printf("Resultados en %s%n", output);
+    }
+
+    private static String firstKey(Map<String, List<Long>> results) {
+        return results.isEmpty() ? "-" : results.keySet().iterator().next();
+    }
+}
@@ -0,0 +1,649 @@
+package com.bookmycut.perf;
+
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generador de datos sintéticos para pruebas de rendimiento: usuarios, servicios, disponibilidades,
+ * excepciones de horario, citas con sus servicios y notificaciones, con distribuciones parecidas a
+ * las de una peluquería real y volumen configurable hasta decenas de millones de filas.
+ *
+ * <ul>
+ *   <li>Estilistas con popularidad distinta; ocupación mayor los viernes y sábados y domingos cerrados.</li>
+ *   <li>Clientes habituales: unos pocos acumulan buena parte de las citas.</li>
+ *   <li>Citas pasadas FINALIZADA o CANCELADA y futuras CONFIRMADA o CANCELADA según {@code cancellationRate}.</li>
+ *   <li>Festivos para todo el salón y días de vacaciones por estilista, sin citas esos días.</li>
+ *   <li>Notificaciones de confirmación, recordatorio y cancelación, leídas casi todas las antiguas.</li>
+ * </ul>
+ *
+ * Cada estilista se genera en un hilo con su propio generador aleatorio derivado de la semilla y su
+ * propio bloque de IDs, por lo que el resultado es idéntico con cualquier número de hilos. Las filas
+ * se insertan con lotes JDBC confirmados por separado; en MySQL conviene
+ * {@code rewriteBatchedStatements=true} (se añade a la URL si falta) para que cada lote viaje como un
+ * único INSERT multi-fila.
+ *
+ * Uso independiente sobre una base de datos con las migraciones aplicadas (también sirve para las consultas
+ * de perf/sql):
+ * <pre>
+ * mvn -Pload-test test-compile exec:java \
+ *     -Dperf.main=com.bookmycut.perf.SyntheticDataGenerator \
+ *     -Ddata.url=jdbc:mysql://localhost:3306/bookmycut -Ddata.stylists=200 -Ddata.years=5 -Ddata.threads=8
+ * </pre>
+ * {@link EmbeddedBookingLoadTest} lo usa con {@code -Dload.generateHistory=true} y las mismas propiedades
+ * {@code data.*}.
+ */
+public class SyntheticDataGenerator {
+
+    private static final LocalTime OPENING = LocalTime.of(9, 0);
+    private static final LocalTime LUNCH_START = LocalTime.of(14, 0);
+    private static final LocalTime LUNCH_END = LocalTime.of(15, 0);
+    private static final LocalTime CLOSING = LocalTime.of(20, 0);
+    private static final int SLOT_MINUTES = 30;
+    private static final int SLOTS_PER_DAY = 22;
+    /** Notificaciones máximas por cita (confirmación, recordatorio y cancelación). */
+    private static final int MAX_NOTIFICATIONS_PER_APPOINTMENT = 3;
+    /** allocationSize de notificaciones_seq en {@code Notification}. */
+    private static final int NOTIFICATION_ALLOCATION_SIZE = 50;
+
+    private static final String[] SERVICE_NAMES = {"Corte de pelo", "Corte y peinado", "Tinte", "Mechas",
+            "Barba", "Alisado", "Permanente", "Tratamiento capilar", "Peinado de fiesta", "Recogido"};
+    private static final String[] FIRST_NAMES = {"Lucía", "Hugo", "Martina", "Daniel", "Sofía", "Pablo", "María",
+            "Álvaro", "Julia", "Adrián", "Paula", "David", "Carmen", "Javier", "Elena", "Sergio"};
+    private static final String[] LAST_NAMES = {"García", "Rodríguez", "González", "Fernández", "López",
+            "Martínez", "Sánchez", "Pérez", "Gómez", "Martín", "Jiménez", "Ruiz", "Hernández", "Díaz"};
+    private static final MonthDay[] HOLIDAYS = {MonthDay.of(1, 1), MonthDay.of(1, 6), MonthDay.of(5, 1),
+            MonthDay.of(8, 15), MonthDay.of(10, 12), MonthDay.of(11, 1), MonthDay.of(12, 6), MonthDay.of(12, 8),
+            MonthDay.of(12, 25)};
+
+    /**
+     * Parámetros del volumen generado. Con los valores por defecto (50 estilistas, 3 años) salen unas
+     * 500.000 citas y 1,2 millones de notificaciones; el número de citas crece linealmente con
+     * {@code stylists} y {@code years}.
+     */
+    public record Config(long seed, int stylists, int clientsPerStylist, int services, int years, int futureDays,
+                         double occupancy, double cancellationRate, int vacationDaysPerYear,
+                         int threads, int batchSize) {
+
+        public static Config fromSystemProperties() {
+            return new Config(
+                    Long.getLong("data.seed", 42L),
+                    Integer.getInteger("data.stylists", 50),
+                    Integer.getInteger("data.clientsPerStylist", 200),
+                    Integer.getInteger("data.services", SERVICE_NAMES.length),
+                    Integer.getInteger("data.years", 3),
+                    Integer.getInteger("data.futureDays", 60),
+                    Double.parseDouble(System.getProperty("data.occupancy", "0.6")),
+                    Double.parseDouble(System.getProperty("data.cancellationRate", "0.12")),
+                    Integer.getInteger("data.vacationDaysPerYear", 15),
+                    Integer.getInteger("data.threads", Runtime.getRuntime().availableProcessors()),
+                    Integer.getInteger("data.batchSize", 1000));
+        }
+
+        int totalDays() {
+            return years * 365 + futureDays;
+        }
+    }
+
+    public record Summary(long users, long appointments, long appointmentServices, long notifications,
+                          long scheduleExceptions, long elapsedMs) {
+    }
+
+    /** Primer ID libre de cada tabla al empezar; las filas generadas usan IDs explícitos a partir de ahí. */
+    private record IdBases(long user, long service, long availability, long exception, long appointment,
+                           long notification) {
+    }
+
+    private final DataSource dataSource;
+    private final Config config;
+    private final String password;
+
+    private final LongAdder users = new LongAdder();
+    private final LongAdder appointments = new LongAdder();
+    private final LongAdder appointmentServices = new LongAdder();
+    private final LongAdder notifications = new LongAdder();
+    private final LongAdder exceptions = new LongAdder();
+
+    public SyntheticDataGenerator(DataSource dataSource, Config config) {
+        this.dataSource = dataSource;
+        this.config = config;
+        // Una sola codificación para todos: "password123", como en los datos de prueba de db/seed
+        this.password = "{bcrypt}" + new BCryptPasswordEncoder(10).encode("password123");
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("data.url", "jdbc:mysql://localhost:3306/bookmycut");
+        if (url.startsWith("jdbc:mysql") && !url.contains("rewriteBatchedStatements")) {
+            url += (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+        }
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url,
+                System.getProperty("data.user", "root"), System.getProperty("data.password", "root"));
+        Config config = Config.fromSystemProperties();
+        System.out.printf("Generando datos en %s: %d estilistas, %d años de historia, %d hilos%n",
+                url, config.stylists(), config.years(), config.threads());
+        Summary summary = new SyntheticDataGenerator(dataSource, config).generate();
+        System.out.printf("Generados en %d s: %d usuarios, %d citas, %d servicios de cita, %d notificaciones, "
+                        + "%d excepciones de horario%n",
+                summary.elapsedMs() / 1000, summary.users(), summary.appointments(), summary.appointmentServices(),
+                summary.notifications(), summary.scheduleExceptions());
+    }
+
+    public Summary generate() throws SQLException, InterruptedException {
+        long start = System.currentTimeMillis();
+        IdBases ids;
+        try (Connection connection = dataSource.getConnection()) {
+            ids = new IdBases(
+                    nextId(connection, "usuarios", "usuario_id"),
+                    nextId(connection, "servicios", "servicio_id"),
+                    nextId(connection, "disponibilidades", "disp_id"),
+                    nextId(connection, "excepciones_horario", "excep_horario_id"),
+                    nextId(connection, "citas", "cita_id"),
+                    nextId(connection, "notificaciones", "notificacion_id"));
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate firstDay = today.minusYears(config.years());
+        long clients = (long) config.stylists() * config.clientsPerStylist();
+        long adminId = ids.user();
+        long firstStylistId = adminId + 1;
+        long firstClientId = firstStylistId + config.stylists();
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, config.threads()));
+        try {
+            // Fase 1: catálogo, estilistas, festivos y clientes (las citas dependen de ellos)
+            List<Future<?>> phase = new ArrayList<>();
+            phase.add(pool.submit(() -> {
+                writeCatalog(ids, adminId, firstStylistId, firstDay, today.plusDays(config.futureDays()));
+                return null;
+            }));
+            long chunk = Math.max(config.batchSize() * 10L, clients / Math.max(1, config.threads()) + 1);
+            for (long from = 0; from < clients; from += chunk) {
+                long fromIndex = from;
+                long toIndex = Math.min(clients, from + chunk);
+                phase.add(pool.submit(() -> {
+                    writeClients(firstClientId, fromIndex, toIndex);
+                    return null;
+                }));
+            }
+            await(phase);
+
+            // Fase 2: historial de cada estilista en paralelo
+            phase.clear();
+            for (int stylist = 0; stylist < config.stylists(); stylist++) {
+                int stylistIndex = stylist;
+                phase.add(pool.submit(() -> {
+                    writeStylistHistory(ids, adminId, stylistIndex, firstStylistId + stylistIndex,
+                            firstClientId, clients, firstDay, today);
+                    return null;
+                }));
+            }
+            await(phase);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            resetSequences(connection);
+        }
+        return new Summary(users.sum(), appointments.sum(), appointmentServices.sum(), notifications.sum(),
+                exceptions.sum(), System.currentTimeMillis() - start);
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Fase 1
+    // ---------------------------------------------------------------------------------------------
+
+    private void writeCatalog(IdBases ids, long adminId, long firstStylistId, LocalDate firstDay, LocalDate lastDay)
+            throws SQLException {
+        SplittableRandom random = new SplittableRandom(config.seed());
+        try (Connection connection = openBulkConnection();
+             PreparedStatement user = connection.prepareStatement(
+                     "INSERT INTO usuarios (usuario_id, name, username, email, password, role, active, phone, "
+                             + "created_date, last_modified_date) VALUES (?, ?, ?, ?, ?, ?, TRUE, ?, ?, ?)");
+             PreparedStatement admin = connection.prepareStatement(
+                     "INSERT INTO administradores (usuario_id) VALUES (?)");
+             PreparedStatement stylist = connection.prepareStatement(
+                     "INSERT INTO estilistas (usuario_id) VALUES (?)");
+             PreparedStatement service = connection.prepareStatement(
+                     "INSERT INTO servicios (servicio_id, name, description, duration, precio_unitario, "
+                             + "created_date, last_modified_date) VALUES (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement stylistService = connection.prepareStatement(
+                     "INSERT INTO estilista_servicio (estilista_id, servicio_id) VALUES (?, ?)");
+             PreparedStatement availability = connection.prepareStatement(
+                     "INSERT INTO disponibilidades (disp_id, estilista_id, dia_semana, hora_inicio, hora_fin) "
+                             + "VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement exception = connection.prepareStatement(
+                     "INSERT INTO excepciones_horario (excep_horario_id, estilista_id, admin_id, date, hora_inicio, "
+                             + "hora_fin, type, reason) VALUES (?, ?, ?, ?, NULL, NULL, 'NO_DISPONIBLE', ?)")) {
+            Timestamp created = Timestamp.valueOf(firstDay.atStartOfDay());
+            String suffix = Long.toString(config.seed(), 36);
+
+            addUser(user, adminId, "Administrador sintético", "admin-" + suffix, null, "ADMINISTRADOR", null, created);
+            user.executeBatch();
+            admin.setLong(1, adminId);
+            admin.executeUpdate();
+
+            for (int i = 0; i < config.stylists(); i++) {
+                addUser(user, firstStylistId + i, personName(random), "estilista" + i + "-" + suffix, null,
+                        "ESTILISTA", null, created);
+                stylist.setLong(1, firstStylistId + i);
+                stylist.addBatch();
+            }
+            user.executeBatch();
+            stylist.executeBatch();
+            users.add(1L + config.stylists());
+
+            for (int i = 0; i < config.services(); i++) {
+                int duration = 30 * (1 + random.nextInt(3));
+                service.setLong(1, ids.service() + i);
+                service.setString(2, SERVICE_NAMES[i % SERVICE_NAMES.length]
+                        + (i >= SERVICE_NAMES.length ? " " + (i / SERVICE_NAMES.length + 1) : ""));
+                service.setString(3, "Servicio generado para pruebas de rendimiento");
+                service.setInt(4, duration);
+                service.setBigDecimal(5, BigDecimal.valueOf(10L + random.nextInt(60)).add(new BigDecimal("0.50")));
+                service.setTimestamp(6, created);
+                service.setTimestamp(7, created);
+                service.addBatch();
+            }
+            service.executeBatch();
+
+            long availabilityId = ids.availability();
+            for (int i = 0; i < config.stylists(); i++) {
+                long stylistId = firstStylistId + i;
+                for (int s = 0; s < config.services(); s++) {
+                    // Cada estilista ofrece en torno al 70 % del catálogo
+                    if (random.nextDouble() < 0.7) {
+                        stylistService.setLong(1, stylistId);
+                        stylistService.setLong(2, ids.service() + s);
+                        stylistService.addBatch();
+                    }
+                }
+                for (DayOfWeek day : DayOfWeek.values()) {
+                    if (day == DayOfWeek.SUNDAY) {
+                        continue;
+                    }
+                    addAvailability(availability, availabilityId++, stylistId, day, OPENING, LUNCH_START);
+                    addAvailability(availability, availabilityId++, stylistId, day, LUNCH_END, CLOSING);
+                }
+            }
+            stylistService.executeBatch();
+            availability.executeBatch();
+
+            // Festivos para todo el salón: los primeros IDs del bloque de excepciones
+            long exceptionId = ids.exception();
+            for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+                if (isHoliday(day)) {
+                    exception.setLong(1, exceptionId++);
+                    exception.setNull(2, Types.BIGINT);
+                    exception.setLong(3, adminId);
+                    exception.setDate(4, Date.valueOf(day));
+                    exception.setString(5, "Festivo");
+                    exception.addBatch();
+                    exceptions.increment();
+                }
+            }
+            exception.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private void writeClients(long firstClientId, long fromIndex, long toIndex) throws SQLException {
+        try (Connection connection = openBulkConnection();
+             PreparedStatement user = connection.prepareStatement(
+                     "INSERT INTO usuarios (usuario_id, name, username, email, password, role, active, phone, "
+                             + "created_date, last_modified_date) VALUES (?, ?, ?, ?, ?, ?, TRUE, ?, ?, ?)");
+             PreparedStatement client = connection.prepareStatement(
+                     "INSERT INTO clientes (usuario_id, phone) VALUES (?, ?)")) {
+            LocalDateTime now = LocalDateTime.now();
+            int pending = 0;
+            for (long index = fromIndex; index < toIndex; index++) {
+                // Generador por cliente: los datos no dependen de cómo se reparten los bloques entre hilos
+                SplittableRandom random = new SplittableRandom(config.seed() * 1_000_003L + index);
+                long userId = firstClientId + index;
+                String phone = String.valueOf(600_000_000 + random.nextInt(100_000_000));
+                Timestamp created = Timestamp.valueOf(now.minusDays(random.nextInt(Math.max(1, config.totalDays()))));
+                addUser(user, userId, personName(random), null,
+                        "cliente" + index + "." + Long.toString(config.seed(), 36) + "@sintetico.bookmycut.com",
+                        "CLIENTE", phone, created);
+                client.setLong(1, userId);
+                client.setString(2, phone);
+                client.addBatch();
+                if (++pending == config.batchSize()) {
+                    user.executeBatch();
+                    client.executeBatch();
+                    connection.commit();
+                    users.add(pending);
+                    pending = 0;
+                }
+            }
+            user.executeBatch();
+            client.executeBatch();
+            connection.commit();
+            users.add(pending);
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Fase 2
+    // ---------------------------------------------------------------------------------------------
+
+    private void writeStylistHistory(IdBases ids, long adminId, int stylistIndex, long stylistId,
+                                     long firstClientId, long clients, LocalDate firstDay, LocalDate today)
+            throws SQLException {
+        SplittableRandom random = new SplittableRandom(config.seed() * 31L + stylistIndex);
+        long maxAppointments = (long) config.totalDays() * SLOTS_PER_DAY;
+        long appointmentId = ids.appointment() + stylistIndex * maxAppointments;
+        long notificationId = ids.notification() + stylistIndex * maxAppointments * MAX_NOTIFICATIONS_PER_APPOINTMENT;
+        // Tras el bloque de festivos (como mucho uno de cada 30 días)
+        long exceptionId = ids.exception() + config.totalDays() / 30 + 1
+                + (long) stylistIndex * (config.years() + 1) * config.vacationDaysPerYear();
+        // Popularidad del estilista: entre la mitad y el total de la ocupación base
+        double popularity = 0.5 + random.nextDouble() * 0.5;
+        LocalDate lastDay = today.plusDays(config.futureDays());
+        Set<LocalDate> vacations = vacationDays(random, firstDay, lastDay);
+
+        try (Connection connection = openBulkConnection();
+             PreparedStatement appointment = connection.prepareStatement(
+                     "INSERT INTO citas (cita_id, cliente_id, estilista_id, status, date, hora_inicio, hora_fin, "
+                             + "telefono_cliente, precio_total, created_date, last_modified_date) "
+                             + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement appointmentService = connection.prepareStatement(
+                     "INSERT INTO cita_servicio (cita_id, servicio_id) VALUES (?, ?)");
+             PreparedStatement notification = connection.prepareStatement(
+                     "INSERT INTO notificaciones (notificacion_id, usuario_id, title, message, type, is_read, "
+                             + "related_appointment_id, created_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement exception = connection.prepareStatement(
+                     "INSERT INTO excepciones_horario (excep_horario_id, estilista_id, admin_id, date, hora_inicio, "
+                             + "hora_fin, type, reason) VALUES (?, ?, ?, ?, NULL, NULL, 'NO_DISPONIBLE', ?)")) {
+            for (LocalDate vacation : vacations) {
+                exception.setLong(1, exceptionId++);
+                exception.setLong(2, stylistId);
+                exception.setLong(3, adminId);
+                exception.setDate(4, Date.valueOf(vacation));
+                exception.setString(5, "Vacaciones");
+                exception.addBatch();
+            }
+            exception.executeBatch();
+            exceptions.add(vacations.size());
+
+            int pending = 0;
+            for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+                if (day.getDayOfWeek() == DayOfWeek.SUNDAY || isHoliday(day) || vacations.contains(day)) {
+                    continue;
+                }
+                double occupancy = Math.min(0.95, config.occupancy() * popularity * dayFactor(day.getDayOfWeek()));
+                int slot = 0;
+                while (slot < SLOTS_PER_DAY) {
+                    LocalTime start = slotStart(slot);
+                    if (random.nextDouble() >= occupancy) {
+                        slot++;
+                        continue;
+                    }
+                    // 1 a 3 servicios de media hora; la cita no cruza la pausa de mediodía ni el cierre
+                    int serviceCount = 1 + (random.nextDouble() < 0.7 ? 0 : random.nextInt(1, 3));
+                    while (serviceCount > 1 && !fits(start, serviceCount)) {
+                        serviceCount--;
+                    }
+                    LocalTime end = start.plusMinutes((long) SLOT_MINUTES * serviceCount);
+                    long clientId = firstClientId + habitualClient(random, clients);
+                    boolean past = day.isBefore(today);
+                    boolean cancelled = random.nextDouble() < config.cancellationRate();
+                    String status = cancelled ? "CANCELADA" : past ? "FINALIZADA" : "CONFIRMADA";
+                    LocalDateTime bookedAt = day.atTime(start).minusDays(1 + random.nextInt(30))
+                            .minusMinutes(random.nextInt(600));
+
+                    BigDecimal price = BigDecimal.ZERO;
+                    int firstService = random.nextInt(config.services());
+                    for (int s = 0; s < serviceCount; s++) {
+                        appointmentService.setLong(1, appointmentId);
+                        appointmentService.setLong(2, ids.service() + (firstService + s) % config.services());
+                        appointmentService.addBatch();
+                        price = price.add(BigDecimal.valueOf(15L + 10L * ((firstService + s) % 5)));
+                    }
+                    appointmentServices.add(serviceCount);
+
+                    appointment.setLong(1, appointmentId);
+                    appointment.setLong(2, clientId);
+                    appointment.setLong(3, stylistId);
+                    appointment.setString(4, status);
+                    appointment.setDate(5, Date.valueOf(day));
+                    appointment.setTime(6, Time.valueOf(start));
+                    appointment.setTime(7, Time.valueOf(end));
+                    appointment.setString(8, String.valueOf(600_000_000 + random.nextInt(100_000_000)));
+                    appointment.setBigDecimal(9, price);
+                    appointment.setTimestamp(10, Timestamp.valueOf(bookedAt));
+                    appointment.setTimestamp(11, Timestamp.valueOf(cancelled ? bookedAt.plusDays(1) : bookedAt));
+                    appointment.addBatch();
+
+                    addNotification(notification, notificationId++, clientId, "Cita confirmada",
+                            "Tu cita del " + day + " a las " + start + " está confirmada", "APPOINTMENT_CONFIRMED",
+                            past || random.nextBoolean(), appointmentId, bookedAt);
+                    int appointmentNotifications = 1;
+                    LocalDateTime reminderAt = day.minusDays(1).atTime(start);
+                    if (!cancelled && reminderAt.isBefore(LocalDateTime.now())) {
+                        addNotification(notification, notificationId++, clientId, "Recordatorio de cita",
+                                "Mañana tienes cita a las " + start, "APPOINTMENT_REMINDER",
+                                past && random.nextDouble() < 0.9, appointmentId, reminderAt);
+                        appointmentNotifications++;
+                    }
+                    if (cancelled) {
+                        addNotification(notification, notificationId++, clientId, "Cita cancelada",
+                                "Tu cita del " + day + " ha sido cancelada", "APPOINTMENT_CANCELLED",
+                                past && random.nextDouble() < 0.9, appointmentId, bookedAt.plusDays(1));
+                        appointmentNotifications++;
+                    }
+                    notificationId += MAX_NOTIFICATIONS_PER_APPOINTMENT - appointmentNotifications;
+                    notifications.add(appointmentNotifications);
+                    appointmentId++;
+                    appointments.increment();
+                    slot += serviceCount;
+
+                    if (++pending >= config.batchSize()) {
+                        flush(connection, appointment, appointmentService, notification);
+                        pending = 0;
+                    }
+                }
+            }
+            flush(connection, appointment, appointmentService, notification);
+        }
+    }
+
+    private static void flush(Connection connection, PreparedStatement appointment,
+                              PreparedStatement appointmentService, PreparedStatement notification)
+            throws SQLException {
+        // Primero las citas: servicios y notificaciones las referencian
+        appointment.executeBatch();
+        appointmentService.executeBatch();
+        notification.executeBatch();
+        connection.commit();
+    }
+
+    private Set<LocalDate> vacationDays(SplittableRandom random, LocalDate firstDay, LocalDate lastDay) {
+        Set<LocalDate> vacations = new HashSet<>();
+        for (int year = firstDay.getYear(); year <= lastDay.getYear(); year++) {
+            // Dos tramos al año: uno en verano y otro repartido por el resto del año
+            LocalDate summer = LocalDate.of(year, 7, 1).plusDays(random.nextInt(55));
+            int summerDays = config.vacationDaysPerYear() * 2 / 3;
+            for (int i = 0; i < summerDays; i++) {
+                vacations.add(summer.plusDays(i));
+            }
+            LocalDate other = LocalDate.of(year, 1, 8).plusDays(random.nextInt(330));
+            for (int i = 0; i < config.vacationDaysPerYear() - summerDays; i++) {
+                vacations.add(other.plusDays(i));
+            }
+        }
+        vacations.removeIf(day -> day.isBefore(firstDay) || day.isAfter(lastDay));
+        return vacations;
+    }
+
+    private static double dayFactor(DayOfWeek day) {
+        return switch (day) {
+            case MONDAY -> 0.7;
+            case TUESDAY, WEDNESDAY -> 0.9;
+            case THURSDAY -> 1.0;
+            case FRIDAY -> 1.2;
+            case SATURDAY -> 1.4;
+            default -> 0.0;
+        };
+    }
+
+    /** Sesgo hacia los primeros clientes: aproximadamente el 20 % de los clientes reúne la mitad de las citas. */
+    private static long habitualClient(SplittableRandom random, long clients) {
+        double u = random.nextDouble();
+        return Math.min(clients - 1, (long) (clients * u * u));
+    }
+
+    private static LocalTime slotStart(int slot) {
+        LocalTime start = OPENING.plusMinutes((long) SLOT_MINUTES * slot);
+        return start.isBefore(LUNCH_START) ? start : start.plusMinutes(60);
+    }
+
+    private static boolean fits(LocalTime start, int slots) {
+        LocalTime end = start.plusMinutes((long) SLOT_MINUTES * slots);
+        return start.isBefore(LUNCH_START) ? !end.isAfter(LUNCH_START) : !end.isAfter(CLOSING);
+    }
+
+    private static boolean isHoliday(LocalDate day) {
+        MonthDay monthDay = MonthDay.from(day);
+        for (MonthDay holiday : HOLIDAYS) {
+            if (holiday.equals(monthDay)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // JDBC
+    // ---------------------------------------------------------------------------------------------
+
+    private Connection openBulkConnection() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        if (isMySql(connection)) {
+            // Los IDs son coherentes por construcción: evitar la comprobación fila a fila acelera la carga
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET SESSION foreign_key_checks = 0, unique_checks = 0");
+            }
+        }
+        return connection;
+    }
+
+    private void addUser(PreparedStatement statement, long id, String name, String username, String email,
+                         String role, String phone, Timestamp created) throws SQLException {
+        statement.setLong(1, id);
+        statement.setString(2, name);
+        statement.setString(3, username);
+        statement.setString(4, email);
+        statement.setString(5, password);
+        statement.setString(6, role);
+        statement.setString(7, phone);
+        statement.setTimestamp(8, created);
+        statement.setTimestamp(9, created);
+        statement.addBatch();
+    }
+
+    private static void addAvailability(PreparedStatement statement, long id, long stylistId, DayOfWeek day,
+                                        LocalTime start, LocalTime end) throws SQLException {
+        statement.setLong(1, id);
+        statement.setLong(2, stylistId);
+        statement.setString(3, day.name());
+        statement.setTime(4, Time.valueOf(start));
+        statement.setTime(5, Time.valueOf(end));
+        statement.addBatch();
+    }
+
+    private static void addNotification(PreparedStatement statement, long id, long userId, String title,
+                                        String message, String type, boolean read, long appointmentId,
+                                        LocalDateTime created) throws SQLException {
+        statement.setLong(1, id);
+        statement.setLong(2, userId);
+        statement.setString(3, title);
+        statement.setString(4, message);
+        statement.setString(5, type);
+        statement.setBoolean(6, read);
+        statement.setLong(7, appointmentId);
+        statement.setTimestamp(8, Timestamp.valueOf(created));
+        statement.addBatch();
+    }
+
+    private static String personName(SplittableRandom random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]
+                + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    private static long nextId(Connection connection, String table, String column) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(" + column + "), 0) + 1 FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * Deja los generadores de IDs por encima de los insertados: notificaciones_seq (tabla en MySQL,
+     * secuencia en H2) y, en H2, las columnas identity, que no avanzan con inserciones explícitas.
+     */
+    private static void resetSequences(Connection connection) throws SQLException {
+        // El optimizador pooled de Hibernate usa el valor leído como límite superior del bloque de 50
+        long nextNotification = nextId(connection, "notificaciones", "notificacion_id") + NOTIFICATION_ALLOCATION_SIZE;
+        try (Statement statement = connection.createStatement()) {
+            if (isMySql(connection)) {
+                statement.executeUpdate("UPDATE notificaciones_seq SET next_val = GREATEST(next_val, "
+                        + nextNotification + ")");
+                return;
+            }
+            statement.execute("ALTER SEQUENCE notificaciones_seq RESTART WITH " + nextNotification);
+            String[][] identities = {{"usuarios", "usuario_id"}, {"servicios", "servicio_id"},
+                    {"disponibilidades", "disp_id"}, {"excepciones_horario", "excep_horario_id"},
+                    {"citas", "cita_id"}};
+            for (String[] identity : identities) {
+                statement.execute("ALTER TABLE " + identity[0] + " ALTER COLUMN " + identity[1]
+                        + " RESTART WITH " + nextId(connection, identity[0], identity[1]));
+            }
+        }
+    }
+
+    private static boolean isMySql(Connection connection) throws SQLException {
+        return connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+    }
+
+    private static void await(List<Future<?>> futures) throws SQLException, InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof SQLException sqlException) {
+                    throw sqlException;
+                }
+                throw new IllegalStateException("Error generando datos", e.getCause());
+            }
+        }
+    }
+}
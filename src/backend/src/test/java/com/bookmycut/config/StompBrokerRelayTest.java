@@ -0,0 +1,146 @@
+package com.bookmycut.config;
+
+import com.bookmycut.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Envío de notificaciones a través del relay STOMP con el mismo RabbitMQ que docker-compose (perfil
+ * multinode). Requiere Docker: sin él, las pruebas se omiten.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Tests de integración del relay STOMP con RabbitMQ")
+class StompBrokerRelayTest {
+
+    private static final int STOMP_PORT = 61613;
+    private static final String LOGIN = "bookmycut";
+
+    @Container
+    private static final GenericContainer<?> rabbitmq = new GenericContainer<>("rabbitmq:3.13-management")
+            .withCommand("sh", "-c",
+                    "rabbitmq-plugins enable --offline rabbitmq_stomp && exec docker-entrypoint.sh rabbitmq-server")
+            .withEnv("RABBITMQ_DEFAULT_USER", LOGIN)
+            .withEnv("RABBITMQ_DEFAULT_PASS", LOGIN)
+            .withExposedPorts(STOMP_PORT)
+            .waitingFor(Wait.forListeningPort());
+
+    private final BlockingQueue<Message<?>> toClients = new LinkedBlockingQueue<>();
+    private ExecutorSubscribableChannel clientInboundChannel;
+    private ExecutorSubscribableChannel brokerChannel;
+    private StompBrokerRelayMessageHandler relay;
+
+    @BeforeEach
+    void setUp() {
+        clientInboundChannel = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel clientOutboundChannel = new ExecutorSubscribableChannel();
+        clientOutboundChannel.subscribe(toClients::add);
+        brokerChannel = new ExecutorSubscribableChannel();
+
+        relay = new StompBrokerRelayMessageHandler(clientInboundChannel, clientOutboundChannel, brokerChannel,
+                List.of("/topic", "/queue"));
+        relay.setRelayHost(rabbitmq.getHost());
+        relay.setRelayPort(rabbitmq.getMappedPort(STOMP_PORT));
+        relay.setClientLogin(LOGIN);
+        relay.setClientPasscode(LOGIN);
+        relay.setSystemLogin(LOGIN);
+        relay.setSystemPasscode(LOGIN);
+        relay.start();
+        await().atMost(30, TimeUnit.SECONDS).until(relay::isBrokerAvailable);
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.stop();
+    }
+
+    @Test
+    @DisplayName("Debería entregar por el relay las notificaciones enviadas al destino del usuario")
+    void testDeliversUserTopicThroughRelay() throws Exception {
+        // Given
+        String destination = NotificationService.USER_TOPIC_PREFIX + 42L;
+        connect("s1");
+        subscribe("s1", "sub-1", destination);
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate(brokerChannel);
+        messagingTemplate.setMessageConverter(new MappingJackson2MessageConverter());
+
+        // When: la suscripción se confirma de forma asíncrona, así que se reenvía hasta recibir el mensaje
+        Message<?> received = null;
+        for (int attempt = 0; attempt < 20 && received == null; attempt++) {
+            messagingTemplate.convertAndSend(destination, Map.of("unreadCount", 3L));
+            received = nextFrame("s1", StompCommand.MESSAGE, 500);
+        }
+
+        // Then
+        assertNotNull(received, "El relay no entregó el mensaje");
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(received);
+        assertEquals(destination, headers.getDestination());
+        assertEquals("sub-1", headers.getSubscriptionId());
+        assertTrue(new String((byte[]) received.getPayload(), StandardCharsets.UTF_8).contains("\"unreadCount\":3"));
+    }
+
+    private void connect(String sessionId) throws InterruptedException {
+        StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+        connect.setSessionId(sessionId);
+        connect.setAcceptVersion("1.2");
+        connect.setHeartbeat(0, 0);
+        clientInboundChannel.send(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()));
+        assertNotNull(nextFrame(sessionId, StompCommand.CONNECTED, 10_000), "El broker no aceptó la conexión");
+    }
+
+    private void subscribe(String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor subscribe = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        subscribe.setSessionId(sessionId);
+        subscribe.setSubscriptionId(subscriptionId);
+        subscribe.setDestination(destination);
+        clientInboundChannel.send(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+    }
+
+    /**
+     * Siguiente trama del comando indicado enviada a la sesión, o null si no llega a tiempo. Una trama ERROR
+     * (p. ej. un destino que el broker no admite) hace fallar la prueba.
+     */
+    private Message<?> nextFrame(String sessionId, StompCommand command, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        long remaining;
+        while ((remaining = deadline - System.currentTimeMillis()) > 0) {
+            Message<?> message = toClients.poll(remaining, TimeUnit.MILLISECONDS);
+            if (message == null) {
+                return null;
+            }
+            StompHeaderAccessor headers = StompHeaderAccessor.wrap(message);
+            if (!sessionId.equals(headers.getSessionId())) {
+                continue;
+            }
+            assertNotEquals(StompCommand.ERROR, headers.getCommand(),
+                    () -> "El broker respondió con ERROR: " + headers.getMessage());
+            if (command == headers.getCommand()) {
+                return message;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,63 @@
+package com.bookmycut.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios para WebSocketSessionMetrics")
+class WebSocketSessionMetricsTest {
+
+    @Mock
+    private WebSocketHandler handler;
+
+    @Mock
+    private WebSocketSession session;
+
+    @InjectMocks
+    private WebSocketSessionMetrics metrics;
+
+    @Test
+    @DisplayName("Debería contar las sesiones abiertas y delegar en el handler original")
+    void testCountsOpenSessions() throws Exception {
+        // Given
+        WebSocketHandler decorated = metrics.decorate(handler);
+
+        // When
+        decorated.afterConnectionEstablished(session);
+        decorated.afterConnectionEstablished(session);
+        decorated.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        // Then
+        assertEquals(1, metrics.getOpenSessions());
+        assertEquals(2, metrics.getOpenedSessions());
+        assertEquals(0, metrics.getSlowConsumersDropped());
+        verify(handler, times(2)).afterConnectionEstablished(session);
+        verify(handler).afterConnectionClosed(session, CloseStatus.NORMAL);
+    }
+
+    @Test
+    @DisplayName("Debería contar las sesiones cerradas por consumidor lento")
+    void testCountsSlowConsumers() throws Exception {
+        // Given
+        when(session.getId()).thenReturn("s1");
+        WebSocketHandler decorated = metrics.decorate(handler);
+        decorated.afterConnectionEstablished(session);
+
+        // When
+        decorated.afterConnectionClosed(session, CloseStatus.SESSION_NOT_RELIABLE);
+
+        // Then
+        assertEquals(0, metrics.getOpenSessions());
+        assertEquals(1, metrics.getSlowConsumersDropped());
+    }
+}
@@ -0,0 +1,64 @@
+package com.bookmycut.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests Unitarios para LogSamplingTurboFilter")
+class LogSamplingTurboFilterTest {
+
+    private LoggerContext loggerContext;
+    private LogSamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        loggerContext = new LoggerContext();
+        loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        filter = new LogSamplingTurboFilter();
+        filter.setContext(loggerContext);
+        filter.setRules("com.bookmycut.service=4, com.bookmycut.service.NotificationService=10");
+        filter.start();
+    }
+
+    private int accepted(String loggerName, Level level, int events) {
+        Logger logger = loggerContext.getLogger(loggerName);
+        int accepted = 0;
+        for (int i = 0; i < events; i++) {
+            if (filter.decide(null, logger, level, "evento", null, null) != FilterReply.DENY) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    @Test
+    @DisplayName("Debería escribir uno de cada N eventos INFO según la regla más específica")
+    void testSamplesByMostSpecificRule() {
+        assertEquals(10, accepted("com.bookmycut.service.NotificationService", Level.INFO, 100));
+        assertEquals(25, accepted("com.bookmycut.service.AppointmentService", Level.INFO, 100));
+    }
+
+    @Test
+    @DisplayName("No debería muestrear WARN/ERROR ni loggers sin regla")
+    void testNeverSamplesWarningsOrUnmatchedLoggers() {
+        assertEquals(100, accepted("com.bookmycut.service.NotificationService", Level.WARN, 100));
+        assertEquals(100, accepted("com.bookmycut.service.NotificationService", Level.ERROR, 100));
+        assertEquals(100, accepted("com.bookmycut.controller.AppointmentController", Level.INFO, 100));
+        assertEquals(100, accepted("com.bookmycut.serviceextra.Foo", Level.INFO, 100));
+    }
+
+    @Test
+    @DisplayName("Los eventos de niveles desactivados no deberían consumir el contador")
+    void testDisabledLevelsDoNotConsumeCounter() {
+        accepted("com.bookmycut.service.NotificationService", Level.DEBUG, 7);
+
+        Logger logger = loggerContext.getLogger("com.bookmycut.service.NotificationService");
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "evento", null, null));
+    }
+}
@@ -0,0 +1,57 @@
+package com.bookmycut.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests Unitarios para RequestIdFilter")
+class RequestIdFilterTest {
+
+    private final RequestIdFilter filter = new RequestIdFilter();
+
+    private String perform(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        filter.doFilter(request, response, (req, res) -> seen.set(MDC.get(RequestIdFilter.MDC_KEY)));
+        return seen.get();
+    }
+
+    @Test
+    @DisplayName("Debería reutilizar un X-Request-Id válido y limpiar el MDC al terminar")
+    void testReusesIncomingRequestId() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/citas");
+        request.addHeader(RequestIdFilter.HEADER, "abc-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        String inChain = perform(request, response);
+
+        // Then
+        assertEquals("abc-123", inChain);
+        assertEquals("abc-123", response.getHeader(RequestIdFilter.HEADER));
+        assertNull(MDC.get(RequestIdFilter.MDC_KEY));
+    }
+
+    @Test
+    @DisplayName("Debería generar un identificador nuevo si la cabecera falta o no es válida")
+    void testGeneratesRequestIdWhenMissingOrInvalid() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/citas");
+        request.addHeader(RequestIdFilter.HEADER, "valor\ninyectado");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        String inChain = perform(request, response);
+
+        // Then
+        assertNotNull(inChain);
+        assertNotEquals("valor\ninyectado", inChain);
+        assertEquals(inChain, response.getHeader(RequestIdFilter.HEADER));
+    }
+}
@@ -0,0 +1,77 @@
+package com.bookmycut.metrics;
+
+import com.bookmycut.dto.NotificationDTO;
+import com.bookmycut.entities.Notification;
+import com.bookmycut.exception.ConflictException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios para BookingMetricsAspect")
+class BookingMetricsAspectTest {
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    private MeterRegistry meterRegistry;
+    private BookingMetricsAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new BookingMetricsAspect();
+        ReflectionTestUtils.setField(aspect, "meterRegistry", meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Debería registrar la duración de la creación con el resultado de la operación")
+    void testTimesCreateByOutcome() throws Throwable {
+        // Given
+        when(joinPoint.proceed())
+                .thenReturn("ok")
+                .thenThrow(new ConflictException("La cita se solapa con otra existente"));
+
+        // When
+        aspect.timeCreate(joinPoint);
+        assertThrows(ConflictException.class, () -> aspect.timeCreate(joinPoint));
+
+        // Then
+        assertEquals(1, meterRegistry.get("bookmycut.appointments.save")
+                .tags("operation", "create", "outcome", "ok").timer().count());
+        assertEquals(1, meterRegistry.get("bookmycut.appointments.save")
+                .tags("operation", "create", "outcome", "conflict").timer().count());
+    }
+
+    @Test
+    @DisplayName("Debería contar las notificaciones creadas por tipo")
+    void testCountsNotificationsByType() {
+        // Given
+        NotificationDTO reminder = new NotificationDTO();
+        reminder.setType(Notification.NotificationType.APPOINTMENT_REMINDER);
+        NotificationDTO confirmed = new NotificationDTO();
+        confirmed.setType(Notification.NotificationType.APPOINTMENT_CONFIRMED);
+
+        // When
+        aspect.countNotifications(List.of(reminder, reminder, confirmed));
+        aspect.countNotifications(confirmed);
+
+        // Then
+        assertEquals(2.0, meterRegistry.get("bookmycut.notifications.created")
+                .tag("type", "APPOINTMENT_REMINDER").counter().count());
+        assertEquals(2.0, meterRegistry.get("bookmycut.notifications.created")
+                .tag("type", "APPOINTMENT_CONFIRMED").counter().count());
+    }
+}
@@ -0,0 +1,249 @@
+package com.bookmycut.metrics;
+
+import com.bookmycut.entities.Appointment;
+import com.bookmycut.entities.Availability;
+import com.bookmycut.entities.Notification;
+import com.bookmycut.entities.ServiceOffer;
+import com.bookmycut.entities.User;
+import com.bookmycut.repositories.AppointmentRepository;
+import com.bookmycut.repositories.AvailabilityRepository;
+import com.bookmycut.repositories.NotificationRepository;
+import com.bookmycut.repositories.ServiceOfferRepository;
+import com.bookmycut.repositories.UserRepository;
+import com.bookmycut.util.JwtUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Presupuesto de sentencias SQL de los endpoints más usados, con datos suficientes para que un N+1 lo supere:
+ * 20 citas de 5 clientes y 4 estilistas con 2 servicios cada una, 20 franjas de disponibilidad y 15
+ * notificaciones.
+ *
+ * El presupuesto no depende del número de filas: si una consulta por fila vuelve a aparecer (p. ej. cargar el
+ * cliente o los servicios de cada cita por separado), la prueba falla indicando la sentencia más repetida.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sql-budget;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DATE,VALUE,USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.sql.init.mode=never",
+        "management.server.port=-1",
+        "rate-limit.enabled=false",
+        "sql.budget.expose-header=true"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Presupuesto de sentencias SQL de los endpoints principales")
+class HotEndpointSqlBudgetTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(7);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceOfferRepository serviceOfferRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private User admin;
+    private User client;
+    private User stylist;
+
+    @BeforeAll
+    void seed() {
+        admin = userRepository.save(user("Administrador", "admin", null, User.Role.ADMINISTRADOR));
+        List<User> stylists = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            stylists.add(userRepository.save(user("Estilista " + i, "estilista" + i, null, User.Role.ESTILISTA)));
+        }
+        List<User> clients = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            clients.add(userRepository.save(user("Cliente " + i, null, "cliente" + i + "@bookmycut.com", User.Role.CLIENTE)));
+        }
+        List<ServiceOffer> services = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ServiceOffer service = new ServiceOffer();
+            service.setName("Servicio " + i);
+            service.setDuration(30);
+            service.setUnitPrice(new BigDecimal("15.00"));
+            services.add(serviceOfferRepository.save(service));
+        }
+        stylist = stylists.get(0);
+        client = clients.get(0);
+
+        for (int i = 0; i < 20; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setClient(clients.get(i % clients.size()));
+            appointment.setStylist(stylists.get(i % stylists.size()));
+            appointment.setDate(DATE);
+            appointment.setStartTime(LocalTime.of(9, 0).plusMinutes(30L * (i / stylists.size())));
+            appointment.setEndTime(appointment.getStartTime().plusMinutes(30));
+            appointment.setTotalPrice(new BigDecimal("30.00"));
+            appointment.setServices(new ArrayList<>(List.of(services.get(i % 4), services.get((i + 1) % 4))));
+            appointmentRepository.save(appointment);
+        }
+        for (User each : stylists) {
+            for (DayOfWeek day : List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+                    DayOfWeek.THURSDAY, DayOfWeek.FRIDAY)) {
+                Availability availability = new Availability();
+                availability.setStylist(each);
+                availability.setDayOfWeek(day);
+                availability.setStartTime(LocalTime.of(9, 0));
+                availability.setEndTime(LocalTime.of(18, 0));
+                availabilityRepository.save(availability);
+            }
+        }
+        for (int i = 0; i < 15; i++) {
+            Notification notification = new Notification();
+            notification.setUser(client);
+            notification.setTitle("Notificación " + i);
+            notification.setMessage("Mensaje " + i);
+            notificationRepository.save(notification);
+        }
+    }
+
+    private static User user(String name, String username, String email, User.Role role) {
+        User user = new User();
+        user.setName(name);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword("password123");
+        user.setRole(role);
+        return user;
+    }
+
+    private MockHttpServletRequestBuilder getAs(User user, String path) {
+        String subject = user.getUsername() != null ? user.getUsername() : user.getEmail();
+        String token = jwtUtil.generateToken(subject, user.getUserId(), List.of("ROLE_" + user.getRole().name()));
+        return get("/api" + path).contextPath("/api").header("Authorization", "Bearer " + token);
+    }
+
+    @Test
+    @DisplayName("GET /citas (administrador) no debería consultar el cliente, el estilista y los servicios de cada cita")
+    void testAppointmentListing() throws Exception {
+        mockMvc.perform(getAs(admin, "/citas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(20))
+                .andExpect(SqlBudgetAssertions.maxStatements(4));
+
+        mockMvc.perform(getAs(admin, "/citas?paginated=true&size=20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(SqlBudgetAssertions.maxStatements(4));
+
+        mockMvc.perform(getAs(admin, "/citas?fecha=" + DATE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(20))
+                .andExpect(SqlBudgetAssertions.maxStatements(4));
+
+        mockMvc.perform(getAs(admin, "/citas?nombreCliente=Cliente&paginated=true&size=20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(SqlBudgetAssertions.maxStatements(5));
+    }
+
+    @Test
+    @DisplayName("GET /citas de un cliente y de un estilista deberían cargar las relaciones en bloque")
+    void testOwnAppointmentListing() throws Exception {
+        mockMvc.perform(getAs(client, "/citas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(SqlBudgetAssertions.maxStatements(5));
+
+        mockMvc.perform(getAs(stylist, "/citas?paginated=true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(5))
+                .andExpect(SqlBudgetAssertions.maxStatements(6));
+    }
+
+    @Test
+    @DisplayName("Las notificaciones y su contador no deberían depender del número de notificaciones")
+    void testNotifications() throws Exception {
+        mockMvc.perform(getAs(client, "/notificaciones?size=10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10))
+                .andExpect(SqlBudgetAssertions.maxStatements(3));
+
+        mockMvc.perform(getAs(client, "/notificaciones/unread"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(15))
+                .andExpect(SqlBudgetAssertions.maxStatements(3));
+
+        mockMvc.perform(getAs(client, "/notificaciones/unread/count"))
+                .andExpect(status().isOk())
+                .andExpect(SqlBudgetAssertions.maxStatements(2));
+    }
+
+    @Test
+    @DisplayName("GET /disponibilidades no debería consultar el estilista de cada franja")
+    void testAvailabilities() throws Exception {
+        mockMvc.perform(getAs(client, "/disponibilidades"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(20))
+                .andExpect(SqlBudgetAssertions.maxStatements(2));
+
+        mockMvc.perform(getAs(client, "/disponibilidades?paginated=true&size=20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(SqlBudgetAssertions.maxStatements(3));
+
+        mockMvc.perform(getAs(client, "/disponibilidades?estilistaId=" + stylist.getUserId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(SqlBudgetAssertions.maxStatements(3));
+    }
+
+    @Test
+    @DisplayName("Los listados de estilistas deberían resolverse con un número fijo de consultas")
+    void testStylistListings() throws Exception {
+        mockMvc.perform(get("/api/usuarios/public/estilistas").contextPath("/api"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(SqlBudgetAssertions.maxStatements(1));
+
+        mockMvc.perform(getAs(admin, "/usuarios"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(10))
+                .andExpect(SqlBudgetAssertions.maxStatements(2));
+
+        mockMvc.perform(getAs(client, "/estilistas/" + stylist.getUserId() + "/servicios"))
+                .andExpect(status().isOk())
+                .andExpect(SqlBudgetAssertions.maxStatements(2));
+    }
+}
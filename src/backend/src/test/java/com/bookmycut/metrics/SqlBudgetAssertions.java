@@ -0,0 +1,65 @@
+package com.bookmycut.metrics;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Utilidades de test para fijar el número máximo de sentencias SQL de una operación o endpoint, de modo
+ * que reintroducir un N+1 rompa el build.
+ *
+ * <pre>
+ * // Código que usa JPA en el hilo del test
+ * List&lt;AppointmentDTO&gt; citas = SqlBudgetAssertions.assertMaxStatements(3, () -&gt; appointmentService.getAll());
+ *
+ * // Endpoints con MockMvc (requiere sql.budget.expose-header=true)
+ * mockMvc.perform(get("/citas")).andExpect(SqlBudgetAssertions.maxStatements(3));
+ * </pre>
+ */
+public final class SqlBudgetAssertions {
+
+    private SqlBudgetAssertions() {
+    }
+
+    /**
+     * Ejecuta la acción contando sus sentencias SQL y falla si supera el máximo.
+     */
+    public static <T> T assertMaxStatements(int maxStatements, Callable<T> action) throws Exception {
+        SqlStatementContext.open();
+        T result;
+        SqlStatementContext context;
+        try {
+            result = action.call();
+        } finally {
+            context = SqlStatementContext.close();
+        }
+        assertWithinBudget(maxStatements, context);
+        return result;
+    }
+
+    /**
+     * Comprueba la cabecera {@code X-SQL-Statements} de una respuesta de MockMvc.
+     */
+    public static ResultMatcher maxStatements(int maxStatements) {
+        return result -> {
+            String header = result.getResponse().getHeader(SqlBudgetFilter.STATEMENTS_HEADER);
+            assertNotNull(header, "La respuesta no incluye " + SqlBudgetFilter.STATEMENTS_HEADER
+                    + " (¿sql.budget.expose-header=false?)");
+            int statements = Integer.parseInt(header);
+            assertTrue(statements <= maxStatements, result.getRequest().getMethod() + " "
+                    + result.getRequest().getRequestURI() + " ejecutó " + statements
+                    + " sentencias SQL (máximo " + maxStatements + ")");
+        };
+    }
+
+    private static void assertWithinBudget(int maxStatements, SqlStatementContext context) {
+        Map.Entry<String, Integer> mostRepeated = context.getMostRepeated();
+        assertTrue(context.getStatements() <= maxStatements, "Se ejecutaron " + context.getStatements()
+                + " sentencias SQL (máximo " + maxStatements + ")"
+                + (mostRepeated != null ? "; la más repetida (" + mostRepeated.getValue() + " veces): "
+                        + mostRepeated.getKey() : ""));
+    }
+}
@@ -0,0 +1,103 @@
+package com.bookmycut.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests Unitarios para el presupuesto de sentencias SQL")
+class SqlBudgetFilterTest {
+
+    private static final String SELECT_USER = "select u1_0.usuario_id from usuarios u1_0 where u1_0.usuario_id=?";
+
+    private SqlBudgetFilter filter;
+    private SqlStatementInspector inspector;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SqlBudgetFilter();
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "maxStatements", 3);
+        ReflectionTestUtils.setField(filter, "nPlusOneThreshold", 3);
+        ReflectionTestUtils.setField(filter, "exposeHeader", true);
+        ReflectionTestUtils.setField(filter, "meterRegistry",
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        inspector = new SqlStatementInspector();
+    }
+
+    @Test
+    @DisplayName("Debería contar las sentencias de la petición y devolverlas en la cabecera")
+    void testCountsStatementsPerRequest() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/citas");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                inspector.inspect("select a1_0.cita_id from citas a1_0");
+                inspector.inspect(SELECT_USER);
+            }
+        });
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertEquals("2", response.getHeader(SqlBudgetFilter.STATEMENTS_HEADER));
+        assertNotNull(response.getHeader(SqlBudgetFilter.TIME_HEADER));
+        assertNull(SqlStatementContext.current());
+    }
+
+    @Test
+    @DisplayName("Debería detectar la sentencia repetida de un N+1")
+    void testDetectsRepeatedStatement() {
+        // Given
+        SqlStatementContext.open();
+        inspector.inspect("select a1_0.cita_id from citas a1_0");
+        for (int i = 0; i < 4; i++) {
+            inspector.inspect(SELECT_USER);
+        }
+
+        // When
+        SqlStatementContext context = SqlStatementContext.close();
+
+        // Then
+        Map.Entry<String, Integer> mostRepeated = context.getMostRepeated();
+        assertEquals(5, context.getStatements());
+        assertEquals(SELECT_USER, mostRepeated.getKey());
+        assertEquals(4, mostRepeated.getValue());
+    }
+
+    @Test
+    @DisplayName("La utilidad de test debería fallar al superar el presupuesto")
+    void testAssertionFailsAboveBudget() throws Exception {
+        assertEquals("ok", SqlBudgetAssertions.assertMaxStatements(1, () -> {
+            inspector.inspect(SELECT_USER);
+            return "ok";
+        }));
+        assertThrows(AssertionError.class, () -> SqlBudgetAssertions.assertMaxStatements(1, () -> {
+            inspector.inspect(SELECT_USER);
+            inspector.inspect(SELECT_USER);
+            return null;
+        }));
+    }
+
+    @Test
+    @DisplayName("Fuera de una petición no debería contar nada")
+    void testIgnoresStatementsWithoutContext() {
+        inspector.inspect(SELECT_USER);
+        assertNull(SqlStatementContext.current());
+    }
+}
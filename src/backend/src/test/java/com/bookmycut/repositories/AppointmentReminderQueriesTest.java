@@ -0,0 +1,126 @@
+package com.bookmycut.repositories;
+
+import com.bookmycut.entities.Appointment;
+import com.bookmycut.entities.Notification;
+import com.bookmycut.entities.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Anti-join de las consultas de recordatorios: una cita queda excluida solo si ya tiene un recordatorio
+ * para su horario actual, no por uno enviado para el horario anterior a una reprogramación.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect="
+})
+@DisplayName("Tests de integración de las consultas de recordatorios de citas")
+class AppointmentReminderQueriesTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(1);
+    private static final Appointment.AppointmentStatus CONFIRMED = Appointment.AppointmentStatus.CONFIRMADA;
+    private static final Notification.NotificationType REMINDER = Notification.NotificationType.APPOINTMENT_REMINDER;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private User client;
+    private Appointment appointment;
+
+    @BeforeEach
+    void setUp() {
+        client = entityManager.persist(user("Cliente", null, "cliente@bookmycut.com", User.Role.CLIENTE));
+        User stylist = entityManager.persist(user("Estilista", "estilista", null, User.Role.ESTILISTA));
+
+        appointment = new Appointment();
+        appointment.setClient(client);
+        appointment.setStylist(stylist);
+        appointment.setDate(DATE);
+        appointment.setStartTime(LocalTime.of(10, 0));
+        appointment.setEndTime(LocalTime.of(10, 30));
+        appointment.setTotalPrice(new BigDecimal("15.00"));
+        appointment.setStatus(CONFIRMED);
+        appointment = entityManager.persist(appointment);
+    }
+
+    private static User user(String name, String username, String email, User.Role role) {
+        User user = new User();
+        user.setName(name);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword("password123");
+        user.setRole(role);
+        return user;
+    }
+
+    private void remind(LocalDate date, LocalTime startTime) {
+        Notification notification = new Notification();
+        notification.setUser(client);
+        notification.setTitle("Recordatorio de cita mañana");
+        notification.setType(REMINDER);
+        notification.setRelatedAppointmentId(appointment.getAppointmentId());
+        notification.setRelatedAppointmentDate(date);
+        notification.setRelatedAppointmentStartTime(startTime);
+        entityManager.persist(notification);
+    }
+
+    private void reschedule(LocalTime startTime) {
+        appointment.setStartTime(startTime);
+        appointment.setEndTime(startTime.plusMinutes(30));
+        entityManager.flush();
+    }
+
+    private List<Long> pending() {
+        return appointmentRepository.findIdsWithoutNotificationIn(
+                List.of(appointment.getAppointmentId()), CONFIRMED, REMINDER);
+    }
+
+    @Test
+    @DisplayName("Un recordatorio del horario actual debería excluir la cita de las tres consultas")
+    void testReminderOfCurrentSlotExcludes() {
+        // Given
+        remind(DATE, LocalTime.of(10, 0));
+        entityManager.flush();
+
+        // When / Then
+        assertTrue(pending().isEmpty());
+        assertTrue(appointmentRepository.findIdsWithoutNotificationAfter(DATE, CONFIRMED, 0L, REMINDER,
+                PageRequest.of(0, 10)).isEmpty());
+        assertTrue(appointmentRepository.findWithoutNotificationBetween(DATE, DATE, CONFIRMED, 0L, REMINDER,
+                PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Una cita reprogramada poco después de su recordatorio debería volver a recordarse")
+    void testRescheduledAppointmentIsRemindedAgain() {
+        // Given: recordatorio recién enviado para las 10:00 y cita movida a las 12:00
+        remind(DATE, LocalTime.of(10, 0));
+        reschedule(LocalTime.of(12, 0));
+
+        // When / Then
+        assertEquals(List.of(appointment.getAppointmentId()), pending());
+        assertEquals(List.of(appointment.getAppointmentId()), appointmentRepository.findIdsWithoutNotificationAfter(
+                DATE, CONFIRMED, 0L, REMINDER, PageRequest.of(0, 10)));
+
+        // Con el recordatorio del nuevo horario ya no queda pendiente
+        remind(DATE, LocalTime.of(12, 0));
+        entityManager.flush();
+        assertTrue(pending().isEmpty());
+    }
+}
@@ -0,0 +1,187 @@
+package com.bookmycut.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests Unitarios para RateLimitFilter")
+class RateLimitFilterTest {
+
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitFilter = new RateLimitFilter();
+        ReflectionTestUtils.setField(rateLimitFilter, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(rateLimitFilter, "routesConfig", "POST:/auth/login=3/60");
+        rateLimitFilter.init();
+    }
+
+    private MockHttpServletResponse perform(String method, String path, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    @DisplayName("Debería responder 429 con Retry-After al agotar el cubo de una IP")
+    void testRejectsWhenBucketExhausted() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, perform("POST", "/auth/login", "10.0.0.1").getStatus());
+        }
+
+        MockHttpServletResponse rejected = perform("POST", "/auth/login", "10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertTrue(Long.parseLong(rejected.getHeader("Retry-After")) >= 1);
+        assertTrue(rejected.getContentAsString().contains("429"));
+        assertEquals(1L, rateLimitFilter.getRejectedCounts().get("POST /auth/login"));
+    }
+
+    @Test
+    @DisplayName("Cada IP debería tener su propio cubo")
+    void testBucketsArePerClient() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            perform("POST", "/auth/login", "10.0.0.1");
+        }
+
+        assertEquals(429, perform("POST", "/auth/login", "10.0.0.1").getStatus());
+        assertEquals(200, perform("POST", "/auth/login", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    @DisplayName("Con el límite de clientes alcanzado debería descartar el cubo usado menos recientemente")
+    void testEvictsLeastRecentlyUsedClient() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(rateLimitFilter, "maxClients", 2);
+        rateLimitFilter.init();
+        for (int i = 0; i < 3; i++) {
+            perform("POST", "/auth/login", "10.0.0.1");
+        }
+        perform("POST", "/auth/login", "10.0.0.2");
+        assertEquals(429, perform("POST", "/auth/login", "10.0.0.1").getStatus());
+
+        // When: IPs nuevas, cada una con su propio cubo y no uno compartido
+        for (int ip = 3; ip <= 5; ip++) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals(200, perform("POST", "/auth/login", "10.0.0." + ip).getStatus());
+            }
+        }
+
+        // Then
+        assertEquals(2, rateLimitFilter.getTrackedClients().get("POST /auth/login"));
+        assertEquals(429, perform("POST", "/auth/login", "10.0.0.5").getStatus());
+    }
+
+    @Test
+    @DisplayName("Un cliente activo no debería perder su cubo por las IPs nuevas")
+    void testActiveClientKeepsBucket() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(rateLimitFilter, "maxClients", 2);
+        rateLimitFilter.init();
+        for (int i = 0; i < 3; i++) {
+            perform("POST", "/auth/login", "10.0.0.1");
+        }
+
+        // When: 10.0.0.1 sigue activo mientras llegan IPs nuevas
+        for (int ip = 2; ip <= 5; ip++) {
+            assertEquals(429, perform("POST", "/auth/login", "10.0.0.1").getStatus());
+            assertEquals(200, perform("POST", "/auth/login", "10.0.0." + ip).getStatus());
+        }
+
+        // Then: su cubo sigue agotado
+        assertEquals(429, perform("POST", "/auth/login", "10.0.0.1").getStatus());
+    }
+
+    private MockHttpServletResponse performForwarded(String ip, String header, String value) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setServletPath("/auth/login");
+        request.setRemoteAddr(ip);
+        request.addHeader(header, value);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private void configureProxy(String header, String trustedProxies) {
+        ReflectionTestUtils.setField(rateLimitFilter, "clientIpHeader", header);
+        ReflectionTestUtils.setField(rateLimitFilter, "trustedProxiesConfig", trustedProxies);
+        rateLimitFilter.init();
+    }
+
+    @Test
+    @DisplayName("Debería ignorar el header de IP falsificado por un cliente que no es un proxy de confianza")
+    void testIgnoresSpoofedHeaderFromUntrustedPeer() throws Exception {
+        // Given
+        configureProxy("X-Real-IP", "172.28.0.10");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, performForwarded("203.0.113.7", "X-Real-IP", "198.51.100." + i).getStatus());
+        }
+
+        // When: cambiar el header en cada petición no le da un cubo nuevo
+        MockHttpServletResponse response = performForwarded("203.0.113.7", "X-Real-IP", "198.51.100.99");
+
+        // Then
+        assertEquals(429, response.getStatus());
+        assertEquals(1, rateLimitFilter.getTrackedClients().get("POST /auth/login"));
+    }
+
+    @Test
+    @DisplayName("Debería limitar por el header de IP cuando la conexión viene de un proxy de confianza")
+    void testUsesHeaderFromTrustedProxy() throws Exception {
+        // Given
+        configureProxy("X-Real-IP", "172.28.0.0/24");
+        for (int i = 0; i < 3; i++) {
+            perform("POST", "/auth/login", "172.28.0.10");
+        }
+
+        // When
+        MockHttpServletResponse exhausted = performForwarded("172.28.0.10", "X-Real-IP", "198.51.100.1");
+        MockHttpServletResponse other = performForwarded("172.28.0.10", "X-Real-IP", "198.51.100.2");
+
+        // Then: los clientes detrás del proxy no comparten cubo
+        assertEquals(200, exhausted.getStatus());
+        assertEquals(200, other.getStatus());
+    }
+
+    @Test
+    @DisplayName("Debería recorrer X-Forwarded-For desde la derecha saltando los proxies de confianza")
+    void testWalksForwardedForFromTheRight() throws Exception {
+        // Given: el cliente 198.51.100.1 antepone IPs falsas; 10.0.0.5 es un proxy interno de confianza
+        configureProxy("X-Forwarded-For", "172.28.0.10,10.0.0.0/8");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, performForwarded("172.28.0.10", "X-Forwarded-For",
+                    "192.0.2." + i + ", 198.51.100.1, 10.0.0.5").getStatus());
+        }
+
+        // When
+        MockHttpServletResponse response = performForwarded("172.28.0.10", "X-Forwarded-For",
+                "192.0.2.200, 198.51.100.1, 10.0.0.5");
+
+        // Then
+        assertEquals(429, response.getStatus());
+        assertEquals(1, rateLimitFilter.getTrackedClients().get("POST /auth/login"));
+    }
+
+    @Test
+    @DisplayName("No debería limitar rutas o métodos no configurados")
+    void testIgnoresUnconfiguredRoutes() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform("GET", "/auth/login", "10.0.0.1").getStatus());
+            assertEquals(200, perform("GET", "/servicios", "10.0.0.1").getStatus());
+        }
+        assertEquals(0L, rateLimitFilter.getRejectedCounts().get("POST /auth/login"));
+    }
+}
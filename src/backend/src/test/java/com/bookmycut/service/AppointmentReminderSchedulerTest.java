@@ -0,0 +1,233 @@
+package com.bookmycut.service;
+
+import com.bookmycut.entities.Appointment;
+import com.bookmycut.entities.Notification;
+import com.bookmycut.entities.ReminderCheckpoint;
+import com.bookmycut.entities.User;
+import com.bookmycut.repositories.AppointmentRepository;
+import com.bookmycut.repositories.ReminderCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios para AppointmentReminderScheduler")
+class AppointmentReminderSchedulerTest {
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private ReminderCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AppointmentReminderScheduler scheduler;
+
+    private LocalDate tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scheduler, "chunkSize", 2);
+        ReflectionTestUtils.setField(scheduler, "parallelism", 1);
+        scheduler.init();
+        tomorrow = LocalDate.now().plusDays(1);
+    }
+
+    private Appointment newAppointment(Long id) {
+        User client = new User();
+        client.setUserId(10L);
+        client.setName("Cliente Test");
+        User stylist = new User();
+        stylist.setUserId(20L);
+        stylist.setName("Estilista Test");
+
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentId(id);
+        appointment.setClient(client);
+        appointment.setStylist(stylist);
+        appointment.setDate(tomorrow);
+        appointment.setStartTime(LocalTime.of(10, 0));
+        return appointment;
+    }
+
+    private void stubChunk(long afterId, List<Long> ids) {
+        when(appointmentRepository.findIdsWithoutNotificationAfter(eq(tomorrow),
+                eq(Appointment.AppointmentStatus.CONFIRMADA), eq(afterId),
+                eq(Notification.NotificationType.APPOINTMENT_REMINDER), any()))
+                .thenReturn(ids);
+    }
+
+    /**
+     * Las citas bloqueadas por este envío ({@code locked}) y, de ellas, las que siguen sin recordatorio ({@code pending}).
+     */
+    private void stubLock(List<Long> ids, List<Long> locked, List<Long> pending) {
+        when(appointmentRepository.lockIdsIn(ids)).thenReturn(locked);
+        if (!locked.isEmpty()) {
+            when(appointmentRepository.findIdsWithoutNotificationIn(eq(Set.copyOf(locked)),
+                    eq(Appointment.AppointmentStatus.CONFIRMADA),
+                    eq(Notification.NotificationType.APPOINTMENT_REMINDER)))
+                    .thenReturn(pending);
+        }
+    }
+
+    private void stubLock(List<Long> ids) {
+        stubLock(ids, ids, ids);
+    }
+
+    @Test
+    @DisplayName("Debería procesar las citas por bloques y avanzar el checkpoint hasta completarlo")
+    void testSendRemindersInChunks() {
+        // Given
+        when(checkpointRepository.findById(tomorrow)).thenReturn(Optional.empty());
+        stubChunk(0L, List.of(1L, 2L));
+        stubChunk(2L, List.of(3L));
+        stubLock(List.of(1L, 2L));
+        when(appointmentRepository.findWithDetailsByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(newAppointment(1L), newAppointment(2L)));
+        stubLock(List.of(3L));
+        when(appointmentRepository.findWithDetailsByIdIn(List.of(3L)))
+                .thenReturn(List.of(newAppointment(3L)));
+
+        // When
+        int reminded = scheduler.sendRemindersForDate(tomorrow);
+
+        // Then
+        assertEquals(3, reminded);
+        verify(notificationService).createNotifications(argThat(list -> list.size() == 4));
+        verify(notificationService).createNotifications(argThat(list -> list.size() == 2));
+        ArgumentCaptor<ReminderCheckpoint> captor = ArgumentCaptor.forClass(ReminderCheckpoint.class);
+        verify(checkpointRepository, atLeastOnce()).save(captor.capture());
+        ReminderCheckpoint last = captor.getValue();
+        assertEquals(3L, last.getLastAppointmentId());
+        assertTrue(last.getCompleted());
+    }
+
+    @Test
+    @DisplayName("Debería reanudar desde el checkpoint guardado")
+    void testResumeFromCheckpoint() {
+        // Given
+        when(checkpointRepository.findById(tomorrow))
+                .thenReturn(Optional.of(new ReminderCheckpoint(tomorrow, 2L, false, null)));
+        stubChunk(2L, List.of(3L));
+        stubLock(List.of(3L));
+        when(appointmentRepository.findWithDetailsByIdIn(List.of(3L)))
+                .thenReturn(List.of(newAppointment(3L)));
+
+        // When
+        int reminded = scheduler.sendRemindersForDate(tomorrow);
+
+        // Then
+        assertEquals(1, reminded);
+        verify(appointmentRepository, never()).findIdsWithoutNotificationAfter(any(), any(), eq(0L), any(), any());
+    }
+
+    @Test
+    @DisplayName("Un bloque fallido no debería avanzar el checkpoint ni marcar el envío como completado")
+    void testFailedChunkKeepsCheckpoint() {
+        // Given
+        when(checkpointRepository.findById(tomorrow)).thenReturn(Optional.empty());
+        stubChunk(0L, List.of(1L, 2L));
+        stubChunk(2L, List.of(3L));
+        stubLock(List.of(1L, 2L));
+        when(appointmentRepository.findWithDetailsByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(newAppointment(1L), newAppointment(2L)));
+        stubLock(List.of(3L));
+        when(appointmentRepository.findWithDetailsByIdIn(List.of(3L)))
+                .thenReturn(List.of(newAppointment(3L)));
+        when(notificationService.createNotifications(anyList()))
+                .thenThrow(new RuntimeException("Error de base de datos"))
+                .thenReturn(List.of());
+
+        // When
+        int reminded = scheduler.sendRemindersForDate(tomorrow);
+
+        // Then
+        assertEquals(1, reminded);
+        ArgumentCaptor<ReminderCheckpoint> captor = ArgumentCaptor.forClass(ReminderCheckpoint.class);
+        verify(checkpointRepository, atLeastOnce()).save(captor.capture());
+        ReminderCheckpoint last = captor.getValue();
+        assertEquals(0L, last.getLastAppointmentId());
+        assertFalse(last.getCompleted());
+    }
+
+    @Test
+    @DisplayName("Debería omitir las citas bloqueadas por otro envío sin rebasarlas con el checkpoint")
+    void testSkipsLockedAppointments() {
+        // Given: otro nodo tiene bloqueada la cita 2 y ya ha recordado la 3
+        when(checkpointRepository.findById(tomorrow)).thenReturn(Optional.empty());
+        stubChunk(0L, List.of(1L, 2L));
+        stubChunk(2L, List.of(3L));
+        stubLock(List.of(1L, 2L), List.of(1L), List.of(1L));
+        when(appointmentRepository.findWithDetailsByIdIn(List.of(1L)))
+                .thenReturn(List.of(newAppointment(1L)));
+        stubLock(List.of(3L), List.of(3L), List.of());
+
+        // When
+        int reminded = scheduler.sendRemindersForDate(tomorrow);
+
+        // Then
+        assertEquals(1, reminded);
+        verify(notificationService).createNotifications(argThat(list -> list.size() == 2));
+        verify(appointmentRepository, never()).findWithDetailsByIdIn(List.of(3L));
+        ArgumentCaptor<ReminderCheckpoint> captor = ArgumentCaptor.forClass(ReminderCheckpoint.class);
+        verify(checkpointRepository, atLeastOnce()).save(captor.capture());
+        ReminderCheckpoint last = captor.getValue();
+        assertEquals(0L, last.getLastAppointmentId());
+        assertFalse(last.getCompleted());
+    }
+
+    @Test
+    @DisplayName("Debería reintentar el mismo día un envío de las citas de hoy que quedó a medias")
+    void testRetriesUnfinishedRunOfToday() {
+        // Given
+        ReflectionTestUtils.setField(scheduler, "mode", "cron");
+        LocalDate today = LocalDate.now();
+        ReminderCheckpoint unfinished = new ReminderCheckpoint(today, 2L, false, null);
+        when(checkpointRepository.findByCompletedFalseAndAppointmentDateBetween(today, tomorrow))
+                .thenReturn(List.of(unfinished));
+        when(checkpointRepository.findById(today)).thenReturn(Optional.of(unfinished));
+        when(appointmentRepository.findIdsWithoutNotificationAfter(eq(today),
+                eq(Appointment.AppointmentStatus.CONFIRMADA), eq(2L),
+                eq(Notification.NotificationType.APPOINTMENT_REMINDER), any()))
+                .thenReturn(List.of(3L));
+        stubLock(List.of(3L));
+        when(appointmentRepository.findWithDetailsByIdIn(List.of(3L)))
+                .thenReturn(List.of(newAppointment(3L)));
+
+        // When
+        scheduler.retryUnfinishedRuns();
+
+        // Then
+        ArgumentCaptor<ReminderCheckpoint> captor = ArgumentCaptor.forClass(ReminderCheckpoint.class);
+        verify(checkpointRepository, atLeastOnce()).save(captor.capture());
+        ReminderCheckpoint last = captor.getValue();
+        assertEquals(today, last.getAppointmentDate());
+        assertEquals(3L, last.getLastAppointmentId());
+        assertTrue(last.getCompleted());
+    }
+}
@@ -39,6 +39,9 @@ class AvailabilityServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PublicReadCoalescer publicReadCoalescer;
+
     @InjectMocks
     private AvailabilityService availabilityService;
 
@@ -0,0 +1,220 @@
+package com.bookmycut.service;
+
+import com.bookmycut.dto.AuthResponse;
+import com.bookmycut.dto.RegisterRequest;
+import com.bookmycut.entities.IdempotentRequest;
+import com.bookmycut.entities.User;
+import com.bookmycut.exception.BadRequestException;
+import com.bookmycut.repositories.IdempotentRequestRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios para IdempotencyService")
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotentRequestRepository idempotentRequestRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private IdempotencyService idempotencyService;
+
+    private RegisterRequest request;
+    private AtomicInteger executions;
+    private Supplier<ResponseEntity<AuthResponse>> operation;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(idempotencyService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyService, "fingerprintKey", "clave-del-servidor");
+        idempotencyService.init();
+
+        request = new RegisterRequest();
+        request.setName("Lucía García");
+        request.setEmail("lucia@bookmycut.com");
+        request.setPassword("secreta123");
+        request.setRole(User.Role.CLIENTE);
+
+        executions = new AtomicInteger();
+        operation = () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(new AuthResponse("token", "Bearer", 42L, "Lucía García", "lucia@bookmycut.com", User.Role.CLIENTE));
+        };
+    }
+
+    /** Simula la tabla: lo guardado con saveAndFlush se devuelve en las consultas siguientes. */
+    private AtomicReference<IdempotentRequest> storeInMemory() {
+        AtomicReference<IdempotentRequest> stored = new AtomicReference<>();
+        when(idempotentRequestRepository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(stored.get()));
+        when(idempotentRequestRepository.saveAndFlush(any(IdempotentRequest.class))).thenAnswer(invocation -> {
+            stored.set(invocation.getArgument(0));
+            return stored.get();
+        });
+        return stored;
+    }
+
+    @Test
+    @DisplayName("Sin Idempotency-Key debería ejecutar la operación sin guardar nada")
+    void testWithoutKey() {
+        // When
+        ResponseEntity<AuthResponse> response = idempotencyService.execute(null, "POST /auth/register", request,
+                AuthResponse.class, operation);
+
+        // Then
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(1, executions.get());
+        verifyNoInteractions(idempotentRequestRepository);
+    }
+
+    @Test
+    @DisplayName("Debería devolver la respuesta guardada en los reintentos sin repetir la operación")
+    void testReplay() {
+        // Given
+        AtomicReference<IdempotentRequest> stored = storeInMemory();
+
+        // When
+        ResponseEntity<AuthResponse> first = idempotencyService.execute("clave-1", "POST /auth/register", request,
+                AuthResponse.class, operation);
+        ResponseEntity<AuthResponse> retry = idempotencyService.execute("clave-1", "POST /auth/register", request,
+                AuthResponse.class, operation);
+
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals(201, stored.get().getResponseStatus());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(first.getBody(), retry.getBody());
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("No debería guardar el token ni la contraseña, y debería emitir un token nuevo al repetir")
+    void testStoresWithoutCredentials() {
+        // Given
+        AtomicReference<IdempotentRequest> stored = storeInMemory();
+        AtomicInteger reissued = new AtomicInteger();
+
+        // When
+        ResponseEntity<AuthResponse> first = idempotencyService.execute("clave-1", "POST /auth/register", request,
+                AuthResponse.class, operation, AuthResponse::withoutToken, body -> {
+                    reissued.incrementAndGet();
+                    body.setToken("token-nuevo");
+                    return body;
+                });
+        ResponseEntity<AuthResponse> retry = idempotencyService.execute("clave-1", "POST /auth/register", request,
+                AuthResponse.class, operation, AuthResponse::withoutToken, body -> {
+                    reissued.incrementAndGet();
+                    body.setToken("token-nuevo");
+                    return body;
+                });
+
+        // Then
+        assertEquals("token", first.getBody().getToken());
+        assertTrue(stored.get().getResponseBody().contains("\"token\":null"));
+        assertEquals(1, reissued.get());
+        assertEquals("token-nuevo", retry.getBody().getToken());
+        assertEquals(42L, retry.getBody().getUserId());
+    }
+
+    @Test
+    @DisplayName("La huella debería depender de la clave del servidor")
+    void testFingerprintIsKeyed() {
+        // Given
+        AtomicReference<IdempotentRequest> stored = storeInMemory();
+        idempotencyService.execute("clave-1", "POST /auth/register", request, AuthResponse.class, operation);
+        String fingerprint = stored.get().getFingerprint();
+        stored.set(null);
+        ReflectionTestUtils.setField(idempotencyService, "fingerprintKey", "otra-clave");
+        idempotencyService.init();
+
+        // When
+        idempotencyService.execute("clave-1", "POST /auth/register", request, AuthResponse.class, operation);
+
+        // Then
+        assertEquals(64, fingerprint.length());
+        assertNotEquals(fingerprint, stored.get().getFingerprint());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar una clave reutilizada con una petición distinta")
+    void testKeyReusedWithDifferentRequest() {
+        // Given
+        storeInMemory();
+        idempotencyService.execute("clave-1", "POST /auth/register", request, AuthResponse.class, operation);
+        request.setEmail("otra@bookmycut.com");
+
+        // When / Then
+        assertThrows(BadRequestException.class, () -> idempotencyService.execute("clave-1", "POST /auth/register",
+                request, AuthResponse.class, operation));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Los duplicados simultáneos deberían esperar a la primera ejecución y recibir su respuesta")
+    void testConcurrentDuplicatesWaitForFirstExecution() throws Exception {
+        // Given
+        storeInMemory();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ResponseEntity<AuthResponse>> slowOperation = () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return operation.get();
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            Future<ResponseEntity<AuthResponse>> first = executor.submit(() -> idempotencyService.execute("clave-1",
+                    "POST /auth/register", request, AuthResponse.class, slowOperation));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<ResponseEntity<AuthResponse>> duplicate = executor.submit(() -> idempotencyService.execute("clave-1",
+                    "POST /auth/register", request, AuthResponse.class, slowOperation));
+            Thread.sleep(100);
+            assertFalse(duplicate.isDone());
+            release.countDown();
+
+            // Then
+            assertEquals(HttpStatus.CREATED, first.get(5, TimeUnit.SECONDS).getStatusCode());
+            ResponseEntity<AuthResponse> replayed = duplicate.get(5, TimeUnit.SECONDS);
+            assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+            assertEquals(42L, replayed.getBody().getUserId());
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
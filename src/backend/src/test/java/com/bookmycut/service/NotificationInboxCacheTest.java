@@ -0,0 +1,217 @@
+package com.bookmycut.service;
+
+import com.bookmycut.dto.NotificationDTO;
+import com.bookmycut.entities.Notification;
+import com.bookmycut.entities.User;
+import com.bookmycut.repositories.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios para NotificationInboxCache")
+class NotificationInboxCacheTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private ClusterBroadcaster clusterBroadcaster;
+
+    @InjectMocks
+    private NotificationInboxCache inboxCache;
+
+    private Notification notification;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(inboxCache, "maxUsers", 2);
+        ReflectionTestUtils.setField(inboxCache, "recentSize", 5);
+        inboxCache.init();
+
+        User user = new User();
+        user.setUserId(1L);
+        notification = new Notification();
+        notification.setNotificationId(10L);
+        notification.setUser(user);
+        notification.setTitle("Cita confirmada");
+        notification.setType(Notification.NotificationType.APPOINTMENT_CONFIRMED);
+        notification.setRead(false);
+        notification.setCreatedDate(LocalDateTime.now());
+    }
+
+    private void stubHydration(Long userId, long unread) {
+        Page<Notification> page = new PageImpl<>(List.of(notification));
+        when(notificationRepository.findByUserUserIdOrderByCreatedDateDesc(eq(userId), any(Pageable.class)))
+                .thenReturn(page);
+        when(notificationRepository.countByUserUserIdAndReadFalse(userId)).thenReturn(unread);
+    }
+
+    private NotificationDTO newDto(Long id, Long userId) {
+        NotificationDTO dto = new NotificationDTO();
+        dto.setNotificationId(id);
+        dto.setUserId(userId);
+        dto.setTitle("Nueva cita asignada");
+        dto.setRead(false);
+        return dto;
+    }
+
+    @Test
+    @DisplayName("Debería cargar la bandeja una vez y servir después el contador y la primera página sin consultas")
+    void testHydratesOnce() {
+        // Given
+        stubHydration(1L, 1L);
+
+        // When
+        long first = inboxCache.getUnreadCount(1L);
+        long second = inboxCache.getUnreadCount(1L);
+        Optional<Page<NotificationDTO>> page = inboxCache.getPage(1L, 0, 10);
+
+        // Then
+        assertEquals(1L, first);
+        assertEquals(1L, second);
+        assertTrue(page.isPresent());
+        assertEquals(1, page.get().getTotalElements());
+        verify(notificationRepository, times(1)).countByUserUserIdAndReadFalse(1L);
+        assertEquals(2, inboxCache.getHitCount());
+    }
+
+    @Test
+    @DisplayName("Un cambio debería recargar la bandeja sin contar dos veces una carga posterior al commit")
+    void testReloadsInsteadOfApplyingDeltas() {
+        // Given: la bandeja se cargó después del commit de la notificación 11, así que ya la cuenta
+        stubHydration(1L, 2L);
+        inboxCache.getUnreadCount(1L);
+
+        // When: llega después el aviso de esa misma notificación
+        inboxCache.onCreated(List.of(newDto(11L, 1L)));
+
+        // Then
+        assertEquals(2L, inboxCache.getUnreadCount(1L));
+        verify(messagingTemplate).convertAndSend("/topic/notifications.1", Map.of("unreadCount", 2L));
+        verify(clusterBroadcaster).publish(NotificationInboxCache.INVALIDATION_CHANNEL, "1");
+    }
+
+    @Test
+    @DisplayName("Leer o borrar notificaciones debería enviar por WebSocket el contador recargado")
+    void testPushesReloadedCount() {
+        // Given
+        stubHydration(1L, 1L);
+        when(notificationRepository.countByUserUserIdAndReadFalse(1L)).thenReturn(1L, 0L);
+        inboxCache.getUnreadCount(1L);
+
+        // When
+        inboxCache.onChanged(1L);
+
+        // Then
+        assertEquals(0L, inboxCache.getUnreadCount(1L));
+        verify(messagingTemplate).convertAndSend("/topic/notifications.1", Map.of("unreadCount", 0L));
+        verify(notificationRepository, times(2)).countByUserUserIdAndReadFalse(1L);
+    }
+
+    @Test
+    @DisplayName("El aviso de un cambio en otro nodo debería descartar la bandeja sin consultar ni enviar nada")
+    void testInvalidatesOnRemoteChange() {
+        // Given
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(clusterBroadcaster).subscribe(eq(NotificationInboxCache.INVALIDATION_CHANNEL), listener.capture());
+        stubHydration(1L, 1L);
+        inboxCache.getUnreadCount(1L);
+
+        // When
+        listener.getValue().accept("1");
+
+        // Then
+        verify(notificationRepository, times(1)).countByUserUserIdAndReadFalse(1L);
+        verifyNoInteractions(messagingTemplate);
+        inboxCache.getUnreadCount(1L);
+        verify(notificationRepository, times(2)).countByUserUserIdAndReadFalse(1L);
+    }
+
+    @Test
+    @DisplayName("Una carga que empezó antes de un cambio no debería instalarse aunque otra empiece después")
+    void testDiscardsHydrationStartedBeforeChange() throws Exception {
+        // Given: la carga A lee antes del cambio y la B después; A termina antes que B
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(clusterBroadcaster).subscribe(eq(NotificationInboxCache.INVALIDATION_CHANNEL), listener.capture());
+        CountDownLatch aStarted = new CountDownLatch(1);
+        CountDownLatch aRelease = new CountDownLatch(1);
+        CountDownLatch bStarted = new CountDownLatch(1);
+        CountDownLatch bRelease = new CountDownLatch(1);
+        Page<Notification> page = new PageImpl<>(List.of(notification));
+        when(notificationRepository.findByUserUserIdOrderByCreatedDateDesc(eq(1L), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    boolean isA = Thread.currentThread().getName().equals("carga-a");
+                    (isA ? aStarted : bStarted).countDown();
+                    assertTrue((isA ? aRelease : bRelease).await(5, TimeUnit.SECONDS));
+                    return page;
+                });
+        when(notificationRepository.countByUserUserIdAndReadFalse(1L))
+                .thenAnswer(invocation -> Thread.currentThread().getName().equals("carga-a") ? 1L : 2L);
+        Thread a = new Thread(() -> inboxCache.getUnreadCount(1L), "carga-a");
+        Thread b = new Thread(() -> inboxCache.getUnreadCount(1L), "carga-b");
+
+        // When
+        a.start();
+        assertTrue(aStarted.await(5, TimeUnit.SECONDS));
+        listener.getValue().accept("1");
+        b.start();
+        assertTrue(bStarted.await(5, TimeUnit.SECONDS));
+        aRelease.countDown();
+        a.join(5000);
+        bRelease.countDown();
+        b.join(5000);
+
+        // Then: queda instalada la carga B, posterior al cambio
+        assertEquals(2L, inboxCache.getUnreadCount(1L));
+        verify(notificationRepository, times(2)).countByUserUserIdAndReadFalse(1L);
+    }
+
+    @Test
+    @DisplayName("No debería guardar usuarios que no están en memoria y debería expulsar por LRU")
+    void testIgnoresUnknownUsersAndEvicts() {
+        // Given
+        when(notificationRepository.findByUserUserIdOrderByCreatedDateDesc(anyLong(), any(Pageable.class)))
+                .thenReturn(Page.empty());
+        when(notificationRepository.countByUserUserIdAndReadFalse(anyLong())).thenReturn(0L);
+
+        // When
+        inboxCache.onCreated(List.of(newDto(20L, 9L)));
+        inboxCache.getUnreadCount(1L);
+        inboxCache.getUnreadCount(2L);
+        inboxCache.getUnreadCount(3L);
+
+        // Then
+        assertEquals(2, inboxCache.size());
+        verifyNoInteractions(messagingTemplate);
+    }
+}
@@ -0,0 +1,151 @@
+package com.bookmycut.service;
+
+import com.bookmycut.dto.NotificationCreateDTO;
+import com.bookmycut.entities.Notification;
+import com.bookmycut.entities.OutboxEvent;
+import com.bookmycut.repositories.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios para NotificationOutboxDispatcher")
+class NotificationOutboxDispatcherTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private NotificationOutboxService notificationOutboxService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private NotificationOutboxDispatcher dispatcher;
+
+    private OutboxEvent event1;
+    private OutboxEvent event2;
+    private NotificationCreateDTO notification;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "workerCount", 1);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 1);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "backoffBaseMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaxMs", 60000L);
+        dispatcher.init();
+
+        event1 = newEvent(1L);
+        event2 = newEvent(2L);
+
+        notification = new NotificationCreateDTO();
+        notification.setUserId(1L);
+        notification.setTitle("Cita confirmada");
+        notification.setType(Notification.NotificationType.APPOINTMENT_CONFIRMED);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    private OutboxEvent newEvent(Long id) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventId(id);
+        event.setEventType("CITA_CREADA");
+        event.setPayload("[]");
+        event.setStatus(OutboxEvent.Status.PROCESANDO);
+        event.setAttempts(0);
+        event.setNextAttemptAt(LocalDateTime.now());
+        return event;
+    }
+
+    @Test
+    @DisplayName("Debería crear las notificaciones del lote en una llamada y borrar los eventos")
+    void testProcessBatch() {
+        // Given
+        when(outboxEventRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(event1, event2));
+        when(notificationOutboxService.readPayload(any(OutboxEvent.class))).thenReturn(List.of(notification));
+
+        // When
+        dispatcher.process(List.of(1L, 2L));
+
+        // Then
+        verify(notificationService).createNotifications(argThat(list -> list.size() == 2));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        assertEquals(2, dispatcher.getProcessedCount());
+    }
+
+    @Test
+    @DisplayName("Si el lote falla debería aislar el evento erróneo y programar su reintento")
+    void testProcessIsolatesFailingEvent() {
+        // Given
+        when(outboxEventRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(event1, event2));
+        when(outboxEventRepository.findAllById(List.of(1L))).thenReturn(List.of(event1));
+        when(outboxEventRepository.findAllById(List.of(2L))).thenReturn(List.of(event2));
+        when(outboxEventRepository.findById(2L)).thenReturn(Optional.of(event2));
+        when(notificationOutboxService.readPayload(event1)).thenReturn(List.of(notification));
+        when(notificationOutboxService.readPayload(event2)).thenThrow(new IllegalStateException("Payload no válido"));
+
+        // When
+        dispatcher.process(List.of(1L, 2L));
+
+        // Then
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(List.of(2L));
+        assertEquals(OutboxEvent.Status.PENDIENTE, event2.getStatus());
+        assertEquals(1, event2.getAttempts());
+        assertTrue(event2.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertEquals("Payload no válido", event2.getLastError());
+        assertEquals(1, dispatcher.getRetriedCount());
+    }
+
+    @Test
+    @DisplayName("Debería marcar el evento como FALLIDO al agotar los intentos")
+    void testProcessMarksFailedAfterMaxAttempts() {
+        // Given
+        event1.setAttempts(2);
+        when(outboxEventRepository.findAllById(List.of(1L))).thenReturn(List.of(event1));
+        when(outboxEventRepository.findById(1L)).thenReturn(Optional.of(event1));
+        when(notificationOutboxService.readPayload(event1)).thenReturn(List.of(notification));
+        doThrow(new RuntimeException("Usuario inexistente")).when(notificationService).createNotifications(anyList());
+
+        // When
+        dispatcher.process(List.of(1L));
+
+        // Then
+        assertEquals(OutboxEvent.Status.FALLIDO, event1.getStatus());
+        assertEquals(3, event1.getAttempts());
+        assertEquals(1, dispatcher.getFailedCount());
+    }
+
+    @Test
+    @DisplayName("El backoff debería crecer exponencialmente sin superar el máximo")
+    void testBackoff() {
+        assertTrue(dispatcher.backoffMillis(1) <= 1000);
+        assertTrue(dispatcher.backoffMillis(3) >= 2000 && dispatcher.backoffMillis(3) <= 4000);
+        assertTrue(dispatcher.backoffMillis(30) <= 60000);
+    }
+}
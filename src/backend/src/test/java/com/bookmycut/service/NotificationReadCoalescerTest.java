@@ -0,0 +1,89 @@
+package com.bookmycut.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios para NotificationReadCoalescer")
+class NotificationReadCoalescerTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @InjectMocks
+    private NotificationReadCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        // Ventana larga: el test controla cuándo se aplica el lote
+        ReflectionTestUtils.setField(coalescer, "windowMs", 60000L);
+        ReflectionTestUtils.setField(coalescer, "maxIds", 500);
+        coalescer.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debería agrupar las confirmaciones de un usuario en una sola actualización")
+    void testCoalescesAcksPerUser() {
+        // Given
+        when(notificationService.getUnreadCount(1L)).thenReturn(3L);
+
+        // When
+        coalescer.markRead(1L, "s1", List.of(10L, 11L));
+        coalescer.markRead(1L, "s1", List.of(11L, 12L));
+        coalescer.markRead(1L, "s2", List.of(13L));
+        coalescer.flush(1L);
+
+        // Then
+        verify(notificationService).markAsRead(List.of(10L, 11L, 12L, 13L), 1L);
+        verify(messagingTemplate).convertAndSendToUser(eq("s1"), eq("/queue/notifications"),
+                eq(Map.of("unreadCount", 3L)), any(Map.class));
+        verify(messagingTemplate).convertAndSendToUser(eq("s2"), eq("/queue/notifications"),
+                eq(Map.of("unreadCount", 3L)), any(Map.class));
+        assertEquals(5, coalescer.getReceivedCount());
+        assertEquals(1, coalescer.getFlushCount());
+    }
+
+    @Test
+    @DisplayName("Marcar todas como leídas debería sustituir a los IDs pendientes")
+    void testMarkAllReadSupersedesIds() {
+        // Given
+        when(notificationService.getUnreadCount(1L)).thenReturn(0L);
+
+        // When
+        coalescer.markRead(1L, "s1", List.of(10L));
+        coalescer.markAllRead(1L, "s1");
+        coalescer.markRead(1L, "s1", List.of(11L));
+        coalescer.flush(1L);
+        coalescer.flush(1L);
+
+        // Then
+        verify(notificationService).markAllAsRead(1L);
+        verify(notificationService, never()).markAsRead(anyList(), any());
+        assertEquals(1, coalescer.getFlushCount());
+    }
+}
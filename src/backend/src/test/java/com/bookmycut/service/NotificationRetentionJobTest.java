@@ -0,0 +1,97 @@
+package com.bookmycut.service;
+
+import com.bookmycut.entities.Notification;
+import com.bookmycut.repositories.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios para NotificationRetentionJob")
+class NotificationRetentionJobTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NotificationInboxCache inboxCache;
+
+    @InjectMocks
+    private NotificationRetentionJob retentionJob;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(retentionJob, "batchSize", 1000);
+        ReflectionTestUtils.setField(retentionJob, "pauseMs", 0L);
+        retentionJob.init();
+    }
+
+    @Test
+    @DisplayName("Debería borrar por lotes hasta que un lote venga incompleto")
+    void testPurgeInBatches() {
+        // Given
+        LocalDateTime before = LocalDateTime.now().minusDays(90);
+        when(notificationRepository.deleteBatchOlderThan(before, null, true, 1000))
+                .thenReturn(1000, 1000, 5);
+
+        // When
+        long deleted = retentionJob.purge(before, null, true, Long.MAX_VALUE);
+
+        // Then
+        assertEquals(2005, deleted);
+        assertEquals(2005, retentionJob.getPurgedCount());
+        verify(notificationRepository, times(3)).deleteBatchOlderThan(before, null, true, 1000);
+        verify(transactionManager, times(3)).commit(any());
+        verify(inboxCache).clear();
+    }
+
+    @Test
+    @DisplayName("Debería filtrar por tipo y no vaciar las bandejas si no hay nada que borrar")
+    void testPurgeByTypeWithNothingToDelete() {
+        // Given
+        LocalDateTime before = LocalDateTime.now().minusDays(30);
+        when(notificationRepository.deleteBatchOlderThan(eq(before), eq("APPOINTMENT_REMINDER"), eq(false), anyInt()))
+                .thenReturn(0);
+
+        // When
+        long deleted = retentionJob.purge(before, Notification.NotificationType.APPOINTMENT_REMINDER, false, Long.MAX_VALUE);
+
+        // Then
+        assertEquals(0, deleted);
+        verify(inboxCache, never()).clear();
+    }
+
+    @Test
+    @DisplayName("No debería empezar lotes pasado el tiempo máximo")
+    void testPurgeStopsAtDeadline() {
+        // When
+        long deleted = retentionJob.purge(LocalDateTime.now(), null, true, System.currentTimeMillis() - 1);
+
+        // Then
+        assertEquals(0, deleted);
+        verify(notificationRepository, never()).deleteBatchOlderThan(any(), isNull(), anyBoolean(), anyInt());
+    }
+}
@@ -25,6 +25,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -192,9 +194,37 @@ class NotificationServiceTest {
         assertThrows(ResourceNotFoundException.class, 
                 () -> notificationService.createNotification(createDTO));
     }
-}
-
 
+    @Test
+    @DisplayName("Debería crear varias notificaciones con una sola llamada a saveAll y sin cargar usuarios")
+    void testCreateNotificationsInBatch() {
+        // Given
+        User stylist = new User();
+        stylist.setUserId(2L);
+        NotificationCreateDTO stylistDTO = new NotificationCreateDTO();
+        stylistDTO.setUserId(2L);
+        stylistDTO.setTitle("Nueva cita asignada");
+        stylistDTO.setType(Notification.NotificationType.APPOINTMENT_CONFIRMED);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(userRepository.getReferenceById(2L)).thenReturn(stylist);
+        when(notificationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
 
+        // When
+        List<NotificationDTO> result = notificationService.createNotifications(List.of(createDTO, stylistDTO));
 
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getUserId());
+        assertEquals(2L, result.get(1).getUserId());
+        verify(notificationRepository).saveAll(anyList());
+        verify(notificationRepository, never()).save(any(Notification.class));
+        verify(userRepository, never()).findById(anyLong());
+    }
 
+    @Test
+    @DisplayName("No debería acceder a base de datos al crear una lista vacía de notificaciones")
+    void testCreateNotificationsEmpty() {
+        assertTrue(notificationService.createNotifications(List.of()).isEmpty());
+        verifyNoInteractions(notificationRepository, userRepository);
+    }
+}
@@ -0,0 +1,180 @@
+package com.bookmycut.service;
+
+import com.bookmycut.dto.NotificationDTO;
+import com.bookmycut.entities.Notification;
+import com.bookmycut.entities.User;
+import com.bookmycut.repositories.NotificationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios para NotificationStreamRegistry")
+class NotificationStreamRegistryTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private ClusterBroadcaster clusterBroadcaster;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @InjectMocks
+    private NotificationStreamRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(registry, "timeoutMs", 60000L);
+        ReflectionTestUtils.setField(registry, "maxBufferedEvents", 16);
+        ReflectionTestUtils.setField(registry, "maxPerUser", 2);
+        ReflectionTestUtils.setField(registry, "replayLimit", 100);
+        ReflectionTestUtils.setField(registry, "retryMs", 5000L);
+        ReflectionTestUtils.setField(registry, "replayOverlapMs", 60000L);
+        ReflectionTestUtils.setField(registry, "senderThreads", 1);
+        ReflectionTestUtils.setField(registry, "objectMapper", objectMapper);
+        registry.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    private Notification newNotification(Long id, LocalDateTime createdDate) {
+        User user = new User();
+        user.setUserId(1L);
+        Notification notification = new Notification();
+        notification.setNotificationId(id);
+        notification.setUser(user);
+        notification.setTitle("Cita confirmada");
+        notification.setType(Notification.NotificationType.APPOINTMENT_CONFIRMED);
+        notification.setRead(false);
+        notification.setCreatedDate(createdDate);
+        return notification;
+    }
+
+    private void awaitSent(long expected) throws InterruptedException {
+        for (int i = 0; i < 100 && registry.getSentCount() < expected; i++) {
+            Thread.sleep(20);
+        }
+        Thread.sleep(50);
+        assertEquals(expected, registry.getSentCount());
+    }
+
+    @Test
+    @DisplayName("Debería reanudar un Last-Event-ID solo numérico por ID de notificación")
+    void testSubscribeReplaysMissedNotifications() {
+        // Given
+        Notification missed = newNotification(11L, LocalDateTime.now());
+        when(notificationRepository.findByUserUserIdAndNotificationIdGreaterThanOrderByNotificationIdAsc(
+                eq(1L), eq(10L), any(Pageable.class))).thenReturn(List.of(missed));
+
+        // When
+        assertNotNull(registry.subscribe(1L, "10"));
+
+        // Then
+        verify(notificationRepository).findByUserUserIdAndNotificationIdGreaterThanOrderByNotificationIdAsc(
+                eq(1L), eq(10L), any(Pageable.class));
+        assertEquals(1, registry.getConnectionCount());
+    }
+
+    @Test
+    @DisplayName("Debería reanudar por fecha con solape y reenviar una notificación con ID menor confirmada después")
+    void testSubscribeResumesFromCreatedDateCursor() throws Exception {
+        // Given: la 7 (bloque de IDs de otro nodo) se confirmó después de recibir la 12
+        LocalDateTime lastCreated = LocalDateTime.of(2026, 10, 19, 10, 15, 30);
+        Notification received = newNotification(12L, lastCreated);
+        Notification lateCommit = newNotification(7L, lastCreated.minusSeconds(2));
+        when(notificationRepository.findByUserUserIdAndCreatedDateGreaterThanEqualOrderByCreatedDateAscNotificationIdAsc(
+                eq(1L), eq(lastCreated.minusSeconds(60)), any(Pageable.class)))
+                .thenReturn(List.of(lateCommit, received));
+
+        // When
+        registry.subscribe(1L, "2026-10-19T10:15:30_12");
+
+        // Then: el comentario de conexión y la 7; la 12 ya la tenía
+        awaitSent(2);
+    }
+
+    @Test
+    @DisplayName("Debería usar la fecha de creación y el ID de la notificación como ID del evento")
+    void testFormatsEventIdAsCursor() {
+        // Given
+        NotificationDTO dto = new NotificationDTO();
+        dto.setNotificationId(12L);
+        dto.setCreatedDate(LocalDateTime.of(2026, 10, 19, 10, 15, 30, 123_000_000));
+
+        // When
+        String eventId = NotificationStreamRegistry.ResumeCursor.format(dto);
+
+        // Then
+        assertEquals("2026-10-19T10:15:30_12", eventId);
+        NotificationStreamRegistry.ResumeCursor cursor = NotificationStreamRegistry.ResumeCursor.parse(eventId);
+        assertEquals(12L, cursor.notificationId);
+        assertEquals(LocalDateTime.of(2026, 10, 19, 10, 15, 30), cursor.createdDate);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un Last-Event-ID no válido")
+    void testSubscribeRejectsInvalidLastEventId() {
+        assertThrows(IllegalArgumentException.class, () -> registry.subscribe(1L, "ayer_12"));
+        assertEquals(0, registry.getConnectionCount());
+    }
+
+    @Test
+    @DisplayName("Debería enviar a otros nodos las notificaciones publicadas y entregar las que llegan de ellos")
+    void testPublishFansOutThroughCluster() throws Exception {
+        // Given
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(clusterBroadcaster).subscribe(eq(NotificationStreamRegistry.PUBLISH_CHANNEL), listener.capture());
+        when(clusterBroadcaster.isConnected()).thenReturn(true);
+        NotificationDTO dto = NotificationService.toDTO(newNotification(12L, LocalDateTime.now()));
+        registry.subscribe(1L, null);
+
+        // When
+        registry.publish(List.of(dto));
+        listener.getValue().accept(objectMapper.writeValueAsString(List.of(dto)));
+
+        // Then: el comentario de conexión, la publicada aquí y la que llega de otro nodo
+        verify(clusterBroadcaster).publish(NotificationStreamRegistry.PUBLISH_CHANNEL,
+                objectMapper.writeValueAsString(List.of(dto)));
+        awaitSent(3);
+    }
+
+    @Test
+    @DisplayName("Debería cerrar la conexión más antigua al superar el máximo por usuario")
+    void testSubscribeLimitsConnectionsPerUser() {
+        // When
+        registry.subscribe(1L, null);
+        registry.subscribe(1L, null);
+        registry.subscribe(1L, null);
+        registry.subscribe(2L, null);
+
+        // Then
+        assertEquals(3, registry.getConnectionCount());
+        verify(notificationRepository, never())
+                .findByUserUserIdAndNotificationIdGreaterThanOrderByNotificationIdAsc(anyLong(), anyLong(), any());
+    }
+}
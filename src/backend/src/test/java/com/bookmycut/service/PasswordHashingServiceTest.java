@@ -0,0 +1,115 @@
+package com.bookmycut.service;
+
+import com.bookmycut.exception.ServiceUnavailableException;
+import com.bookmycut.security.SecurityConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests Unitarios para PasswordHashingService")
+class PasswordHashingServiceTest {
+
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    void setUp() {
+        SecurityConfig securityConfig = new SecurityConfig();
+        ReflectionTestUtils.setField(securityConfig, "bcryptStrength", 4);
+        passwordHashingService = newService(securityConfig.passwordEncoder(), 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    private PasswordHashingService newService(PasswordEncoder encoder, int threads, int queueCapacity) {
+        PasswordHashingService service = new PasswordHashingService();
+        ReflectionTestUtils.setField(service, "passwordEncoder", encoder);
+        ReflectionTestUtils.setField(service, "threads", threads);
+        ReflectionTestUtils.setField(service, "queueCapacity", queueCapacity);
+        service.init();
+        return service;
+    }
+
+    @Test
+    @DisplayName("Debería codificar con bcrypt y verificar la contraseña")
+    void testEncodeAndMatches() {
+        String encoded = passwordHashingService.encode("password123");
+
+        assertTrue(encoded.startsWith("{bcrypt}"));
+        assertTrue(passwordHashingService.matches("password123", encoded));
+        assertFalse(passwordHashingService.matches("otra", encoded));
+        assertFalse(passwordHashingService.needsRehash(encoded));
+        assertEquals(3, passwordHashingService.getCompletedCount());
+    }
+
+    @Test
+    @DisplayName("Debería aceptar contraseñas antiguas en texto plano y marcarlas para migrar")
+    void testLegacyPlainTextPassword() {
+        assertTrue(passwordHashingService.matches("password123", "password123"));
+        assertFalse(passwordHashingService.matches("otra", "password123"));
+        assertTrue(passwordHashingService.needsRehash("password123"));
+    }
+
+    @Test
+    @DisplayName("Una cuenta sin contraseña no debería coincidir con ninguna, tampoco con el propio marcador")
+    void testNoLoginPasswordNeverMatches() {
+        assertFalse(passwordHashingService.matches(PasswordHashingService.NO_LOGIN_PASSWORD,
+                PasswordHashingService.NO_LOGIN_PASSWORD));
+        assertFalse(passwordHashingService.matches("", PasswordHashingService.NO_LOGIN_PASSWORD));
+        assertFalse(passwordHashingService.matches("nologin", PasswordHashingService.NO_LOGIN_PASSWORD));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar con 503 cuando la cola de hashing está llena")
+    void testRejectsWhenSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+        passwordHashingService.shutdown();
+        passwordHashingService = newService(blockingEncoder, 1, 1);
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // Un hilo ocupa el pool y otro la única posición de la cola
+            callers.submit(() -> passwordHashingService.encode("a"));
+            callers.submit(() -> passwordHashingService.encode("b"));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (passwordHashingService.getQueueSize() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertThrows(ServiceUnavailableException.class, () -> passwordHashingService.encode("c"));
+            assertEquals(1, passwordHashingService.getRejectedCount());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            callers.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
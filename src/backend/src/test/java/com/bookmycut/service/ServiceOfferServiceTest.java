@@ -37,6 +37,9 @@ class ServiceOfferServiceTest {
     @Mock
     private ServiceOfferMapper serviceOfferMapper;
 
+    @Mock
+    private PublicReadCoalescer publicReadCoalescer;
+
     @InjectMocks
     private ServiceOfferService serviceOfferService;
 
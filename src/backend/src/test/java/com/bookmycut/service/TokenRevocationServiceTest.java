@@ -0,0 +1,209 @@
+package com.bookmycut.service;
+
+import com.bookmycut.entities.RevokedToken;
+import com.bookmycut.repositories.RevokedTokenRepository;
+import com.bookmycut.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests Unitarios para TokenRevocationService")
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private ClusterBroadcaster clusterBroadcaster;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    private Date issuedAt;
+
+    @BeforeEach
+    void setUp() {
+        issuedAt = new Date(System.currentTimeMillis() - 60_000);
+        when(revokedTokenRepository.findByExpiresAtAfter(any(LocalDateTime.class))).thenReturn(List.of());
+        tokenRevocationService.init();
+    }
+
+    /** Instante truncado a segundos, como el iat de un token emitido en ese momento. */
+    private static Date issuedAtSecond(long millis) {
+        return new Date(millis - millis % 1000);
+    }
+
+    private Claims claims(String tokenId, Long userId, Date issued) {
+        return Jwts.claims()
+                .id(tokenId)
+                .subject("usuario@test.com")
+                .add("usuarioId", userId)
+                .issuedAt(issued)
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Un token no revocado debería aceptarse")
+    void testTokenNotRevoked() {
+        assertFalse(tokenRevocationService.isRevoked(claims("jti-1", 1L, issuedAt)));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un token revocado en el logout")
+    void testRevokeToken() {
+        // Given
+        Claims revoked = claims("jti-1", 1L, issuedAt);
+        when(jwtUtil.extractAllClaims("token")).thenReturn(revoked);
+
+        // When
+        tokenRevocationService.revokeToken("token");
+
+        // Then
+        assertTrue(tokenRevocationService.isRevoked(revoked));
+        assertFalse(tokenRevocationService.isRevoked(claims("jti-2", 1L, issuedAt)));
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    @DisplayName("Debería ignorar la revocación de un token no válido")
+    void testRevokeInvalidToken() {
+        // Given
+        when(jwtUtil.extractAllClaims("invalido")).thenThrow(new IllegalArgumentException("token no válido"));
+
+        // When
+        tokenRevocationService.revokeToken("invalido");
+
+        // Then
+        verify(revokedTokenRepository, never()).save(any(RevokedToken.class));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar los tokens emitidos antes de revocar al usuario o en el mismo segundo")
+    void testRevokeAllForUser() {
+        // Given
+        Date previousSecond = issuedAtSecond(System.currentTimeMillis() - 1_000);
+
+        // When
+        tokenRevocationService.revokeAllForUser(1L);
+
+        // Then
+        assertTrue(tokenRevocationService.isRevoked(claims("jti-1", 1L, issuedAt)));
+        assertTrue(tokenRevocationService.isRevoked(claims("jti-2", 1L, previousSecond)));
+        assertFalse(tokenRevocationService.isRevoked(claims("jti-3", 2L, issuedAt)));
+    }
+
+    @Test
+    @DisplayName("Un token con el iat del segundo de la revocación debería rechazarse")
+    void testRevokeAllForUserRejectsSameSecond() {
+        // When
+        tokenRevocationService.revokeAllForUser(1L);
+
+        // Then: el iat no distingue un token emitido justo antes de la revocación de uno posterior en el mismo segundo
+        ArgumentCaptor<RevokedToken> saved = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository).save(saved.capture());
+        long revokedAt = saved.getValue().getRevokedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        assertTrue(tokenRevocationService.isRevoked(claims("jti-1", 1L, issuedAtSecond(revokedAt))));
+        assertFalse(tokenRevocationService.isRevoked(claims("jti-2", 1L, issuedAtSecond(revokedAt + 1_000))));
+    }
+
+    @Test
+    @DisplayName("Debería guardar la revocación del usuario truncada a segundos y avisar al resto de nodos")
+    void testRevokeAllForUserStoresSeconds() {
+        // When
+        tokenRevocationService.revokeAllForUser(1L);
+
+        // Then
+        ArgumentCaptor<RevokedToken> saved = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository).save(saved.capture());
+        assertEquals(0, saved.getValue().getRevokedAt().getNano());
+        verify(clusterBroadcaster).publish(eq(TokenRevocationService.REVOCATION_CHANNEL), startsWith("usuario:1 "));
+    }
+
+    @Test
+    @DisplayName("Debería aplicar las revocaciones avisadas por otros nodos")
+    @SuppressWarnings("unchecked")
+    void testRemoteRevocation() {
+        // Given
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(clusterBroadcaster).subscribe(eq(TokenRevocationService.REVOCATION_CHANNEL), listener.capture());
+        long now = System.currentTimeMillis();
+
+        // When
+        listener.getValue().accept("jti-1 " + now + " " + (now + 3_600_000));
+
+        // Then
+        assertTrue(tokenRevocationService.isRevoked(claims("jti-1", 1L, issuedAt)));
+        assertFalse(tokenRevocationService.isRevoked(claims("jti-2", 1L, issuedAt)));
+    }
+
+    @Test
+    @DisplayName("La relectura periódica debería incorporar las revocaciones guardadas por otros nodos")
+    void testRefresh() {
+        // Given
+        RevokedToken remote = new RevokedToken("usuario:1", 1L, LocalDateTime.now().withNano(0), LocalDateTime.now().plusHours(1));
+        when(revokedTokenRepository.findByRevokedAtAfter(any(LocalDateTime.class))).thenReturn(List.of(remote));
+        assertFalse(tokenRevocationService.isRevoked(claims("jti-1", 1L, issuedAt)));
+
+        // When
+        tokenRevocationService.refresh();
+
+        // Then
+        assertTrue(tokenRevocationService.isRevoked(claims("jti-1", 1L, issuedAt)));
+        verify(clusterBroadcaster, never()).publish(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Debería cargar las revocaciones vigentes al arrancar")
+    void testLoadRevocations() {
+        // Given
+        RevokedToken stored = new RevokedToken("jti-1", 1L, LocalDateTime.now().minusMinutes(5), LocalDateTime.now().plusHours(1));
+        when(revokedTokenRepository.findByExpiresAtAfter(any(LocalDateTime.class))).thenReturn(List.of(stored));
+
+        // When
+        tokenRevocationService.loadRevocations();
+
+        // Then
+        assertTrue(tokenRevocationService.isRevoked(claims("jti-1", 1L, issuedAt)));
+    }
+
+    @Test
+    @DisplayName("La compactación debería descartar las revocaciones expiradas")
+    void testCompact() {
+        // Given
+        RevokedToken expired = new RevokedToken("jti-1", 1L, LocalDateTime.now().minusHours(2), LocalDateTime.now().minusSeconds(1));
+        when(revokedTokenRepository.findByExpiresAtAfter(any(LocalDateTime.class))).thenReturn(List.of(expired));
+        tokenRevocationService.loadRevocations();
+        when(revokedTokenRepository.deleteExpired(any(LocalDateTime.class))).thenReturn(1);
+
+        // When
+        tokenRevocationService.compact();
+
+        // Then
+        assertFalse(tokenRevocationService.isRevoked(claims("jti-1", 1L, issuedAt)));
+        verify(revokedTokenRepository).deleteExpired(any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,142 @@
+package com.bookmycut.tenancy;
+
+import com.bookmycut.entities.Appointment;
+import com.bookmycut.entities.ServiceOffer;
+import com.bookmycut.entities.User;
+import com.bookmycut.repositories.AppointmentRepository;
+import com.bookmycut.repositories.ServiceOfferRepository;
+import com.bookmycut.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Filtro salonFilter sobre los repositorios, con dos salones en la base de datos compartida (H2) que tienen
+ * el mismo cliente (mismo email), un estilista con el mismo username, un servicio y una cita.
+ *
+ * Las pruebas no son transaccionales: cada llamada al repositorio abre su EntityManager con el salón del
+ * contexto en ese momento, como una petición después de {@link TenantFilter}.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect="
+})
+@Import({TenancyConfig.class, TenantDataSources.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Tests de integración del filtro de salón en los repositorios")
+class SalonFilterRepositoryTest {
+
+    private static final String CLIENT_EMAIL = "cliente@bookmycut.com";
+    private static final String STYLIST_USERNAME = "estilista";
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 15);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceOfferRepository serviceOfferRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @BeforeEach
+    void setUp() {
+        seedSalon(1L);
+        seedSalon(2L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        appointmentRepository.deleteAll();
+        serviceOfferRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private void seedSalon(Long salonId) {
+        TenantContext.runAs(salonId, null, () -> {
+            User client = userRepository.save(user("Cliente " + salonId, null, CLIENT_EMAIL, User.Role.CLIENTE));
+            User stylist = userRepository.save(user("Estilista " + salonId, STYLIST_USERNAME, null, User.Role.ESTILISTA));
+            ServiceOffer service = new ServiceOffer();
+            service.setName("Corte " + salonId);
+            service.setDuration(30);
+            service.setUnitPrice(new BigDecimal("15.00"));
+            serviceOfferRepository.save(service);
+
+            Appointment appointment = new Appointment();
+            appointment.setClient(client);
+            appointment.setStylist(stylist);
+            appointment.setDate(DATE);
+            appointment.setStartTime(LocalTime.of(10, 0));
+            appointment.setEndTime(LocalTime.of(10, 30));
+            appointment.setTotalPrice(new BigDecimal("15.00"));
+            appointmentRepository.save(appointment);
+        });
+    }
+
+    private static User user(String name, String username, String email, User.Role role) {
+        User user = new User();
+        user.setName(name);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword("password123");
+        user.setRole(role);
+        return user;
+    }
+
+    @Test
+    @DisplayName("findByUsernameOrEmail debería devolver solo el usuario del salón de la petición")
+    void testFindByUsernameOrEmail() {
+        // When
+        Optional<User> client = TenantContext.callAs(2L, null, () -> userRepository.findByUsernameOrEmail(CLIENT_EMAIL));
+        Optional<User> stylist = TenantContext.callAs(1L, null, () -> userRepository.findByUsernameOrEmail(STYLIST_USERNAME));
+
+        // Then
+        assertTrue(client.isPresent());
+        assertEquals(2L, client.get().getSalonId());
+        assertEquals("Cliente 2", client.get().getName());
+        assertTrue(stylist.isPresent());
+        assertEquals(1L, stylist.get().getSalonId());
+    }
+
+    @Test
+    @DisplayName("Los listados deberían ocultar las filas de otros salones")
+    void testListingsHideOtherSalons() {
+        // When
+        List<User> stylists = TenantContext.callAs(2L, null,
+                () -> userRepository.findByRoleAndActive(User.Role.ESTILISTA, true));
+        List<ServiceOffer> services = TenantContext.callAs(2L, null, () -> serviceOfferRepository.findAll());
+        List<Appointment> appointments = TenantContext.callAs(2L, null, () -> appointmentRepository.findByDate(DATE));
+        long users = TenantContext.callAs(2L, null, () -> userRepository.count());
+
+        // Then
+        assertEquals(List.of("Estilista 2"), stylists.stream().map(User::getName).toList());
+        assertEquals(List.of("Corte 2"), services.stream().map(ServiceOffer::getName).toList());
+        assertEquals(1, appointments.size());
+        assertEquals(2L, appointments.get(0).getSalonId());
+        assertEquals(2, users);
+    }
+
+    @Test
+    @DisplayName("Sin salón en el contexto (tareas en segundo plano) debería ver todos los salones")
+    void testWithoutSalonSeesAllSalons() {
+        assertEquals(2, userRepository.findByRoleAndActive(User.Role.ESTILISTA, true).size());
+        assertEquals(2, serviceOfferRepository.count());
+        assertEquals(2, appointmentRepository.findByDate(DATE).size());
+    }
+}
@@ -0,0 +1,83 @@
+package com.bookmycut.tenancy;
+
+import com.bookmycut.entities.Appointment;
+import com.bookmycut.entities.Notification;
+import com.bookmycut.entities.User;
+import com.bookmycut.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests Unitarios para TenantEntityListener")
+class TenantEntityListenerTest {
+
+    private final TenantEntityListener listener = new TenantEntityListener();
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    private static User userOfSalon(Long salonId) {
+        User user = new User();
+        user.setSalonId(salonId);
+        return user;
+    }
+
+    @Test
+    @DisplayName("Al insertar debería tomar el salón del contexto")
+    void testAssignsSalonFromContext() {
+        // Given
+        TenantContext.set(2L, null);
+        User user = new User();
+
+        // When
+        listener.assignSalon(user);
+
+        // Then
+        assertEquals(2L, user.getSalonId());
+    }
+
+    @Test
+    @DisplayName("Sin contexto debería tomar el salón del destinatario o, en su defecto, el salón por defecto")
+    void testAssignsSalonFromOwnerOrDefault() {
+        // Given
+        Notification notification = new Notification();
+        notification.setUser(userOfSalon(3L));
+        Appointment appointment = new Appointment();
+
+        // When
+        listener.assignSalon(notification);
+        listener.assignSalon(appointment);
+
+        // Then
+        assertEquals(3L, notification.getSalonId());
+        assertEquals(TenantContext.DEFAULT_SALON_ID, appointment.getSalonId());
+    }
+
+    @Test
+    @DisplayName("No debería insertar una entidad de otro salón")
+    void testRejectsPersistFromOtherSalon() {
+        // Given
+        TenantContext.set(2L, null);
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> listener.assignSalon(userOfSalon(3L)));
+    }
+
+    @Test
+    @DisplayName("Una fila de otro salón cargada por ID debería tratarse como inexistente")
+    void testHidesRowsFromOtherSalon() {
+        // Given
+        TenantContext.set(2L, null);
+
+        // When / Then
+        assertDoesNotThrow(() -> listener.checkSalon(userOfSalon(2L)));
+        assertThrows(ResourceNotFoundException.class, () -> listener.checkSalon(userOfSalon(3L)));
+
+        TenantContext.clear();
+        assertDoesNotThrow(() -> listener.checkSalon(userOfSalon(3L)));
+    }
+}
@@ -0,0 +1,176 @@
+package com.bookmycut.tenancy;
+
+import com.bookmycut.security.JwtAuthenticationFilter;
+import com.bookmycut.service.TokenRevocationService;
+import com.bookmycut.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Resolución del salón de la petición con dos salones: el 2, en salon2.bookmycut.com y con la base de datos
+ * compartida, y el 3, en salon3.bookmycut.com y con base de datos propia. Los tokens se generan y validan con
+ * {@link JwtUtil} y {@link JwtAuthenticationFilter}, como en la cadena de seguridad.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de TenantFilter con MockMvc")
+class TenantFilterTest {
+
+    private static final String HOST_SALON_2 = "salon2.bookmycut.com";
+    private static final String HOST_SALON_3 = "salon3.bookmycut.com";
+
+    @Mock
+    private SalonDirectory salonDirectory;
+
+    @Mock
+    private TenantDataSources tenantDataSources;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private TenantFilter tenantFilter;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+
+    private MockMvc mockMvc;
+
+    /** Devuelve el salón y la base de datos del contexto mientras se procesa la petición. */
+    @RestController
+    static class TenantEchoController {
+
+        @GetMapping("/api/salon")
+        String salon() {
+            return TenantContext.getSalonId() + "/" + TenantContext.getDataSourceKey();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtUtil, "secret", "bookmycut-test-secret-key-minimum-32-chars");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+
+        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(jwtFilter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(jwtFilter, "tokenRevocationService", tokenRevocationService);
+        lenient().when(tokenRevocationService.isRevoked(any())).thenReturn(false);
+
+        lenient().when(salonDirectory.salonForHost(anyString())).thenReturn(null);
+        lenient().when(salonDirectory.salonForHost(HOST_SALON_2)).thenReturn(2L);
+        lenient().when(salonDirectory.salonForHost(HOST_SALON_3)).thenReturn(3L);
+        lenient().when(tenantDataSources.dataSourceKey(anyLong())).thenReturn(null);
+        lenient().when(tenantDataSources.dataSourceKey(3L)).thenReturn(3L);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new TenantEchoController())
+                .addFilters(jwtFilter, tenantFilter)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    /** Token emitido en el salón indicado, como el de un login en su dominio. */
+    private String tokenOfSalon(Long salonId) {
+        return TenantContext.callAs(salonId, null,
+                () -> jwtUtil.generateToken("cliente@bookmycut.com", 10L, List.of("ROLE_CLIENTE")));
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        try {
+            return mockMvc.perform(request);
+        } finally {
+            // Sin la cadena de seguridad completa nadie limpia la autenticación entre peticiones
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static MockHttpServletRequestBuilder onHost(String host) {
+        return get("http://" + host + "/api/salon");
+    }
+
+    @Test
+    @DisplayName("Debería rechazar con 403 un token de un salón usado en el dominio de otro")
+    void testRejectsTokenOfAnotherSalon() throws Exception {
+        perform(onHost(HOST_SALON_3).header("Authorization", "Bearer " + tokenOfSalon(2L)))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.status").value(403))
+                .andExpect(jsonPath("$.message").value("El token no pertenece al salón de este dominio"));
+
+        assertNull(TenantContext.getSalonId());
+    }
+
+    @Test
+    @DisplayName("El salón del token debería prevalecer sobre el dominio y el salón por defecto")
+    void testTokenSalonFirst() throws Exception {
+        // Mismo salón en el token y en el dominio
+        perform(onHost(HOST_SALON_2).header("Authorization", "Bearer " + tokenOfSalon(2L)))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2/null"));
+
+        // Dominio que no es de ningún salón: manda el token
+        perform(onHost("localhost").header("Authorization", "Bearer " + tokenOfSalon(3L)))
+                .andExpect(status().isOk())
+                .andExpect(content().string("3/3"));
+    }
+
+    @Test
+    @DisplayName("Sin token debería usar el salón del dominio y, si no hay, el salón por defecto")
+    void testHostThenDefault() throws Exception {
+        perform(onHost(HOST_SALON_2))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2/null"));
+
+        perform(onHost(HOST_SALON_3))
+                .andExpect(status().isOk())
+                .andExpect(content().string("3/3"));
+
+        perform(onHost("localhost"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(TenantContext.DEFAULT_SALON_ID + "/null"));
+    }
+
+    @Test
+    @DisplayName("Un token sin salón (anterior a la multi-tenencia) debería resolverse por el dominio")
+    void testTokenWithoutSalonUsesHost() throws Exception {
+        String legacyToken = jwtUtil.generateToken("cliente@bookmycut.com", 10L, List.of("ROLE_CLIENTE"));
+
+        perform(onHost(HOST_SALON_3).header("Authorization", "Bearer " + legacyToken))
+                .andExpect(status().isOk())
+                .andExpect(content().string("3/3"));
+
+        verify(tokenRevocationService).isRevoked(any());
+        assertNull(TenantContext.getSalonId());
+    }
+}
@@ -0,0 +1,110 @@
+package com.bookmycut.tenancy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Elección de la base de datos por salón con dos salones: el 2 en la base de datos compartida y el 3 con
+ * base de datos propia en {@code tenancy.datasources.3}.
+ */
+@DisplayName("Tests de TenantRoutingDataSource")
+class TenantRoutingDataSourceTest {
+
+    private TenancyConfig.TenantDataSourcePostProcessor postProcessor;
+    private DataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("tenancy.datasources.3.url", "jdbc:h2:mem:salon3;DB_CLOSE_DELAY=-1")
+                .withProperty("tenancy.datasources.3.username", "sa")
+                .withProperty("tenancy.datasources.3.password", "");
+        postProcessor = new TenancyConfig.TenantDataSourcePostProcessor(environment);
+
+        JdbcDataSource shared = new JdbcDataSource();
+        shared.setURL("jdbc:h2:mem:compartida;DB_CLOSE_DELAY=-1");
+        shared.setUser("sa");
+        routing = (DataSource) postProcessor.postProcessAfterInitialization(shared, "dataSource");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        postProcessor.destroy();
+    }
+
+    private static String urlOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    @Test
+    @DisplayName("Debería sustituir el dataSource por uno que enruta a la base de datos propia del salón")
+    void testReplacesDataSource() {
+        TenantRoutingDataSource tenantRouting = assertInstanceOf(TenantRoutingDataSource.class, routing);
+        HikariDataSource dedicated = assertInstanceOf(HikariDataSource.class,
+                tenantRouting.getDedicatedDataSources().get(3L));
+        assertEquals("salon-3", dedicated.getPoolName());
+        assertEquals(1, tenantRouting.getDedicatedDataSources().size());
+    }
+
+    @Test
+    @DisplayName("Debería dar conexiones del pool propio al salón 3 y de la compartida al salón 2")
+    void testPicksDedicatedPool() throws SQLException {
+        TenantDataSources tenantDataSources = new TenantDataSources(routing);
+
+        String salon3 = TenantContext.callAs(3L, tenantDataSources.dataSourceKey(3L), () -> url());
+        String salon2 = TenantContext.callAs(2L, tenantDataSources.dataSourceKey(2L), () -> url());
+        String withoutSalon = urlOf(routing);
+
+        assertEquals(3L, tenantDataSources.dataSourceKey(3L));
+        assertNull(tenantDataSources.dataSourceKey(2L));
+        assertTrue(salon3.contains("salon3"), salon3);
+        assertTrue(salon2.contains("compartida"), salon2);
+        assertTrue(withoutSalon.contains("compartida"), withoutSalon);
+    }
+
+    @Test
+    @DisplayName("forEach debería ejecutar la tarea en la compartida y después en la del salón 3")
+    void testForEachVisitsEveryDatabase() {
+        TenantDataSources tenantDataSources = new TenantDataSources(routing);
+        StringBuilder visited = new StringBuilder();
+
+        tenantDataSources.forEach(() -> visited.append(TenantContext.getDataSourceKey()).append(':').append(url()).append('\n'));
+
+        String[] lines = visited.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("null:") && lines[0].contains("compartida"), lines[0]);
+        assertTrue(lines[1].startsWith("3:") && lines[1].contains("salon3"), lines[1]);
+    }
+
+    @Test
+    @DisplayName("Sin bases de datos propias debería dejar el dataSource sin cambios")
+    void testWithoutDedicatedDataSources() {
+        TenancyConfig.TenantDataSourcePostProcessor withoutTenants =
+                new TenancyConfig.TenantDataSourcePostProcessor(new MockEnvironment());
+        JdbcDataSource shared = new JdbcDataSource();
+
+        assertSame(shared, withoutTenants.postProcessAfterInitialization(shared, "dataSource"));
+    }
+
+    private String url() {
+        try {
+            return urlOf(routing);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bookmycut.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests Unitarios para HierarchicalTimingWheel")
+class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private HierarchicalTimingWheel<Long> wheel;
+    private List<Long> fired;
+
+    @BeforeEach
+    void setUp() {
+        // Tick de 1 s, 8 huecos y 3 niveles: alcance de 512 s antes del desbordamiento
+        wheel = new HierarchicalTimingWheel<>(1000, 8, 3, START);
+        fired = new ArrayList<>();
+    }
+
+    @Test
+    @DisplayName("Debería disparar cada tarea en su tick, también las de niveles superiores y desbordadas")
+    void testFiresAtDeadline() {
+        // Given
+        wheel.schedule(1L, START + 3_000);
+        wheel.schedule(2L, START + 70_000);
+        wheel.schedule(3L, START + 2_000_000);
+
+        // When / Then
+        wheel.advanceTo(START + 2_999, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advanceTo(START + 3_000, fired::add);
+        assertEquals(List.of(1L), fired);
+
+        wheel.advanceTo(START + 69_999, fired::add);
+        assertEquals(List.of(1L), fired);
+        wheel.advanceTo(START + 70_000, fired::add);
+        assertEquals(List.of(1L, 2L), fired);
+
+        wheel.advanceTo(START + 1_999_999, fired::add);
+        assertEquals(2, fired.size());
+        wheel.advanceTo(START + 2_000_000, fired::add);
+        assertEquals(List.of(1L, 2L, 3L), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Cancelar o reprogramar debería sustituir la tarea anterior")
+    void testCancelAndReschedule() {
+        // Given
+        wheel.schedule(1L, START + 5_000);
+        wheel.schedule(2L, START + 5_000);
+        wheel.schedule(2L, START + 20_000);
+
+        // When
+        assertTrue(wheel.cancel(1L));
+        wheel.advanceTo(START + 10_000, fired::add);
+
+        // Then
+        assertTrue(fired.isEmpty());
+        wheel.advanceTo(START + 20_000, fired::add);
+        assertEquals(List.of(2L), fired);
+        assertFalse(wheel.cancel(2L));
+    }
+
+    @Test
+    @DisplayName("Las tareas ya vencidas deberían dispararse en el siguiente avance")
+    void testPastDeadlineFiresImmediately() {
+        // Given
+        wheel.schedule(1L, START - 60_000);
+
+        // When
+        int count = wheel.advanceTo(START, fired::add);
+
+        // Then
+        assertEquals(1, count);
+        assertEquals(List.of(1L), fired);
+    }
+}
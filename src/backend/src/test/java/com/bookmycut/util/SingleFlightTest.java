@@ -0,0 +1,142 @@
+package com.bookmycut.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tests Unitarios para SingleFlight")
+class SingleFlightTest {
+
+    private static final long TTL = TimeUnit.SECONDS.toNanos(1);
+
+    private AtomicLong now;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000_000L);
+        loads = new AtomicInteger();
+    }
+
+    private String load(String value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+    @Test
+    @DisplayName("Las llamadas simultáneas con la misma clave deberían compartir un único cálculo")
+    void testConcurrentCallersShareOneLoad() throws Exception {
+        // Given
+        SingleFlight<String, String> flights = new SingleFlight<>(0, 100);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            Future<String> first = executor.submit(() -> flights.get("estilista=3", () -> {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return load("horario");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> second = executor.submit(() -> flights.get("estilista=3", () -> load("otro")));
+            Thread.sleep(100);
+            assertFalse(second.isDone());
+            release.countDown();
+
+            // Then
+            assertEquals("horario", first.get(5, TimeUnit.SECONDS));
+            assertEquals("horario", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+            assertEquals(1, flights.getSharedCount());
+            assertEquals(0, flights.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Debería reutilizar el resultado durante el TTL y calcularlo de nuevo al caducar")
+    void testReusesResultUntilExpiry() {
+        // Given
+        SingleFlight<String, String> flights = new SingleFlight<>(TTL, 100, now::get);
+        flights.get("estilista=3", () -> load("v1"));
+
+        // When / Then
+        now.addAndGet(TTL - 1);
+        assertEquals("v1", flights.get("estilista=3", () -> load("v2")));
+        assertEquals(1, loads.get());
+
+        now.addAndGet(1);
+        assertEquals("v2", flights.get("estilista=3", () -> load("v2")));
+        assertEquals(2, loads.get());
+        assertEquals(2, flights.getLoadCount());
+    }
+
+    @Test
+    @DisplayName("Un fallo no debería conservarse: la siguiente llamada calcula de nuevo")
+    void testFailureIsNotRetained() {
+        // Given
+        SingleFlight<String, String> flights = new SingleFlight<>(TTL, 100, now::get);
+
+        // When
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> flights.get("estilista=3", () -> {
+                    throw new IllegalStateException("Base de datos no disponible");
+                }));
+
+        // Then
+        assertEquals("Base de datos no disponible", error.getMessage());
+        assertEquals(0, flights.size());
+        assertEquals("v1", flights.get("estilista=3", () -> load("v1")));
+    }
+
+    @Test
+    @DisplayName("Debería descartar solo las claves invalidadas")
+    void testInvalidate() {
+        // Given
+        SingleFlight<String, String> flights = new SingleFlight<>(TTL, 100, now::get);
+        flights.get("disponibilidades?3", () -> load("a"));
+        flights.get("servicios?3", () -> load("b"));
+
+        // When
+        flights.invalidate(key -> key.startsWith("disponibilidades?"));
+
+        // Then
+        assertEquals(1, flights.size());
+        assertEquals("b", flights.get("servicios?3", () -> load("b2")));
+        assertEquals("a2", flights.get("disponibilidades?3", () -> load("a2")));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Por encima de maxEntries no debería conservar los resultados nuevos")
+    void testMaxEntries() {
+        // Given
+        SingleFlight<String, String> flights = new SingleFlight<>(TTL, 1, now::get);
+        flights.get("a", () -> load("a"));
+
+        // When
+        flights.get("b", () -> load("b"));
+
+        // Then
+        assertEquals(1, flights.size());
+        assertEquals("a", flights.get("a", () -> load("a2")));
+        assertEquals(2, loads.get());
+    }
+}
@@ -73,6 +73,10 @@ export class NotificacionesComponent implements OnInit, OnDestroy {
   }
 
   markAsRead(notification: Notification): void {
+    if (this.notificationService.sendReadAck([notification.notificationId])) {
+      notification.read = true;
+      return;
+    }
     this.notificationService.markAsRead(notification.notificationId).subscribe({
       next: () => {
         notification.read = true;
@@ -85,6 +89,10 @@ export class NotificacionesComponent implements OnInit, OnDestroy {
   }
 
   markAllAsRead(): void {
+    if (this.notificationService.sendAllReadAck()) {
+      this.notifications.forEach(n => n.read = true);
+      return;
+    }
     this.notificationService.markAllAsRead().subscribe({
       next: () => {
         this.notifications.forEach(n => n.read = true);
@@ -154,20 +154,23 @@ export class AuthService {
   }
 
   logout(): void {
-    // Limpiar primero el estado local
+    // Guardar el token antes de limpiar el estado local para poder revocarlo en el backend
+    const token = this.getToken();
     this.clearStorage();
     
-    // Intentar hacer logout en el backend (sin headers de autenticación)
-    // Pero no bloquear si falla, ya que el logout se maneja principalmente en el frontend
-    this.http.post(`${API_URL}/auth/logout`, {}, {
-      headers: {
-        'Content-Type': 'application/json'
-        // No incluir Authorization header
-      }
-    }).subscribe({
-      next: () => {},
-      error: () => {} // Ignorar errores en logout
-    });
+    // Revocar el token en el backend para que deje de ser válido aunque no haya expirado
+    // No bloquear si falla, ya que el estado local ya se ha limpiado
+    if (token) {
+      this.http.post(`${API_URL}/auth/logout`, {}, {
+        headers: {
+          'Content-Type': 'application/json',
+          'Authorization': `Bearer ${token}`
+        }
+      }).subscribe({
+        next: () => {},
+        error: () => {} // Ignorar errores en logout
+      });
+    }
     
     // Navegar a la página principal
     this.router.navigate(['/']);
@@ -21,6 +21,10 @@ export interface Notification {
   createdDate: string;
 }
 
+interface UnreadCountMessage {
+  unreadCount: number;
+}
+
 @Injectable({
   providedIn: 'root'
 })
@@ -52,10 +56,13 @@ export class NotificationService {
     }
 
     const socket = new SockJS(WS_URL);
+    const token = this.authService.getToken();
     this.stompClient = new Client({
       webSocketFactory: () => {
         return socket as any;
       },
+      // El token se valida una vez en el CONNECT; habilita los comandos /app/notificaciones/*
+      connectHeaders: token ? { Authorization: `Bearer ${token}` } : {},
       reconnectDelay: 5000,
       heartbeatIncoming: 4000,
       heartbeatOutgoing: 4000,
@@ -66,11 +73,26 @@ export class NotificationService {
     this.stompClient.onConnect = (frame) => {
       const user = this.authService.getCurrentUser();
       if (user && this.stompClient) {
-        this.stompClient.subscribe(`/topic/notifications/${user.usuarioId}`, (message) => {
+        this.stompClient.subscribe(`/topic/notifications.${user.usuarioId}`, (message) => {
           if (message.body) {
-            const notification: Notification = JSON.parse(message.body);
-            this.addNotification(notification);
-            this.refreshUnreadCount();
+            const payload: Notification | Notification[] | UnreadCountMessage = JSON.parse(message.body);
+            // Cambio del contador de no leídas enviado por el servidor
+            if (!Array.isArray(payload) && 'unreadCount' in payload) {
+              this.unreadCountSubject.next(payload.unreadCount);
+              return;
+            }
+            // El backend agrupa las notificaciones por usuario: llega un objeto o un array
+            const notifications = Array.isArray(payload) ? payload : [payload];
+            notifications.forEach(notification => this.addNotification(notification));
+            const unread = notifications.filter(notification => !notification.read).length;
+            this.unreadCountSubject.next(this.unreadCountSubject.value + unread);
+          }
+        });
+        // Contador devuelto a esta sesión tras confirmar lecturas por STOMP
+        this.stompClient.subscribe('/user/queue/notifications', (message) => {
+          if (message.body) {
+            const payload: UnreadCountMessage = JSON.parse(message.body);
+            this.unreadCountSubject.next(payload.unreadCount);
           }
         });
       }
@@ -129,6 +151,32 @@ export class NotificationService {
     });
   }
 
+  /**
+   * Confirma la lectura por la conexión STOMP ya abierta (el servidor agrupa las confirmaciones y
+   * devuelve el nuevo contador). Devuelve false si no hay conexión y hay que usar markAsRead.
+   */
+  sendReadAck(notificationIds: number[]): boolean {
+    if (!this.stompClient?.connected) {
+      return false;
+    }
+    this.stompClient.publish({
+      destination: '/app/notificaciones/markRead',
+      body: JSON.stringify(notificationIds)
+    });
+    return true;
+  }
+
+  /**
+   * Igual que sendReadAck, para todas las notificaciones del usuario.
+   */
+  sendAllReadAck(): boolean {
+    if (!this.stompClient?.connected) {
+      return false;
+    }
+    this.stompClient.publish({ destination: '/app/notificaciones/markAllRead' });
+    return true;
+  }
+
   markAllAsRead(): Observable<void> {
     return this.http.patch<void>(`${API_URL}/notificaciones/read-all`, {}, {
       headers: this.getHeaders()